@@ -9,6 +9,7 @@ from marshmallow import fields
 
 from ..core.plugin_registry import PluginRegistry
 from ..messaging.models.openapi import OpenAPISchema
+from ..utils.metrics import CONTENT_TYPE, MetricsRegistry
 from ..utils.stats import Collector
 from ..version import __version__
 from .decorators.auth import admin_authentication
@@ -72,6 +73,45 @@ class AdminShutdownSchema(OpenAPISchema):
     """Response schema for admin Module."""
 
 
+class WebsocketStatusSchema(OpenAPISchema):
+    """Schema for the status of an admin websocket client."""
+
+    socket_id = fields.Str(metadata={"description": "Websocket identifier"})
+    authenticated = fields.Boolean(
+        metadata={"description": "Whether the client is authenticated"}
+    )
+    topics = fields.List(
+        fields.Str(),
+        allow_none=True,
+        metadata={"description": "Subscribed topic patterns, or null for all"},
+    )
+    wallet_ids = fields.List(
+        fields.Str(),
+        allow_none=True,
+        metadata={"description": "Subscribed wallet identifiers, or null for all"},
+    )
+    queued = fields.Int(metadata={"description": "Number of events waiting to be sent"})
+    sent = fields.Int(metadata={"description": "Number of events sent"})
+    dropped = fields.Int(
+        metadata={"description": "Number of events dropped because the queue was full"}
+    )
+    lag = fields.Float(
+        metadata={"description": "Age of the oldest event waiting, in seconds"}
+    )
+    max_lag = fields.Float(
+        metadata={"description": "Longest delay in sending an event, in seconds"}
+    )
+
+
+class AdminWebsocketsStatusSchema(OpenAPISchema):
+    """Schema for the websockets status endpoint."""
+
+    results = fields.List(
+        fields.Nested(WebsocketStatusSchema()),
+        metadata={"description": "Connected admin websocket clients"},
+    )
+
+
 @docs(tags=["server"], summary="Fetch the list of loaded plugins")
 @response_schema(AdminModulesSchema(), 200, description="")
 @admin_authentication
@@ -179,6 +219,23 @@ async def status_handler(request: web.BaseRequest):
     return web.json_response(status)
 
 
+@docs(tags=["server"], summary="Fetch the status of admin websocket clients")
+@response_schema(AdminWebsocketsStatusSchema(), 200, description="")
+@admin_authentication
+async def websockets_status_handler(request: web.BaseRequest):
+    """Request handler for the status of the admin websocket clients.
+
+    Args:
+        request: aiohttp request object
+
+    Returns:
+        The web response
+
+    """
+    websocket_stats = request.app.get("websocket_stats")
+    return web.json_response({"results": websocket_stats() if websocket_stats else []})
+
+
 @docs(tags=["server"], summary="Reset statistics")
 @response_schema(AdminResetSchema(), 200, description="")
 @admin_authentication
@@ -198,6 +255,26 @@ async def status_reset_handler(request: web.BaseRequest):
     return web.json_response({})
 
 
+@docs(tags=["server"], summary="Fetch metrics in the Prometheus text format")
+@admin_authentication
+async def metrics_handler(request: web.BaseRequest):
+    """Request handler for the metrics exposition.
+
+    Args:
+        request: aiohttp request object
+
+    Returns:
+        The web response
+
+    """
+    registry = request.app["context"].inject_or(MetricsRegistry)
+    if not registry:
+        raise web.HTTPNotFound(reason="Metrics are not enabled")
+    return web.Response(
+        body=registry.render().encode(), headers={"Content-Type": CONTENT_TYPE}
+    )
+
+
 async def redirect_handler(request: web.BaseRequest):
     """Perform redirect to documentation."""
     raise web.HTTPFound("/api/doc")
@@ -9,7 +9,7 @@ from typing import Callable, Coroutine, Optional
 
 import aiohttp_cors
 import jwt
-from aiohttp import web
+from aiohttp import WSCloseCode, web
 from aiohttp_apispec import setup_aiohttp_apispec, validation_middleware
 from uuid_utils import uuid4
 
@@ -28,9 +28,9 @@ from ..storage.error import StorageNotFoundError
 from ..storage.type import RECORD_TYPE_ACAPY_UPGRADING
 from ..transport.outbound.message import OutboundMessage
 from ..transport.outbound.status import OutboundSendStatus
-from ..transport.queue.basic import BasicMessageQueue
 from ..utils import general as general_utils
 from ..utils.extract_validation_error import extract_validation_error_message
+from ..utils.metrics import MetricsRegistry
 from ..utils.server import remove_unwanted_headers
 from ..utils.stats import Collector
 from ..utils.task_queue import TaskQueue
@@ -46,12 +46,21 @@ from .request_context import AdminRequestContext
 from .routes import (
     config_handler,
     liveliness_handler,
+    metrics_handler,
     plugins_handler,
     readiness_handler,
     redirect_handler,
     shutdown_handler,
     status_handler,
     status_reset_handler,
+    websockets_status_handler,
+)
+from .websocket import (
+    DEFAULT_QUEUE_SIZE,
+    OVERFLOW_DROP_OLDEST,
+    WebsocketEvent,
+    WebsocketSubscriber,
+    WebsocketSubscribers,
 )
 
 LOGGER = logging.getLogger(__name__)
@@ -305,7 +314,7 @@ class AdminServer(BaseAdminServer):
         self.root_profile = root_profile
         self.task_queue = task_queue
         self.webhook_router = webhook_router
-        self.websocket_queues = {}
+        self.websocket_queues = WebsocketSubscribers(context.inject_or(MetricsRegistry))
         self.site = None
         self.multitenant_manager = context.inject_or(BaseMultitenantManager)
 
@@ -412,6 +421,8 @@ class AdminServer(BaseAdminServer):
             web.post("/status/reset", status_reset_handler),
             web.get("/status/live", liveliness_handler, allow_head=False),
             web.get("/status/ready", readiness_handler, allow_head=False),
+            web.get("/status/websockets", websockets_status_handler, allow_head=False),
+            web.get("/metrics", metrics_handler, allow_head=False),
             web.get("/shutdown", shutdown_handler, allow_head=False),
             web.get("/ws", self.websocket_handler, allow_head=False),
         ]
@@ -453,6 +464,7 @@ class AdminServer(BaseAdminServer):
         app["context"] = self.context
         app["conductor_stats"] = self.conductor_stats
         app["conductor_stop"] = self.conductor_stop
+        app["websocket_stats"] = self.websocket_queues.stats
 
         return app
 
@@ -531,8 +543,7 @@ class AdminServer(BaseAdminServer):
             return
 
         self.app._state["ready"] = False  # in case call does not come through OpenAPI
-        for queue in self.websocket_queues.values():
-            queue.stop()
+        self.websocket_queues.stop()
         if self.site:
             await self.site.stop()
             self.site = None
@@ -575,44 +586,90 @@ class AdminServer(BaseAdminServer):
         self.app._state["ready"] = False
         self.app._state["alive"] = False
 
-    async def websocket_handler(self, request):
-        """Send notifications to admin client over websocket."""
-        ws = web.WebSocketResponse()
-        await ws.prepare(request)
-        socket_id = str(uuid4())
-        queue = BasicMessageQueue()
-        loop = asyncio.get_event_loop()
+    def _websocket_subscriber(self, request: web.BaseRequest) -> WebsocketSubscriber:
+        """Create the subscriber for a websocket from its connection request.
 
-        if self.admin_insecure_mode:
-            # open to send websocket messages without api key auth
-            queue.authenticated = True
+        Clients may restrict the events they receive with the `topics` and
+        `wallet_id` query parameters, each a comma-separated list which may be
+        repeated. Topics may contain `*` wildcards. Tenants connecting with their
+        bearer token only ever receive the events of their own wallet.
+        """
+        query = request.query
+        topics = [
+            topic.strip()
+            for value in query.getall("topics", ())
+            for topic in value.split(",")
+            if topic.strip()
+        ]
+        wallet_ids = [
+            wallet_id.strip()
+            for value in query.getall("wallet_id", ())
+            for wallet_id in value.split(",")
+            if wallet_id.strip()
+        ]
+
+        context: Optional[AdminRequestContext] = request.get("context")
+        tenant_wallet_id = (
+            context.metadata.get("wallet_id")
+            if self.multitenant_manager and context and context.metadata
+            else None
+        )
+        if tenant_wallet_id:
+            wallet_ids = [tenant_wallet_id]
+
+        subscriber = WebsocketSubscriber(
+            str(uuid4()),
+            topics=topics,
+            wallet_ids=wallet_ids,
+            max_queue=self.context.settings.get_int(
+                "admin.websocket_queue_size", default=DEFAULT_QUEUE_SIZE
+            ),
+            overflow=self.context.settings.get_str(
+                "admin.websocket_overflow", default=OVERFLOW_DROP_OLDEST
+            ),
+        )
+        if self.admin_insecure_mode or tenant_wallet_id:
+            # open to send websocket messages without api key auth, or
+            # authenticated by the tenant token
+            subscriber.authenticated = True
         else:
             header_admin_api_key = request.headers.get("x-api-key")
             # authenticated via http header?
-            queue.authenticated = general_utils.const_compare(
+            subscriber.authenticated = general_utils.const_compare(
                 header_admin_api_key, self.admin_api_key
             )
+        return subscriber
+
+    async def websocket_handler(self, request):
+        """Send notifications to admin client over websocket."""
+        ws = web.WebSocketResponse()
+        await ws.prepare(request)
+        subscriber = self._websocket_subscriber(request)
+        loop = asyncio.get_event_loop()
 
         try:
-            self.websocket_queues[socket_id] = queue
-            await queue.enqueue(
-                {
-                    "topic": "settings",
-                    "payload": {
-                        "authenticated": queue.authenticated,
-                        "label": self.context.settings.get("default_label"),
-                        "endpoint": self.context.settings.get("default_endpoint"),
-                        "no_receive_invites": self.context.settings.get(
-                            "admin.no_receive_invites", False
-                        ),
-                        "help_link": self.context.settings.get("admin.help_link"),
+            self.websocket_queues.add(subscriber)
+            subscriber.offer(
+                WebsocketEvent(
+                    "settings",
+                    {
+                        "topic": "settings",
+                        "payload": {
+                            "authenticated": subscriber.authenticated,
+                            "label": self.context.settings.get("default_label"),
+                            "endpoint": self.context.settings.get("default_endpoint"),
+                            "no_receive_invites": self.context.settings.get(
+                                "admin.no_receive_invites", False
+                            ),
+                            "help_link": self.context.settings.get("admin.help_link"),
+                        },
                     },
-                }
+                )
             )
 
             closed = False
             receive = loop.create_task(ws.receive_json())
-            send = loop.create_task(queue.dequeue(timeout=5.0))
+            send = loop.create_task(subscriber.get(timeout=5.0))
 
             while not closed:
                 try:
@@ -636,27 +693,26 @@ class AdminServer(BaseAdminServer):
                                 self.admin_api_key, msg_api_key
                             ):
                                 # authenticated via websocket message
-                                queue.authenticated = True
+                                subscriber.authenticated = True
 
                             receive = loop.create_task(ws.receive_json())
 
                     if send.done():
-                        try:
-                            msg = send.result()
-                        except asyncio.TimeoutError:
-                            msg = None
-
-                        if msg is None:
-                            # we send fake pings because the JS client
-                            # can't detect real ones
-                            msg = {
-                                "topic": "ping",
-                                "authenticated": queue.authenticated,
-                            }
+                        event = send.result()
                         if not closed:
-                            if msg:
-                                await ws.send_json(msg)
-                            send = loop.create_task(queue.dequeue(timeout=5.0))
+                            if event:
+                                await ws.send_str(event.text)
+                                self.websocket_queues.record_sent(subscriber, event)
+                            else:
+                                # we send fake pings because the JS client
+                                # can't detect real ones
+                                await ws.send_json(
+                                    {
+                                        "topic": "ping",
+                                        "authenticated": subscriber.authenticated,
+                                    }
+                                )
+                            send = loop.create_task(subscriber.get(timeout=5.0))
 
                 except asyncio.CancelledError:
                     closed = True
@@ -665,9 +721,13 @@ class AdminServer(BaseAdminServer):
                 receive.cancel()
             if not send.done():
                 send.cancel()
+            if subscriber.overflowed and not ws.closed:
+                await ws.close(
+                    code=WSCloseCode.TRY_AGAIN_LATER, message=b"Too many pending events"
+                )
 
         finally:
-            del self.websocket_queues[socket_id]
+            self.websocket_queues.remove(subscriber)
 
         return ws
 
@@ -705,10 +765,8 @@ class AdminServer(BaseAdminServer):
                 )
 
         # set ws webhook body, optionally add wallet id for multitenant mode
-        webhook_body = {"topic": topic, "payload": payload}
-        if wallet_id:
-            webhook_body["wallet_id"] = wallet_id
-
-        for queue in self.websocket_queues.values():
-            if queue.authenticated or topic in ("ping", "settings"):
-                await queue.enqueue(webhook_body)
+        if len(self.websocket_queues):
+            webhook_body = {"topic": topic, "payload": payload}
+            if wallet_id:
+                webhook_body["wallet_id"] = wallet_id
+            self.websocket_queues.publish(WebsocketEvent(topic, webhook_body, wallet_id))
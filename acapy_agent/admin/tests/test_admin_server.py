@@ -22,6 +22,7 @@ from ...storage.error import StorageNotFoundError
 from ...storage.record import StorageRecord
 from ...storage.type import RECORD_TYPE_ACAPY_UPGRADING
 from ...tests import mock
+from ...utils.metrics import MetricsRegistry
 from ...utils.stats import Collector
 from ...utils.task_queue import TaskQueue
 from ...utils.testing import create_test_profile
@@ -393,6 +394,54 @@ class TestAdminServer(IsolatedAsyncioTestCase):
 
         await server.stop()
 
+    async def test_websocket_subscription(self):
+        settings = {"admin.admin_insecure_mode": True, "admin.webhook_urls": []}
+        server = await self.get_admin_server(settings)
+        await server.start()
+
+        async with self.client_session.ws_connect(
+            f"http://127.0.0.1:{self.port}/ws?topics=connections,issue_credential*"
+        ) as ws:
+            result = await ws.receive_json()
+            assert result["topic"] == "settings"
+
+            await server.send_webhook(self.profile, "basicmessages", {"content": "hi"})
+            await server.send_webhook(self.profile, "issue_credential_v2_0", {"a": 1})
+            result = await ws.receive_json()
+            assert result == {"topic": "issue_credential_v2_0", "payload": {"a": 1}}
+
+            async with self.client_session.get(
+                f"http://127.0.0.1:{self.port}/status/websockets"
+            ) as response:
+                assert response.status == 200
+                (status,) = (await response.json())["results"]
+                assert status["topics"] == ["connections", "issue_credential*"]
+                assert status["sent"] == 2
+
+        await server.stop()
+
+    async def test_visit_metrics(self):
+        settings = {"admin.admin_insecure_mode": True}
+        server = await self.get_admin_server(settings)
+        await server.start()
+
+        async with self.client_session.get(
+            f"http://127.0.0.1:{self.port}/metrics", headers={}
+        ) as response:
+            assert response.status == 404
+
+        metrics = MetricsRegistry()
+        metrics.counter("test_events", "Test events").inc()
+        server.context.injector.bind_instance(MetricsRegistry, metrics)
+        async with self.client_session.get(
+            f"http://127.0.0.1:{self.port}/metrics", headers={}
+        ) as response:
+            assert response.status == 200
+            assert response.headers["Content-Type"].startswith("text/plain")
+            assert "acapy_test_events_total 1" in await response.text()
+
+        await server.stop()
+
     async def test_visit_secure_mode(self):
         settings = {
             "admin.admin_insecure_mode": False,
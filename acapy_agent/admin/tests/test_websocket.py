@@ -0,0 +1,106 @@
+import asyncio
+
+import pytest
+
+from ...utils.metrics import MetricsRegistry
+from ..websocket import (
+    OVERFLOW_DISCONNECT,
+    WebsocketEvent,
+    WebsocketSubscriber,
+    WebsocketSubscribers,
+)
+
+
+def make_event(topic: str, wallet_id: str = None) -> WebsocketEvent:
+    message = {"topic": topic, "payload": {}}
+    if wallet_id:
+        message["wallet_id"] = wallet_id
+    return WebsocketEvent(topic, message, wallet_id)
+
+
+def make_subscriber(socket_id: str, **kwargs) -> WebsocketSubscriber:
+    subscriber = WebsocketSubscriber(socket_id, **kwargs)
+    subscriber.authenticated = True
+    return subscriber
+
+
+def test_event_serialized_once():
+    event = make_event("connections")
+    assert event.text == '{"topic": "connections", "payload": {}}'
+    assert event.text is event.text
+
+
+def test_subscriber_filters():
+    subscriber = make_subscriber("s", topics=["connections", "issue_credential*"])
+    assert subscriber.matches(make_event("connections"))
+    assert subscriber.matches(make_event("issue_credential_v2_0"))
+    assert not subscriber.matches(make_event("present_proof_v2_0"))
+
+    subscriber = make_subscriber("s", wallet_ids=["w1"])
+    assert subscriber.matches(make_event("connections", "w1"))
+    assert not subscriber.matches(make_event("connections", "w2"))
+    assert not subscriber.matches(make_event("connections"))
+    assert subscriber.matches(make_event("ping"))
+
+    subscriber.authenticated = False
+    assert not subscriber.matches(make_event("connections", "w1"))
+    assert subscriber.matches(make_event("settings"))
+
+
+@pytest.mark.asyncio
+async def test_subscriber_drop_oldest():
+    subscriber = make_subscriber("s", max_queue=2)
+    events = [make_event(f"topic-{idx}") for idx in range(3)]
+    for event in events:
+        assert subscriber.offer(event)
+    assert subscriber.dropped == 1
+    assert await subscriber.get() is events[1]
+    assert await subscriber.get() is events[2]
+    assert await subscriber.get(timeout=0.01) is None
+    subscriber.record_sent(events[2])
+    assert subscriber.stats()["sent"] == 1
+
+
+@pytest.mark.asyncio
+async def test_subscriber_disconnect():
+    subscriber = make_subscriber("s", max_queue=1, overflow=OVERFLOW_DISCONNECT)
+    assert subscriber.offer(make_event("one"))
+    assert not subscriber.offer(make_event("two"))
+    assert subscriber.overflowed
+    with pytest.raises(asyncio.CancelledError):
+        await subscriber.get()
+
+
+@pytest.mark.asyncio
+async def test_subscriber_stop_wakes_get():
+    subscriber = make_subscriber("s")
+    pending = asyncio.ensure_future(subscriber.get())
+    await asyncio.sleep(0)
+    subscriber.stop()
+    with pytest.raises(asyncio.CancelledError):
+        await pending
+
+
+def test_subscribers_publish():
+    metrics = MetricsRegistry()
+    subscribers = WebsocketSubscribers(metrics)
+    everything = make_subscriber("all")
+    tenant = make_subscriber("tenant", wallet_ids=["w1"])
+    other = make_subscriber("other", wallet_ids=["w2"], max_queue=1)
+    for subscriber in (everything, tenant, other):
+        subscribers.add(subscriber)
+
+    assert subscribers.publish(make_event("connections", "w1")) == 2
+    assert subscribers.publish(make_event("connections")) == 1
+    assert subscribers.publish(make_event("ping")) == 3
+    assert subscribers.publish(make_event("connections", "w2")) == 2
+    assert [stats["queued"] for stats in subscribers.stats()] == [4, 2, 1]
+    assert other.dropped == 1
+    assert "acapy_admin_websocket_events_dropped_total 1" in metrics.render()
+
+    subscribers.remove(tenant)
+    assert subscribers.publish(make_event("connections", "w1")) == 1
+    assert len(subscribers) == 2
+
+    subscribers.stop()
+    assert subscribers.publish(make_event("ping")) == 0
@@ -0,0 +1,283 @@
+"""Subscriptions of admin websocket clients to webhook events."""
+
+import asyncio
+import json
+import logging
+import re
+from collections import deque
+from fnmatch import translate
+from time import monotonic
+from typing import Deque, Dict, Iterable, List, Optional, Pattern, Set
+
+from ..utils.metrics import MetricsRegistry
+
+LOGGER = logging.getLogger(__name__)
+
+OVERFLOW_DROP_OLDEST = "drop-oldest"
+OVERFLOW_DISCONNECT = "disconnect"
+OVERFLOW_POLICIES = (OVERFLOW_DROP_OLDEST, OVERFLOW_DISCONNECT)
+
+DEFAULT_QUEUE_SIZE = 1000
+
+# topics sent to every socket, regardless of authentication or filters
+CONTROL_TOPICS = ("ping", "settings")
+
+
+class WebsocketEvent:
+    """An event to be sent to admin websocket clients.
+
+    The message is serialized once, on first use, and the same text is sent to
+    every subscriber.
+    """
+
+    __slots__ = ("topic", "wallet_id", "message", "created", "_text")
+
+    def __init__(self, topic: str, message: dict, wallet_id: Optional[str] = None):
+        """Initialize the WebsocketEvent instance."""
+        self.topic = topic
+        self.wallet_id = wallet_id
+        self.message = message
+        self.created = monotonic()
+        self._text = None
+
+    @property
+    def text(self) -> str:
+        """The serialized message."""
+        if self._text is None:
+            self._text = json.dumps(self.message)
+        return self._text
+
+
+class WebsocketSubscriber:
+    """A websocket client with its filters and bounded queue of pending events."""
+
+    def __init__(
+        self,
+        socket_id: str,
+        *,
+        topics: Optional[Iterable[str]] = None,
+        wallet_ids: Optional[Iterable[str]] = None,
+        max_queue: int = DEFAULT_QUEUE_SIZE,
+        overflow: str = OVERFLOW_DROP_OLDEST,
+    ):
+        """Initialize the WebsocketSubscriber instance.
+
+        Args:
+            socket_id: The identifier of the websocket
+            topics: Topic patterns to receive, with `*` wildcards, or None for all
+            wallet_ids: Wallets to receive events from, or None for all
+            max_queue: The maximum number of events waiting to be sent
+            overflow: What to do when the queue is full: drop the oldest event,
+                or disconnect the client
+
+        """
+        if overflow not in OVERFLOW_POLICIES:
+            raise ValueError(f"Unknown websocket overflow policy: {overflow}")
+        self.socket_id = socket_id
+        self.topics = sorted(set(topics)) if topics else None
+        self.wallet_ids = frozenset(wallet_ids) if wallet_ids else None
+        self.max_queue = max(max_queue, 1)
+        self.overflow = overflow
+        self.authenticated = False
+        self.overflowed = False
+        self.sent = 0
+        self.dropped = 0
+        self.max_lag = 0.0
+        self._topic_pattern: Optional[Pattern] = (
+            re.compile("|".join(translate(topic) for topic in self.topics))
+            if self.topics
+            else None
+        )
+        self._queue: Deque[WebsocketEvent] = deque()
+        self._ready = asyncio.Event()
+        self._stopped = False
+
+    def matches(self, event: WebsocketEvent) -> bool:
+        """Check whether an event passes the filters of this subscriber."""
+        if event.topic in CONTROL_TOPICS:
+            return True
+        if not self.authenticated:
+            return False
+        if self.wallet_ids is not None and event.wallet_id not in self.wallet_ids:
+            return False
+        return self._topic_pattern is None or bool(self._topic_pattern.match(event.topic))
+
+    def offer(self, event: WebsocketEvent) -> bool:
+        """Queue an event without waiting.
+
+        Returns:
+            False if the event was refused because the subscriber is stopped
+
+        """
+        if self._stopped:
+            return False
+        if len(self._queue) >= self.max_queue:
+            if self.overflow == OVERFLOW_DISCONNECT:
+                LOGGER.warning(
+                    "Disconnecting websocket %s: %d events pending",
+                    self.socket_id,
+                    len(self._queue),
+                )
+                self.overflowed = True
+                self.stop()
+                return False
+            self._queue.popleft()
+            self.dropped += 1
+        self._queue.append(event)
+        self._ready.set()
+        return True
+
+    async def get(self, *, timeout: Optional[float] = None) -> Optional[WebsocketEvent]:
+        """Wait for the next event.
+
+        Returns:
+            The next event, or None if the timeout is reached first
+
+        Raises:
+            asyncio.CancelledError: If the subscriber has been stopped
+
+        """
+        if not self._queue and not self._stopped:
+            try:
+                await asyncio.wait_for(self._ready.wait(), timeout)
+            except asyncio.TimeoutError:
+                return None
+        if self._stopped:
+            raise asyncio.CancelledError
+        event = self._queue.popleft()
+        if not self._queue:
+            self._ready.clear()
+        return event
+
+    def record_sent(self, event: WebsocketEvent) -> float:
+        """Record the delivery of an event, returning its lag in seconds."""
+        lag = monotonic() - event.created
+        self.sent += 1
+        self.max_lag = max(self.max_lag, lag)
+        return lag
+
+    @property
+    def lag(self) -> float:
+        """The time the oldest pending event has been waiting, in seconds."""
+        return monotonic() - self._queue[0].created if self._queue else 0.0
+
+    def stop(self):
+        """Stop the subscriber, waking up any pending `get`."""
+        self._stopped = True
+        self._queue.clear()
+        self._ready.set()
+
+    def stats(self) -> dict:
+        """Return the filters and delivery statistics of this subscriber."""
+        return {
+            "socket_id": self.socket_id,
+            "authenticated": self.authenticated,
+            "topics": self.topics,
+            "wallet_ids": sorted(self.wallet_ids) if self.wallet_ids else None,
+            "queued": len(self._queue),
+            "sent": self.sent,
+            "dropped": self.dropped,
+            "lag": round(self.lag, 3),
+            "max_lag": round(self.max_lag, 3),
+        }
+
+
+class WebsocketSubscribers:
+    """The connected admin websocket clients, indexed by wallet filter.
+
+    Events from a wallet are only offered to subscribers following that wallet
+    or following every wallet, so the cost of publishing an event does not grow
+    with the number of connected tenants.
+    """
+
+    def __init__(self, metrics: Optional[MetricsRegistry] = None):
+        """Initialize the WebsocketSubscribers instance."""
+        self._subscribers: Dict[str, WebsocketSubscriber] = {}
+        self._unfiltered: Set[WebsocketSubscriber] = set()
+        self._by_wallet: Dict[str, Set[WebsocketSubscriber]] = {}
+
+        self._dropped = self._disconnected = self._lag = None
+        if metrics:
+            self._dropped = metrics.counter(
+                "admin_websocket_events_dropped",
+                "Events dropped from the queue of a slow admin websocket client",
+            )
+            self._disconnected = metrics.counter(
+                "admin_websocket_overflow_disconnects",
+                "Admin websocket clients disconnected for falling too far behind",
+            )
+            self._lag = metrics.histogram(
+                "admin_websocket_delivery_lag_seconds",
+                "Time from an event being published to it being sent to a client",
+            )
+            metrics.gauge(
+                "admin_websocket_connections", "Connected admin websocket clients"
+            ).set_function(lambda: len(self._subscribers))
+
+    def __len__(self) -> int:
+        """Return the number of subscribers."""
+        return len(self._subscribers)
+
+    def values(self) -> List[WebsocketSubscriber]:
+        """Return the subscribers."""
+        return list(self._subscribers.values())
+
+    def add(self, subscriber: WebsocketSubscriber):
+        """Add a subscriber."""
+        self._subscribers[subscriber.socket_id] = subscriber
+        if subscriber.wallet_ids is None:
+            self._unfiltered.add(subscriber)
+        else:
+            for wallet_id in subscriber.wallet_ids:
+                self._by_wallet.setdefault(wallet_id, set()).add(subscriber)
+
+    def remove(self, subscriber: WebsocketSubscriber):
+        """Remove a subscriber."""
+        self._subscribers.pop(subscriber.socket_id, None)
+        self._unfiltered.discard(subscriber)
+        for wallet_id in subscriber.wallet_ids or ():
+            following = self._by_wallet.get(wallet_id)
+            if following is not None:
+                following.discard(subscriber)
+                if not following:
+                    del self._by_wallet[wallet_id]
+
+    def publish(self, event: WebsocketEvent) -> int:
+        """Offer an event to the matching subscribers.
+
+        Returns:
+            The number of subscribers which accepted the event
+
+        """
+        candidates = self._unfiltered
+        if event.topic in CONTROL_TOPICS:
+            candidates = self._subscribers.values()
+        elif event.wallet_id in self._by_wallet:
+            candidates = self._unfiltered | self._by_wallet[event.wallet_id]
+        accepted = 0
+        for subscriber in list(candidates):
+            if not subscriber.matches(event):
+                continue
+            dropped, overflowed = subscriber.dropped, subscriber.overflowed
+            if subscriber.offer(event):
+                accepted += 1
+            if self._dropped and subscriber.dropped > dropped:
+                self._dropped.inc()
+            if self._disconnected and subscriber.overflowed and not overflowed:
+                self._disconnected.inc()
+        return accepted
+
+    def record_sent(self, subscriber: WebsocketSubscriber, event: WebsocketEvent):
+        """Record the delivery of an event to a subscriber."""
+        lag = subscriber.record_sent(event)
+        if self._lag:
+            self._lag.observe(lag)
+
+    def stop(self):
+        """Stop all subscribers."""
+        for subscriber in self._subscribers.values():
+            subscriber.stop()
+
+    def stats(self) -> List[dict]:
+        """Return the statistics of each subscriber."""
+        return [subscriber.stats() for subscriber in self._subscribers.values()]
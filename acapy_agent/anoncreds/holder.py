@@ -26,6 +26,7 @@ from ..core.profile import Profile
 from ..database_manager.db_errors import DBCode, DBError
 from ..storage.vc_holder.base import VCHolder
 from ..storage.vc_holder.vc_record import VCRecord
+from ..utils.metrics import MetricsRegistry
 from ..vc.ld_proofs import DocumentLoader
 from ..vc.vc_ld import VerifiableCredential
 from ..wallet.error import WalletNotFoundError
@@ -38,6 +39,8 @@ LOGGER = logging.getLogger(__name__)
 
 CATEGORY_CREDENTIAL = "credential"
 CATEGORY_MASTER_SECRET = "master_secret"
+CATEGORY_REVOCATION_STATE = "revocation_state"
+CATEGORY_REVOCATION_STATE_BASE = "revocation_state_base"
 
 
 def _make_cred_info(cred_id: str, cred: Credential) -> dict:
@@ -66,6 +69,8 @@ class AnonCredsHolder:
 
     MASTER_SECRET_ID = "default"
     RECORD_TYPE_MIME_TYPES = "attribute-mime-types"
+    # number of revocation states kept per credential
+    MAX_CACHED_REVOCATION_STATES = 8
 
     def __init__(self, profile: Profile):
         """Initialize an AnonCredsHolder instance.
@@ -740,6 +745,12 @@ class AnonCredsHolder:
     ) -> str:
         """Create current revocation state for a received credential.
 
+        Revocation states are cached in the wallet by credential revocation id,
+        revocation registry id and revocation list timestamp. When the state for
+        a later revocation list is needed, it is updated from the latest cached
+        state and the revocation list it was created for, which avoids reading
+        the whole tails file again.
+
         Args:
             cred_rev_id: credential revocation id in revocation registry
             rev_reg_def: revocation registry definition
@@ -750,6 +761,122 @@ class AnonCredsHolder:
             the revocation state
 
         """
+        rev_reg_id = rev_list.get("revRegDefId")
+        timestamp = rev_list.get("timestamp")
+        if not rev_reg_id or timestamp is None:
+            return await self._create_revocation_state(
+                cred_rev_id, rev_reg_def, rev_list, tails_file_path
+            )
+
+        name = f"{rev_reg_id}::{cred_rev_id}"
+        try:
+            async with self.profile.session() as session:
+                cached = await session.handle.fetch(
+                    CATEGORY_REVOCATION_STATE, f"{name}::{timestamp}"
+                )
+                base = await session.handle.fetch(CATEGORY_REVOCATION_STATE_BASE, name)
+        except DBError:
+            LOGGER.exception("Error loading cached revocation state")
+            cached = base = None
+        if cached:
+            self._count_revocation_state("hit")
+            return cached.value.decode("utf-8")
+
+        base = base and base.value_json
+        rev_state = None
+        if base and base["timestamp"] < timestamp:
+            try:
+                rev_state = await self._create_revocation_state(
+                    cred_rev_id,
+                    rev_reg_def,
+                    rev_list,
+                    tails_file_path,
+                    base["rev_state"],
+                    base["rev_list"],
+                )
+                self._count_revocation_state("update")
+            except AnonCredsHolderError:
+                LOGGER.warning(
+                    "Could not update cached revocation state, creating a new one",
+                    exc_info=True,
+                )
+        if not rev_state:
+            rev_state = await self._create_revocation_state(
+                cred_rev_id, rev_reg_def, rev_list, tails_file_path
+            )
+            self._count_revocation_state("create")
+
+        try:
+            async with self.profile.transaction() as txn:
+                await self._store_revocation_state(
+                    txn.handle, rev_reg_id, cred_rev_id, timestamp, rev_state
+                )
+                if not base or base["timestamp"] < timestamp:
+                    base = {
+                        "timestamp": timestamp,
+                        "rev_state": rev_state,
+                        "rev_list": rev_list,
+                    }
+                    if await txn.handle.fetch(
+                        CATEGORY_REVOCATION_STATE_BASE, name, for_update=True
+                    ):
+                        await txn.handle.replace(
+                            CATEGORY_REVOCATION_STATE_BASE, name, value_json=base
+                        )
+                    else:
+                        await txn.handle.insert(
+                            CATEGORY_REVOCATION_STATE_BASE, name, value_json=base
+                        )
+                await txn.commit()
+        except DBError:
+            LOGGER.exception("Error caching revocation state")
+        return rev_state
+
+    async def _store_revocation_state(
+        self,
+        handle,
+        rev_reg_id: str,
+        cred_rev_id: str,
+        timestamp: int,
+        rev_state: str,
+    ):
+        """Store a revocation state, evicting the oldest over the limit."""
+        tags = {"rev_reg_id": rev_reg_id, "cred_rev_id": str(cred_rev_id)}
+        try:
+            await handle.insert(
+                CATEGORY_REVOCATION_STATE,
+                f"{rev_reg_id}::{cred_rev_id}::{timestamp}",
+                rev_state,
+                tags={**tags, "timestamp": str(timestamp)},
+            )
+        except DBError as err:
+            if err.code not in DBCode.DUPLICATE:
+                raise
+            return
+        entries = await handle.fetch_all(CATEGORY_REVOCATION_STATE, tags)
+        entries = sorted(entries, key=lambda entry: int(entry.tags["timestamp"]))
+        for entry in entries[: -self.MAX_CACHED_REVOCATION_STATES]:
+            await handle.remove(CATEGORY_REVOCATION_STATE, entry.name)
+            self._count_revocation_state("evict")
+
+    def _count_revocation_state(self, result: str):
+        metrics = self._profile.inject_or(MetricsRegistry)
+        if metrics:
+            metrics.counter(
+                "holder_revocation_state_cache",
+                "Revocation states served from the cache, updated, created or evicted",
+                ["result"],
+            ).labels(result).inc()
+
+    async def _create_revocation_state(
+        self,
+        cred_rev_id: str,
+        rev_reg_def: dict,
+        rev_list: dict,
+        tails_file_path: str,
+        prev_rev_state: Optional[str] = None,
+        prev_rev_list: Optional[dict] = None,
+    ) -> str:
         try:
             rev_state = await asyncio.get_event_loop().run_in_executor(
                 None,
@@ -758,6 +885,8 @@ class AnonCredsHolder:
                 rev_list,
                 int(cred_rev_id),
                 tails_file_path,
+                prev_rev_state,
+                prev_rev_list,
             )
         except AnoncredsError as err:
             raise AnonCredsHolderError("Error creating revocation state") from err
@@ -1,5 +1,6 @@
 """Classes to manage credential revocation."""
 
+import asyncio
 import logging
 from collections.abc import Mapping, Sequence
 from typing import Optional, Tuple
@@ -12,8 +13,18 @@ from ...protocols.revocation_notification.v1_0.models.rev_notification_record im
 from ...revocation.util import notify_pending_cleared_event
 from ...storage.error import StorageNotFoundError
 from ..models.issuer_cred_rev_record import IssuerCredRevRecord
+from .publish_status import (
+    STATE_COMPUTING,
+    STATE_FAILED,
+    STATE_PUBLISHED,
+    STATE_PUBLISHING,
+    STATE_SKIPPED,
+    RevocationPublishTracker,
+)
 from .revocation import AnonCredsRevocation
 
+DEFAULT_PUBLISH_CONCURRENCY = 4
+
 
 class RevocationManagerError(BaseError):
     """Revocation manager error."""
@@ -212,6 +223,12 @@ class RevocationManager:
     ) -> Mapping[str, Sequence[str]]:
         """Publish pending revocations to the ledger.
 
+        Revocation registries are processed concurrently, with at most
+        `revocation.publish_concurrency` ledger writes at a time. The progress of
+        each registry is sent as webhook events and kept by the
+        `RevocationPublishTracker`. If any registry fails, the first error is
+        raised once every other registry has been processed.
+
         Args:
             rrid2crid: Mapping from revocation registry identifiers to all credential
                 revocation identifiers within each to publish. Specify null/empty map
@@ -235,25 +252,64 @@ class RevocationManager:
 
         """
         options = options or {}
-        published_crids = {}
         revoc = AnonCredsRevocation(self._profile)
 
         rev_reg_def_ids = await revoc.get_revocation_lists_with_pending_revocations()
+        limits = {}
         for rrid in rev_reg_def_ids:
             if rrid2crid:
                 if rrid not in rrid2crid:
                     continue
-                limit_crids = [int(crid) for crid in rrid2crid[rrid]]
+                limits[rrid] = [int(crid) for crid in rrid2crid[rrid]]
             else:
-                limit_crids = None
+                limits[rrid] = None
 
-            result = await revoc.revoke_pending_credentials(rrid, limit_crids=limit_crids)
-            if result.curr and result.revoked:
+        tracker = self._profile.inject_or(RevocationPublishTracker)
+        job = (tracker or RevocationPublishTracker()).start(self._profile, limits)
+        concurrency = self._profile.settings.get_int(
+            "revocation.publish_concurrency", default=DEFAULT_PUBLISH_CONCURRENCY
+        )
+        ledger_writes = asyncio.Semaphore(max(concurrency, 1))
+
+        async def publish(rrid: str, limit_crids: Optional[Sequence[int]]):
+            try:
+                await job.update(rrid, STATE_COMPUTING)
+                result = await revoc.revoke_pending_credentials(
+                    rrid, limit_crids=limit_crids
+                )
+                if not (result.curr and result.revoked):
+                    await job.update(rrid, STATE_SKIPPED, failed=result.failed)
+                    return None
+                revoked = sorted(result.revoked)
                 await self.set_cred_revoked_state(rrid, result.revoked)
-                await revoc.update_revocation_list(
-                    rrid, result.prev, result.curr, result.revoked, options
+                await job.update(
+                    rrid, STATE_PUBLISHING, revoked=revoked, failed=result.failed
+                )
+                async with ledger_writes:
+                    await revoc.update_revocation_list(
+                        rrid, result.prev, result.curr, result.revoked, options
+                    )
+                await job.update(rrid, STATE_PUBLISHED)
+                return revoked
+            except Exception as err:
+                self._logger.error(
+                    "Failed to publish revocations for registry %s: %s", rrid, err
                 )
-                published_crids[rrid] = sorted(result.revoked)
+                await job.update(rrid, STATE_FAILED, error=str(err))
+                raise
+
+        # each registry is updated independently, so one failing registry
+        # does not hold back the others
+        results = await asyncio.gather(
+            *(publish(rrid, limit_crids) for rrid, limit_crids in limits.items()),
+            return_exceptions=True,
+        )
+        published_crids = {}
+        for rrid, result in zip(limits, results):
+            if isinstance(result, BaseException):
+                raise result
+            if result is not None:
+                published_crids[rrid] = result
 
         return published_crids
 
@@ -336,18 +392,16 @@ class RevocationManager:
                 txn, rev_reg_id, cred_rev_ids, for_update=True
             )
 
-            # Update each record to indicate revoked
+            # Update each record to indicate revoked, saving them as a batch
             for record in cred_rev_records:
-                cred_rev_id = record.cred_rev_id
-                self._logger.debug(
-                    "Updating IssuerCredRevRecord for cred_rev_id=%s", cred_rev_id
-                )
                 record.state = IssuerCredRevRecord.STATE_REVOKED
-                await record.save(txn, reason="revoke credential")
-                self._logger.debug(
-                    "Updated IssuerCredRevRecord state to REVOKED for cred_rev_id=%s",
-                    cred_rev_id,
-                )
-                updated_cred_rev_ids.append(cred_rev_id)
+                updated_cred_rev_ids.append(record.cred_rev_id)
+            await IssuerCredRevRecord.save_all(
+                txn, cred_rev_records, reason="revoke credential"
+            )
+            self._logger.debug(
+                "Updated IssuerCredRevRecord state to REVOKED for cred_rev_ids=%s",
+                updated_cred_rev_ids,
+            )
 
             await txn.commit()
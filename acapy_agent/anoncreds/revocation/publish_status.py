@@ -0,0 +1,134 @@
+"""Progress of bulk publication of pending revocations."""
+
+from collections import OrderedDict, deque
+from time import time
+from typing import Deque, Dict, Iterable, List, Optional, Sequence
+
+from uuid_utils import uuid4
+
+from ...core.profile import Profile
+
+PUBLISH_PROGRESS_WEBHOOK_TOPIC = "acapy::webhook::revocation-publish-progress"
+
+STATE_PENDING = "pending"
+STATE_COMPUTING = "computing"
+STATE_PUBLISHING = "publishing"
+STATE_PUBLISHED = "published"
+STATE_SKIPPED = "skipped"
+STATE_FAILED = "failed"
+
+FINAL_STATES = (STATE_PUBLISHED, STATE_SKIPPED, STATE_FAILED)
+
+
+class RegistryPublishStatus:
+    """Progress of the publication of one revocation registry."""
+
+    def __init__(self, rev_reg_id: str):
+        """Initialize the RegistryPublishStatus instance."""
+        self.rev_reg_id = rev_reg_id
+        self.state = STATE_PENDING
+        self.revoked: List[str] = []
+        self.failed: List[str] = []
+        self.error: Optional[str] = None
+        self.updated_at = time()
+
+    def serialize(self) -> dict:
+        """Return a JSON-compatible representation."""
+        return {
+            "rev_reg_id": self.rev_reg_id,
+            "state": self.state,
+            "revoked": self.revoked,
+            "failed": self.failed,
+            "error": self.error,
+            "updated_at": int(self.updated_at),
+        }
+
+
+class RevocationPublishJob:
+    """Progress of one bulk publication across revocation registries.
+
+    Each change in the state of a registry is also sent as a webhook event.
+    """
+
+    def __init__(self, profile: Profile, rev_reg_ids: Iterable[str]):
+        """Initialize the RevocationPublishJob instance."""
+        self.profile = profile
+        self.job_id = str(uuid4())
+        self.created_at = time()
+        self.registries: Dict[str, RegistryPublishStatus] = OrderedDict(
+            (rev_reg_id, RegistryPublishStatus(rev_reg_id)) for rev_reg_id in rev_reg_ids
+        )
+
+    @property
+    def state(self) -> str:
+        """The overall state: running until every registry is done."""
+        if all(reg.state in FINAL_STATES for reg in self.registries.values()):
+            return "completed"
+        return "running"
+
+    async def update(
+        self,
+        rev_reg_id: str,
+        state: str,
+        *,
+        revoked: Optional[Sequence] = None,
+        failed: Optional[Sequence] = None,
+        error: Optional[str] = None,
+    ):
+        """Record and announce a change in the state of a registry."""
+        status = self.registries[rev_reg_id]
+        status.state = state
+        if revoked is not None:
+            status.revoked = [str(crid) for crid in revoked]
+        if failed is not None:
+            status.failed = [str(crid) for crid in failed]
+        status.error = error
+        status.updated_at = time()
+        await self.profile.notify(
+            PUBLISH_PROGRESS_WEBHOOK_TOPIC, {"job_id": self.job_id, **status.serialize()}
+        )
+
+    def serialize(self) -> dict:
+        """Return a JSON-compatible representation."""
+        counts = {}
+        for status in self.registries.values():
+            counts[status.state] = counts.get(status.state, 0) + 1
+        return {
+            "job_id": self.job_id,
+            "state": self.state,
+            "created_at": int(self.created_at),
+            "counts": counts,
+            "registries": [status.serialize() for status in self.registries.values()],
+        }
+
+
+class RevocationPublishTracker:
+    """Keeps the most recent bulk publications of each profile."""
+
+    def __init__(self, max_jobs: int = 10):
+        """Initialize the RevocationPublishTracker instance.
+
+        Args:
+            max_jobs: The number of jobs to keep for each profile
+
+        """
+        self.max_jobs = max_jobs
+        self._jobs: Dict[str, Deque[RevocationPublishJob]] = {}
+
+    def start(self, profile: Profile, rev_reg_ids: Iterable[str]) -> RevocationPublishJob:
+        """Start tracking a new bulk publication."""
+        job = RevocationPublishJob(profile, rev_reg_ids)
+        jobs = self._jobs.setdefault(profile.name, deque(maxlen=self.max_jobs))
+        jobs.appendleft(job)
+        return job
+
+    def jobs(self, profile: Profile) -> List[RevocationPublishJob]:
+        """Return the tracked jobs of a profile, most recent first."""
+        return list(self._jobs.get(profile.name, ()))
+
+    def get_job(self, profile: Profile, job_id: str) -> Optional[RevocationPublishJob]:
+        """Return a tracked job of a profile by its identifier."""
+        for job in self._jobs.get(profile.name, ()):
+            if job.job_id == job_id:
+                return job
+        return None
@@ -1,8 +1,6 @@
 """Revocation through ledger agnostic AnonCreds interface."""
 
 import asyncio
-import hashlib
-import http
 import logging
 import os
 import time
@@ -11,7 +9,6 @@ from pathlib import Path
 from typing import List, NamedTuple, Optional, Tuple
 from urllib.parse import urlparse
 
-import base58
 from anoncreds import (
     AnoncredsError,
     Credential,
@@ -23,7 +20,6 @@ from anoncreds import (
 )
 from aries_askar import AskarErrorCode, Entry
 from aries_askar.error import AskarError
-from requests import RequestException, Session
 from uuid_utils import uuid4
 
 from ...askar.profile_anon import AskarAnonCredsProfileSession
@@ -33,6 +29,8 @@ from ...core.profile import Profile, ProfileSession
 from ...database_manager.db_errors import DBError
 from ...kanon.profile_anon_kanon import KanonAnonCredsProfileSession
 from ...tails.anoncreds_tails_server import AnonCredsTailsServer
+from ...tails.error import TailsDownloadError
+from ...tails.file_cache import TailsFileCache
 from ..constants import (
     CATEGORY_CRED_DEF,
     CATEGORY_CRED_DEF_PRIVATE,
@@ -1274,50 +1272,26 @@ class AnonCredsRevocation:
 
         return []
 
+    @property
+    def tails_cache(self) -> TailsFileCache:
+        """Accessor for the tails file cache shared by the profile."""
+        tails_cache = self.profile.inject_or(TailsFileCache)
+        if not tails_cache:
+            # bind the fallback so that later retrievals share its downloads
+            tails_cache = TailsFileCache()
+            self.profile.context.injector.bind_instance(TailsFileCache, tails_cache)
+        return tails_cache
+
     async def retrieve_tails(self, rev_reg_def: RevRegDef) -> str:
         """Retrieve tails file from server."""
-        # TODO: This method is not actually async, and should be
-        LOGGER.info(
-            "Downloading the tails file with hash: %s",
-            rev_reg_def.value.tails_hash,
-        )
-
-        tails_file_path = Path(self.get_local_tails_path(rev_reg_def))
-        tails_file_dir = tails_file_path.parent
-        if not tails_file_dir.exists():
-            tails_file_dir.mkdir(parents=True)
-
-        buffer_size = 65536  # should be multiple of 32 bytes for sha256
-        file_hasher = hashlib.sha256()
-        with open(tails_file_path, "wb", buffer_size) as tails_file:
-            with Session() as req_session:
-                try:
-                    resp = req_session.get(rev_reg_def.value.tails_location, stream=True)
-                    # Should this directly raise an Error?
-                    if resp.status_code != http.HTTPStatus.OK:
-                        LOGGER.warning(
-                            f"Unexpected status code for tails file: {resp.status_code}"
-                        )
-                    for buf in resp.iter_content(chunk_size=buffer_size):
-                        tails_file.write(buf)
-                        file_hasher.update(buf)
-                except RequestException as rx:
-                    raise AnonCredsRevocationError(
-                        f"Error retrieving tails file: {rx}"
-                    ) from rx
-
-        download_tails_hash = base58.b58encode(file_hasher.digest()).decode("utf-8")
-        if download_tails_hash != rev_reg_def.value.tails_hash:
-            try:
-                os.remove(tails_file_path)
-            except OSError as err:
-                LOGGER.warning(f"Could not delete invalid tails file: {err}")
-
-            raise AnonCredsRevocationError(
-                "The hash of the downloaded tails file does not match."
+        try:
+            return await self.tails_cache.retrieve(
+                rev_reg_def.value.tails_location,
+                rev_reg_def.value.tails_hash,
+                self.get_local_tails_path(rev_reg_def),
             )
-
-        return str(tails_file_path)
+        except TailsDownloadError as err:
+            raise AnonCredsRevocationError(err.message) from err
 
     def _check_url(self, url: str) -> None:
         parsed = urlparse(url)
@@ -1377,6 +1351,7 @@ class AnonCredsRevocation:
         """
         tails_file_path = self.get_local_tails_path(rev_reg_def)
         if Path(tails_file_path).is_file():
+            self.tails_cache.touch(tails_file_path)
             return tails_file_path
         return await self.retrieve_tails(rev_reg_def)
 
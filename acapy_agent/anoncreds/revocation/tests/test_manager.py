@@ -1,3 +1,4 @@
+import asyncio
 import json
 from unittest import IsolatedAsyncioTestCase
 
@@ -9,6 +10,8 @@ from ....utils.testing import create_test_profile
 from ...issuer import AnonCredsIssuer
 from .. import manager as test_module
 from ..manager import RevocationManager, RevocationManagerError
+from ..publish_status import RevocationPublishTracker
+from ..revocation import AnonCredsRevocationError, RevokeResult
 
 TEST_DID = "LjgpST2rjsoxYegQDRm7EL"
 SCHEMA_NAME = "bc-reg"
@@ -311,6 +314,86 @@ class TestRevocationManager(IsolatedAsyncioTestCase):
             mock_issuer_rev_reg_records[0].clear_pending.assert_called_once()
             mock_issuer_rev_reg_records[1].clear_pending.assert_not_called()
 
+    async def test_publish_pending_revocations_concurrent(self):
+        rev_reg_ids = [f"{TEST_DID}:4:{CRED_DEF_ID}:CL_ACCUM:tag{i}" for i in range(3)]
+        writing = 0
+        max_writing = 0
+
+        async def revoke_pending(rrid, limit_crids=None):
+            if rrid == rev_reg_ids[2]:
+                return RevokeResult(prev=mock.MagicMock())
+            return RevokeResult(
+                prev=mock.MagicMock(), curr=mock.MagicMock(), revoked=[2, 1], failed=[]
+            )
+
+        async def update_list(rrid, prev, curr, revoked, options):
+            nonlocal writing, max_writing
+            writing += 1
+            max_writing = max(max_writing, writing)
+            await asyncio.sleep(0.01)
+            writing -= 1
+
+        tracker = RevocationPublishTracker()
+        self.profile.context.injector.bind_instance(RevocationPublishTracker, tracker)
+        self.profile.settings["revocation.publish_concurrency"] = 1
+        with (
+            mock.patch.object(test_module, "AnonCredsRevocation") as mock_revoc,
+            mock.patch.object(
+                self.manager, "set_cred_revoked_state", mock.CoroutineMock()
+            ),
+        ):
+            mock_revoc.return_value = mock.MagicMock(
+                get_revocation_lists_with_pending_revocations=mock.CoroutineMock(
+                    return_value=rev_reg_ids
+                ),
+                revoke_pending_credentials=mock.CoroutineMock(side_effect=revoke_pending),
+                update_revocation_list=mock.CoroutineMock(side_effect=update_list),
+            )
+            result = await self.manager.publish_pending_revocations()
+
+        assert result == {rev_reg_ids[0]: [1, 2], rev_reg_ids[1]: [1, 2]}
+        assert max_writing == 1
+        (job,) = tracker.jobs(self.profile)
+        assert job.state == "completed"
+        assert [reg["state"] for reg in job.serialize()["registries"]] == [
+            "published",
+            "published",
+            "skipped",
+        ]
+
+    async def test_publish_pending_revocations_continues_after_failure(self):
+        rev_reg_ids = [f"{TEST_DID}:4:{CRED_DEF_ID}:CL_ACCUM:tag{i}" for i in range(2)]
+
+        async def revoke_pending(rrid, limit_crids=None):
+            if rrid == rev_reg_ids[0]:
+                raise AnonCredsRevocationError("bad registry")
+            return RevokeResult(prev=mock.MagicMock(), curr=mock.MagicMock(), revoked=[1])
+
+        tracker = RevocationPublishTracker()
+        self.profile.context.injector.bind_instance(RevocationPublishTracker, tracker)
+        with (
+            mock.patch.object(test_module, "AnonCredsRevocation") as mock_revoc,
+            mock.patch.object(
+                self.manager, "set_cred_revoked_state", mock.CoroutineMock()
+            ),
+        ):
+            mock_revoc.return_value = mock.MagicMock(
+                get_revocation_lists_with_pending_revocations=mock.CoroutineMock(
+                    return_value=rev_reg_ids
+                ),
+                revoke_pending_credentials=mock.CoroutineMock(side_effect=revoke_pending),
+                update_revocation_list=mock.CoroutineMock(),
+            )
+            with self.assertRaises(AnonCredsRevocationError):
+                await self.manager.publish_pending_revocations()
+            mock_revoc.return_value.update_revocation_list.assert_awaited_once()
+
+        (job,) = tracker.jobs(self.profile)
+        states = {reg["rev_reg_id"]: reg for reg in job.serialize()["registries"]}
+        assert states[rev_reg_ids[0]]["state"] == "failed"
+        assert states[rev_reg_ids[0]]["error"] == "bad registry"
+        assert states[rev_reg_ids[1]]["state"] == "published"
+
     @pytest.mark.skip(reason="AnonCreds-break")
     async def test_clear_pending(self):
         mock_issuer_rev_reg_records = [
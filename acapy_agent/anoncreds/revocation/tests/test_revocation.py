@@ -1,5 +1,3 @@
-import http
-import os
 from unittest import IsolatedAsyncioTestCase
 
 import pytest
@@ -14,11 +12,12 @@ from anoncreds import (
     Schema,
 )
 from aries_askar import AskarError, AskarErrorCode
-from requests import RequestException, Session
 
 from ....askar.profile_anon import AskarAnonCredsProfileSession
 from ....core.event_bus import Event, EventBus, MockEventBus
 from ....tails.anoncreds_tails_server import AnonCredsTailsServer
+from ....tails.error import TailsDownloadError
+from ....tails.file_cache import TailsFileCache
 from ....tests import mock
 from ....utils.testing import create_test_profile
 from ...events import (
@@ -722,54 +721,32 @@ class TestAnonCredsRevocation(IsolatedAsyncioTestCase):
         with self.assertRaises(test_module.AnonCredsRevocationError):
             await self.revocation.get_revocation_lists_with_pending_revocations()
 
-    @mock.patch.object(Session, "get")
-    @mock.patch.object(os, "remove")
-    async def test_retrieve_tails(self, mock_remove, mock_get):
-        class MockResponse:
-            def __init__(self, status=http.HTTPStatus.OK):
-                self.status_code = status
-
-            def iter_content(self, chunk_size: int = 1):
-                yield b"tails-hash"
-
-        mock_get.side_effect = [
-            MockResponse(),
-            MockResponse(),
-            RequestException(request=mock.AsyncMock(), response=mock.AsyncMock()),
-            MockResponse(status=http.HTTPStatus.BAD_REQUEST),
-        ]
+    async def test_retrieve_tails(self):
+        tails_cache = mock.MagicMock(
+            TailsFileCache,
+            retrieve=mock.CoroutineMock(
+                side_effect=["/tails/path", TailsDownloadError("bad hash")]
+            ),
+        )
+        self.profile.context.injector.bind_instance(TailsFileCache, tails_cache)
 
         result = await self.revocation.retrieve_tails(rev_reg_def)
+        assert result == "/tails/path"
+        tails_cache.retrieve.assert_awaited_once_with(
+            rev_reg_def.value.tails_location,
+            rev_reg_def.value.tails_hash,
+            self.revocation.get_local_tails_path(rev_reg_def),
+        )
 
-        assert isinstance(result, str)
-        assert mock_get.call_count == 1
-
-        # tails hash does not match
-        with self.assertRaises(test_module.AnonCredsRevocationError):
-            await self.revocation.retrieve_tails(
-                RevRegDef(
-                    tag="tag",
-                    cred_def_id="CsQY9MGeD3CQP4EyuVFo5m:3:CL:14951:MYCO_Biomarker",
-                    value=RevRegDefValue(
-                        max_cred_num=100,
-                        public_keys={
-                            "accum_key": {"z": "1 0BB...386"},
-                        },
-                        tails_hash="not-correct-hash",
-                        tails_location="http://tails-server.com",
-                    ),
-                    issuer_id="CsQY9MGeD3CQP4EyuVFo5m",
-                    type="CL_ACCUM",
-                )
-            )
-        assert mock_remove.call_count == 1
-
-        # http request fails
         with self.assertRaises(test_module.AnonCredsRevocationError):
             await self.revocation.retrieve_tails(rev_reg_def)
 
-        # doesn't crash on non 200 response
-        await self.revocation.retrieve_tails(rev_reg_def)
+    def test_tails_cache_fallback(self):
+        self.profile.context.injector.clear_binding(TailsFileCache)
+        tails_cache = self.revocation.tails_cache
+        assert isinstance(tails_cache, TailsFileCache)
+        assert self.revocation.tails_cache is tails_cache
+        assert self.profile.inject(TailsFileCache) is tails_cache
 
     def test_generate_public_tails_uri(self):
         self.revocation.generate_public_tails_uri(rev_reg_def)
@@ -129,3 +129,71 @@ class AnonCredsRevRegIdMatchInfoSchema(OpenAPISchema):
             "example": ANONCREDS_REV_REG_ID_EXAMPLE,
         },
     )
+
+
+class PublishStatusQueryStringSchema(OpenAPISchema):
+    """Query string parameters for the status of revocation publications."""
+
+    job_id = fields.Str(
+        required=False,
+        metadata={
+            "description": "Only return this publication",
+            "example": UUID4_EXAMPLE,
+        },
+    )
+
+
+class RegistryPublishStatusSchema(OpenAPISchema):
+    """Progress of the publication of one revocation registry."""
+
+    rev_reg_id = fields.Str(
+        metadata={
+            "description": "Revocation registry identifier",
+            "example": ANONCREDS_REV_REG_ID_EXAMPLE,
+        }
+    )
+    state = fields.Str(
+        validate=validate.OneOf(
+            ["pending", "computing", "publishing", "published", "skipped", "failed"]
+        ),
+        metadata={"description": "Publication state", "example": "published"},
+    )
+    revoked = fields.List(
+        fields.Str(), metadata={"description": "Credential revocation identifiers"}
+    )
+    failed = fields.List(
+        fields.Str(),
+        metadata={"description": "Credential revocation identifiers not revoked"},
+    )
+    error = fields.Str(
+        allow_none=True, metadata={"description": "Error, if the publication failed"}
+    )
+    updated_at = fields.Int(metadata={"description": "Time of the last update"})
+
+
+class PublishJobSchema(OpenAPISchema):
+    """Progress of one publication of pending revocations."""
+
+    job_id = fields.Str(
+        metadata={"description": "Publication identifier", "example": UUID4_EXAMPLE}
+    )
+    state = fields.Str(
+        validate=validate.OneOf(["running", "completed"]),
+        metadata={"description": "Overall state", "example": "completed"},
+    )
+    created_at = fields.Int(metadata={"description": "Time the publication started"})
+    counts = fields.Dict(
+        keys=fields.Str(),
+        values=fields.Int(),
+        metadata={"description": "Number of revocation registries in each state"},
+    )
+    registries = fields.List(fields.Nested(RegistryPublishStatusSchema()))
+
+
+class PublishStatusResultSchema(OpenAPISchema):
+    """Result schema for the status of revocation publications."""
+
+    results = fields.List(
+        fields.Nested(PublishJobSchema()),
+        metadata={"description": "Recent publications, most recent first"},
+    )
@@ -22,6 +22,7 @@ from ....models.issuer_cred_rev_record import (
 )
 from ....revocation import AnonCredsRevocationError
 from ....revocation.manager import RevocationManager, RevocationManagerError
+from ....revocation.publish_status import RevocationPublishTracker
 from ....routes.revocation import AnonCredsRevocationModuleResponseSchema
 from ...common.utils import get_request_body_with_profile_check
 from .. import REVOCATION_TAG_TITLE
@@ -30,6 +31,8 @@ from .models import (
     CredRevRecordResultSchemaAnonCreds,
     PublishRevocationsResultSchemaAnonCreds,
     PublishRevocationsSchemaAnonCreds,
+    PublishStatusQueryStringSchema,
+    PublishStatusResultSchema,
     RevokeRequestSchemaAnonCreds,
 )
 
@@ -119,6 +122,40 @@ async def publish_revocations(request: web.BaseRequest):
         raise web.HTTPBadRequest(reason=err.roll_up) from err
 
 
+@docs(tags=[REVOCATION_TAG_TITLE], summary="Get progress of revocation publications")
+@querystring_schema(PublishStatusQueryStringSchema())
+@response_schema(PublishStatusResultSchema(), 200, description="")
+@tenant_authentication
+async def get_publish_status(request: web.BaseRequest):
+    """Request handler for the progress of recent revocation publications.
+
+    Args:
+        request: aiohttp request object
+
+    Returns:
+        The recent publications with the state of each revocation registry.
+
+    """
+    context: AdminRequestContext = request["context"]
+    profile = context.profile
+
+    is_not_anoncreds_profile_raise_web_exception(profile)
+
+    tracker = profile.inject_or(RevocationPublishTracker)
+    if not tracker:
+        return web.json_response({"results": []})
+
+    job_id = request.query.get("job_id")
+    if job_id:
+        job = tracker.get_job(profile, job_id)
+        if not job:
+            raise web.HTTPNotFound(reason=f"No revocation publication found: {job_id}")
+        jobs = [job]
+    else:
+        jobs = tracker.jobs(profile)
+    return web.json_response({"results": [job.serialize() for job in jobs]})
+
+
 @docs(
     tags=[REVOCATION_TAG_TITLE],
     summary="Get credential revocation status",
@@ -179,6 +216,11 @@ async def register(app: web.Application) -> None:
         [
             web.post("/anoncreds/revocation/revoke", revoke),
             web.post("/anoncreds/revocation/publish-revocations", publish_revocations),
+            web.get(
+                "/anoncreds/revocation/publish-revocations/status",
+                get_publish_status,
+                allow_head=False,
+            ),
             web.get(
                 "/anoncreds/revocation/credential-record",
                 get_cred_rev_record,
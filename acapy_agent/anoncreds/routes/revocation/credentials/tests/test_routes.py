@@ -10,6 +10,7 @@ from ......storage.error import StorageNotFoundError
 from ......tests import mock
 from ......utils.testing import create_test_profile
 from .....models.issuer_cred_rev_record import IssuerCredRevRecord
+from .....revocation.publish_status import RevocationPublishTracker
 from ....common.testing import BaseAnonCredsRouteTestCaseWithOutbound
 from .. import routes as test_module
 from ..routes import (
@@ -175,6 +176,27 @@ class TestAnonCredsCredentialRevocationRoutes(
             with self.assertRaises(test_module.web.HTTPBadRequest):
                 await test_module.publish_revocations(self.request)
 
+    async def test_get_publish_status(self):
+        tracker = RevocationPublishTracker()
+        self.profile.context.injector.bind_instance(RevocationPublishTracker, tracker)
+        job = tracker.start(self.profile, ["rev-reg-1", "rev-reg-2"])
+        tracker.start(self.profile, ["rev-reg-3"])
+
+        with mock.patch.object(test_module.web, "json_response") as mock_response:
+            await test_module.get_publish_status(self.request)
+            results = mock_response.call_args[0][0]["results"]
+            assert len(results) == 2
+            assert results[1]["job_id"] == job.job_id
+            assert results[1]["counts"] == {"pending": 2}
+
+            self.request.query = {"job_id": job.job_id}
+            await test_module.get_publish_status(self.request)
+            mock_response.assert_called_with({"results": [job.serialize()]})
+
+        self.request.query = {"job_id": "unknown"}
+        with self.assertRaises(HTTPNotFound):
+            await test_module.get_publish_status(self.request)
+
     async def test_get_cred_rev_record(self):
         self.request.query = {
             "rev_reg_id": "test_rev_reg_id",
@@ -37,6 +37,7 @@ from ...anoncreds.tests.mock_objects import (
 )
 from ...askar.profile_anon import AskarAnonCredsProfile, AskarAnonCredsProfileSession
 from ...tests import mock
+from ...utils.metrics import MetricsRegistry
 from ...utils.testing import create_test_profile
 from ...vc.ld_proofs.document_loader import DocumentLoader
 from ...wallet.error import WalletNotFoundError
@@ -751,3 +752,44 @@ class TestAnonCredsHolder(IsolatedAsyncioTestCase):
                 rev_list={"accum": "1"},
                 tails_file_path="/tmp/some.tails",
             )
+
+    @mock.patch.object(CredentialRevocationState, "create")
+    async def test_create_revocation_state_cached(self, mock_create):
+        mock_create.side_effect = lambda *args: mock.MagicMock(
+            to_json=mock.MagicMock(return_value=json.dumps({"at": args[1]["timestamp"]}))
+        )
+        metrics = MetricsRegistry()
+        self.profile.context.injector.bind_instance(MetricsRegistry, metrics)
+        self.holder.MAX_CACHED_REVOCATION_STATES = 2
+
+        async def create(timestamp: int) -> dict:
+            return json.loads(
+                await self.holder.create_revocation_state(
+                    cred_rev_id="1",
+                    rev_reg_def={"def": 1},
+                    rev_list={"revRegDefId": "rev-reg-id", "timestamp": timestamp},
+                    tails_file_path="/tmp/some.tails",
+                )
+            )
+
+        assert await create(10) == {"at": 10}
+        assert await create(10) == {"at": 10}
+        assert mock_create.call_count == 1
+
+        # a later state is updated from the latest cached state
+        assert await create(20) == {"at": 20}
+        args = mock_create.call_args.args
+        assert args[4] == json.dumps({"at": 10})
+        assert args[5] == {"revRegDefId": "rev-reg-id", "timestamp": 10}
+
+        # an earlier state is created from scratch
+        assert await create(5) == {"at": 5}
+        assert len(mock_create.call_args.args) == 6
+        assert mock_create.call_args.args[4] is None
+
+        async with self.profile.session() as session:
+            cached = await session.handle.fetch_all(
+                test_module.CATEGORY_REVOCATION_STATE, {"rev_reg_id": "rev-reg-id"}
+            )
+        assert sorted(entry.tags["timestamp"] for entry in cached) == ["10", "20"]
+        assert "holder_revocation_state_cache" in metrics.render()
@@ -0,0 +1,123 @@
+import json
+
+import pytest
+import pytest_asyncio
+from aries_askar import Key, KeyAlg, Session
+
+from ....utils.jwe import JweEnvelope
+from ....utils.testing import create_test_profile
+from ....utils.worker_pool import WorkerPool
+from ....wallet.base import WalletError
+from ....wallet.util import bytes_to_b58
+from .. import v1 as test_module
+
+MESSAGE = b"Expecto patronum"
+
+
+@pytest_asyncio.fixture
+async def session():
+    profile = await create_test_profile()
+    async with profile.session() as session:
+        yield session.handle
+    del session
+    await profile.close()
+
+
+async def _insert_key(session: Session) -> str:
+    key = Key.generate(KeyAlg.ED25519)
+    verkey = bytes_to_b58(key.get_public_bytes())
+    await session.insert_key(verkey, key)
+    return verkey
+
+
+@pytest.mark.askar
+class TestAskarDidCommV1:
+    @pytest.mark.asyncio
+    async def test_anoncrypt_round_trip(self, session: Session):
+        bob_vk = await _insert_key(session)
+        carol_vk = bytes_to_b58(Key.generate(KeyAlg.ED25519).get_public_bytes())
+
+        enc_message = test_module.pack_message([carol_vk, bob_vk], None, MESSAGE)
+        envelope = JweEnvelope.from_json(enc_message)
+        assert envelope.protected["alg"] == "Anoncrypt"
+        assert list(envelope.recipient_key_ids) == [carol_vk, bob_vk]
+
+        plaintext, recip_vk, sender_vk = await test_module.unpack_message(
+            session, enc_message
+        )
+        assert plaintext == MESSAGE
+        assert recip_vk == bob_vk
+        assert sender_vk is None
+
+    @pytest.mark.asyncio
+    async def test_authcrypt_round_trip(self, session: Session):
+        bob_vk = await _insert_key(session)
+        alice_sk = Key.generate(KeyAlg.ED25519)
+        alice_vk = bytes_to_b58(alice_sk.get_public_bytes())
+
+        first = test_module.pack_message([bob_vk], alice_sk, MESSAGE)
+        second = test_module.pack_message([bob_vk], alice_sk, MESSAGE)
+        # the sealed sender is not reused between messages
+        assert json.loads(first)["protected"] != json.loads(second)["protected"]
+
+        for enc_message in (first, second):
+            plaintext, recip_vk, sender_vk = await test_module.unpack_message(
+                session, enc_message
+            )
+            assert plaintext == MESSAGE
+            assert recip_vk == bob_vk
+            assert sender_vk == alice_vk
+
+    def test_pack_conversion_cached(self):
+        test_module._x25519_public_key.cache_clear()
+        bob_vk = bytes_to_b58(Key.generate(KeyAlg.ED25519).get_public_bytes())
+        for _ in range(3):
+            test_module.pack_message([bob_vk], None, MESSAGE)
+        info = test_module._x25519_public_key.cache_info()
+        assert info.misses == 1
+        assert info.hits == 2
+
+    def test_pack_x(self):
+        with pytest.raises(test_module.ValidationError):
+            test_module.pack_message([], None, MESSAGE)
+        with pytest.raises(ValueError):
+            test_module.pack_message(['bad"key'], None, MESSAGE)
+
+    @pytest.mark.asyncio
+    async def test_unpack_unknown_recipient(self, session: Session):
+        carol_vk = bytes_to_b58(Key.generate(KeyAlg.ED25519).get_public_bytes())
+        enc_message = test_module.pack_message([carol_vk], None, MESSAGE)
+        with pytest.raises(WalletError, match="No corresponding recipient key"):
+            await test_module.unpack_message(session, enc_message)
+
+    @pytest.mark.asyncio
+    async def test_unpack_messages(self, session: Session):
+        bob_vk = await _insert_key(session)
+        carol_vk = bytes_to_b58(Key.generate(KeyAlg.ED25519).get_public_bytes())
+        enc_messages = [
+            test_module.pack_message([carol_vk, bob_vk], None, MESSAGE),
+            test_module.pack_message([carol_vk, bob_vk], None, MESSAGE),
+            test_module.pack_message([carol_vk], None, MESSAGE),
+            b"invalid",
+        ]
+
+        fetch_key = session.fetch_key
+        fetched = []
+
+        async def _fetch_key(verkey):
+            fetched.append(verkey)
+            return await fetch_key(verkey)
+
+        session.fetch_key = _fetch_key
+        pool = WorkerPool(2)
+        try:
+            results = await test_module.unpack_messages(session, enc_messages, pool)
+        finally:
+            pool.shutdown()
+
+        # each recipient key is fetched once for the batch
+        assert sorted(fetched) == sorted([carol_vk, bob_vk])
+        assert results[0] == (MESSAGE, bob_vk, None)
+        assert results[1] == (MESSAGE, bob_vk, None)
+        assert isinstance(results[2], WalletError)
+        assert isinstance(results[3], WalletError)
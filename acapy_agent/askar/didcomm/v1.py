@@ -1,23 +1,46 @@
 """DIDComm v1 envelope handling via Askar backend."""
 
-from collections import OrderedDict
-from typing import Optional, Sequence, Tuple
+import asyncio
+from functools import lru_cache
+from typing import List, Optional, Sequence, Tuple, Union
 
 from aries_askar import Key, KeyAlg, Session, crypto_box
 from aries_askar.bindings import key_get_secret_bytes
 from marshmallow import ValidationError
 
-from ...utils.jwe import JweEnvelope, JweRecipient, b64url
+from ...utils.jwe import JweEnvelope, b64url
+from ...utils.worker_pool import WorkerPool
 from ...wallet.base import WalletError
 from ...wallet.crypto import extract_pack_recipients
 from ...wallet.util import b58_to_bytes, bytes_to_b58
 
+# number of converted public keys to retain
+PUBLIC_KEY_CACHE_SIZE = 4096
+
+
+@lru_cache(maxsize=PUBLIC_KEY_CACHE_SIZE)
+def _x25519_public_key(verkey: str) -> Key:
+    """Convert a base58 Ed25519 verkey to the X25519 key used to encrypt to it.
+
+    Messages are often packed for and received from the same few keys, so the
+    converted keys are cached.
+    """
+    return Key.from_public_bytes(KeyAlg.ED25519, b58_to_bytes(verkey)).convert_key(
+        KeyAlg.X25519
+    )
+
 
 def pack_message(
     to_verkeys: Sequence[str], from_key: Optional[Key], message: bytes
 ) -> bytes:
-    """Encode a message using the DIDComm v1 'pack' algorithm."""
-    wrapper = JweEnvelope(with_protected_recipients=True, with_flatten_recipients=False)
+    """Encode a message using the DIDComm v1 'pack' algorithm.
+
+    The JWE is written out directly rather than through `JweEnvelope`. Every
+    value is either base64-URL or a base58 verkey, neither of which need JSON
+    escaping, and the output matches that of `JweEnvelope.to_json`.
+    """
+    if not to_verkeys:
+        raise ValidationError("Missing message recipients")
     cek = Key.generate(KeyAlg.C20P)
     # avoid converting to bytes object: this way the only copy is zeroed afterward
     cek_b = key_get_secret_bytes(cek._handle)
@@ -26,50 +49,42 @@ def pack_message(
     )
     sender_xk = from_key.convert_key(KeyAlg.X25519) if from_key else None
 
+    recipients = []
     for target_vk in to_verkeys:
-        target_xk = Key.from_public_bytes(
-            KeyAlg.ED25519, b58_to_bytes(target_vk)
-        ).convert_key(KeyAlg.X25519)
+        # also checks that the verkey is base58 before it is written out
+        target_xk = _x25519_public_key(target_vk)
         if sender_vk:
+            # the sender is sealed afresh for each message, so that envelopes
+            # from one sender cannot be linked by their headers
             enc_sender = crypto_box.crypto_box_seal(target_xk, sender_vk)
             nonce = crypto_box.random_nonce()
             enc_cek = crypto_box.crypto_box(target_xk, sender_xk, cek_b, nonce)
-            wrapper.add_recipient(
-                JweRecipient(
-                    encrypted_key=enc_cek,
-                    header=OrderedDict(
-                        [
-                            ("kid", target_vk),
-                            ("sender", b64url(enc_sender)),
-                            ("iv", b64url(nonce)),
-                        ]
-                    ),
-                )
+            recipients.append(
+                f'{{"encrypted_key": "{b64url(enc_cek)}", "header": '
+                f'{{"kid": "{target_vk}", "sender": "{b64url(enc_sender)}", '
+                f'"iv": "{b64url(nonce)}"}}}}'
             )
         else:
-            enc_sender = None
-            nonce = None
             enc_cek = crypto_box.crypto_box_seal(target_xk, cek_b)
-            wrapper.add_recipient(
-                JweRecipient(encrypted_key=enc_cek, header={"kid": target_vk})
+            recipients.append(
+                f'{{"encrypted_key": "{b64url(enc_cek)}", '
+                f'"header": {{"kid": "{target_vk}"}}}}'
             )
-    wrapper.set_protected(
-        OrderedDict(
-            [
-                ("enc", "xchacha20poly1305_ietf"),
-                ("typ", "JWM/1.0"),
-                ("alg", "Authcrypt" if from_key else "Anoncrypt"),
-            ]
-        ),
+    alg = "Authcrypt" if from_key else "Anoncrypt"
+    protected = b64url(
+        '{"enc": "xchacha20poly1305_ietf", "typ": "JWM/1.0", '
+        f'"alg": "{alg}", "recipients": [{", ".join(recipients)}]}}'
     )
-    enc = cek.aead_encrypt(message, aad=wrapper.protected_bytes)
+    enc = cek.aead_encrypt(message, aad=protected.encode("utf-8"))
     ciphertext, tag, nonce = enc.parts
-    wrapper.set_payload(ciphertext, nonce, tag)
-    return wrapper.to_json().encode("utf-8")
+    return (
+        f'{{"protected": "{protected}", "iv": "{b64url(nonce)}", '
+        f'"ciphertext": "{b64url(ciphertext)}", "tag": "{b64url(tag)}"}}'
+    ).encode("utf-8")
 
 
-async def unpack_message(session: Session, enc_message: bytes) -> Tuple[str, str, str]:
-    """Decode a message using the DIDComm v1 'unpack' algorithm."""
+def _parse_envelope(enc_message: bytes) -> Tuple[JweEnvelope, bool, dict]:
+    """Parse a packed message and extract its recipients."""
     try:
         wrapper = JweEnvelope.from_json(enc_message)
     except ValidationError:
@@ -80,21 +95,18 @@ async def unpack_message(session: Session, enc_message: bytes) -> Tuple[str, str
     if not is_authcrypt and alg != "Anoncrypt":
         raise WalletError("Unsupported pack algorithm: {}".format(alg))
 
-    recips = extract_pack_recipients(wrapper.recipients)
+    return wrapper, is_authcrypt, extract_pack_recipients(wrapper.recipients)
 
-    payload_key, sender_vk = None, None
-    for recip_vk in recips:
-        recip_key_entry = await session.fetch_key(recip_vk)
-        if recip_key_entry:
-            payload_key, sender_vk = _extract_payload_key(
-                recips[recip_vk], recip_key_entry.key
-            )
-            break
 
-    if not payload_key:
-        raise WalletError(
-            "No corresponding recipient key found in {}".format(tuple(recips))
-        )
+def _decrypt(
+    wrapper: JweEnvelope,
+    is_authcrypt: bool,
+    recip_vk: str,
+    sender_cek: dict,
+    recip_secret: Key,
+) -> Tuple[bytes, str, str]:
+    """Decrypt a parsed message with the secret key of one of its recipients."""
+    payload_key, sender_vk = _extract_payload_key(sender_cek, recip_secret)
     if not sender_vk and is_authcrypt:
         raise WalletError("Sender public key not provided for Authcrypt message")
 
@@ -108,6 +120,75 @@ async def unpack_message(session: Session, enc_message: bytes) -> Tuple[str, str
     return message, recip_vk, sender_vk
 
 
+async def unpack_message(session: Session, enc_message: bytes) -> Tuple[str, str, str]:
+    """Decode a message using the DIDComm v1 'unpack' algorithm."""
+    wrapper, is_authcrypt, recips = _parse_envelope(enc_message)
+
+    for recip_vk in recips:
+        recip_key_entry = await session.fetch_key(recip_vk)
+        if recip_key_entry:
+            return _decrypt(
+                wrapper, is_authcrypt, recip_vk, recips[recip_vk], recip_key_entry.key
+            )
+
+    raise WalletError("No corresponding recipient key found in {}".format(tuple(recips)))
+
+
+async def unpack_messages(
+    session: Session,
+    enc_messages: Sequence[bytes],
+    pool: Optional[WorkerPool] = None,
+) -> List[Union[Tuple[bytes, str, str], Exception]]:
+    """Decode a batch of messages using the DIDComm v1 'unpack' algorithm.
+
+    Each recipient key is fetched from the wallet once for the whole batch, and
+    the messages are decrypted concurrently in the worker pool if one is given,
+    otherwise in the default executor.
+
+    Returns:
+        A list with, for each message, either the result of `unpack_message`
+        or the exception raised while unpacking it
+
+    """
+    results: List[Union[Tuple[bytes, str, str], Exception]] = [None] * len(
+        enc_messages
+    )
+    keys = {}
+    pending = []
+    for idx, enc_message in enumerate(enc_messages):
+        try:
+            wrapper, is_authcrypt, recips = _parse_envelope(enc_message)
+            for recip_vk in recips:
+                if recip_vk not in keys:
+                    entry = await session.fetch_key(recip_vk)
+                    keys[recip_vk] = entry.key if entry else None
+                if keys[recip_vk]:
+                    args = (wrapper, is_authcrypt, recip_vk, recips[recip_vk])
+                    pending.append((idx, args + (keys[recip_vk],)))
+                    break
+            else:
+                raise WalletError(
+                    "No corresponding recipient key found in {}".format(tuple(recips))
+                )
+        except Exception as err:
+            results[idx] = err
+
+    if pool:
+        run = pool.run
+    else:
+        loop = asyncio.get_running_loop()
+
+        async def run(fn, *args):
+            return await loop.run_in_executor(None, fn, *args)
+
+    decrypted = await asyncio.gather(
+        *(run(_decrypt, *args) for _, args in pending), return_exceptions=True
+    )
+    for (idx, _), result in zip(pending, decrypted):
+        results[idx] = result
+    return results
+
+
 def _extract_payload_key(sender_cek: dict, recip_secret: Key) -> Tuple[bytes, str]:
     """Extract the payload key from pack recipient details.
 
@@ -119,9 +200,7 @@ def _extract_payload_key(sender_cek: dict, recip_secret: Key) -> Tuple[bytes, st
         sender_vk = crypto_box.crypto_box_seal_open(recip_x, sender_cek["sender"]).decode(
             "utf-8"
         )
-        sender_x = Key.from_public_bytes(
-            KeyAlg.ED25519, b58_to_bytes(sender_vk)
-        ).convert_key(KeyAlg.X25519)
+        sender_x = _x25519_public_key(sender_vk)
         cek = crypto_box.crypto_box_open(
             recip_x, sender_x, sender_cek["key"], sender_cek["nonce"]
         )
@@ -0,0 +1,166 @@
+"""Bounded in-memory cache with LRU eviction and heap-based expiry."""
+
+import heapq
+import sys
+import time
+from collections import OrderedDict
+from typing import Any, Optional, Sequence, Text, Tuple, Union
+
+from .base import BaseCache
+
+
+class LRUCache(BaseCache):
+    """In-memory cache with O(1) lookups, bounded size and lazy expiry.
+
+    Entries are kept in an `OrderedDict` in least-recently-used order. Expiry
+    times are tracked in a min-heap so that only entries which are actually due
+    are examined, rather than scanning the whole cache on every access.
+    """
+
+    def __init__(
+        self, max_entries: Optional[int] = None, max_bytes: Optional[int] = None
+    ):
+        """Initialize a `LRUCache` instance.
+
+        Args:
+            max_entries: maximum number of entries to retain (unbounded if None)
+            max_bytes: approximate memory budget for cached values (unbounded if None)
+
+        """
+        super().__init__()
+        self.max_entries = max_entries
+        self.max_bytes = max_bytes
+        # key -> (expires, value, size)
+        self._cache: "OrderedDict[Text, Tuple[Optional[float], Any, int]]" = (
+            OrderedDict()
+        )
+        # heap of (expires, key)
+        self._expiry: list = []
+        self._size = 0
+        self.hits = 0
+        self.misses = 0
+        self.evictions = 0
+        self.expirations = 0
+
+    @staticmethod
+    def _sizeof(key: Text, value: Any) -> int:
+        """Estimate the memory footprint of an entry."""
+        return sys.getsizeof(key) + sys.getsizeof(value)
+
+    def _remove(self, key: Text):
+        """Remove an entry and update the size accounting."""
+        entry = self._cache.pop(key, None)
+        if entry:
+            self._size -= entry[2]
+
+    def _remove_expired_cache_items(self):
+        """Remove expired items, examining only those which are due."""
+        now = time.perf_counter()
+        expiry = self._expiry
+        while expiry and expiry[0][0] <= now:
+            expires, key = heapq.heappop(expiry)
+            entry = self._cache.get(key)
+            # skip heap records superseded by a later set()
+            if entry and entry[0] == expires:
+                self._remove(key)
+                self.expirations += 1
+        # compact the heap if it is dominated by superseded records
+        if len(expiry) > 64 and len(expiry) > 2 * len(self._cache):
+            self._expiry = [
+                (entry[0], key)
+                for key, entry in self._cache.items()
+                if entry[0] is not None
+            ]
+            heapq.heapify(self._expiry)
+
+    def _evict(self):
+        """Evict least-recently-used entries until within the configured bounds."""
+        while self._cache and (
+            (self.max_entries is not None and len(self._cache) > self.max_entries)
+            or (self.max_bytes is not None and self._size > self.max_bytes)
+        ):
+            _, (_, _, size) = self._cache.popitem(last=False)
+            self._size -= size
+            self.evictions += 1
+
+    async def get(self, key: Text):
+        """Get an item from the cache.
+
+        Args:
+            key: the key to retrieve an item for
+
+        Returns:
+            The record found or `None`
+
+        """
+        self._remove_expired_cache_items()
+        entry = self._cache.get(key)
+        if entry is None:
+            self.misses += 1
+            return None
+        self._cache.move_to_end(key)
+        self.hits += 1
+        return entry[1]
+
+    async def set(
+        self, keys: Union[Text, Sequence[Text]], value: Any, ttl: Optional[int] = None
+    ):
+        """Add an item to the cache with an optional ttl.
+
+        Overwrites existing cache entries.
+
+        Args:
+            keys: the key or keys for which to set an item
+            value: the value to store in the cache
+            ttl: number of seconds that the record should persist
+
+        """
+        self._remove_expired_cache_items()
+        expires_ts = time.perf_counter() + ttl if ttl else None
+        for key in [keys] if isinstance(keys, Text) else keys:
+            self._remove(key)
+            size = self._sizeof(key, value)
+            self._cache[key] = (expires_ts, value, size)
+            self._size += size
+            if expires_ts is not None:
+                heapq.heappush(self._expiry, (expires_ts, key))
+        self._evict()
+
+    async def clear(self, key: Text):
+        """Remove an item from the cache, if present.
+
+        Args:
+            key: the key to remove
+
+        """
+        self._remove(key)
+
+    async def flush(self):
+        """Remove all items from the cache."""
+        self._cache = OrderedDict()
+        self._expiry = []
+        self._size = 0
+
+    def __len__(self) -> int:
+        """Return the number of cached entries."""
+        return len(self._cache)
+
+    def __bool__(self) -> bool:
+        """Treat the cache as present even when empty.
+
+        Callers check for an optional cache with `if cache:`.
+        """
+        return True
+
+    def stats(self) -> dict:
+        """Summarize the cache counters."""
+        lookups = self.hits + self.misses
+        return {
+            "entries": len(self._cache),
+            "bytes": self._size,
+            "hits": self.hits,
+            "misses": self.misses,
+            "hit_ratio": (self.hits / lookups) if lookups else 0.0,
+            "evictions": self.evictions,
+            "expirations": self.expirations,
+        }
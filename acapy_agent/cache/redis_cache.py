@@ -0,0 +1,408 @@
+"""Shared cache implementation speaking the Redis wire protocol."""
+
+import asyncio
+import json
+import logging
+from typing import Any, Optional, Sequence, Text, Tuple, Union
+from urllib.parse import urlparse
+from uuid import uuid4
+
+from .base import BaseCache, CacheError, CacheKeyLock
+
+LOGGER = logging.getLogger(__name__)
+
+
+class RespError(CacheError):
+    """Error response returned by the cache server."""
+
+
+class RespClient:
+    """Minimal asyncio client for the Redis serialization protocol (RESP).
+
+    Commands issued through a single `pipeline` call are written together and
+    their replies read back in order, so a batch costs one round-trip.
+    """
+
+    def __init__(
+        self,
+        host: str = "localhost",
+        port: int = 6379,
+        db: int = 0,
+        password: Optional[str] = None,
+        username: Optional[str] = None,
+        timeout: float = 5.0,
+    ):
+        """Initialize the client."""
+        self.host = host
+        self.port = port
+        self.db = db
+        self.password = password
+        self.username = username
+        self.timeout = timeout
+        self._reader: Optional[asyncio.StreamReader] = None
+        self._writer: Optional[asyncio.StreamWriter] = None
+        self._lock = asyncio.Lock()
+
+    @classmethod
+    def from_url(cls, url: str, timeout: float = 5.0) -> "RespClient":
+        """Create a client from a `redis://[[user]:password@]host[:port][/db]` URL."""
+        parsed = urlparse(url)
+        if parsed.scheme != "redis":
+            raise CacheError(f"Unsupported cache URL scheme: {parsed.scheme}")
+        db = parsed.path.lstrip("/")
+        return cls(
+            host=parsed.hostname or "localhost",
+            port=parsed.port or 6379,
+            db=int(db) if db else 0,
+            username=parsed.username or None,
+            password=parsed.password or None,
+            timeout=timeout,
+        )
+
+    @property
+    def connected(self) -> bool:
+        """Accessor for the connection state."""
+        return bool(self._writer and not self._writer.is_closing())
+
+    async def _connect(self):
+        """Open the connection and perform authentication and db selection."""
+        self._reader, self._writer = await asyncio.wait_for(
+            asyncio.open_connection(self.host, self.port), self.timeout
+        )
+        setup = []
+        if self.password:
+            setup.append(
+                ("AUTH", self.username, self.password)
+                if self.username
+                else ("AUTH", self.password)
+            )
+        if self.db:
+            setup.append(("SELECT", self.db))
+        if setup:
+            await self._execute(setup)
+
+    @staticmethod
+    def _encode(command: Sequence[Any]) -> bytes:
+        """Encode a command as a RESP array of bulk strings."""
+        out = [b"*%d\r\n" % len(command)]
+        for arg in command:
+            if isinstance(arg, bytes):
+                data = arg
+            elif isinstance(arg, str):
+                data = arg.encode()
+            else:
+                data = str(arg).encode()
+            out.append(b"$%d\r\n%s\r\n" % (len(data), data))
+        return b"".join(out)
+
+    async def _read_reply(self):
+        """Read a single reply from the stream."""
+        line = await self._reader.readline()
+        if not line:
+            raise ConnectionError("Cache server closed the connection")
+        kind, payload = line[:1], line[1:-2]
+        if kind == b"+":
+            return payload.decode()
+        if kind == b"-":
+            return RespError(payload.decode())
+        if kind == b":":
+            return int(payload)
+        if kind == b"$":
+            length = int(payload)
+            if length < 0:
+                return None
+            data = await self._reader.readexactly(length + 2)
+            return data[:-2]
+        if kind == b"*":
+            count = int(payload)
+            if count < 0:
+                return None
+            return [await self._read_reply() for _ in range(count)]
+        raise CacheError(f"Unexpected reply from cache server: {line!r}")
+
+    async def _execute(self, commands: Sequence[Sequence[Any]]) -> list:
+        """Write a batch of commands and read back their replies."""
+        self._writer.write(b"".join(self._encode(cmd) for cmd in commands))
+        await self._writer.drain()
+        return [
+            await asyncio.wait_for(self._read_reply(), self.timeout) for _ in commands
+        ]
+
+    async def pipeline(self, commands: Sequence[Sequence[Any]]) -> list:
+        """Execute a batch of commands in a single round-trip.
+
+        Error replies are raised after the full batch has been read.
+        """
+        if not commands:
+            return []
+        async with self._lock:
+            try:
+                if not self.connected:
+                    await self._connect()
+                replies = await self._execute(commands)
+            except (ConnectionError, OSError, asyncio.TimeoutError) as err:
+                await self._reset()
+                raise CacheError("Error communicating with cache server") from err
+        for reply in replies:
+            if isinstance(reply, RespError):
+                raise reply
+        return replies
+
+    async def execute(self, *command: Any):
+        """Execute a single command."""
+        return (await self.pipeline([command]))[0]
+
+    async def _reset(self):
+        """Drop the current connection."""
+        writer, self._reader, self._writer = self._writer, None, None
+        if writer:
+            writer.close()
+            try:
+                await writer.wait_closed()
+            except (ConnectionError, OSError):
+                pass
+
+    async def close(self):
+        """Close the connection."""
+        async with self._lock:
+            await self._reset()
+
+
+class RedisCacheKeyLock(CacheKeyLock):
+    """Cache key lock which is also held across processes sharing the cache.
+
+    The first process to miss on a key claims a short-lived lock entry on the
+    server and populates the value; other processes wait for either the value
+    to appear or the lock to lapse before computing it themselves.
+    """
+
+    def __init__(self, cache: "RedisCache", key: Text):
+        """Initialize the key lock."""
+        super().__init__(cache, key)
+        self._token: Optional[str] = None
+
+    async def __aenter__(self):
+        """Async context manager entry."""
+        await super().__aenter__()
+        if self.parent or self.done:
+            return self
+        cache: RedisCache = self.cache
+        loop = asyncio.get_event_loop()
+        deadline = loop.time() + cache.lock_timeout
+        while True:
+            token = uuid4().hex
+            if await cache.lock_key(self.key, token):
+                self._token = token
+                return self
+            if loop.time() >= deadline:
+                LOGGER.debug("Timed out waiting on shared lock for %s", self.key)
+                return self
+            await asyncio.sleep(cache.lock_poll_interval)
+            found = await cache.get(self.key)
+            if found:
+                self._future.set_result(found)
+                return self
+
+    async def __aexit__(self, exc_type, exc_val, exc_tb):
+        """Async context manager exit, releasing the shared lock if held."""
+        token, self._token = self._token, None
+        try:
+            if token:
+                await self.cache.unlock_key(self.key, token)
+        finally:
+            await super().__aexit__(exc_type, exc_val, exc_tb)
+
+
+class RedisCache(BaseCache):
+    """Cache shared between agent instances through a Redis-compatible server.
+
+    Values are serialized as JSON. Values which cannot be serialized are not
+    cached, and server errors are logged and treated as cache misses so that a
+    cache outage degrades performance rather than availability.
+    """
+
+    def __init__(
+        self,
+        client: RespClient,
+        prefix: str = "acapy:",
+        lock_timeout: float = 10.0,
+        lock_poll_interval: float = 0.05,
+    ):
+        """Initialize a `RedisCache` instance.
+
+        Args:
+            client: the RESP client to use
+            prefix: namespace prepended to every key
+            lock_timeout: seconds a shared key lock is held before it lapses
+            lock_poll_interval: seconds between checks while waiting on a lock
+
+        """
+        super().__init__()
+        self.client = client
+        self.prefix = prefix
+        self.lock_timeout = lock_timeout
+        self.lock_poll_interval = lock_poll_interval
+
+    def _key(self, key: Text) -> str:
+        return self.prefix + key
+
+    def _lock_key(self, key: Text) -> str:
+        return self.prefix + "lock:" + key
+
+    @staticmethod
+    def _serialize(value: Any) -> Optional[bytes]:
+        try:
+            return json.dumps(value, separators=(",", ":")).encode()
+        except (TypeError, ValueError):
+            return None
+
+    @staticmethod
+    def _deserialize(data: Optional[bytes]) -> Any:
+        return None if data is None else json.loads(data)
+
+    @staticmethod
+    def _set_command(key: str, data: bytes, ttl: Optional[float]) -> Tuple:
+        if ttl:
+            return ("SET", key, data, "PX", max(int(ttl * 1000), 1))
+        return ("SET", key, data)
+
+    async def get(self, key: Text):
+        """Get an item from the cache.
+
+        Args:
+            key: the key to retrieve an item for
+
+        Returns:
+            The record found or `None`
+
+        """
+        try:
+            return self._deserialize(await self.client.execute("GET", self._key(key)))
+        except CacheError as err:
+            LOGGER.warning("Cache get failed for %s: %s", key, err)
+            return None
+
+    async def get_many(self, keys: Sequence[Text]) -> list:
+        """Get several items from the cache in a single round-trip.
+
+        Args:
+            keys: the keys to retrieve items for
+
+        Returns:
+            A list of values, with `None` for each missing key
+
+        """
+        if not keys:
+            return []
+        try:
+            found = await self.client.execute("MGET", *(self._key(k) for k in keys))
+        except CacheError as err:
+            LOGGER.warning("Cache multi-get failed: %s", err)
+            return [None] * len(keys)
+        return [self._deserialize(data) for data in found]
+
+    async def set(
+        self, keys: Union[Text, Sequence[Text]], value: Any, ttl: Optional[int] = None
+    ):
+        """Add an item to the cache with an optional ttl.
+
+        Overwrites existing cache entries.
+
+        Args:
+            keys: the key or keys for which to set an item
+            value: the value to store in the cache
+            ttl: number of seconds that the record should persist
+
+        """
+        keys = [keys] if isinstance(keys, Text) else keys
+        await self.set_many({key: value for key in keys}, ttl)
+
+    async def set_many(self, items: dict, ttl: Optional[int] = None):
+        """Add several items to the cache in a single round-trip.
+
+        Args:
+            items: mapping of keys to values
+            ttl: number of seconds that the records should persist
+
+        """
+        commands = []
+        for key, value in items.items():
+            data = self._serialize(value)
+            if data is None:
+                LOGGER.debug("Skipping cache of unserializable value for %s", key)
+                continue
+            commands.append(self._set_command(self._key(key), data, ttl))
+        try:
+            await self.client.pipeline(commands)
+        except CacheError as err:
+            LOGGER.warning("Cache set failed: %s", err)
+
+    async def clear(self, key: Text):
+        """Remove an item from the cache, if present.
+
+        Args:
+            key: the key to remove
+
+        """
+        try:
+            await self.client.execute("DEL", self._key(key))
+        except CacheError as err:
+            LOGGER.warning("Cache clear failed for %s: %s", key, err)
+
+    async def flush(self):
+        """Remove all items under this cache's prefix."""
+        cursor = b"0"
+        try:
+            while True:
+                cursor, found = await self.client.execute(
+                    "SCAN", cursor, "MATCH", self.prefix + "*", "COUNT", 500
+                )
+                if found:
+                    await self.client.execute("DEL", *found)
+                if cursor in (b"0", 0):
+                    break
+        except CacheError as err:
+            LOGGER.warning("Cache flush failed: %s", err)
+
+    def acquire(self, key: Text):
+        """Acquire a lock on a given cache key, shared across processes."""
+        result = RedisCacheKeyLock(self, key)
+        first = self._key_locks.setdefault(key, result)
+        if first is not result:
+            result.parent = first
+        return result
+
+    async def lock_key(self, key: Text, token: str) -> bool:
+        """Attempt to claim the shared lock for a key."""
+        try:
+            reply = await self.client.execute(
+                "SET",
+                self._lock_key(key),
+                token,
+                "NX",
+                "PX",
+                int(self.lock_timeout * 1000),
+            )
+        except CacheError as err:
+            LOGGER.warning("Cache lock failed for %s: %s", key, err)
+            return True
+        return reply == "OK"
+
+    async def unlock_key(self, key: Text, token: str):
+        """Release the shared lock for a key if it is still held by this owner."""
+        lock_key = self._lock_key(key)
+        try:
+            if await self.client.execute("GET", lock_key) == token.encode():
+                await self.client.execute("DEL", lock_key)
+        except CacheError as err:
+            LOGGER.warning("Cache unlock failed for %s: %s", key, err)
+
+    async def close(self):
+        """Close the connection to the cache server."""
+        await self.client.close()
+
+    def __repr__(self) -> str:
+        """Human readable representation of this instance."""
+        return "<{}>(host={}, port={})".format(
+            self.__class__.__name__, self.client.host, self.client.port
+        )
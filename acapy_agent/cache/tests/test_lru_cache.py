@@ -0,0 +1,94 @@
+from asyncio import sleep
+
+import pytest
+import pytest_asyncio
+
+from ..lru import LRUCache
+
+
+@pytest_asyncio.fixture
+async def cache():
+    cache = LRUCache(max_entries=3)
+    await cache.set("valid key", "value")
+    return cache
+
+
+class TestLRUCache:
+    @pytest.mark.asyncio
+    async def test_get_none(self, cache):
+        assert await cache.get("doesn't exist") is None
+        assert cache.misses == 1
+
+    @pytest.mark.asyncio
+    async def test_get_valid(self, cache):
+        assert await cache.get("valid key") == "value"
+        assert cache.hits == 1
+
+    @pytest.mark.asyncio
+    async def test_set_multi(self, cache):
+        await cache.set(["key0", "key1"], {"dictkey": "dval"})
+        for key in ["key0", "key1"]:
+            assert await cache.get(key) == {"dictkey": "dval"}
+
+    @pytest.mark.asyncio
+    async def test_set_expires(self, cache):
+        await cache.set("key", "value", 0.05)
+        assert await cache.get("key") == "value"
+        await sleep(0.05)
+        assert await cache.get("key") is None
+        assert cache.expirations == 1
+        assert len(cache) == 1
+
+    @pytest.mark.asyncio
+    async def test_reset_expiry(self, cache):
+        await cache.set("key", "value", 0.05)
+        await cache.set("key", "value2")
+        await sleep(0.05)
+        assert await cache.get("key") == "value2"
+        assert cache.expirations == 0
+
+    @pytest.mark.asyncio
+    async def test_evict_lru(self, cache):
+        await cache.set("key0", "value0")
+        await cache.set("key1", "value1")
+        # touch the oldest entry so that key0 becomes least recently used
+        assert await cache.get("valid key") == "value"
+        await cache.set("key2", "value2")
+        assert len(cache) == 3
+        assert await cache.get("key0") is None
+        assert await cache.get("valid key") == "value"
+        assert cache.evictions == 1
+
+    @pytest.mark.asyncio
+    async def test_evict_bytes(self):
+        cache = LRUCache(max_bytes=1024)
+        await cache.set("key0", "x" * 600)
+        await cache.set("key1", "y" * 600)
+        assert await cache.get("key0") is None
+        assert await cache.get("key1") == "y" * 600
+        assert cache.stats()["bytes"] <= 1024
+
+    @pytest.mark.asyncio
+    async def test_clear_flush(self, cache):
+        await cache.set("key", "value")
+        await cache.clear("key")
+        assert await cache.get("key") is None
+        await cache.flush()
+        assert len(cache) == 0
+        assert cache  # an empty cache is still a cache
+        assert cache.stats()["bytes"] == 0
+
+    @pytest.mark.asyncio
+    async def test_stats(self, cache):
+        await cache.get("valid key")
+        await cache.get("missing")
+        stats = cache.stats()
+        assert stats["hits"] == 1
+        assert stats["misses"] == 1
+        assert stats["hit_ratio"] == 0.5
+
+    @pytest.mark.asyncio
+    async def test_acquire(self, cache):
+        async with cache.acquire("lock key") as entry:
+            await entry.set_result("result")
+        assert await cache.get("lock key") == "result"
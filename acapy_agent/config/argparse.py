@@ -5,6 +5,7 @@ import json
 import logging
 import os
 import tempfile
+from argparse import ArgumentTypeError
 from functools import reduce
 from itertools import chain
 from os import environ
@@ -297,6 +298,56 @@ class AdminGroup(ArgumentGroup):
                 "admin API. If not specified, webhooks are not published by the agent."
             ),
         )
+        parser.add_argument(
+            "--webhook-batch-size",
+            type=BoundedInt(min=1),
+            metavar="<count>",
+            env_var="ACAPY_WEBHOOK_BATCH_SIZE",
+            help=(
+                "Post up to this many webhooks in a single request, as a JSON list "
+                "sent to the '/batch/' path of the webhook URL. Each item has the "
+                "'topic', 'payload' and, in multitenant mode, 'wallet_id' of a "
+                "webhook. Default: 1, posting each webhook to its topic path."
+            ),
+        )
+        parser.add_argument(
+            "--webhook-batch-interval",
+            type=BoundedInt(min=0),
+            metavar="<milliseconds>",
+            env_var="ACAPY_WEBHOOK_BATCH_INTERVAL",
+            help=(
+                "How long to wait for a batch of webhooks to fill up before posting "
+                "it, in milliseconds. Default: 0, posting the webhooks available."
+            ),
+        )
+        parser.add_argument(
+            "--webhook-spool",
+            action="store_true",
+            env_var="ACAPY_WEBHOOK_SPOOL",
+            help=(
+                "Store webhooks in the wallet until they are delivered, and deliver "
+                "any left over when the agent starts, so that webhooks are not lost "
+                "on restart. Webhooks may be delivered more than once."
+            ),
+        )
+        parser.add_argument(
+            "--webhook-max-concurrency",
+            type=BoundedInt(min=1),
+            metavar="<count>",
+            env_var="ACAPY_WEBHOOK_MAX_CONCURRENCY",
+            help="Maximum number of webhook requests in flight to each webhook URL.",
+        )
+        parser.add_argument(
+            "--webhook-failure-threshold",
+            type=BoundedInt(min=0),
+            metavar="<count>",
+            env_var="ACAPY_WEBHOOK_FAILURE_THRESHOLD",
+            help=(
+                "Suspend deliveries to a webhook URL for 30 seconds after this many "
+                "consecutive failures, then try a single delivery before resuming. "
+                "0 disables this. Default: 5."
+            ),
+        )
         parser.add_argument(
             "--admin-client-max-request-size",
             default=1,
@@ -304,6 +355,28 @@ class AdminGroup(ArgumentGroup):
             env_var="ACAPY_ADMIN_CLIENT_MAX_REQUEST_SIZE",
             help="Maximum client request size to admin server, in megabytes: default 1",
         )
+        parser.add_argument(
+            "--admin-websocket-queue-size",
+            type=BoundedInt(min=1),
+            metavar="<count>",
+            env_var="ACAPY_ADMIN_WEBSOCKET_QUEUE_SIZE",
+            help=(
+                "Maximum number of events waiting to be sent to each admin websocket "
+                "client. Default: 1000."
+            ),
+        )
+        parser.add_argument(
+            "--admin-websocket-overflow",
+            type=str,
+            choices=("drop-oldest", "disconnect"),
+            metavar="<policy>",
+            env_var="ACAPY_ADMIN_WEBSOCKET_OVERFLOW",
+            help=(
+                "What to do when the event queue of an admin websocket client is full: "
+                "'drop-oldest' discards the oldest pending event, 'disconnect' closes "
+                "the websocket so that the client reconnects. Default: drop-oldest."
+            ),
+        )
 
     def get_settings(self, args: Namespace):
         """Extract admin settings."""
@@ -335,10 +408,26 @@ class AdminGroup(ArgumentGroup):
             if hook_url:
                 hook_urls.append(hook_url)
             settings["admin.webhook_urls"] = hook_urls
+            if args.webhook_batch_size:
+                settings["admin.webhook_batch_size"] = args.webhook_batch_size
+            if args.webhook_batch_interval is not None:
+                settings["admin.webhook_batch_interval"] = args.webhook_batch_interval
+            if args.webhook_spool:
+                settings["admin.webhook_spool"] = True
+            if args.webhook_max_concurrency:
+                settings["admin.webhook_max_concurrency"] = args.webhook_max_concurrency
+            if args.webhook_failure_threshold is not None:
+                settings["admin.webhook_failure_threshold"] = (
+                    args.webhook_failure_threshold
+                )
 
             settings["admin.admin_client_max_request_size"] = (
                 args.admin_client_max_request_size or 1
             )
+            if args.admin_websocket_queue_size:
+                settings["admin.websocket_queue_size"] = args.admin_websocket_queue_size
+            if args.admin_websocket_overflow:
+                settings["admin.websocket_overflow"] = args.admin_websocket_overflow
         return settings
 
 
@@ -794,6 +883,91 @@ class GeneralGroup(ArgumentGroup):
                 help="Bearer token if universal resolver instance requires authentication.",  # noqa: E501
             ),
         )
+        parser.add_argument(
+            "--resolver-cache-ttl",
+            type=str,
+            nargs="+",
+            metavar="<method>=<seconds>",
+            env_var="ACAPY_RESOLVER_CACHE_TTL",
+            help=(
+                "Seconds for which to cache DID resolution results, by DID method. "
+                'Use "*" for all other methods and 0 to disable caching of a '
+                "method. Only methods whose documents do not depend on the "
+                "wallet should be cached. Default: web=300 webvh=300 indy=3600."
+            ),
+        )
+        parser.add_argument(
+            "--resolver-cache-negative-ttl",
+            type=int,
+            metavar="<seconds>",
+            env_var="ACAPY_RESOLVER_CACHE_NEGATIVE_TTL",
+            help=(
+                "Seconds for which to remember that a DID of a cached method could "
+                "not be found. Default: 30."
+            ),
+        )
+        parser.add_argument(
+            "--resolver-cache-stale-ttl",
+            type=int,
+            metavar="<seconds>",
+            env_var="ACAPY_RESOLVER_CACHE_STALE_TTL",
+            help=(
+                "Seconds after expiry for which a cached DID resolution result may "
+                "still be returned while it is refreshed in the background. "
+                "Default: 300."
+            ),
+        )
+        parser.add_argument(
+            "--cache-type",
+            type=str,
+            choices=("memory", "lru", "redis"),
+            metavar="<cache_type>",
+            env_var="ACAPY_CACHE_TYPE",
+            help=(
+                "Select the shared cache implementation. 'memory' (the default) is "
+                "an unbounded in-memory cache; 'lru' is a bounded in-memory cache "
+                "with least-recently-used eviction; 'redis' is a cache shared "
+                "between agent instances through a Redis-compatible server."
+            ),
+        )
+        parser.add_argument(
+            "--cache-max-entries",
+            type=BoundedInt(min=1),
+            metavar="<count>",
+            env_var="ACAPY_CACHE_MAX_ENTRIES",
+            help="Maximum number of entries retained by the 'lru' cache.",
+        )
+        parser.add_argument(
+            "--cache-max-bytes",
+            type=ByteSize(min=1024),
+            metavar="<bytes>",
+            env_var="ACAPY_CACHE_MAX_BYTES",
+            help=(
+                "Approximate memory budget for the 'lru' cache, in bytes or with "
+                "a K/M/G suffix."
+            ),
+        )
+        parser.add_argument(
+            "--cache-url",
+            type=str,
+            metavar="<url>",
+            env_var="ACAPY_CACHE_URL",
+            help=(
+                "Server URL for the 'redis' cache, in the form "
+                "redis://[[user]:password@]host[:port][/db]. "
+                "Default: redis://localhost:6379"
+            ),
+        )
+        parser.add_argument(
+            "--cache-prefix",
+            type=str,
+            metavar="<prefix>",
+            env_var="ACAPY_CACHE_PREFIX",
+            help=(
+                "Key prefix for the 'redis' cache, allowing several agent "
+                "deployments to share one server. Default: 'acapy:'"
+            ),
+        )
 
     def get_settings(self, args: Namespace) -> dict:
         """Extract general settings."""
@@ -873,6 +1047,36 @@ class GeneralGroup(ArgumentGroup):
         if args.universal_resolver_bearer_token:
             settings["resolver.universal.token"] = args.universal_resolver_bearer_token
 
+        if args.resolver_cache_ttl:
+            cache_ttls = {}
+            for value_str in args.resolver_cache_ttl:
+                method, _, ttl = value_str.partition("=")
+                try:
+                    cache_ttls[method] = int(ttl)
+                except ValueError:
+                    raise ArgsParseError(
+                        "--resolver-cache-ttl values must be of the form "
+                        "<method>=<seconds>"
+                    )
+            settings["resolver.cache.ttls"] = cache_ttls
+        if args.resolver_cache_negative_ttl is not None:
+            settings["resolver.cache.negative_ttl"] = args.resolver_cache_negative_ttl
+        if args.resolver_cache_stale_ttl is not None:
+            settings["resolver.cache.stale_ttl"] = args.resolver_cache_stale_ttl
+
+        if args.cache_type:
+            settings["cache.type"] = args.cache_type
+        if args.cache_max_entries:
+            settings["cache.max_entries"] = args.cache_max_entries
+        if args.cache_max_bytes:
+            settings["cache.max_bytes"] = args.cache_max_bytes
+        if args.cache_url:
+            if args.cache_type != "redis":
+                raise ArgsParseError("--cache-url requires --cache-type redis")
+            settings["cache.url"] = args.cache_url
+        if args.cache_prefix:
+            settings["cache.prefix"] = args.cache_prefix
+
         return settings
 
 
@@ -901,6 +1105,29 @@ class RevocationGroup(ArgumentGroup):
                 "tails server base url."
             ),
         )
+        parser.add_argument(
+            "--tails-cache-max-size",
+            type=ByteSize(min=1),
+            metavar="<size>",
+            env_var="ACAPY_TAILS_CACHE_MAX_SIZE",
+            help=(
+                "Maximum total size of the downloaded tails files kept locally, "
+                "for example 2G. When exceeded, the least recently used tails "
+                "files are removed and downloaded again when next needed. "
+                "Default: no limit."
+            ),
+        )
+        parser.add_argument(
+            "--revocation-publish-concurrency",
+            type=BoundedInt(min=1),
+            metavar="<count>",
+            env_var="ACAPY_REVOCATION_PUBLISH_CONCURRENCY",
+            help=(
+                "Maximum number of revocation registries whose pending revocations "
+                "are written to the ledger at the same time when publishing "
+                "revocations. Default: 4."
+            ),
+        )
         parser.add_argument(
             "--notify-revocation",
             action="store_true",
@@ -941,6 +1168,12 @@ class RevocationGroup(ArgumentGroup):
             settings["tails_server_upload_url"] = args.tails_server_upload_url
         if args.tails_server_upload_url and not args.tails_server_base_url:
             settings["args.tails_server_base_url"] = args.tails_server_upload_url
+        if args.tails_cache_max_size:
+            settings["revocation.tails_cache_max_size"] = args.tails_cache_max_size
+        if args.revocation_publish_concurrency:
+            settings["revocation.publish_concurrency"] = (
+                args.revocation_publish_concurrency
+            )
         if args.notify_revocation:
             settings["revocation.notify"] = args.notify_revocation
         if args.monitor_revocation_notification:
@@ -1044,6 +1277,28 @@ class LedgerGroup(ArgumentGroup):
                 "connect to the public (outside of corporate network) ledger pool"
             ),
         )
+        parser.add_argument(
+            "--ledger-cache-mutable-ttl",
+            type=BoundedInt(min=0),
+            metavar="<seconds>",
+            env_var="ACAPY_LEDGER_CACHE_MUTABLE_TTL",
+            help=(
+                "Specifies how many seconds to cache ledger objects which may change, "
+                "such as DID verkeys, endpoints and revocation registry entries. "
+                "Zero disables caching of these objects. Default: 30"
+            ),
+        )
+        parser.add_argument(
+            "--no-ledger-cache-persist",
+            action="store_true",
+            env_var="ACAPY_NO_LEDGER_CACHE_PERSIST",
+            help=(
+                "Do not persist schemas, credential definitions and revocation "
+                "registry definitions read from the ledger to wallet storage. "
+                "By default these objects, which cannot change once written, are "
+                "kept so that they need not be fetched again after a restart."
+            ),
+        )
         parser.add_argument(
             "--genesis-transactions-list",
             type=str,
@@ -1155,6 +1410,10 @@ class LedgerGroup(ArgumentGroup):
                 settings["ledger.keepalive"] = args.ledger_keepalive
             if args.ledger_socks_proxy:
                 settings["ledger.socks_proxy"] = args.ledger_socks_proxy
+            if args.ledger_cache_mutable_ttl is not None:
+                settings["ledger.cache.mutable_ttl"] = args.ledger_cache_mutable_ttl
+            if args.no_ledger_cache_persist:
+                settings["ledger.cache.persist"] = False
             if args.accept_taa:
                 settings["ledger.taa_acceptance_mechanism"] = args.accept_taa[0]
                 settings["ledger.taa_acceptance_version"] = args.accept_taa[1]
@@ -1295,6 +1554,15 @@ class ProtocolGroup(ArgumentGroup):
             env_var="ACAPY_TIMING_LOG",
             help="Write timing information to a given log file.",
         )
+        parser.add_argument(
+            "--metrics",
+            action="store_true",
+            env_var="ACAPY_METRICS",
+            help=(
+                "Collect counters, gauges and latency histograms and export them "
+                "in the Prometheus text format on the admin /metrics route."
+            ),
+        )
         parser.add_argument(
             "--trace",
             action="store_true",
@@ -1401,6 +1669,8 @@ class ProtocolGroup(ArgumentGroup):
             settings["timing.enabled"] = True
         if args.timing_log:
             settings["timing.log_file"] = args.timing_log
+        if args.metrics:
+            settings["metrics.enabled"] = True
         # note that you can configure tracing without actually enabling it
         # this is to allow message- or exchange-specific tracing (vs global)
         settings["trace.target"] = "log"
@@ -1564,6 +1834,17 @@ class TransportGroup(ArgumentGroup):
                 "option will require additional memory to store messages in the queue."
             ),
         )
+        parser.add_argument(
+            "--persist-undelivered-queue",
+            action="store_true",
+            env_var="ACAPY_PERSIST_UNDELIVERED_QUEUE",
+            help=(
+                "Keep the undelivered queue in wallet storage so that queued "
+                "messages survive a restart. Only a bounded number of messages "
+                "per recipient are held in memory. Requires "
+                "--enable-undelivered-queue."
+            ),
+        )
         parser.add_argument(
             "--max-outbound-retry",
             default=4,
@@ -1597,6 +1878,130 @@ class TransportGroup(ArgumentGroup):
                 "after <interval> seconds without a heartbeat ping."
             ),
         )
+        parser.add_argument(
+            "--outbound-http-pool-size",
+            type=BoundedInt(min=1),
+            env_var="ACAPY_OUTBOUND_HTTP_POOL_SIZE",
+            metavar="<count>",
+            help=(
+                "Maximum number of simultaneous connections held by the HTTP "
+                "outbound transport. Default: 200."
+            ),
+        )
+        parser.add_argument(
+            "--outbound-http-pool-size-per-host",
+            type=BoundedInt(min=1),
+            env_var="ACAPY_OUTBOUND_HTTP_POOL_SIZE_PER_HOST",
+            metavar="<count>",
+            help=(
+                "Maximum number of simultaneous connections the HTTP outbound "
+                "transport opens to a single endpoint. Default: 50."
+            ),
+        )
+        parser.add_argument(
+            "--outbound-http-endpoint-pool-size",
+            type=str,
+            action="append",
+            env_var="ACAPY_OUTBOUND_HTTP_ENDPOINT_POOL_SIZE",
+            metavar="<endpoint>=<count>",
+            help=(
+                "Override the per-host connection limit of the HTTP outbound "
+                "transport for one endpoint, for example a high-volume mediator. "
+                "This parameter can be specified multiple times."
+            ),
+        )
+        parser.add_argument(
+            "--outbound-http-keepalive-timeout",
+            type=float,
+            env_var="ACAPY_OUTBOUND_HTTP_KEEPALIVE_TIMEOUT",
+            metavar="<seconds>",
+            help=(
+                "Seconds an idle HTTP outbound connection is kept open for reuse. "
+                "Default: 15."
+            ),
+        )
+        parser.add_argument(
+            "--crypto-worker-threads",
+            type=BoundedInt(min=1),
+            env_var="ACAPY_CRYPTO_WORKER_THREADS",
+            metavar="<count>",
+            help=(
+                "Number of threads used to pack and unpack messages, so that "
+                "encryption does not block the event loop. Default: one per CPU."
+            ),
+        )
+        parser.add_argument(
+            "--dispatch-fair-share",
+            type=str,
+            nargs="+",
+            choices=("family", "tenant"),
+            env_var="ACAPY_DISPATCH_FAIR_SHARE",
+            metavar="<family|tenant>",
+            help=(
+                "When all message handlers are busy, queue inbound messages by "
+                "message family and/or by tenant wallet, and take messages from "
+                "each queue in turn, so that a flood of one kind of message does "
+                "not hold back the others. By default messages are handled in the "
+                "order they are received."
+            ),
+        )
+        parser.add_argument(
+            "--dispatch-weight",
+            type=str,
+            action="append",
+            env_var="ACAPY_DISPATCH_WEIGHT",
+            metavar="<name>=<weight>",
+            help=(
+                "The number of messages taken in each turn from the queue of a "
+                "message family (e.g. issue-credential=4) or tenant wallet id, "
+                "with --dispatch-fair-share. Default: 1. This parameter can be "
+                "specified multiple times."
+            ),
+        )
+        parser.add_argument(
+            "--inbound-max-in-flight",
+            type=BoundedInt(min=1),
+            env_var="ACAPY_INBOUND_MAX_IN_FLIGHT",
+            metavar="<count>",
+            help=(
+                "The maximum number of inbound messages received and not yet "
+                "handled. Further messages are refused with HTTP status 503, or "
+                "by closing the websocket with code 1013, asking the sender to "
+                "retry later. Default: no limit."
+            ),
+        )
+        parser.add_argument(
+            "--inbound-sender-rate",
+            type=float,
+            env_var="ACAPY_INBOUND_SENDER_RATE",
+            metavar="<messages per second>",
+            help=(
+                "The number of inbound messages per second accepted from each "
+                "sender key. Further messages are refused with HTTP status 429 "
+                "and a Retry-After header. Default: no limit."
+            ),
+        )
+        parser.add_argument(
+            "--inbound-tenant-rate",
+            type=float,
+            env_var="ACAPY_INBOUND_TENANT_RATE",
+            metavar="<messages per second>",
+            help=(
+                "With multitenancy, the number of inbound messages per second "
+                "accepted for each tenant wallet. Further messages are refused "
+                "with HTTP status 429 and a Retry-After header. Default: no limit."
+            ),
+        )
+        parser.add_argument(
+            "--inbound-rate-burst",
+            type=BoundedInt(min=1),
+            env_var="ACAPY_INBOUND_RATE_BURST",
+            metavar="<count>",
+            help=(
+                "The number of messages a sender or tenant may send at once "
+                "within its rate limit. Default: one second of messages."
+            ),
+        )
 
     def get_settings(self, args: Namespace):
         """Extract transport settings."""
@@ -1613,6 +2018,12 @@ class TransportGroup(ArgumentGroup):
             else:
                 raise ArgsParseError("-ot/--outbound-transport is required")
             settings["transport.enable_undelivered_queue"] = args.enable_undelivered_queue
+            if args.persist_undelivered_queue:
+                if not args.enable_undelivered_queue:
+                    raise ArgsParseError(
+                        "--persist-undelivered-queue requires --enable-undelivered-queue"
+                    )
+                settings["transport.persist_undelivered_queue"] = True
             if args.max_message_size:
                 settings["transport.max_message_size"] = args.max_message_size
             if args.max_outbound_retry:
@@ -1621,6 +2032,64 @@ class TransportGroup(ArgumentGroup):
                 settings["transport.ws.heartbeat_interval"] = args.ws_heartbeat_interval
             if args.ws_timeout_interval:
                 settings["transport.ws.timeout_interval"] = args.ws_timeout_interval
+            if args.outbound_http_pool_size:
+                settings["transport.http.pool_limit"] = args.outbound_http_pool_size
+            if args.outbound_http_pool_size_per_host:
+                settings["transport.http.pool_limit_per_host"] = (
+                    args.outbound_http_pool_size_per_host
+                )
+            if args.outbound_http_endpoint_pool_size:
+                endpoint_limits = {}
+                for value in args.outbound_http_endpoint_pool_size:
+                    endpoint, _, limit = value.rpartition("=")
+                    if not endpoint:
+                        raise ArgsParseError(
+                            "--outbound-http-endpoint-pool-size must be given as "
+                            "<endpoint>=<count>"
+                        )
+                    try:
+                        endpoint_limits[endpoint] = BoundedInt(min=1)(limit)
+                    except ArgumentTypeError as err:
+                        raise ArgsParseError(
+                            "Invalid --outbound-http-endpoint-pool-size value "
+                            f"'{value}': {err}"
+                        ) from err
+                settings["transport.http.endpoint_limits"] = endpoint_limits
+            if args.outbound_http_keepalive_timeout is not None:
+                settings["transport.http.keepalive_timeout"] = (
+                    args.outbound_http_keepalive_timeout
+                )
+        if args.crypto_worker_threads:
+            settings["transport.crypto_workers"] = args.crypto_worker_threads
+        if args.dispatch_fair_share:
+            settings["dispatcher.fair_share"] = args.dispatch_fair_share
+        if args.dispatch_weight:
+            weights = {}
+            for value in args.dispatch_weight:
+                name, _, weight = value.rpartition("=")
+                if not name:
+                    raise ArgsParseError(
+                        "--dispatch-weight must be given as <name>=<weight>"
+                    )
+                try:
+                    weights[name] = BoundedInt(min=1)(weight)
+                except ArgumentTypeError as err:
+                    raise ArgsParseError(
+                        f"Invalid --dispatch-weight value '{value}': {err}"
+                    ) from err
+            settings["dispatcher.weights"] = weights
+        if args.inbound_max_in_flight:
+            settings["transport.inbound.max_in_flight"] = args.inbound_max_in_flight
+        if args.inbound_sender_rate is not None:
+            if args.inbound_sender_rate <= 0:
+                raise ArgsParseError("--inbound-sender-rate must be positive")
+            settings["transport.inbound.sender_rate"] = args.inbound_sender_rate
+        if args.inbound_tenant_rate is not None:
+            if args.inbound_tenant_rate <= 0:
+                raise ArgsParseError("--inbound-tenant-rate must be positive")
+            settings["transport.inbound.tenant_rate"] = args.inbound_tenant_rate
+        if args.inbound_rate_burst:
+            settings["transport.inbound.rate_burst"] = args.inbound_rate_burst
 
         if args.label:
             settings["default_label"] = args.label
@@ -1695,6 +2164,47 @@ class MediationGroup(ArgumentGroup):
             env_var="ACAPY_CLEAR_DEFAULT_MEDIATOR",
             help="Clear the stored default mediator.",
         )
+        parser.add_argument(
+            "--route-cache-ttl",
+            type=int,
+            metavar="<seconds>",
+            env_var="ACAPY_ROUTE_CACHE_TTL",
+            help=(
+                "Cache the route and wallet of a recipient key for this many "
+                "seconds, used to deliver forwarded messages and multitenant "
+                "inbound messages. Wallet records are cached in process, so with "
+                "several agent instances a wallet changed by another instance may "
+                "be used until it expires. Default: 0, looking up every message in "
+                "the wallet."
+            ),
+        )
+        parser.add_argument(
+            "--route-cache-max-entries",
+            type=int,
+            metavar="<count>",
+            env_var="ACAPY_ROUTE_CACHE_MAX_ENTRIES",
+            help=(
+                "The maximum number of routes, and of wallets, held in the route "
+                "cache of this process. Default: 10000."
+            ),
+        )
+        parser.add_argument(
+            "--route-cache-shared",
+            action="store_true",
+            env_var="ACAPY_ROUTE_CACHE_SHARED",
+            help=(
+                "Keep cached routes in the cache selected by --cache-type, so that "
+                "agent instances sharing a Redis cache see each other's keylist "
+                "updates. Wallet records are always cached in process."
+            ),
+        )
+        parser.add_argument(
+            "--route-cache-prefetch",
+            type=int,
+            metavar="<count>",
+            env_var="ACAPY_ROUTE_CACHE_PREFETCH",
+            help="Load up to this many routes into the route cache on startup.",
+        )
 
     def get_settings(self, args: Namespace):
         """Extract mediation settings."""
@@ -1705,6 +2215,14 @@ class MediationGroup(ArgumentGroup):
             settings["mediation.default_id"] = args.default_mediator_id
         if args.clear_default_mediator:
             settings["mediation.clear"] = True
+        if args.route_cache_ttl is not None:
+            settings["routing.cache_ttl"] = args.route_cache_ttl
+        if args.route_cache_max_entries:
+            settings["routing.cache_max_entries"] = args.route_cache_max_entries
+        if args.route_cache_shared:
+            settings["routing.cache_shared"] = True
+        if args.route_cache_prefetch:
+            settings["routing.cache_prefetch"] = args.route_cache_prefetch
 
         if args.clear_default_mediator and args.default_mediator_id:
             raise ArgsParseError("Cannot both set and clear mediation at the same time.")
@@ -2061,8 +2579,13 @@ class MultitenantGroup(ArgumentGroup):
                 "Specify multitenancy configuration in key=value pairs. "
                 'For example: "wallet_type=single-wallet-askar wallet_name=wallet-name" '
                 "Possible values: wallet_name, wallet_key, cache_size, "
+                "cache_idle_timeout, cache_admission, cache_prewarm, "
                 'key_derivation_method. "wallet_name" is only used when '
-                '"wallet_type" is "single-wallet-askar"'
+                '"wallet_type" is "single-wallet-askar". "cache_idle_timeout" '
+                "evicts tenant profiles unused for that many seconds, "
+                '"cache_admission=true" only caches a new profile in place of '
+                'one requested less often, and "cache_prewarm" opens up to that '
+                "many recently active profiles on startup"
             ),
         )
         parser.add_argument(
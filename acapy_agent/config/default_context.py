@@ -3,8 +3,11 @@
 import logging
 
 from ..anoncreds.registry import AnonCredsRegistry
+from ..anoncreds.revocation.publish_status import RevocationPublishTracker
 from ..cache.base import BaseCache
 from ..cache.in_memory import InMemoryCache
+from ..cache.lru import LRUCache
+from ..cache.redis_cache import RedisCache, RespClient
 from ..connections.base_manager import BaseConnectionManager
 from ..core.event_bus import EventBus
 from ..core.goal_code_registry import GoalCodeRegistry
@@ -15,9 +18,13 @@ from ..protocols.actionmenu.v1_0.base_service import BaseMenuService
 from ..protocols.actionmenu.v1_0.driver_service import DriverMenuService
 from ..protocols.introduction.v0_1.base_service import BaseIntroductionService
 from ..protocols.introduction.v0_1.demo_service import DemoIntroductionService
+from ..protocols.routing.v1_0.route_cache import RouteCache
 from ..resolver.did_resolver import DIDResolver
+from ..tails.file_cache import TailsFileCache
 from ..transport.wire_format import BaseWireFormat
+from ..utils.metrics import MetricsRegistry
 from ..utils.stats import Collector
+from ..utils.worker_pool import WorkerPool
 from ..wallet.default_verification_key_strategy import (
     BaseVerificationKeyStrategy,
     DefaultVerificationKeyStrategy,
@@ -47,8 +54,41 @@ class DefaultContextBuilder(ContextBuilder):
             collector = Collector(log_path=timing_log)
             context.injector.bind_instance(Collector, collector)
 
+        if context.settings.get("metrics.enabled"):
+            LOGGER.debug("Enabling metrics registry")
+            context.injector.bind_instance(MetricsRegistry, MetricsRegistry())
+
+        # Worker threads for message packing and unpacking
+        context.injector.bind_instance(
+            WorkerPool,
+            WorkerPool(
+                context.settings.get_int("transport.crypto_workers"), "acapy-crypto"
+            ),
+        )
+
         # Shared in-memory cache
-        context.injector.bind_instance(BaseCache, InMemoryCache())
+        context.injector.bind_instance(BaseCache, self.build_cache(context))
+
+        # Recipient key routes and wallets, for Forward handling. Opt-in, as other
+        # instances of a scaled out agent do not see the wallet changes made here
+        route_cache_ttl = context.settings.get_int("routing.cache_ttl")
+        if route_cache_ttl and route_cache_ttl > 0:
+            context.injector.bind_instance(
+                RouteCache,
+                RouteCache(
+                    ttl=route_cache_ttl,
+                    max_entries=context.settings.get_int(
+                        "routing.cache_max_entries",
+                        default=RouteCache.DEFAULT_MAX_ENTRIES,
+                    ),
+                    shared=(
+                        context.inject(BaseCache)
+                        if context.settings.get_bool("routing.cache_shared")
+                        else None
+                    ),
+                    metrics=context.inject_or(MetricsRegistry),
+                ),
+            )
 
         # Global protocol registry
         context.injector.bind_instance(ProtocolRegistry, ProtocolRegistry())
@@ -57,11 +97,35 @@ class DefaultContextBuilder(ContextBuilder):
         context.injector.bind_instance(GoalCodeRegistry, GoalCodeRegistry())
 
         # Global event bus
-        context.injector.bind_instance(EventBus, EventBus())
+        context.injector.bind_instance(
+            EventBus, EventBus(metrics=context.inject_or(MetricsRegistry))
+        )
 
         # Global did resolver
-        context.injector.bind_instance(DIDResolver, DIDResolver())
+        context.injector.bind_instance(
+            DIDResolver,
+            DIDResolver(
+                cache_ttls=context.settings.get(
+                    "resolver.cache.ttls", DIDResolver.DEFAULT_CACHE_TTLS
+                ),
+                negative_ttl=context.settings.get_int(
+                    "resolver.cache.negative_ttl",
+                    default=DIDResolver.DEFAULT_NEGATIVE_TTL,
+                ),
+                stale_ttl=context.settings.get_int(
+                    "resolver.cache.stale_ttl", default=DIDResolver.DEFAULT_STALE_TTL
+                ),
+                metrics=context.inject_or(MetricsRegistry),
+            ),
+        )
         context.injector.bind_instance(AnonCredsRegistry, AnonCredsRegistry())
+        context.injector.bind_instance(
+            TailsFileCache,
+            TailsFileCache(context.settings.get_int("revocation.tails_cache_max_size")),
+        )
+        context.injector.bind_instance(
+            RevocationPublishTracker, RevocationPublishTracker()
+        )
         context.injector.bind_instance(DIDMethods, DIDMethods())
         context.injector.bind_instance(KeyTypes, KeyTypes())
         context.injector.bind_instance(
@@ -83,6 +147,26 @@ class DefaultContextBuilder(ContextBuilder):
 
         return context
 
+    def build_cache(self, context: InjectionContext) -> BaseCache:
+        """Construct the shared cache instance selected by the settings."""
+        cache_type = context.settings.get("cache.type", "memory")
+        if cache_type == "lru":
+            LOGGER.debug("Using bounded LRU cache")
+            return LRUCache(
+                max_entries=context.settings.get_int("cache.max_entries"),
+                max_bytes=context.settings.get_int("cache.max_bytes"),
+            )
+        if cache_type == "redis":
+            url = context.settings.get("cache.url", "redis://localhost:6379")
+            cache = RedisCache(
+                RespClient.from_url(url),
+                prefix=context.settings.get("cache.prefix", "acapy:"),
+            )
+            # the URL may hold credentials, so only the host and port are logged
+            LOGGER.debug("Using shared cache %r", cache)
+            return cache
+        return InMemoryCache()
+
     async def bind_providers(self, context: InjectionContext):
         """Bind various class providers."""
         LOGGER.debug("Begin binding providers to context")
@@ -53,6 +53,113 @@ class TestArgParse(TestCase):
         assert settings.get("transport.outbound_configs") == ["http"]
         assert result.max_outbound_retry == 5
 
+    def test_transport_http_pool_settings(self):
+        parser = argparse.create_argument_parser()
+        group = argparse.TransportGroup()
+        group.add_arguments(parser)
+
+        result = parser.parse_args(
+            [
+                "--inbound-transport",
+                "http",
+                "0.0.0.0",
+                "80",
+                "--outbound-transport",
+                "http",
+                "--outbound-http-pool-size",
+                "400",
+                "--outbound-http-pool-size-per-host",
+                "20",
+                "--outbound-http-endpoint-pool-size",
+                "https://mediator.example.com=100",
+                "--outbound-http-keepalive-timeout",
+                "30",
+            ]
+        )
+        settings = group.get_settings(result)
+
+        assert settings["transport.http.pool_limit"] == 400
+        assert settings["transport.http.pool_limit_per_host"] == 20
+        assert settings["transport.http.endpoint_limits"] == {
+            "https://mediator.example.com": 100
+        }
+        assert settings["transport.http.keepalive_timeout"] == 30.0
+
+        for bad in ("https://mediator.example.com", "https://mediator.example.com=0"):
+            result = parser.parse_args(
+                [
+                    "--inbound-transport",
+                    "http",
+                    "0.0.0.0",
+                    "80",
+                    "--outbound-transport",
+                    "http",
+                    "--outbound-http-endpoint-pool-size",
+                    bad,
+                ]
+            )
+            with self.assertRaises(argparse.ArgsParseError):
+                group.get_settings(result)
+
+    def test_transport_dispatch_settings(self):
+        parser = argparse.create_argument_parser()
+        group = argparse.TransportGroup()
+        group.add_arguments(parser)
+
+        result = parser.parse_args(
+            [
+                "--no-transport",
+                "--dispatch-fair-share",
+                "family",
+                "tenant",
+                "--dispatch-weight",
+                "issue-credential=4",
+                "--dispatch-weight",
+                "present-proof=2",
+            ]
+        )
+        settings = group.get_settings(result)
+
+        assert settings["dispatcher.fair_share"] == ["family", "tenant"]
+        assert settings["dispatcher.weights"] == {
+            "issue-credential": 4,
+            "present-proof": 2,
+        }
+
+        for bad in ("issue-credential", "issue-credential=0"):
+            result = parser.parse_args(["--no-transport", "--dispatch-weight", bad])
+            with self.assertRaises(argparse.ArgsParseError):
+                group.get_settings(result)
+
+    def test_transport_inbound_admission_settings(self):
+        parser = argparse.create_argument_parser()
+        group = argparse.TransportGroup()
+        group.add_arguments(parser)
+
+        result = parser.parse_args(
+            [
+                "--no-transport",
+                "--inbound-max-in-flight",
+                "500",
+                "--inbound-sender-rate",
+                "5",
+                "--inbound-tenant-rate",
+                "50.5",
+                "--inbound-rate-burst",
+                "20",
+            ]
+        )
+        settings = group.get_settings(result)
+
+        assert settings["transport.inbound.max_in_flight"] == 500
+        assert settings["transport.inbound.sender_rate"] == 5.0
+        assert settings["transport.inbound.tenant_rate"] == 50.5
+        assert settings["transport.inbound.rate_burst"] == 20
+
+        result = parser.parse_args(["--no-transport", "--inbound-sender-rate", "0"])
+        with self.assertRaises(argparse.ArgsParseError):
+            group.get_settings(result)
+
     def test_get_genesis_transactions_list_with_ledger_selection(self):
         """Test multiple ledger support related argument parsing."""
 
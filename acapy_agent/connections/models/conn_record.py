@@ -7,7 +7,11 @@ from typing import Any, Optional, Union
 from marshmallow import fields, validate
 
 from ...core.profile import ProfileSession
-from ...messaging.models.base_record import BaseRecord, BaseRecordSchema
+from ...messaging.models.base_record import (
+    CREATED_ORDER_TAG,
+    BaseRecord,
+    BaseRecordSchema,
+)
 from ...messaging.valid import (
     GENERIC_DID_EXAMPLE,
     GENERIC_DID_VALIDATE,
@@ -150,6 +154,7 @@ class ConnRecord(BaseRecord):
         "state",
         "their_role",
     }
+    ORDER_TAG_NAME = CREATED_ORDER_TAG
 
     RECORD_TYPE = "connection"
     RECORD_TYPE_INVITATION = "connection_invitation"
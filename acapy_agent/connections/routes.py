@@ -17,8 +17,9 @@ from ..connections.models.conn_record import ConnRecord, ConnRecordSchema
 from ..messaging.models.base import BaseModelError
 from ..messaging.models.openapi import OpenAPISchema
 from ..messaging.models.paginated_query import (
-    PaginatedQuerySchema,
+    CursorPaginatedQuerySchema,
     get_paginated_query_params,
+    get_query_cursor,
 )
 from ..messaging.valid import (
     ENDPOINT_EXAMPLE,
@@ -47,6 +48,11 @@ class ConnectionListSchema(OpenAPISchema):
         required=True,
         metadata={"description": "List of connection records"},
     )
+    next_cursor = fields.Str(
+        required=False,
+        allow_none=True,
+        metadata={"description": "Cursor for the next page, if requested by cursor"},
+    )
 
 
 class ConnectionMetadataSchema(OpenAPISchema):
@@ -148,7 +154,7 @@ class ConnectionStaticResultSchema(OpenAPISchema):
     record = fields.Nested(ConnRecordSchema(), required=True)
 
 
-class ConnectionsListQueryStringSchema(PaginatedQuerySchema):
+class ConnectionsListQueryStringSchema(CursorPaginatedQuerySchema):
     """Parameters and validators for connections list request query string."""
 
     alias = fields.Str(
@@ -310,25 +316,39 @@ async def connections_list(request: web.BaseRequest):
         post_filter["connection_protocol"] = request.query["connection_protocol"]
 
     limit, offset, order_by, descending = get_paginated_query_params(request)
+    cursor = get_query_cursor(request)
 
     profile = context.profile
+    response = {}
     try:
         async with profile.session() as session:
-            records = await ConnRecord.query(
-                session,
-                tag_filter,
-                limit=limit,
-                offset=offset,
-                order_by=order_by,
-                descending=descending,
-                post_filter_positive=post_filter,
-                alt=True,
-            )
-        results = [record.serialize() for record in records]
+            if cursor is None:
+                records = await ConnRecord.query(
+                    session,
+                    tag_filter,
+                    limit=limit,
+                    offset=offset,
+                    order_by=order_by,
+                    descending=descending,
+                    post_filter_positive=post_filter,
+                    alt=True,
+                )
+            else:
+                records, response["next_cursor"] = await ConnRecord.query_page(
+                    session,
+                    tag_filter,
+                    limit=limit,
+                    cursor=cursor,
+                    order_by=order_by,
+                    descending=descending,
+                    post_filter_positive=post_filter,
+                    alt=True,
+                )
+        response["results"] = [record.serialize() for record in records]
     except (StorageError, BaseModelError) as err:
         raise web.HTTPBadRequest(reason=err.roll_up) from err
 
-    return web.json_response({"results": results})
+    return web.json_response(response)
 
 
 @docs(tags=["connection"], summary="Fetch a single connection record")
@@ -51,6 +51,7 @@ from ..protocols.coordinate_mediation.v1_0.route_manager_provider import (
 )
 from ..protocols.out_of_band.v1_0.manager import OutOfBandManager
 from ..protocols.out_of_band.v1_0.messages.invitation import HSProto, InvitationMessage
+from ..protocols.routing.v1_0.route_cache import RouteCache
 from ..storage.base import BaseStorage
 from ..storage.error import StorageNotFoundError
 from ..storage.record import StorageRecord
@@ -69,8 +70,10 @@ from ..transport.outbound.message import OutboundMessage
 from ..transport.outbound.status import OutboundSendStatus
 from ..transport.wire_format import BaseWireFormat
 from ..utils.profiles import get_subwallet_profiles_from_storage
+from ..utils.metrics import MetricsRegistry
 from ..utils.stats import Collector
-from ..utils.task_queue import CompletedTask, TaskQueue
+from ..utils.task_queue import CompletedTask, PendingTask, TaskQueue
+from ..utils.worker_pool import WorkerPool
 from ..vc.ld_proofs.document_loader import DocumentLoader
 from ..version import RECORD_TYPE_ACAPY_VERSION, __version__
 from ..wallet.anoncreds_upgrade import upgrade_wallet_to_anoncreds_if_requested
@@ -111,6 +114,7 @@ class Conductor:
         self.outbound_transport_manager: Optional[OutboundTransportManager] = None
         self.root_profile: Optional[Profile] = None
         self.setup_public_did: Optional[DIDInfo] = None
+        self._prewarm_task: Optional[asyncio.Task] = None
 
     force_agent_anoncreds = False
 
@@ -331,6 +335,10 @@ class Conductor:
             )
             LOGGER.debug("Methods wrapped with stats collector.")
 
+        metrics = context.inject_or(MetricsRegistry)
+        if metrics:
+            self.register_metrics(metrics)
+
     async def start(self) -> None:
         """Start the agent."""
         LOGGER.debug("Starting the Conductor agent.")
@@ -608,6 +616,23 @@ class Conductor:
                 "An exception was caught while checking for wallet upgrades in progress."
             )
 
+        # Load the routes of recipient keys, ahead of inbound Forward messages
+        route_prefetch = self.root_profile.settings.get_int("routing.cache_prefetch")
+        route_cache = context.inject_or(RouteCache)
+        if route_prefetch and route_cache:
+            try:
+                await route_cache.prefetch(self.root_profile, route_prefetch)
+            except Exception:
+                LOGGER.exception("Error prefetching routes into the route cache.")
+
+        # Open recently active tenant profiles in the background
+        prewarm = self.root_profile.settings.get_int("multitenant.cache_prewarm")
+        multitenant_mgr = context.inject_or(BaseMultitenantManager)
+        if prewarm and multitenant_mgr:
+            self._prewarm_task = asyncio.get_event_loop().create_task(
+                multitenant_mgr.prewarm_profiles(prewarm)
+            )
+
         # Ensure anoncreds wallet is added to singleton (avoids unnecessary upgrade check)
         if self.root_profile.settings.get("wallet.type") == "askar-anoncreds":
             IsAnonCredsSingleton().set_wallet(self.root_profile.name)
@@ -646,6 +671,12 @@ class Conductor:
             # close multitenant profiles
             multitenant_mgr = self.context.inject_or(BaseMultitenantManager)
             if multitenant_mgr:
+                if self._prewarm_task:
+                    self._prewarm_task.cancel()
+                try:
+                    await multitenant_mgr.save_recent_profiles()
+                except Exception:
+                    LOGGER.exception("Error saving recently active tenant profiles.")
                 LOGGER.debug("Closing multitenant profiles.")
                 for profile in multitenant_mgr.open_profiles:
                     LOGGER.debug("Closing profile: %s", profile.name)
@@ -655,6 +686,10 @@ class Conductor:
 
         LOGGER.debug("Waiting for shutdown tasks to complete with timeout=%f.", timeout)
         await shutdown.complete(timeout)
+
+        worker_pool = self.context.inject_or(WorkerPool) if self.root_profile else None
+        if worker_pool:
+            worker_pool.shutdown()
         LOGGER.info("Conductor agent stopped successfully.")
 
     def inbound_message_router(
@@ -662,7 +697,7 @@ class Conductor:
         profile: Profile,
         message: InboundMessage,
         can_respond: bool = False,
-    ):
+    ) -> PendingTask:
         """Route inbound messages.
 
         Args:
@@ -670,6 +705,9 @@ class Conductor:
             message: The inbound message instance
             can_respond: If the session supports return routing
 
+        Returns:
+            A pending task instance resolving to the handler task
+
         """
         if message.receipt.direct_response_requested and not can_respond:
             LOGGER.warning(
@@ -677,11 +715,11 @@ class Conductor:
                 message.transport_type,
             )
 
-        # Note: at this point we could send the message to a shared queue
-        # if this pod is too busy to process it
+        # Messages received by the inbound transports have already been admitted,
+        # see transport.inbound.admission
 
         try:
-            self.dispatcher.queue_message(
+            return self.dispatcher.queue_message(
                 profile,
                 message,
                 self.outbound_message_router,
@@ -715,6 +753,35 @@ class Conductor:
 
         self.inbound_transport_manager.dispatch_complete(message, completed)
 
+    def register_metrics(self, metrics: MetricsRegistry):
+        """Export the conductor's queue depths as gauges."""
+        if self.outbound_transport_manager:
+            metrics.gauge(
+                "outbound_queue_depth",
+                "Number of outbound messages in each delivery state",
+                ["state"],
+            ).set_function(self.outbound_transport_manager.queue_depths)
+        if self.inbound_transport_manager:
+            metrics.gauge(
+                "inbound_sessions", "Number of open inbound transport sessions"
+            ).set_function(lambda: len(self.inbound_transport_manager.sessions))
+        task_queue = self.dispatcher.task_queue
+        metrics.gauge(
+            "dispatch_tasks",
+            "Number of dispatcher tasks which are active or pending",
+            ["state"],
+        ).set_function(
+            lambda: {
+                "active": task_queue.current_active,
+                "pending": task_queue.current_pending,
+            }
+        )
+        metrics.gauge(
+            "dispatch_tasks_pending_by_class",
+            "Number of pending dispatcher tasks in each fair share class",
+            ["task_class"],
+        ).set_function(task_queue.pending_by_class)
+
     async def get_stats(self) -> dict:
         """Get the current stats tracked by the conductor."""
         stats = {
@@ -731,11 +798,11 @@ class Conductor:
             "task_pending": self.dispatcher.task_queue.current_pending,
         }
         if self.outbound_transport_manager:
-            for m in self.outbound_transport_manager.outbound_buffer:
-                if m.state == QueuedOutboundMessage.STATE_ENCODE:
-                    stats["out_encode"] += 1
-                if m.state == QueuedOutboundMessage.STATE_DELIVER:
-                    stats["out_deliver"] += 1
+            depths = self.outbound_transport_manager.queue_depths()
+            stats["out_encode"] = depths[QueuedOutboundMessage.STATE_ENCODE]
+            stats["out_deliver"] = depths[QueuedOutboundMessage.STATE_DELIVER]
+            stats["out_pending"] = depths[QueuedOutboundMessage.STATE_PENDING]
+            stats["out_retry"] = depths[QueuedOutboundMessage.STATE_RETRY]
         return stats
 
     async def outbound_message_router(
@@ -9,7 +9,7 @@ import logging
 import os
 import warnings
 import weakref
-from typing import Callable, Coroutine, Optional, Union
+from typing import Callable, Coroutine, Optional, Tuple, Union
 
 from aiohttp.web import HTTPException
 
@@ -29,6 +29,7 @@ from ..transport.inbound.message import InboundMessage
 from ..transport.outbound.message import OutboundMessage
 from ..transport.outbound.status import OutboundSendStatus
 from ..utils.classloader import DeferLoad
+from ..utils.metrics import MetricsRegistry
 from ..utils.stats import Collector
 from ..utils.task_queue import CompletedTask, PendingTask, TaskQueue
 from ..utils.tracing import get_timer, trace_event
@@ -50,26 +51,39 @@ class Dispatcher:
     def __init__(self, profile: Profile):
         """Initialize an instance of Dispatcher."""
         self.collector: Optional[Collector] = None
+        self.metrics: Optional[MetricsRegistry] = None
         self.profile = profile
         self.task_queue: Optional[TaskQueue] = None
+        self.fair_share = frozenset()
+        self.weights: dict = {}
         self.logger: logging.Logger = logging.getLogger(__name__)
 
     async def setup(self):
         """Perform async instance setup."""
         self.collector = self.profile.inject_or(Collector)
+        self.metrics = self.profile.inject_or(MetricsRegistry)
         max_active = int(os.getenv("DISPATCHER_MAX_ACTIVE", 50))
         self.task_queue = TaskQueue(
             max_active=max_active, timed=bool(self.collector), trace_fn=self.log_task
         )
+        self.fair_share = frozenset(
+            self.profile.settings.get("dispatcher.fair_share") or ()
+        )
+        self.weights = self.profile.settings.get("dispatcher.weights") or {}
 
     def put_task(
         self,
         coro: Coroutine,
         complete: Optional[Callable] = None,
         ident: Optional[str] = None,
+        *,
+        task_class: Optional[str] = None,
+        weight: int = 1,
     ) -> PendingTask:
         """Run a task in the task queue, potentially blocking other handlers."""
-        return self.task_queue.put(coro, complete, ident)
+        return self.task_queue.put(
+            coro, complete, ident, task_class=task_class, weight=weight
+        )
 
     def run_task(
         self,
@@ -96,6 +110,36 @@ class Dispatcher:
             if task.ident:
                 self.collector.log(task.ident, timing["ended"] - timing["started"])
 
+    def message_class(
+        self, profile: Profile, inbound_message: InboundMessage
+    ) -> Tuple[Optional[str], int]:
+        """Get the class an inbound message is queued in, and the weight of the class.
+
+        Messages are classed by message family and/or by tenant wallet, according
+        to the `dispatcher.fair_share` setting. The weight of a class is the product
+        of the weights set for its message family and its tenant, 1 by default.
+        """
+        if not self.fair_share:
+            return None, 1
+        parts = []
+        weight = 1
+        if "tenant" in self.fair_share:
+            wallet_id = profile.settings.get("wallet.id") or ""
+            parts.append(wallet_id)
+            weight *= self.weights.get(wallet_id, 1)
+        if "family" in self.fair_share:
+            payload = inbound_message.payload
+            message_type = (
+                (payload.get("@type") or payload.get("type") or "")
+                if isinstance(payload, dict)
+                else ""
+            )
+            # e.g. https://didcomm.org/issue-credential/2.0/offer-credential
+            family = message_type.rsplit("/", 2)[0].rsplit("/", 1)[-1]
+            parts.append(family)
+            weight *= self.weights.get(family, 1)
+        return "/".join(parts), weight
+
     def queue_message(
         self,
         profile: Profile,
@@ -123,10 +167,8 @@ class Dispatcher:
         else:
             handle = self.handle_v1_message(profile, inbound_message, send_outbound)
 
-        return self.put_task(
-            handle,
-            complete,
-        )
+        task_class, weight = self.message_class(profile, inbound_message)
+        return self.put_task(handle, complete, task_class=task_class, weight=weight)
 
     async def handle_v2_message(
         self,
@@ -252,6 +294,15 @@ class Dispatcher:
             handler = handler_cls().handle
             if self.collector:
                 handler = self.collector.wrap_coro(handler, [handler.__qualname__])
+            if self.metrics:
+                handler = self.metrics.wrap_coro(
+                    handler,
+                    self.metrics.histogram(
+                        "dispatch_duration_seconds",
+                        "Time spent in DIDComm message handlers",
+                        ["message_type"],
+                    ).labels(context.message.Meta.message_type),
+                )
             await handler(context, responder)
 
         trace_event(
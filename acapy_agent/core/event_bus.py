@@ -1,9 +1,12 @@
 """A simple event bus."""
 
 import asyncio
+import itertools
 import logging
 import os
 import re
+import time
+from collections import OrderedDict
 from contextlib import contextmanager
 from functools import partial
 from typing import (
@@ -21,6 +24,7 @@ from typing import (
     Tuple,
 )
 
+from ..utils.metrics import MetricsRegistry
 from ..utils.task_queue import CompletedTask, TaskQueue
 
 if TYPE_CHECKING:  # To avoid circular import error
@@ -29,6 +33,11 @@ if TYPE_CHECKING:  # To avoid circular import error
 LOGGER = logging.getLogger(__name__)
 
 MAX_ACTIVE_EVENT_BUS_TASKS = int(os.getenv("MAX_ACTIVE_EVENT_BUS_TASKS", "50"))
+TOPIC_CACHE_SIZE = 1024
+
+# characters which may follow a literal to change its meaning
+_QUANTIFIERS = "*?{"
+_SPECIAL = set(".^$*+?{}[]\\|()")
 
 
 class Event:
@@ -85,12 +94,135 @@ class EventWithMetadata(Event):
         return self._metadata
 
 
+def literal_prefix(pattern: Pattern) -> Tuple[str, bool]:
+    """Determine the literal text any topic matching a pattern must start with.
+
+    Returns:
+        A tuple of the literal prefix and whether the pattern matches only
+        that exact text
+
+    """
+    source = pattern.pattern
+    if not isinstance(source, str) or pattern.flags & ~re.UNICODE or "|" in source:
+        return "", False
+    pos = 1 if source.startswith("^") else 0
+    prefix = []
+    while pos < len(source):
+        char = source[pos]
+        if char == "\\":
+            escaped = source[pos + 1 : pos + 2]
+            if not escaped or escaped.isalnum():
+                # character class or back-reference
+                break
+            char_len = 2
+            char = escaped
+        elif char in _SPECIAL:
+            break
+        else:
+            char_len = 1
+        if source[pos + char_len : pos + char_len + 1] in tuple(_QUANTIFIERS):
+            # the preceding character is optional or repeated
+            break
+        prefix.append(char)
+        pos += char_len
+    exact = source[pos:] in ("$", "\\Z")
+    return "".join(prefix), exact
+
+
+class TopicIndex:
+    """Index of subscribed patterns used to narrow the regexes tried per topic.
+
+    Patterns which are fully literal are found by exact lookup, patterns with
+    a literal prefix (such as `^acapy::record::connections::`) through a trie,
+    and all remaining patterns are always tried. Candidate patterns are still
+    matched against the topic, so the index only needs to be conservative.
+    """
+
+    def __init__(self):
+        """Initialize the index."""
+        self.exact: Dict[str, List[Pattern]] = {}
+        self.trie: dict = {}
+        self.fallback: List[Pattern] = []
+        self.order: Dict[Pattern, int] = {}
+        self._seq = itertools.count()
+
+    def add(self, pattern: Pattern):
+        """Add a pattern to the index."""
+        self.order[pattern] = next(self._seq)
+        prefix, exact = literal_prefix(pattern)
+        if exact:
+            self.exact.setdefault(prefix, []).append(pattern)
+        elif prefix:
+            node = self.trie
+            for char in prefix:
+                node = node.setdefault(char, {})
+            node.setdefault(None, []).append(pattern)
+        else:
+            self.fallback.append(pattern)
+
+    def remove(self, pattern: Pattern):
+        """Remove a pattern from the index."""
+        del self.order[pattern]
+        prefix, exact = literal_prefix(pattern)
+        if exact:
+            self.exact[prefix].remove(pattern)
+            if not self.exact[prefix]:
+                del self.exact[prefix]
+        elif prefix:
+            path = [self.trie]
+            for char in prefix:
+                path.append(path[-1][char])
+            path[-1][None].remove(pattern)
+            if not path[-1][None]:
+                del path[-1][None]
+            # prune empty branches
+            for char, node in zip(reversed(prefix), reversed(path[:-1])):
+                if node[char]:
+                    break
+                del node[char]
+        else:
+            self.fallback.remove(pattern)
+
+    def candidates(self, topic: str) -> List[Pattern]:
+        """List the patterns which may match a topic, in subscription order."""
+        found = list(self.fallback)
+        found.extend(self.exact.get(topic, ()))
+        node = self.trie
+        for char in topic:
+            node = node.get(char)
+            if node is None:
+                break
+            found.extend(node.get(None, ()))
+        return sorted(found, key=self.order.__getitem__)
+
+
 class EventBus:
     """A simple event bus implementation."""
 
-    def __init__(self):
-        """Initialize Event Bus."""
+    def __init__(self, metrics: Optional[MetricsRegistry] = None):
+        """Initialize Event Bus.
+
+        Args:
+            metrics: The registry to report the time taken to process events to
+
+        """
         self.topic_patterns_to_subscribers: Dict[Pattern, List[Callable]] = {}
+        self._topic_index = TopicIndex()
+        # memoized topic -> [(pattern, match)], cleared when the patterns change
+        self._topic_matches: "OrderedDict[str, List[Tuple[Pattern, Match[str]]]]" = (
+            OrderedDict()
+        )
+        # time from notification to each subscriber having processed the event,
+        # by subscribed pattern as topics may embed identifiers
+        self._processing = (
+            metrics.histogram(
+                "event_processing_seconds",
+                "Time from an event being emitted to a subscriber processing it",
+                ["pattern"],
+            )
+            if metrics
+            else None
+        )
 
         # TaskQueue for non-blocking event processing
         self.task_queue = TaskQueue(max_active=MAX_ACTIVE_EVENT_BUS_TASKS)
@@ -106,16 +238,19 @@ class EventBus:
         # TODO: This method can now be made synchronous (would be breaking change)
 
         LOGGER.debug("Notifying subscribers for event: %s", event)
+        start = time.perf_counter()
         # Define partial functions for each subscriber that matches the event topic
         partials = [
-            partial(
-                subscriber,
-                profile,
-                event.with_metadata(EventMetadata(pattern, match)),
+            (
+                pattern,
+                partial(
+                    subscriber,
+                    profile,
+                    event.with_metadata(EventMetadata(pattern, match)),
+                ),
             )
-            for pattern, subscribers in self.topic_patterns_to_subscribers.items()
-            if (match := pattern.match(event.topic))
-            for subscriber in subscribers
+            for pattern, match in self._match_topic(event.topic)
+            for subscriber in self.topic_patterns_to_subscribers.get(pattern, ())
         ]
 
         if not partials:
@@ -123,22 +258,46 @@ class EventBus:
             return
 
         LOGGER.debug("Notifying %d subscribers for %s event", len(partials), event.topic)
-        for processor in partials:
+        for pattern, processor in partials:
             LOGGER.debug("Putting %s event for processor %s", event.topic, processor)
             # Run each processor as a background task (fire and forget) with error handler
             self.task_queue.put(
                 processor(),
-                task_complete=self._make_error_handler(processor, event),
+                task_complete=self._make_error_handler(processor, event, pattern, start),
                 ident=f"event_processor_{event.topic}",
             )
 
+    def _match_topic(self, topic: str) -> List[Tuple[Pattern, Match[str]]]:
+        """Find the subscribed patterns matching a topic, with their matches."""
+        matches = self._topic_matches.get(topic)
+        if matches is None:
+            matches = [
+                (pattern, match)
+                for pattern in self._topic_index.candidates(topic)
+                if (match := pattern.match(topic))
+            ]
+            self._topic_matches[topic] = matches
+            if len(self._topic_matches) > TOPIC_CACHE_SIZE:
+                self._topic_matches.popitem(last=False)
+        else:
+            self._topic_matches.move_to_end(topic)
+        return matches
+
     def _make_error_handler(
-        self, processor: partial[Any], event: Event
+        self,
+        processor: partial[Any],
+        event: Event,
+        pattern: Optional[Pattern] = None,
+        start: Optional[float] = None,
     ) -> Callable[[CompletedTask], None]:
         """Create an error handler that captures the processor and event context."""
 
         def error_handler(completed_task: CompletedTask):
             """Handle errors from event processor tasks."""
+            if self._processing and pattern is not None and start is not None:
+                self._processing.labels(pattern.pattern).observe(
+                    time.perf_counter() - start
+                )
             if completed_task.exc_info:
                 _, exc_val, _ = completed_task.exc_info
                 # Don't log CancelledError as an error - it's normal task cancellation
@@ -166,6 +325,8 @@ class EventBus:
 
         if pattern not in self.topic_patterns_to_subscribers:
             self.topic_patterns_to_subscribers[pattern] = []
+            self._topic_index.add(pattern)
+            self._topic_matches.clear()
         self.topic_patterns_to_subscribers[pattern].append(processor)
         LOGGER.debug("Subscribed: topic %s, processor %s", pattern, processor)
 
@@ -188,6 +349,8 @@ class EventBus:
             del self.topic_patterns_to_subscribers[pattern][index]
             if not self.topic_patterns_to_subscribers[pattern]:
                 del self.topic_patterns_to_subscribers[pattern]
+                self._topic_index.remove(pattern)
+                self._topic_matches.clear()
             LOGGER.debug("Unsubscribed: topic %s, processor %s", pattern, processor)
 
     @contextmanager
@@ -1,6 +1,7 @@
 """Classes for managing profile information within a request context."""
 
 import logging
+import time
 from abc import ABC, abstractmethod
 from typing import Any, Mapping, Optional, Type
 from weakref import ref
@@ -12,12 +13,23 @@ from ..config.provider import BaseProvider
 from ..config.settings import BaseSettings
 from ..database_manager.db_types import Entry, EntryList
 from ..utils.classloader import ClassLoader, ClassNotFoundError
+from ..utils.metrics import MetricsRegistry
 from .error import ProfileSessionInactiveError
 from .event_bus import Event, EventBus
 
 LOGGER = logging.getLogger(__name__)
 
 
+class SessionTracker:
+    """Count of the sessions currently open on a profile."""
+
+    __slots__ = ("open",)
+
+    def __init__(self):
+        """Initialize the SessionTracker instance."""
+        self.open = 0
+
+
 class Profile(ABC):
     """Base abstraction for handling identity-related state."""
 
@@ -38,6 +50,7 @@ class Profile(ABC):
         context = context or InjectionContext()
         self._context = context.start_scope()
         self._context.injector.bind_instance(Profile, ref(self))
+        self._session_tracker = SessionTracker()
 
     @property
     def backend(self) -> str:
@@ -69,6 +82,18 @@ class Profile(ABC):
         """Accessor for scope-specific settings."""
         return self._context.settings
 
+    @property
+    def open_sessions(self) -> int:
+        """Accessor for the number of sessions currently open on this profile."""
+        return self._session_tracker.open
+
+    def share_session_tracker(self, other: "Profile"):
+        """Count sessions on this profile together with those of another.
+
+        Used where several profile instances are views over the same store.
+        """
+        self._session_tracker = other._session_tracker
+
     @abstractmethod
     def session(self, context: Optional[InjectionContext] = None) -> "ProfileSession":
         """Start a new interactive session with no transaction support requested."""
@@ -282,6 +307,8 @@ class ProfileSession(ABC):
         self._context = (context or profile.context).start_scope(settings)
         self._profile = profile
         self._events = []
+        self._opened_at: Optional[float] = None
+        self._tracker: Optional[SessionTracker] = None
 
         self._context.injector.bind_instance(ProfileSession, ref(self))
 
@@ -291,6 +318,35 @@ class ProfileSession(ABC):
     async def _teardown(self, commit: Optional[bool] = None):
         """Dispose of the underlying session or transaction."""
 
+    async def _open(self):
+        """Set up the session, recording the time taken to acquire it."""
+        started = time.perf_counter()
+        await self._setup()
+        self._active = True
+        self._opened_at = time.perf_counter()
+        metrics = self._context.inject_or(MetricsRegistry)
+        if metrics:
+            metrics.histogram(
+                "session_open_seconds",
+                "Time taken to open a storage session",
+                ["transaction"],
+            ).labels(str(self.is_transaction).lower()).observe(self._opened_at - started)
+
+    async def _close(self, commit: Optional[bool] = None):
+        """Tear down the session, recording the time for which it was held."""
+        await self._teardown(commit=commit)
+        self._active = False
+        metrics = self._context.inject_or(MetricsRegistry)
+        if metrics and self._opened_at is not None:
+            metrics.histogram(
+                "session_held_seconds",
+                "Time for which storage sessions were held open",
+                ["transaction"],
+            ).labels(str(self.is_transaction).lower()).observe(
+                time.perf_counter() - self._opened_at
+            )
+        self._opened_at = None
+
     def __await__(self):
         """Coroutine magic method.
 
@@ -299,8 +355,7 @@ class ProfileSession(ABC):
 
         async def _init():
             if not self._active:
-                await self._setup()
-                self._active = True
+                await self._open()
             self._awaited = True
             return self
 
@@ -309,17 +364,24 @@ class ProfileSession(ABC):
     async def __aenter__(self):
         """Async context manager entry."""
         if not self._active:
-            await self._setup()
-            self._active = True
+            await self._open()
+        if not self._entered:
+            # only sessions held by a context manager are counted as open, as
+            # there is no telling when an awaited session is done with
+            self._tracker = getattr(self._profile, "_session_tracker", None)
+            if self._tracker:
+                self._tracker.open += 1
         self._entered += 1
         return self
 
     async def __aexit__(self, exc_type, exc_val, exc_tb):
         """Async context manager exit."""
         self._entered -= 1
+        if not self._entered and self._tracker:
+            self._tracker.open -= 1
+            self._tracker = None
         if not self._awaited and not self._entered:
-            await self._teardown()
-            self._active = False
+            await self._close()
 
     @property
     def active(self) -> bool:
@@ -357,15 +419,13 @@ class ProfileSession(ABC):
         """
         if not self._active:
             raise ProfileSessionInactiveError()
-        await self._teardown(commit=True)
+        await self._close(commit=True)
 
         # emit any pending events
         for event in self._events:
             await self.emit_event(event["topic"], event["payload"], force_emit=True)
         self._events = []
 
-        self._active = False
-
     async def rollback(self):
         """Roll back any updates performed within the transaction.
 
@@ -373,13 +433,11 @@ class ProfileSession(ABC):
         """
         if not self._active:
             raise ProfileSessionInactiveError()
-        await self._teardown(commit=False)
+        await self._close(commit=False)
 
         # clear any pending events
         self._events = []
 
-        self._active = False
-
     async def emit_event(self, topic: str, payload: Any, force_emit: bool = False):
         """Emit an event.
 
@@ -478,8 +536,25 @@ class ProfileManagerProvider(BaseProvider):
         if mgr_class not in self._inst:
             LOGGER.info("Create profile manager: %s", mgr_type)
             try:
-                self._inst[mgr_class] = ClassLoader.load_class(mgr_class)()
+                mgr = ClassLoader.load_class(mgr_class)()
             except ClassNotFoundError as err:
                 raise InjectionError(f"Unknown profile manager: {mgr_type}") from err
+            metrics = injector.inject_or(MetricsRegistry)
+            if metrics:
+                opened = metrics.histogram(
+                    "wallet_open_seconds",
+                    "Time taken to open or provision a wallet profile",
+                    ["wallet_type", "operation"],
+                )
+                for operation in ("open", "provision"):
+                    setattr(
+                        mgr,
+                        operation,
+                        metrics.wrap_coro(
+                            getattr(mgr, operation),
+                            opened.labels(mgr_type.lower(), operation),
+                        ),
+                    )
+            self._inst[mgr_class] = mgr
 
         return self._inst[mgr_class]
@@ -493,10 +493,14 @@ class TestConductor(IsolatedAsyncioTestCase, Config, TestDIDs):
             ),
         ):
             mock_inbound_mgr.return_value.sessions = ["dummy"]
-            mock_outbound_mgr.return_value.outbound_buffer = [
-                mock.MagicMock(state=QueuedOutboundMessage.STATE_ENCODE),
-                mock.MagicMock(state=QueuedOutboundMessage.STATE_DELIVER),
-            ]
+            mock_outbound_mgr.return_value.queue_depths.return_value = {
+                QueuedOutboundMessage.STATE_NEW: 0,
+                QueuedOutboundMessage.STATE_PENDING: 0,
+                QueuedOutboundMessage.STATE_ENCODE: 1,
+                QueuedOutboundMessage.STATE_DELIVER: 1,
+                QueuedOutboundMessage.STATE_RETRY: 0,
+                QueuedOutboundMessage.STATE_DONE: 0,
+            }
             mock_outbound_mgr.return_value.registered_transports = {
                 "test": mock.MagicMock(schemes=["http"])
             }
@@ -504,12 +508,16 @@ class TestConductor(IsolatedAsyncioTestCase, Config, TestDIDs):
             await conductor.setup()
 
             stats = await conductor.get_stats()
+            assert stats["out_encode"] == 1
+            assert stats["out_deliver"] == 1
             assert all(
                 x in stats
                 for x in [
                     "in_sessions",
                     "out_encode",
                     "out_deliver",
+                    "out_pending",
+                    "out_retry",
                     "task_active",
                     "task_done",
                     "task_failed",
@@ -381,6 +381,28 @@ class TestDispatcher(IsolatedAsyncioTestCase):
         )
         dispatcher.log_task(mock_task)
 
+    async def test_message_class(self):
+        dispatcher = test_module.Dispatcher(self.profile)
+        await dispatcher.setup()
+        message = make_inbound(
+            {"@type": "https://didcomm.org/issue-credential/2.0/offer-credential"}
+        )
+        assert dispatcher.message_class(self.profile, message) == (None, 1)
+
+        self.profile.settings["dispatcher.fair_share"] = ["family", "tenant"]
+        self.profile.settings["dispatcher.weights"] = {"issue-credential": 4, "w1": 2}
+        await dispatcher.setup()
+        wallet_id = self.profile.settings["wallet.id"]
+        assert dispatcher.message_class(self.profile, message) == (
+            f"{wallet_id}/issue-credential",
+            4,
+        )
+        tenant = await create_test_profile({"wallet.id": "w1"})
+        assert dispatcher.message_class(tenant, message) == ("w1/issue-credential", 8)
+        assert dispatcher.message_class(
+            tenant, make_inbound({"@type": "https://didcomm.org/trust_ping/1.0/ping"})
+        ) == ("w1/trust_ping", 2)
+
     async def test_create_send_outbound(self):
         profile = self.profile
         context = RequestContext(
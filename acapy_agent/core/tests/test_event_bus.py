@@ -7,6 +7,7 @@ from unittest.mock import MagicMock, patch
 import pytest
 
 from .. import event_bus as test_module
+from ...utils.metrics import MetricsRegistry
 from ..event_bus import Event, EventBus
 
 # pylint: disable=redefined-outer-name
@@ -187,6 +188,100 @@ async def test_sub_notify_both(
     assert processor1.event == event
 
 
+@pytest.mark.parametrize(
+    "pattern, prefix, exact",
+    [
+        ("^acapy::record::connections::.*$", "acapy::record::connections::", False),
+        ("^acapy::core::startup?$", "acapy::core::startu", False),
+        ("^acapy::webhook::ping$", "acapy::webhook::ping", True),
+        (r"acapy\:\:x\d", "acapy::x", False),
+        ("a|b", "", False),
+        (".*", "", False),
+    ],
+)
+def test_literal_prefix(pattern: str, prefix: str, exact: bool):
+    assert test_module.literal_prefix(re.compile(pattern)) == (prefix, exact)
+    assert test_module.literal_prefix(re.compile(pattern, re.IGNORECASE)) == (
+        "",
+        False,
+    )
+
+
+def test_topic_index():
+    patterns = [
+        re.compile(p)
+        for p in (
+            "^acapy::record::connections::.*$",
+            "^acapy::record::([^:]+)::(.*)$",
+            "^acapy::core::startup?$",
+            "^acapy::webhook::ping$",
+            ".*",
+        )
+    ]
+    index = test_module.TopicIndex()
+    for pattern in patterns:
+        index.add(pattern)
+    for topic in (
+        "acapy::record::connections::active",
+        "acapy::record::oob_record::done",
+        "acapy::core::startup",
+        "acapy::core::startu",
+        "acapy::webhook::ping",
+        "acapy::webhook::pings",
+        "other",
+    ):
+        expected = [p for p in patterns if p.match(topic)]
+        assert [p for p in index.candidates(topic) if p.match(topic)] == expected
+    assert index.candidates("other") == [patterns[-1]]
+    for pattern in patterns:
+        index.remove(pattern)
+    assert not (index.trie or index.exact or index.fallback or index.order)
+
+
+@pytest.mark.asyncio
+async def test_notify_processing_metrics(profile: MagicMock):
+    metrics = MetricsRegistry()
+    event_bus = EventBus(metrics=metrics)
+    processor = MockProcessor()
+    event_bus.subscribe(re.compile("^topic::"), processor)
+    event_bus.subscribe(re.compile("^topic::one$"), processor)
+    await event_bus.notify(profile, Event("topic::one"))
+    await event_bus.notify(profile, Event("topic::two"))
+    await event_bus.task_queue.wait_for_completion()
+
+    counts = {
+        labels["pattern"]: value
+        for name, labels, value in metrics.get("event_processing_seconds").samples()
+        if name.endswith("_count")
+    }
+    assert counts == {"^topic::": 2, "^topic::one$": 1}
+
+
+@pytest.mark.asyncio
+async def test_notify_topic_cache(event_bus: EventBus, profile: MagicMock):
+    processor = MockProcessor()
+    processor1 = MockProcessor()
+    event_bus.subscribe(re.compile("^topic::"), processor)
+    event = Event("topic::one")
+    await event_bus.notify(profile, event)
+    await event_bus.task_queue.wait_for_completion()
+    assert processor.event == event
+    assert "topic::one" in event_bus._topic_matches
+
+    # a new pattern invalidates the cache
+    event_bus.subscribe(re.compile("^topic::one$"), processor1)
+    assert not event_bus._topic_matches
+    await event_bus.notify(profile, event)
+    await event_bus.task_queue.wait_for_completion()
+    assert processor1.event == event
+
+    event_bus.unsubscribe(re.compile("^topic::one$"), processor1)
+    processor1.event = None
+    await event_bus.notify(profile, event)
+    await event_bus.task_queue.wait_for_completion()
+    assert processor1.event is None
+
+
 @pytest.mark.asyncio
 async def test_wait_for_event_multiple_do_not_collide(
     event_bus: EventBus, profile: MagicMock
@@ -3,6 +3,9 @@ from unittest import IsolatedAsyncioTestCase
 
 from ...config.base import InjectionError
 from ...config.injection_context import InjectionContext
+from ...tests import mock
+from ...utils.metrics import MetricsRegistry
+from .. import profile as test_module
 from ..error import ProfileSessionInactiveError
 from ..profile import Profile, ProfileManagerProvider, ProfileSession
 
@@ -54,6 +57,21 @@ class TestProfileSession(IsolatedAsyncioTestCase):
 
         await session2.rollback()
 
+    async def test_session_metrics(self):
+        metrics = MetricsRegistry()
+        profile = MockProfile()
+        profile.context.injector.bind_instance(MetricsRegistry, metrics)
+
+        async with ProfileSession(profile):
+            pass
+        session = await ProfileSession(profile)
+        await session.commit()
+
+        opened = metrics.get("session_open_seconds").labels("false")
+        held = metrics.get("session_held_seconds").labels("false")
+        assert opened.count == 2
+        assert held.count == 2
+
 
 class TestProfileManagerProvider(IsolatedAsyncioTestCase):
     async def test_invalid_wallet_type(self):
@@ -63,3 +81,24 @@ class TestProfileManagerProvider(IsolatedAsyncioTestCase):
 
         with self.assertRaises(InjectionError):
             provider.provide(context.settings, context.injector)
+
+    async def test_wallet_open_metrics(self):
+        context = InjectionContext()
+        metrics = MetricsRegistry()
+        context.injector.bind_instance(MetricsRegistry, metrics)
+        provider = ProfileManagerProvider()
+        context.settings["wallet.type"] = "tests.MockManager"
+
+        mgr = mock.MagicMock(
+            open=mock.CoroutineMock(return_value="profile"),
+            provision=mock.CoroutineMock(),
+        )
+        with mock.patch.object(
+            test_module.ClassLoader, "load_class", return_value=lambda: mgr
+        ):
+            manager = provider.provide(context.settings, context.injector)
+        assert await manager.open(context, {}) == "profile"
+        assert (
+            metrics.get("wallet_open_seconds").labels("tests.mockmanager", "open").count
+            == 1
+        )
@@ -12,6 +12,7 @@ from ..messaging.valid import IndyDID
 from ..utils import sentinel
 from ..utils.general import strip_did_prefix
 from ..wallet.did_info import DIDInfo
+from .cache import LedgerObjectCache
 from .endpoint_type import EndpointType
 from .error import (
     BadLedgerRequestError,
@@ -45,6 +46,11 @@ class BaseLedger(ABC, metaclass=ABCMeta):
         """Accessor for the ledger backend name."""
         return self.__class__.BACKEND_NAME
 
+    @property
+    def object_cache(self) -> Optional[LedgerObjectCache]:
+        """Accessor for the cache of objects read from the ledger, if any."""
+        return None
+
     @property
     @abstractmethod
     def read_only(self) -> bool:
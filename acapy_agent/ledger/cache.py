@@ -0,0 +1,193 @@
+"""Read-through cache for objects read from a ledger."""
+
+import hashlib
+import json
+import logging
+from time import time
+from typing import Awaitable, Callable, Optional, Sequence
+
+from ..cache.base import BaseCache
+from ..core.profile import Profile
+from ..storage.base import BaseStorage, StorageRecord
+from ..storage.error import StorageDuplicateError, StorageError, StorageNotFoundError
+
+LOGGER = logging.getLogger(__name__)
+
+RECORD_TYPE_LEDGER_OBJECT = "ledger_object"
+
+DEFAULT_MUTABLE_TTL = 30
+
+
+def state_proof_metadata(response: dict) -> Optional[dict]:
+    """Extract the state proof metadata from a ledger read reply.
+
+    The proof nodes are dropped: the state root hash and the multi-signature
+    over it are enough to identify the ledger state the object was read from.
+    """
+    proof = response.get("state_proof") if isinstance(response, dict) else None
+    if not proof:
+        return None
+    return {
+        name: proof[name] for name in ("root_hash", "multi_signature") if name in proof
+    }
+
+
+class LedgerObjectCache:
+    """Two-tier cache of objects read from a ledger.
+
+    Immutable objects (schemas, credential definitions and revocation registry
+    definitions) are held in the shared cache and also persisted to wallet
+    storage along with the state proof metadata of the reply they were read
+    from, so that restarted agents and other instances sharing the wallet do
+    not need to fetch them again. Mutable objects (NYMs, endpoint attributes
+    and revocation registry entries) are only held in the shared cache, for a
+    short time.
+    """
+
+    def __init__(
+        self,
+        profile: Profile,
+        scope: str,
+        cache: Optional[BaseCache] = None,
+        *,
+        cache_duration: int = 600,
+        mutable_ttl: int = DEFAULT_MUTABLE_TTL,
+        persist: bool = True,
+    ):
+        """Initialize the LedgerObjectCache instance.
+
+        Args:
+            profile: The profile whose storage holds persisted objects
+            scope: Identifies the ledger, so that objects are not shared
+                between ledgers in storage
+            cache: The shared cache instance, if any
+            cache_duration: The TTL for immutable objects in the shared cache
+            mutable_ttl: The TTL for mutable objects, zero to disable
+            persist: Whether to persist immutable objects to storage
+
+        """
+        self.profile = profile
+        self.scope = scope
+        self.cache = cache
+        self.cache_duration = cache_duration
+        self.mutable_ttl = mutable_ttl
+        self.persist = persist
+
+    def _record_id(self, kind: str, object_id: str) -> str:
+        return hashlib.sha256(
+            f"{self.scope}::{kind}::{object_id}".encode("utf-8")
+        ).hexdigest()
+
+    async def load(self, kind: str, object_id: str) -> Optional[dict]:
+        """Load a persisted immutable object, without querying the ledger."""
+        if not self.persist:
+            return None
+        try:
+            async with self.profile.session() as session:
+                record = await session.inject(BaseStorage).get_record(
+                    RECORD_TYPE_LEDGER_OBJECT, self._record_id(kind, object_id)
+                )
+        except StorageNotFoundError:
+            return None
+        except StorageError:
+            LOGGER.exception("Error loading cached ledger object %s", object_id)
+            return None
+        return json.loads(record.value)["object"]
+
+    async def store(
+        self,
+        kind: str,
+        object_ids: Sequence[str],
+        value: dict,
+        proof: Optional[dict] = None,
+    ):
+        """Cache an immutable object under one or more identifiers.
+
+        Args:
+            kind: The kind of ledger object
+            object_ids: The identifiers by which the object may be looked up
+            value: The object
+            proof: State proof metadata of the reply the object was read from
+
+        """
+        if self.cache:
+            await self.cache.set(
+                [f"{kind}::{object_id}" for object_id in object_ids],
+                value,
+                self.cache_duration,
+            )
+        if not self.persist:
+            return
+        record_value = json.dumps(
+            {"object": value, "proof": proof, "cached": int(time())}
+        )
+        try:
+            async with self.profile.session() as session:
+                storage = session.inject(BaseStorage)
+                for object_id in object_ids:
+                    try:
+                        await storage.add_record(
+                            StorageRecord(
+                                RECORD_TYPE_LEDGER_OBJECT,
+                                record_value,
+                                {"scope": self.scope, "kind": kind},
+                                self._record_id(kind, object_id),
+                            )
+                        )
+                    except StorageDuplicateError:
+                        pass
+        except StorageError:
+            LOGGER.exception("Error persisting ledger object %s", object_ids[0])
+
+    async def get(
+        self,
+        kind: str,
+        object_id: str,
+        fetch: Callable[[], Awaitable[Optional[dict]]],
+    ) -> Optional[dict]:
+        """Read an immutable object through the shared cache and storage.
+
+        Args:
+            kind: The kind of ledger object
+            object_id: The identifier of the object
+            fetch: Reads the object from the ledger on a miss, and is
+                responsible for storing it along with its state proof
+
+        """
+        if not self.cache:
+            return await self.load(kind, object_id) or await fetch()
+        async with self.cache.acquire(f"{kind}::{object_id}") as entry:
+            if entry.result:
+                return entry.result
+            result = await self.load(kind, object_id)
+            if not result:
+                result = await fetch()
+            if result:
+                await entry.set_result(result, self.cache_duration)
+            return result
+
+    def _mutable_key(self, kind: str, key: str) -> str:
+        return f"ledger::{self.scope}::{kind}::{key}"
+
+    async def get_mutable(
+        self, kind: str, key: str, fetch: Callable[[], Awaitable]
+    ) -> Optional[object]:
+        """Read a mutable object through the shared cache.
+
+        Missing objects are not cached, so that a newly written object is seen
+        as soon as it is on the ledger.
+        """
+        if not self.cache or not self.mutable_ttl:
+            return await fetch()
+        async with self.cache.acquire(self._mutable_key(kind, key)) as entry:
+            if entry.result is not None:
+                return entry.result
+            result = await fetch()
+            if result is not None:
+                await entry.set_result(result, self.mutable_ttl)
+            return result
+
+    async def clear_mutable(self, kind: str, key: str):
+        """Drop a mutable object after it has been written by this agent."""
+        if self.cache:
+            await self.cache.clear(self._mutable_key(kind, key))
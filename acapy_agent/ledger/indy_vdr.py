@@ -22,10 +22,12 @@ from ..storage.base import BaseStorage, StorageRecord
 from ..utils import sentinel
 from ..utils.env import storage_path
 from ..utils.general import strip_did_prefix
+from ..utils.metrics import MetricsRegistry
 from ..wallet.base import BaseWallet, DIDInfo
 from ..wallet.did_posture import DIDPosture
 from ..wallet.error import WalletNotFoundError
 from .base import BaseLedger, Role
+from .cache import DEFAULT_MUTABLE_TTL, LedgerObjectCache, state_proof_metadata
 from .endpoint_type import EndpointType
 from .error import (
     BadLedgerRequestError,
@@ -261,6 +263,28 @@ class IndyVdrLedger(BaseLedger):
         """
         self.pool = pool
         self.profile = profile
+        self._object_cache: Optional[LedgerObjectCache] = None
+
+    @property
+    def object_cache(self) -> LedgerObjectCache:
+        """Accessor for the cache of objects read from the ledger."""
+        if not self._object_cache:
+            # tie persisted objects to the network when the genesis is known
+            scope = self.pool.name
+            if self.pool.genesis_txns_cache:
+                scope = f"{scope}:{self.pool.genesis_hash}"
+            settings = self.profile.settings
+            self._object_cache = LedgerObjectCache(
+                self.profile,
+                scope,
+                self.pool.cache,
+                cache_duration=self.pool.cache_duration,
+                mutable_ttl=settings.get_int(
+                    "ledger.cache.mutable_ttl", default=DEFAULT_MUTABLE_TTL
+                ),
+                persist=settings.get_bool("ledger.cache.persist", default=True),
+            )
+        return self._object_cache
 
     @property
     def pool_handle(self):
@@ -363,10 +387,21 @@ class IndyVdrLedger(BaseLedger):
         if not write_ledger:
             return json.loads(request.body)
 
+        metrics = self.profile.inject_or(MetricsRegistry)
+        started = time()
         try:
             request_result = await self.pool.handle.submit_request(request)
         except VdrError as err:
             raise LedgerTransactionError("Ledger request error") from err
+        finally:
+            if metrics:
+                metrics.histogram(
+                    "ledger_request_seconds",
+                    "Time taken by ledger requests",
+                    ["ledger", "kind"],
+                ).labels(self.pool_name, "write" if sign else "read").observe(
+                    time() - started
+                )
 
         return request_result
 
@@ -439,15 +474,14 @@ class IndyVdrLedger(BaseLedger):
             schema_id: The schema id (or stringified sequence number) to retrieve
 
         """
-        if self.pool.cache:
-            result = await self.pool.cache.get(f"schema::{schema_id}")
-            if result:
-                return result
 
-        if schema_id.isdigit():
-            return await self.fetch_schema_by_seq_no(int(schema_id))
-        else:
-            return await self.fetch_schema_by_id(schema_id)
+        async def fetch():
+            if schema_id.isdigit():
+                return await self.fetch_schema_by_seq_no(int(schema_id))
+            else:
+                return await self.fetch_schema_by_id(schema_id)
+
+        return await self.object_cache.get("schema", schema_id, fetch)
 
     async def fetch_schema_by_id(self, schema_id: str) -> dict:
         """Get schema from ledger.
@@ -487,12 +521,12 @@ class IndyVdrLedger(BaseLedger):
             "seqNo": schema_seqno,
         }
 
-        if self.pool.cache:
-            await self.pool.cache.set(
-                [f"schema::{schema_id}", f"schema::{schema_seqno}"],
-                schema_data,
-                self.pool.cache_duration,
-            )
+        await self.object_cache.store(
+            "schema",
+            [schema_id, str(schema_seqno)],
+            schema_data,
+            state_proof_metadata(response),
+        )
 
         return schema_data
 
@@ -556,20 +590,11 @@ class IndyVdrLedger(BaseLedger):
             credential_definition_id: The schema id of the schema to fetch cred def for
 
         """
-        if self.pool.cache:
-            cache_key = f"credential_definition::{credential_definition_id}"
-            async with self.pool.cache.acquire(cache_key) as entry:
-                if entry.result:
-                    result = entry.result
-                else:
-                    result = await self.fetch_credential_definition(
-                        credential_definition_id
-                    )
-                    if result:
-                        await entry.set_result(result, self.pool.cache_duration)
-                return result
-
-        return await self.fetch_credential_definition(credential_definition_id)
+        return await self.object_cache.get(
+            "credential_definition",
+            credential_definition_id,
+            lambda: self.fetch_credential_definition(credential_definition_id),
+        )
 
     async def fetch_credential_definition(
         self, credential_definition_id: str
@@ -602,7 +627,7 @@ class IndyVdrLedger(BaseLedger):
         # may need to qualify the DID
         cred_def_id = f"{origin_did}:3:{signature_type}:{schema_id}:{tag}"
 
-        return {
+        cred_def = {
             "ver": "1.0",
             "id": cred_def_id,
             "schemaId": schema_id,
@@ -610,6 +635,13 @@ class IndyVdrLedger(BaseLedger):
             "tag": tag,
             "value": response["data"],
         }
+        await self.object_cache.store(
+            "credential_definition",
+            [credential_definition_id],
+            cred_def,
+            state_proof_metadata(response),
+        )
+        return cred_def
 
     async def credential_definition_id2schema_id(self, credential_definition_id):
         """From a credential definition, get the identifier for its schema.
@@ -643,14 +675,37 @@ class IndyVdrLedger(BaseLedger):
         if public_did is not None and not bool(IndyDID.PATTERN.match(public_did)):
             public_did = None
 
-        try:
-            nym_req = ledger.build_get_nym_request(public_did, nym)
-        except VdrError as err:
-            raise LedgerError("Exception when building get-nym request") from err
+        async def fetch():
+            try:
+                nym_req = ledger.build_get_nym_request(public_did, nym)
+            except VdrError as err:
+                raise LedgerError("Exception when building get-nym request") from err
+
+            response = await self._submit(nym_req, sign_did=public_info)
+            data_json = response["data"]
+            return json.loads(data_json)["verkey"] if data_json else None
+
+        return await self.object_cache.get_mutable("nym", nym, fetch)
+
+    async def _get_endpoint_attrib(self, did: str) -> Optional[dict]:
+        """Fetch the endpoint attribute of a ledger DID."""
+        nym = strip_did_prefix(did)
+
+        async def fetch():
+            public_info = await self.get_wallet_public_did()
+            public_did = public_info.did if public_info else None
+            try:
+                attrib_req = ledger.build_get_attrib_request(
+                    public_did, nym, "endpoint", None, None
+                )
+            except VdrError as err:
+                raise LedgerError("Exception when building attribute request") from err
 
-        response = await self._submit(nym_req, sign_did=public_info)
-        data_json = response["data"]
-        return json.loads(data_json)["verkey"] if data_json else None
+            response = await self._submit(attrib_req, sign_did=public_info)
+            data_json = response["data"]
+            return json.loads(data_json).get("endpoint", None) if data_json else None
+
+        return await self.object_cache.get_mutable("endpoint", nym, fetch)
 
     async def get_all_endpoints_for_did(self, did: str) -> dict:
         """Fetch all endpoints for a ledger DID.
@@ -659,25 +714,7 @@ class IndyVdrLedger(BaseLedger):
             did: The DID to look up on the ledger or in the cache
 
         """
-        nym = strip_did_prefix(did)
-        public_info = await self.get_wallet_public_did()
-        public_did = public_info.did if public_info else None
-        try:
-            attrib_req = ledger.build_get_attrib_request(
-                public_did, nym, "endpoint", None, None
-            )
-        except VdrError as err:
-            raise LedgerError("Exception when building attribute request") from err
-
-        response = await self._submit(attrib_req, sign_did=public_info)
-        data_json = response["data"]
-
-        if data_json:
-            endpoints = json.loads(data_json).get("endpoint", None)
-        else:
-            endpoints = None
-
-        return endpoints
+        return await self._get_endpoint_attrib(did)
 
     async def get_endpoint_for_did(
         self, did: str, endpoint_type: Optional[EndpointType] = None
@@ -691,25 +728,8 @@ class IndyVdrLedger(BaseLedger):
         """
         if not endpoint_type:
             endpoint_type = EndpointType.ENDPOINT
-        nym = strip_did_prefix(did)
-        public_info = await self.get_wallet_public_did()
-        public_did = public_info.did if public_info else None
-        try:
-            attrib_req = ledger.build_get_attrib_request(
-                public_did, nym, "endpoint", None, None
-            )
-        except VdrError as err:
-            raise LedgerError("Exception when building attribute request") from err
-
-        response = await self._submit(attrib_req, sign_did=public_info)
-        data_json = response["data"]
-        if data_json:
-            endpoint = json.loads(data_json).get("endpoint", None)
-            address = endpoint.get(endpoint_type.indy, None) if endpoint else None
-        else:
-            address = None
-
-        return address
+        endpoint = await self._get_endpoint_attrib(did)
+        return endpoint.get(endpoint_type.indy, None) if endpoint else None
 
     async def update_endpoint_for_did(
         self,
@@ -741,6 +761,8 @@ class IndyVdrLedger(BaseLedger):
         if not endpoint_type:
             endpoint_type = EndpointType.ENDPOINT
 
+        # decide on the current state of the ledger, not a cached one
+        await self.object_cache.clear_mutable("endpoint", strip_did_prefix(did))
         all_exist_endpoints = await self.get_all_endpoints_for_did(did)
         exist_endpoint_of_type = (
             all_exist_endpoints.get(endpoint_type.indy, None)
@@ -786,6 +808,7 @@ class IndyVdrLedger(BaseLedger):
                 raise LedgerError("Exception when building attribute request") from err
 
             await self._submit(attrib_req, True, True)
+            await self.object_cache.clear_mutable("endpoint", nym)
             return True
         return False
 
@@ -831,6 +854,7 @@ class IndyVdrLedger(BaseLedger):
         )
         if not write_ledger:
             return True, {"signed_txn": resp}
+        await self.object_cache.clear_mutable("nym", strip_did_prefix(did))
         async with self.profile.session() as session:
             wallet = session.inject(BaseWallet)
             try:
@@ -1033,6 +1057,14 @@ class IndyVdrLedger(BaseLedger):
 
     async def get_revoc_reg_def(self, revoc_reg_id: str) -> dict:
         """Get revocation registry definition by ID."""
+        return await self.object_cache.get(
+            "revocation_registry_definition",
+            revoc_reg_id,
+            lambda: self.fetch_revoc_reg_def(revoc_reg_id),
+        )
+
+    async def fetch_revoc_reg_def(self, revoc_reg_id: str) -> dict:
+        """Get revocation registry definition by ID from the ledger."""
         public_info = await self.get_wallet_public_did()
         try:
             fetch_req = ledger.build_get_revoc_reg_def_request(
@@ -1052,32 +1084,45 @@ class IndyVdrLedger(BaseLedger):
             raise LedgerError(
                 "ID of revocation registry response does not match requested ID"
             )
+        await self.object_cache.store(
+            "revocation_registry_definition",
+            [revoc_reg_id],
+            revoc_reg_def,
+            state_proof_metadata(response),
+        )
         return revoc_reg_def
 
     async def get_revoc_reg_entry(
         self, revoc_reg_id: str, timestamp: int
     ) -> Tuple[dict, int]:
         """Get revocation registry entry by revocation registry ID and timestamp."""
-        public_info = await self.get_wallet_public_did()
-        try:
-            fetch_req = ledger.build_get_revoc_reg_request(
-                public_info and public_info.did, revoc_reg_id, timestamp
-            )
-            response = await self._submit(fetch_req, sign_did=public_info)
-        except VdrError as err:
-            raise LedgerError(
-                f"get_revoc_reg_entry failed for revoc_reg_id='{revoc_reg_id}'"
-            ) from err
 
-        ledger_timestamp = response["data"]["txnTime"]
-        reg_entry = {
-            "ver": "1.0",
-            "value": response["data"]["value"],
-        }
-        if response["data"]["revocRegDefId"] != revoc_reg_id:
-            raise LedgerError(
-                "ID of revocation registry response does not match requested ID"
-            )
+        async def fetch():
+            public_info = await self.get_wallet_public_did()
+            try:
+                fetch_req = ledger.build_get_revoc_reg_request(
+                    public_info and public_info.did, revoc_reg_id, timestamp
+                )
+                response = await self._submit(fetch_req, sign_did=public_info)
+            except VdrError as err:
+                raise LedgerError(
+                    f"get_revoc_reg_entry failed for revoc_reg_id='{revoc_reg_id}'"
+                ) from err
+
+            ledger_timestamp = response["data"]["txnTime"]
+            reg_entry = {
+                "ver": "1.0",
+                "value": response["data"]["value"],
+            }
+            if response["data"]["revocRegDefId"] != revoc_reg_id:
+                raise LedgerError(
+                    "ID of revocation registry response does not match requested ID"
+                )
+            return reg_entry, ledger_timestamp
+
+        reg_entry, ledger_timestamp = await self.object_cache.get_mutable(
+            "revocation_registry_entry", f"{revoc_reg_id}::{timestamp}", fetch
+        )
         return reg_entry, ledger_timestamp
 
     async def get_revoc_reg_delta(
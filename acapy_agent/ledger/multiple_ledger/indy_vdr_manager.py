@@ -1,9 +1,9 @@
 """Multiple IndyVdrLedger Manager."""
 
 import asyncio
-import concurrent.futures
 import json
 import logging
+import time
 from collections import OrderedDict
 from typing import List, Mapping, Optional, Tuple
 
@@ -11,6 +11,7 @@ from ...cache.base import BaseCache
 from ...core.profile import Profile
 from ...ledger.base import BaseLedger
 from ...ledger.error import LedgerError
+from ...utils.metrics import MetricsRegistry
 from ...wallet.crypto import did_is_self_certified
 from ..indy_vdr import IndyVdrLedger
 from ..merkel_validation.domain_txn_handler import get_proof_nodes, prepare_for_state_read
@@ -50,7 +51,6 @@ class MultiIndyVDRLedgerManager(BaseMultipleLedgerManager):
         self.non_production_ledgers = non_production_ledgers or OrderedDict()
         self.writable_ledgers = writable_ledgers or set()
         self.endorser_map = endorser_map or {}
-        self.executor = concurrent.futures.ThreadPoolExecutor(max_workers=5)
         self.cache_ttl = cache_ttl
 
     async def get_write_ledgers(self) -> List[str]:
@@ -159,10 +159,52 @@ class MultiIndyVDRLedgerManager(BaseMultipleLedgerManager):
             )
             return None
 
+    async def _timed_get_ledger_by_did(
+        self, ledger_id: str, did: str
+    ) -> Optional[Tuple[str, IndyVdrLedger, bool]]:
+        """Look up a DID on one ledger, recording how long the ledger took.
+
+        Lookups cancelled once a better ranked ledger has answered are not
+        recorded, as their duration is unknown.
+        """
+        started = time.perf_counter()
+        result = await self._get_ledger_by_did(ledger_id, did)
+        elapsed = time.perf_counter() - started
+        metrics = self.profile.inject_or(MetricsRegistry)
+        if metrics:
+            metrics.histogram(
+                "ledger_lookup_seconds",
+                "Time taken to look up a DID on each configured ledger",
+                ["ledger"],
+            ).labels(ledger_id).observe(elapsed)
+        return result
+
+    def _lookup_rank(self, ledger_id: str, is_self_certified: bool) -> Tuple[int, int]:
+        """Rank a ledger on which a DID was found; lower ranks are preferred.
+
+        Self-certified DIDs on production ledgers come first, then those on
+        non-production ledgers, then DIDs which are not self-certified in the
+        same order. Ties are broken by the configured order of the ledgers.
+        """
+        if ledger_id in self.production_ledgers:
+            return (
+                0 if is_self_certified else 2,
+                list(self.production_ledgers).index(ledger_id),
+            )
+        return (
+            1 if is_self_certified else 3,
+            list(self.non_production_ledgers).index(ledger_id),
+        )
+
     async def lookup_did_in_configured_ledgers(
         self, did: str, cache_did: bool = True
     ) -> Tuple[str, IndyVdrLedger]:
-        """Lookup given DID in configured ledgers in parallel."""
+        """Lookup given DID in configured ledgers in parallel.
+
+        All ledgers are queried concurrently. As soon as no pending ledger could
+        produce a better ranked result than one already received, the remaining
+        requests are cancelled.
+        """
         self.cache = self.profile.inject_or(BaseCache)
         cache_key = f"did_ledger_id_resolver::{did}"
         if bool(cache_did and self.cache and await self.cache.get(cache_key)):
@@ -179,90 +221,52 @@ class MultiIndyVDRLedgerManager(BaseMultipleLedgerManager):
                     f"cached ledger_id {cached_ledger_id} not found in either "
                     "production_ledgers or non_production_ledgers"
                 )
-        applicable_prod_ledgers = {"self_certified": {}, "non_self_certified": {}}
-        applicable_non_prod_ledgers = {"self_certified": {}, "non_self_certified": {}}
+
         ledger_ids = list(self.production_ledgers.keys()) + list(
             self.non_production_ledgers.keys()
         )
-        coro_futures = {
-            self.executor.submit(self._get_ledger_by_did, ledger_id, did): ledger_id
-            for ledger_id in ledger_ids
-        }
-        for coro_future in concurrent.futures.as_completed(coro_futures):
-            result = await coro_future.result()
-            if result:
-                applicable_ledger_id = result[0]
-                applicable_ledger_inst = result[1]
-                is_self_certified = result[2]
-                if applicable_ledger_id in self.production_ledgers:
-                    insert_key = list(self.production_ledgers).index(applicable_ledger_id)
-                    if is_self_certified:
-                        applicable_prod_ledgers["self_certified"][insert_key] = (
-                            applicable_ledger_id,
-                            applicable_ledger_inst,
-                        )
-                    else:
-                        applicable_prod_ledgers["non_self_certified"][insert_key] = (
-                            applicable_ledger_id,
-                            applicable_ledger_inst,
-                        )
-                else:
-                    insert_key = list(self.non_production_ledgers).index(
-                        applicable_ledger_id
-                    )
-                    if is_self_certified:
-                        applicable_non_prod_ledgers["self_certified"][insert_key] = (
-                            applicable_ledger_id,
-                            applicable_ledger_inst,
-                        )
-                    else:
-                        applicable_non_prod_ledgers["non_self_certified"][insert_key] = (
-                            applicable_ledger_id,
-                            applicable_ledger_inst,
-                        )
-        applicable_prod_ledgers["self_certified"] = OrderedDict(
-            sorted(applicable_prod_ledgers.get("self_certified").items())
-        )
-        applicable_prod_ledgers["non_self_certified"] = OrderedDict(
-            sorted(applicable_prod_ledgers.get("non_self_certified").items())
-        )
-        applicable_non_prod_ledgers["self_certified"] = OrderedDict(
-            sorted(applicable_non_prod_ledgers.get("self_certified").items())
-        )
-        applicable_non_prod_ledgers["non_self_certified"] = OrderedDict(
-            sorted(applicable_non_prod_ledgers.get("non_self_certified").items())
-        )
-        if len(applicable_prod_ledgers.get("self_certified")) > 0:
-            successful_ledger_inst = list(
-                applicable_prod_ledgers.get("self_certified").values()
-            )[0]
-            if cache_did and self.cache:
-                await self.cache.set(cache_key, successful_ledger_inst[0], self.cache_ttl)
-            return successful_ledger_inst
-        elif len(applicable_non_prod_ledgers.get("self_certified")) > 0:
-            successful_ledger_inst = list(
-                applicable_non_prod_ledgers.get("self_certified").values()
-            )[0]
-            if cache_did and self.cache:
-                await self.cache.set(cache_key, successful_ledger_inst[0], self.cache_ttl)
-            return successful_ledger_inst
-        elif len(applicable_prod_ledgers.get("non_self_certified")) > 0:
-            successful_ledger_inst = list(
-                applicable_prod_ledgers.get("non_self_certified").values()
-            )[0]
-            if cache_did and self.cache:
-                await self.cache.set(cache_key, successful_ledger_inst[0], self.cache_ttl)
-            return successful_ledger_inst
-        elif len(applicable_non_prod_ledgers.get("non_self_certified")) > 0:
-            successful_ledger_inst = list(
-                applicable_non_prod_ledgers.get("non_self_certified").values()
-            )[0]
-            if cache_did and self.cache:
-                await self.cache.set(cache_key, successful_ledger_inst[0], self.cache_ttl)
-            return successful_ledger_inst
-        else:
+        finished = asyncio.Queue()
+        pending = {}
+        for ledger_id in ledger_ids:
+            task = asyncio.ensure_future(self._timed_get_ledger_by_did(ledger_id, did))
+            task.add_done_callback(finished.put_nowait)
+            pending[task] = ledger_id
+
+        best_rank = None
+        successful_ledger_inst = None
+        try:
+            while pending:
+                task = await finished.get()
+                del pending[task]
+                result = task.result()
+                if result:
+                    rank = self._lookup_rank(result[0], result[2])
+                    if best_rank is None or rank < best_rank:
+                        best_rank = rank
+                        successful_ledger_inst = (result[0], result[1])
+                # a pending ledger can at best report a self-certified DID
+                if best_rank is not None and all(
+                    best_rank < self._lookup_rank(ledger_id, True)
+                    for ledger_id in pending.values()
+                ):
+                    break
+        finally:
+            for task in pending:
+                task.cancel()
+
+        if not successful_ledger_inst:
             raise MultipleLedgerManagerError(
                 f"DID {did} not found in any of the ledgers total: "
                 f"(production: {len(self.production_ledgers)}, "
                 f"non_production: {len(self.non_production_ledgers)})"
             )
+        if pending:
+            LOGGER.debug(
+                "DID %s resolved on ledger %s; cancelled lookups on %s",
+                did,
+                successful_ledger_inst[0],
+                ", ".join(pending.values()),
+            )
+        if cache_did and self.cache:
+            await self.cache.set(cache_key, successful_ledger_inst[0], self.cache_ttl)
+        return successful_ledger_inst
@@ -498,6 +498,55 @@ class TestMultiIndyVDRLedgerManager(IsolatedAsyncioTestCase):
             assert ledger_id == "test_prod_1"
             assert ledger_inst.pool.name == "test_prod_1"
 
+    async def test_lookup_did_in_configured_ledgers_short_circuit(self):
+        cancelled = []
+
+        async def get_ledger_by_did(ledger_id, did):
+            if ledger_id == "test_prod_1":
+                await asyncio.sleep(0.01)
+                return (ledger_id, self.production_ledger[ledger_id], True)
+            try:
+                await asyncio.sleep(10)
+            except asyncio.CancelledError:
+                cancelled.append(ledger_id)
+                raise
+
+        with mock.patch.object(
+            self.manager, "_get_ledger_by_did", side_effect=get_ledger_by_did
+        ):
+            ledger_id, _ = await asyncio.wait_for(
+                self.manager.lookup_did_in_configured_ledgers(
+                    "Av63wJYM7xYR4AiygYq4c3", cache_did=False
+                ),
+                1,
+            )
+            await asyncio.sleep(0)
+        assert ledger_id == "test_prod_1"
+        assert sorted(cancelled) == [
+            "test_non_prod_1",
+            "test_non_prod_2",
+            "test_prod_2",
+        ]
+
+    async def test_lookup_did_in_configured_ledgers_waits_for_priority(self):
+        async def get_ledger_by_did(ledger_id, did):
+            if ledger_id == "test_prod_1":
+                await asyncio.sleep(0.05)
+                return (ledger_id, self.production_ledger[ledger_id], False)
+            if ledger_id == "test_non_prod_1":
+                return (ledger_id, self.non_production_ledger[ledger_id], True)
+            return None
+
+        with mock.patch.object(
+            self.manager, "_get_ledger_by_did", side_effect=get_ledger_by_did
+        ):
+            ledger_id, _ = await self.manager.lookup_did_in_configured_ledgers(
+                "Av63wJYM7xYR4AiygYq4c3", cache_did=False
+            )
+        # a self-certified DID on a non-production ledger is preferred over
+        # one that is not self-certified, however quickly either answers
+        assert ledger_id == "test_non_prod_1"
+
     async def test_lookup_did_in_configured_ledgers_cached_prod_ledger(self):
         cache = InMemoryCache()
         await cache.set("did_ledger_id_resolver::Av63wJYM7xYR4AiygYq4c3", "test_prod_1")
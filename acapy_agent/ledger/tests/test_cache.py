@@ -0,0 +1,77 @@
+import json
+
+import pytest
+import pytest_asyncio
+
+from ...cache.in_memory import InMemoryCache
+from ...storage.base import BaseStorage
+from ...tests import mock
+from ...utils.testing import create_test_profile
+from ..cache import RECORD_TYPE_LEDGER_OBJECT, LedgerObjectCache, state_proof_metadata
+
+SCHEMA = {"id": "55GkHamhTU1ZbTbV2ab9DE:2:schema_name:9.1", "seqNo": 99}
+PROOF = {"root_hash": "hash", "multi_signature": {"value": {"timestamp": 1}}}
+
+
+@pytest_asyncio.fixture
+async def profile():
+    profile = await create_test_profile()
+    yield profile
+    await profile.close()
+
+
+def test_state_proof_metadata():
+    assert state_proof_metadata({}) is None
+    assert state_proof_metadata(
+        {"state_proof": {**PROOF, "proof_nodes": "nodes"}}
+    ) == PROOF
+
+
+@pytest.mark.asyncio
+async def test_persisted_across_instances(profile):
+    cache = LedgerObjectCache(profile, "pool", InMemoryCache())
+    await cache.store("schema", [SCHEMA["id"], "99"], SCHEMA, PROOF)
+
+    async with profile.session() as session:
+        records = await session.inject(BaseStorage).find_all_records(
+            RECORD_TYPE_LEDGER_OBJECT, {"kind": "schema"}
+        )
+    assert len(records) == 2
+    assert json.loads(records[0].value)["proof"] == PROOF
+
+    # a fresh shared cache, as after a restart
+    restarted = LedgerObjectCache(profile, "pool", InMemoryCache())
+    fetch = mock.CoroutineMock()
+    assert await restarted.get("schema", "99", fetch) == SCHEMA
+    fetch.assert_not_awaited()
+
+    # objects are not shared between ledgers
+    other = LedgerObjectCache(profile, "other-pool", InMemoryCache())
+    assert await other.load("schema", "99") is None
+
+
+@pytest.mark.asyncio
+async def test_get_fetches_once(profile):
+    cache = LedgerObjectCache(profile, "pool", InMemoryCache(), persist=False)
+    fetch = mock.CoroutineMock(return_value=SCHEMA)
+    assert await cache.get("schema", SCHEMA["id"], fetch) == SCHEMA
+    assert await cache.get("schema", SCHEMA["id"], fetch) == SCHEMA
+    fetch.assert_awaited_once()
+    assert await cache.load("schema", SCHEMA["id"]) is None
+
+
+@pytest.mark.asyncio
+async def test_mutable(profile):
+    cache = LedgerObjectCache(profile, "pool", InMemoryCache())
+    fetch = mock.CoroutineMock(side_effect=[None, "verkey", "rotated"])
+    assert await cache.get_mutable("nym", "did", fetch) is None
+    assert await cache.get_mutable("nym", "did", fetch) == "verkey"
+    assert await cache.get_mutable("nym", "did", fetch) == "verkey"
+    await cache.clear_mutable("nym", "did")
+    assert await cache.get_mutable("nym", "did", fetch) == "rotated"
+
+    disabled = LedgerObjectCache(profile, "pool", InMemoryCache(), mutable_ttl=0)
+    fetch = mock.CoroutineMock(return_value="verkey")
+    await disabled.get_mutable("nym", "did", fetch)
+    await disabled.get_mutable("nym", "did", fetch)
+    assert fetch.await_count == 2
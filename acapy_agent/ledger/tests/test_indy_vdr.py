@@ -449,6 +449,43 @@ class TestIndyVdrLedger:
             result = await ledger.get_schema("55GkHamhTU1ZbTbV2ab9DE:2:schema_name:9.1")
             assert result is None
 
+    @pytest.mark.asyncio
+    async def test_get_schema_persisted(
+        self,
+        ledger: IndyVdrLedger,
+    ):
+        async with ledger:
+            ledger.pool_handle.submit_request.return_value = {
+                "seqNo": 99,
+                "dest": "55GkHamhTU1ZbTbV2ab9DE",
+                "data": {
+                    "name": "schema_name",
+                    "version": "9.1",
+                    "attr_names": ["a", "b"],
+                },
+            }
+            result = await ledger.get_schema("55GkHamhTU1ZbTbV2ab9DE:2:schema_name:9.1")
+
+        # a new ledger instance, as after a restart, reads from storage
+        restarted = IndyVdrLedger(IndyVdrLedgerPool("test-ledger"), ledger.profile)
+        with mock.patch.object(restarted, "_submit", mock.CoroutineMock()) as submit:
+            assert await restarted.get_schema("99") == result
+            submit.assert_not_awaited()
+
+    @pytest.mark.asyncio
+    async def test_get_key_for_did_cached(
+        self,
+        ledger: IndyVdrLedger,
+    ):
+        ledger.pool.cache = InMemoryCache()
+        async with ledger:
+            ledger.pool_handle.submit_request.return_value = {
+                "data": r'{"verkey": "VK"}',
+            }
+            assert await ledger.get_key_for_did("55GkHamhTU1ZbTbV2ab9DE") == "VK"
+            assert await ledger.get_key_for_did("55GkHamhTU1ZbTbV2ab9DE") == "VK"
+            ledger.pool_handle.submit_request.assert_awaited_once()
+
     @pytest.mark.asyncio
     async def test_send_credential_definition(
         self,
@@ -1,10 +1,23 @@
 """Classes for BaseStorage-based record management."""
 
+import base64
+import hashlib
 import json
 import logging
 import sys
 from datetime import datetime
-from typing import Any, Mapping, Optional, Sequence, Type, TypeVar, Union
+from typing import (
+    Any,
+    AsyncIterator,
+    Callable,
+    Mapping,
+    Optional,
+    Sequence,
+    Tuple,
+    Type,
+    TypeVar,
+    Union,
+)
 
 from marshmallow import fields
 from uuid_utils import uuid4
@@ -15,11 +28,12 @@ from ...core.profile import ProfileSession
 from ...storage.base import (
     DEFAULT_PAGE_SIZE,
     BaseStorage,
+    BaseStorageSearch,
     StorageDuplicateError,
     StorageNotFoundError,
 )
 from ...storage.record import StorageRecord
-from ..util import datetime_to_str, time_now
+from ..util import datetime_to_str, str_to_datetime, time_now
 from ..valid import ISO8601_DATETIME_EXAMPLE, ISO8601_DATETIME_VALIDATE
 from .base import BaseModel, BaseModelError, BaseModelSchema
 
@@ -69,6 +83,32 @@ def match_post_filter(
     return positive
 
 
+# plaintext tag holding BaseRecord.order_key, for record types paged by keyset
+CREATED_ORDER_TAG = "~created_order"
+
+
+def encode_query_cursor(position: Union[int, str], fingerprint: str) -> str:
+    """Encode a storage position or order key as an opaque continuation token."""
+    data = json.dumps({"p": position, "q": fingerprint}, separators=(",", ":"))
+    return base64.urlsafe_b64encode(data.encode()).decode().rstrip("=")
+
+
+def decode_query_cursor(cursor: str, fingerprint: str) -> Union[int, str]:
+    """Decode a query continuation token, checking it belongs to the query."""
+    try:
+        data = json.loads(base64.urlsafe_b64decode(cursor + "=" * (-len(cursor) % 4)))
+        position = data["p"]
+        if isinstance(position, str):
+            valid = data["q"] == fingerprint and position
+        else:
+            valid = data["q"] == fingerprint and type(position) is int and position >= 0
+    except (ValueError, TypeError, KeyError):
+        valid = False
+    if not valid:
+        raise BaseModelError("Invalid or expired query cursor")
+    return position
+
+
 class BaseRecord(BaseModel):
     """Represents a single storage record."""
 
@@ -82,6 +122,8 @@ class BaseRecord(BaseModel):
     EVENT_NAMESPACE: str = "acapy::record"
     LOG_STATE_FLAG = None
     TAG_NAMES = {"state"}
+    # plaintext tag exposing the order key, set by record types paged by keyset
+    ORDER_TAG_NAME: Optional[str] = None
     STATE_DELETED = "deleted"
 
     def __init__(
@@ -143,7 +185,7 @@ class BaseRecord(BaseModel):
     @property
     def value(self) -> dict:
         """Accessor for the JSON record value generated for this record."""
-        ret = self.strip_tag_prefix(self.tags)
+        ret = self.strip_tag_prefix(self.record_tags)
         ret.update({"created_at": self.created_at, "updated_at": self.updated_at})
         ret.update(self.record_value)
         return ret
@@ -161,8 +203,29 @@ class BaseRecord(BaseModel):
     def tags(self) -> dict:
         """Accessor for the record tags generated for this record."""
         tags = self.record_tags
+        order_key = self.ORDER_TAG_NAME and self.order_key
+        if order_key:
+            tags = {**tags, self.ORDER_TAG_NAME: order_key}
         return tags
 
+    @property
+    def order_key(self) -> Optional[str]:
+        """Accessor for the key ordering stored records by creation.
+
+        The key is the fixed-width creation time followed by the record
+        identifier. Record types which set ORDER_TAG_NAME store it as a
+        plaintext tag, so that a cursor query can select the records following
+        a key with a range filter. The creation time is then visible in
+        storage without decryption.
+        """
+        if not (self._id and self.created_at):
+            return None
+        try:
+            created = str_to_datetime(self.created_at)
+        except ValueError:
+            return None
+        return f"{created.strftime('%Y-%m-%dT%H:%M:%S.%fZ')}/{self._id}"
+
     @classmethod
     async def get_cached_key(cls, session: ProfileSession, cache_key: str):
         """Shortcut method to fetch a cached key value.
@@ -321,18 +384,6 @@ class BaseRecord(BaseModel):
         limit = limit or DEFAULT_PAGE_SIZE
         offset = offset or 0
 
-        def _record_vals(record: StorageRecord) -> dict:
-            try:
-                return json.loads(record.value)
-            except (json.JSONDecodeError, TypeError) as err:
-                raise BaseModelError(f"{err}, for record id {record.id}")
-
-        def _build_record(record: StorageRecord, vals: dict) -> RecordType:
-            try:
-                return cls.from_storage(record.id, vals)
-            except BaseModelError as err:
-                raise BaseModelError(f"{err}, for record id {record.id}")
-
         if not post_filter:
             # No post-filter: storage applies pagination (or a full fetch) directly.
             if paginated:
@@ -351,7 +402,9 @@ class BaseRecord(BaseModel):
                     order_by=order_by,
                     descending=descending,
                 )
-            return [_build_record(record, _record_vals(record)) for record in rows]
+            return [
+                cls._build_record(record, cls._record_vals(record)) for record in rows
+            ]
 
         def _post_filter_match(vals: dict) -> bool:
             return match_post_filter(
@@ -369,9 +422,9 @@ class BaseRecord(BaseModel):
             )
             result = []
             for record in rows:
-                vals = _record_vals(record)
+                vals = cls._record_vals(record)
                 if _post_filter_match(vals):
-                    result.append(_build_record(record, vals))
+                    result.append(cls._build_record(record, vals))
             return result
 
         # Paginated post-filter: page through storage in bounded batches so the
@@ -379,32 +432,279 @@ class BaseRecord(BaseModel):
         result = []
         num_matched = 0
         num_records_to_match = limit + offset  # matches to observe for this page
-        batch_size = max(limit, DEFAULT_PAGE_SIZE)
-        scan_offset = 0
-        while num_matched < num_records_to_match:
+        scan = cls._scan(
+            storage,
+            tag_query,
+            _post_filter_match,
+            order_by=order_by,
+            descending=descending,
+            batch_size=max(limit, DEFAULT_PAGE_SIZE),
+        )
+        try:
+            async for _, record, vals in scan:
+                if num_matched >= offset:  # append only after offset
+                    result.append(cls._build_record(record, vals))
+                num_matched += 1
+                if num_matched >= num_records_to_match:
+                    break
+        finally:
+            await scan.aclose()
+        return result
+
+    @classmethod
+    def _record_vals(cls, record: StorageRecord) -> dict:
+        try:
+            return json.loads(record.value)
+        except (json.JSONDecodeError, TypeError) as err:
+            raise BaseModelError(f"{err}, for record id {record.id}")
+
+    @classmethod
+    def _build_record(cls: Type[RecordType], record: StorageRecord, vals: dict):
+        try:
+            return cls.from_storage(record.id, vals)
+        except BaseModelError as err:
+            raise BaseModelError(f"{err}, for record id {record.id}")
+
+    @classmethod
+    async def _scan(
+        cls,
+        storage: BaseStorage,
+        tag_query: Optional[dict],
+        match: Callable[[dict], bool],
+        *,
+        start: int = 0,
+        order_by: Optional[str] = None,
+        descending: bool = False,
+        batch_size: int = DEFAULT_PAGE_SIZE,
+    ) -> AsyncIterator[Tuple[int, StorageRecord, dict]]:
+        """Scan stored records in batches, yielding those matching a value filter.
+
+        Each match is yielded with the storage position following it, from
+        which a later scan may resume.
+        """
+        position = start
+        while True:
             rows = await storage.find_paginated_records(
                 type_filter=cls.RECORD_TYPE,
                 tag_query=tag_query,
                 limit=batch_size,
-                offset=scan_offset,
+                offset=position,
                 order_by=order_by,
                 descending=descending,
             )
-            if not rows:
-                break
             for record in rows:
-                vals = _record_vals(record)
-                if not _post_filter_match(vals):
-                    continue
-                if num_matched >= offset:  # append only after offset
-                    result.append(_build_record(record, vals))
-                num_matched += 1
-                if num_matched >= num_records_to_match:
-                    break
+                position += 1
+                vals = cls._record_vals(record)
+                if match(vals):
+                    yield position, record, vals
             if len(rows) < batch_size:  # storage exhausted
-                break
-            scan_offset += batch_size
-        return result
+                return
+
+    @classmethod
+    def _query_fingerprint(cls, *params) -> str:
+        """Summarize the parameters of a query, to bind a cursor to them."""
+        digest = hashlib.sha256(
+            json.dumps([cls.RECORD_TYPE, *params], sort_keys=True, default=str).encode()
+        )
+        return digest.hexdigest()[:16]
+
+    @classmethod
+    async def query_iter(
+        cls: Type[RecordType],
+        session: ProfileSession,
+        tag_filter: Optional[dict] = None,
+        *,
+        order_by: Optional[str] = None,
+        descending: bool = False,
+        post_filter_positive: Optional[dict] = None,
+        post_filter_negative: Optional[dict] = None,
+        alt: bool = False,
+        batch_size: int = DEFAULT_PAGE_SIZE,
+    ) -> AsyncIterator[RecordType]:
+        """Iterate over stored records, holding only one batch in memory.
+
+        The records are streamed from a single storage search rather than
+        fetched page by page, so the cost does not grow with the position.
+
+        Args:
+            session: The profile session to use
+            tag_filter: An optional dictionary of tag filter clauses
+            order_by: An optional field by which to order the records.
+            descending: Whether to order the records in descending order.
+            post_filter_positive: Additional value filters to apply matching positively
+            post_filter_negative: Additional value filters to apply matching negatively
+            alt: set to match any (positive=True) value or miss all (positive=False)
+                values in post_filter
+            batch_size: The number of records to fetch from storage at a time
+
+        """
+
+        def _match(vals: dict) -> bool:
+            return match_post_filter(
+                vals, post_filter_positive, positive=True, alt=alt
+            ) and match_post_filter(vals, post_filter_negative, positive=False, alt=alt)
+
+        search = session.inject(BaseStorageSearch).search_records(
+            cls.RECORD_TYPE,
+            cls.prefix_tag_filter(tag_filter),
+            batch_size,
+            {"orderBy": order_by, "descending": descending},
+        )
+        try:
+            async for record in search:
+                vals = cls._record_vals(record)
+                if _match(vals):
+                    yield cls._build_record(record, vals)
+        finally:
+            await search.close()
+
+    @classmethod
+    async def query_page(
+        cls: Type[RecordType],
+        session: ProfileSession,
+        tag_filter: Optional[dict] = None,
+        *,
+        limit: int = DEFAULT_PAGE_SIZE,
+        cursor: Optional[str] = None,
+        order_by: Optional[str] = None,
+        descending: bool = False,
+        post_filter_positive: Optional[dict] = None,
+        post_filter_negative: Optional[dict] = None,
+        alt: bool = False,
+    ) -> Tuple[Sequence[RecordType], Optional[str]]:
+        """Fetch a page of stored records, with a cursor for the following page.
+
+        The cursor is an opaque token, only valid for the same query
+        parameters. For record types with an order tag, on storage which can
+        filter it by range, the cursor holds the order key of the last record
+        returned and a following page only queries the records past it, so its
+        cost does not depend on how deep it is. Records are read in storage
+        order, which is assumed to follow the order key: a record committed
+        by a concurrent transaction after a later-created record may be
+        skipped by a page which has already passed its key. Records saved
+        before the order tag was introduced are not returned until they are
+        saved again.
+
+        Otherwise, as with the Kanon normalized schema, the cursor holds the
+        storage position where the page ended. A following page resumes
+        there rather than post-filtering earlier records again, but storage
+        still skips over them, and records added or removed between requests
+        may shift the results.
+
+        Args:
+            session: The profile session to use
+            tag_filter: An optional dictionary of tag filter clauses
+            limit: The maximum number of records to retrieve
+            cursor: The cursor returned with the previous page, if any
+            order_by: An optional field by which to order the records.
+            descending: Whether to order the records in descending order.
+            post_filter_positive: Additional value filters to apply matching positively
+            post_filter_negative: Additional value filters to apply matching negatively
+            alt: set to match any (positive=True) value or miss all (positive=False)
+                values in post_filter
+
+        Returns:
+            The page of records, and a cursor for the next page or None if
+            storage was exhausted
+
+        """
+        tag_query = cls.prefix_tag_filter(tag_filter)
+        storage = session.inject(BaseStorage)
+        keyset = bool(cls.ORDER_TAG_NAME) and storage.supports_tag_range(
+            cls.RECORD_TYPE
+        )
+        fingerprint = cls._query_fingerprint(
+            tag_query,
+            post_filter_positive,
+            post_filter_negative,
+            alt,
+            order_by,
+            descending,
+            keyset,
+        )
+        position = decode_query_cursor(cursor, fingerprint) if cursor else None
+        if position is not None and isinstance(position, str) != keyset:
+            raise BaseModelError("Invalid or expired query cursor")
+
+        def _match(vals: dict) -> bool:
+            return match_post_filter(
+                vals, post_filter_positive, positive=True, alt=alt
+            ) and match_post_filter(vals, post_filter_negative, positive=False, alt=alt)
+
+        post_filter = post_filter_positive or post_filter_negative
+        batch_size = max(limit, DEFAULT_PAGE_SIZE) if post_filter else limit
+        if not keyset:
+            return await cls._offset_page(
+                storage,
+                tag_query,
+                _match,
+                position or 0,
+                limit=limit,
+                fingerprint=fingerprint,
+                order_by=order_by,
+                descending=descending,
+                batch_size=batch_size,
+            )
+
+        last_key = position or ""
+        result = []
+        while True:
+            # stored in creation order, the records past the cursor are a range
+            # of the plaintext order tag
+            past = {"$lt": last_key} if descending and last_key else {"$gt": last_key}
+            key_query = {cls.ORDER_TAG_NAME: past}
+            rows = await storage.find_paginated_records(
+                type_filter=cls.RECORD_TYPE,
+                tag_query={"$and": [tag_query, key_query]} if tag_query else key_query,
+                limit=batch_size,
+                order_by=order_by or "id",
+                descending=descending,
+            )
+            for record in rows:
+                last_key = record.tags[cls.ORDER_TAG_NAME]
+                vals = cls._record_vals(record)
+                if _match(vals):
+                    result.append(cls._build_record(record, vals))
+                    if len(result) >= limit:
+                        return result, encode_query_cursor(last_key, fingerprint)
+            if len(rows) < batch_size:  # storage exhausted
+                return result, None
+
+    @classmethod
+    async def _offset_page(
+        cls: Type[RecordType],
+        storage: BaseStorage,
+        tag_query: Optional[dict],
+        match: Callable[[dict], bool],
+        start: int,
+        *,
+        limit: int,
+        fingerprint: str,
+        order_by: Optional[str],
+        descending: bool,
+        batch_size: int,
+    ) -> Tuple[Sequence[RecordType], Optional[str]]:
+        """Fetch a page of stored records from a storage position."""
+        result = []
+        next_cursor = None
+        scan = cls._scan(
+            storage,
+            tag_query,
+            match,
+            start=start,
+            order_by=order_by,
+            descending=descending,
+            batch_size=batch_size,
+        )
+        try:
+            async for position, record, vals in scan:
+                result.append(cls._build_record(record, vals))
+                if len(result) >= limit:
+                    next_cursor = encode_query_cursor(position, fingerprint)
+                    break
+        finally:
+            await scan.aclose()
+        return result, next_cursor
 
     async def save(
         self,
@@ -456,6 +756,71 @@ class BaseRecord(BaseModel):
 
         return self._id
 
+    @classmethod
+    async def save_all(
+        cls,
+        session: ProfileSession,
+        records: Sequence["BaseRecord"],
+        *,
+        reason: Optional[str] = None,
+        event: Optional[bool] = None,
+    ) -> Sequence[str]:
+        """Persist several records using batched storage operations.
+
+        New records are added in one batch and existing records updated in
+        another, rather than making a storage call per record. Post-save
+        actions such as events are performed once the batches are stored.
+
+        Args:
+            session: The profile session to use
+            records: The records to persist
+            reason: A reason to add to the log
+            event: Flag to override whether the events are sent
+
+        Returns:
+            The record identifiers, in the order given
+
+        """
+        storage = session.inject(BaseStorage)
+        now = time_now()
+        is_new = [not record._id or record._new_with_id for record in records]
+        added = [record for record, new in zip(records, is_new) if new]
+        updated = [record for record, new in zip(records, is_new) if not new]
+        for record in records:
+            record.updated_at = now
+        for record in added:
+            if not record._id:
+                record._id = str(uuid4())
+            record.created_at = now
+        # sharing a creation time, the new records are stored in order key order
+        added.sort(key=lambda record: record._id)
+
+        stored = False
+        try:
+            await storage.add_records([record.storage_record for record in added])
+            for record in added:
+                record._new_with_id = False
+            await storage.update_records(
+                [record.storage_record for record in updated]
+            )
+            stored = True
+        finally:
+            for record, new in zip(records, is_new):
+                log_reason = reason or ("Created record" if new else "Updated record")
+                if not stored:
+                    log_reason = f"FAILED: {log_reason}"
+                record.log_state(
+                    log_reason,
+                    {record.RECORD_TYPE: record.serialize()},
+                    settings=session.settings,
+                )
+
+        for record, new in zip(records, is_new):
+            await record.post_save(session, new, record._last_state, event)
+            record._last_state = record.state
+
+        return [record._id for record in records]
+
     async def post_save(
         self,
         session: ProfileSession,
@@ -1,6 +1,6 @@
 """Class for paginated query parameters."""
 
-from typing import Tuple
+from typing import Optional, Tuple
 
 from aiohttp.web import BaseRequest
 from marshmallow import fields
@@ -46,6 +46,20 @@ class PaginatedQuerySchema(OpenAPISchema):
     )
 
 
+class CursorPaginatedQuerySchema(PaginatedQuerySchema):
+    """Parameters for paginated queries which may resume from a cursor."""
+
+    cursor = fields.Str(
+        required=False,
+        metadata={
+            "description": (
+                "Cursor returned as `next_cursor` by the previous page; pass an"
+                " empty value to fetch the first page. Replaces `offset`."
+            )
+        },
+    )
+
+
 def get_paginated_query_params(request: BaseRequest) -> Tuple[int, int, str, bool]:
     """Read the limit, offset, order_by, and descending query parameters from a request.
 
@@ -69,3 +83,19 @@ def get_paginated_query_params(request: BaseRequest) -> Tuple[int, int, str, boo
     descending = descending_str in {"true", "1", "yes"}
 
     return limit, offset, order_by, descending
+
+
+def get_query_cursor(request: BaseRequest) -> Optional[str]:
+    """Read the cursor query parameter from a request.
+
+    Args:
+        request: aiohttp request object.
+
+    Returns:
+        None if cursor pagination was not requested, otherwise the cursor,
+        which is empty for the first page.
+
+    """
+    if "cursor" not in request.query:
+        return None
+    return request.query["cursor"]
@@ -9,13 +9,14 @@ from ....messaging.models.base import BaseModelError
 from ....storage.base import (
     DEFAULT_PAGE_SIZE,
     BaseStorage,
+    BaseStorageSearch,
     StorageDuplicateError,
     StorageRecord,
 )
 from ....tests import mock
 from ....utils.testing import create_test_profile
 from ...util import time_now
-from ..base_record import BaseRecord, BaseRecordSchema
+from ..base_record import CREATED_ORDER_TAG, BaseRecord, BaseRecordSchema
 
 
 class BaseRecordImpl(BaseRecord):
@@ -61,6 +62,10 @@ class ARecordImplSchema(BaseRecordSchema):
     code = fields.Str()
 
 
+class OrderedRecordImpl(ARecordImpl):
+    ORDER_TAG_NAME = CREATED_ORDER_TAG
+
+
 class UnencTestImpl(BaseRecord):
     TAG_NAMES = {"~a", "~b", "c"}
 
@@ -101,6 +106,48 @@ class TestBaseRecord(IsolatedAsyncioTestCase):
             record._last_state = "new"
             await record.save(session, reason="reason", event=False)
 
+    async def test_save_all(self):
+        async with self.profile.transaction() as txn:
+            existing = ARecordImpl(a="1", b="0", code="one")
+            await existing.save(txn)
+            existing.b = "1"
+            created = [ARecordImpl(a=str(i), b="0") for i in range(2, 5)]
+            storage = txn.inject(BaseStorage)
+            txn.context.injector.bind_instance(BaseStorage, storage)
+            with (
+                mock.patch.object(
+                    storage, "add_records", wraps=storage.add_records
+                ) as add_records,
+                mock.patch.object(
+                    storage, "update_records", wraps=storage.update_records
+                ) as update_records,
+            ):
+                ids = await ARecordImpl.save_all(txn, [existing, *created])
+            await txn.commit()
+        add_records.assert_awaited_once()
+        assert len(add_records.call_args[0][0]) == 3
+        update_records.assert_awaited_once()
+        assert ids[0] == existing._id
+        assert all(ids)
+
+        async with self.profile.session() as session:
+            assert (await ARecordImpl.retrieve_by_id(session, existing._id)).b == "1"
+            found = await ARecordImpl.query(session)
+            assert {rec._id for rec in found} == set(ids)
+
+    async def test_save_all_failed(self):
+        async with self.profile.session() as session:
+            record = BaseRecordImpl()
+            await record.save(session)
+            duplicate = BaseRecordImpl.from_storage(record._id, record.value)
+            duplicate._new_with_id = True
+            with (
+                mock.patch.object(BaseRecordImpl, "post_save") as post_save,
+                self.assertRaises(StorageDuplicateError),
+            ):
+                await BaseRecordImpl.save_all(session, [duplicate])
+            post_save.assert_not_called()
+
     async def test_cache(self):
         async with self.profile.session() as session:
             assert not await BaseRecordImpl.get_cached_key(None, None)
@@ -541,3 +588,182 @@ class TestBaseRecord(IsolatedAsyncioTestCase):
             )
             assert len(result) == 7
             assert all(r.a == "one" for r in result)
+
+    def test_order_key(self):
+        record = OrderedRecordImpl(
+            ident="abc", a="one", b="two", created_at="2025-01-02T03:04:05Z"
+        )
+        assert record.order_key == "2025-01-02T03:04:05.000000Z/abc"
+        assert record.tags[CREATED_ORDER_TAG] == record.order_key
+        assert "created_order" not in record.value
+        assert OrderedRecordImpl(a="one", b="two").order_key is None
+
+        # only record types paged by keyset expose the order key as a tag
+        record = ARecordImpl(
+            ident="abc", a="one", b="two", created_at="2025-01-02T03:04:05Z"
+        )
+        assert CREATED_ORDER_TAG not in record.tags
+
+    async def test_query_page_cursor(self):
+        async with self.profile.session() as session:
+            mock_storage = mock.MagicMock(BaseStorage, autospec=True)
+            mock_storage.supports_tag_range.return_value = True
+            session.context.injector.bind_instance(BaseStorage, mock_storage)
+            tag_filter = {"code": "red"}
+
+            def _stored(ident: str, a_val: str) -> StorageRecord:
+                a_record = OrderedRecordImpl(
+                    ident=ident, a=a_val, b="two", code="red", created_at=time_now()
+                )
+                return StorageRecord(
+                    OrderedRecordImpl.RECORD_TYPE,
+                    json.dumps(a_record.value),
+                    a_record.tags,
+                    ident,
+                )
+
+            rows = [
+                _stored(f"rec-{i:03d}", "one" if i % 3 == 0 else "two")
+                for i in range(DEFAULT_PAGE_SIZE + 10)
+            ]
+            past_keys = []
+
+            async def _find_paginated(**kwargs):
+                assert "offset" not in kwargs
+                code_query, key_query = kwargs["tag_query"]["$and"]
+                assert code_query == tag_filter
+                past_key = key_query[OrderedRecordImpl.ORDER_TAG_NAME]["$gt"]
+                past_keys.append(past_key)
+                return [
+                    row
+                    for row in rows
+                    if row.tags[OrderedRecordImpl.ORDER_TAG_NAME] > past_key
+                ][: kwargs["limit"]]
+
+            mock_storage.find_paginated_records.side_effect = _find_paginated
+
+            # each page only queries the records past the last one returned
+            found = []
+            cursor = None
+            while True:
+                page, cursor = await OrderedRecordImpl.query_page(
+                    session,
+                    tag_filter,
+                    limit=7,
+                    cursor=cursor,
+                    post_filter_positive={"a": "one"},
+                )
+                found.extend(page)
+                if not cursor:
+                    break
+                assert len(page) == 7
+            assert [r._id for r in found] == [r.id for r in rows[::3]]
+            assert past_keys[0] == ""
+            assert past_keys[1] == found[6].order_key
+            mock_storage.find_all_records.assert_not_awaited()
+
+            # a cursor is bound to the query which produced it
+            _, cursor = await OrderedRecordImpl.query_page(
+                session, tag_filter, limit=2, post_filter_positive={"a": "one"}
+            )
+            with self.assertRaises(BaseModelError):
+                await OrderedRecordImpl.query_page(
+                    session, tag_filter, limit=2, cursor=cursor, descending=True
+                )
+            with self.assertRaises(BaseModelError):
+                await OrderedRecordImpl.query_page(session, tag_filter, cursor="garbage")
+
+    async def test_query_page_cursor_offset(self):
+        async with self.profile.session() as session:
+            mock_storage = mock.MagicMock(BaseStorage, autospec=True)
+            mock_storage.supports_tag_range.return_value = False
+            session.context.injector.bind_instance(BaseStorage, mock_storage)
+            tag_filter = {"code": "red"}
+
+            def _stored(ident: str, a_val: str) -> StorageRecord:
+                a_record = OrderedRecordImpl(
+                    ident=ident, a=a_val, b="two", code="red", created_at=time_now()
+                )
+                return StorageRecord(
+                    OrderedRecordImpl.RECORD_TYPE,
+                    json.dumps(a_record.value),
+                    {"code": "red"},  # the backend does not keep the order tag
+                    ident,
+                )
+
+            rows = [
+                _stored(f"rec-{i:03d}", "one" if i % 3 == 0 else "two")
+                for i in range(DEFAULT_PAGE_SIZE + 10)
+            ]
+
+            async def _find_paginated(**kwargs):
+                assert kwargs["tag_query"] == tag_filter
+                offset, limit = kwargs["offset"], kwargs["limit"]
+                return rows[offset : offset + limit]
+
+            mock_storage.find_paginated_records.side_effect = _find_paginated
+
+            # each page resumes from the storage position where the last one ended
+            found = []
+            cursor = None
+            offsets = []
+            while True:
+                page, cursor = await OrderedRecordImpl.query_page(
+                    session,
+                    tag_filter,
+                    limit=7,
+                    cursor=cursor,
+                    post_filter_positive={"a": "one"},
+                )
+                found.extend(page)
+                offsets.append(
+                    mock_storage.find_paginated_records.await_args.kwargs["offset"]
+                )
+                if not cursor:
+                    break
+                assert len(page) == 7
+            assert [r._id for r in found] == [r.id for r in rows[::3]]
+            assert offsets[1] == 19  # position following the 7th match
+
+            # an offset cursor is not accepted once storage supports the keyset
+            _, cursor = await OrderedRecordImpl.query_page(session, tag_filter, limit=2)
+            mock_storage.supports_tag_range.return_value = True
+            with self.assertRaises(BaseModelError):
+                await OrderedRecordImpl.query_page(
+                    session, tag_filter, limit=2, cursor=cursor
+                )
+
+    async def test_query_iter(self):
+        async with self.profile.session() as session:
+            mock_search = mock.MagicMock(BaseStorageSearch, autospec=True)
+            session.context.injector.bind_instance(BaseStorageSearch, mock_search)
+
+            def _stored(ident: str, a_val: str) -> StorageRecord:
+                a_record = ARecordImpl(ident=ident, a=a_val, b="two", code="red")
+                value = a_record.record_value
+                value.update({"created_at": time_now(), "updated_at": time_now()})
+                return StorageRecord(
+                    ARecordImpl.RECORD_TYPE, json.dumps(value), {}, ident
+                )
+
+            search = mock.MagicMock(close=mock.CoroutineMock())
+            search.__aiter__.return_value = [
+                _stored("one", "one"),
+                _stored("two", "two"),
+                _stored("three", "one"),
+            ]
+            mock_search.search_records.return_value = search
+            found = [
+                record._id
+                async for record in ARecordImpl.query_iter(
+                    session, post_filter_negative={"a": "two"}, batch_size=2
+                )
+            ]
+            assert found == ["one", "three"]
+            mock_search.search_records.assert_called_once_with(
+                ARecordImpl.RECORD_TYPE,
+                None,
+                2,
+                {"orderBy": None, "descending": False},
+            )
+            search.close.assert_awaited_once()
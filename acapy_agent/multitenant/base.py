@@ -16,6 +16,7 @@ from ..protocols.coordinate_mediation.v1_0.manager import (
 from ..protocols.coordinate_mediation.v1_0.route_manager import RouteManager
 from ..protocols.routing.v1_0.manager import RouteNotFoundError, RoutingManager
 from ..protocols.routing.v1_0.models.route_record import RouteRecord
+from ..protocols.routing.v1_0.route_cache import RouteCache
 from ..storage.base import BaseStorage
 from ..transport.wire_format import BaseWireFormat
 from ..wallet.base import BaseWallet
@@ -231,6 +232,7 @@ class BaseMultitenantManager(ABC):
             wallet_record = await WalletRecord.retrieve_by_id(session, wallet_id)
             wallet_record.update_settings(new_settings)
             await wallet_record.save(session)
+        await self._clear_cached_wallet(wallet_id)
 
         return wallet_record
 
@@ -266,7 +268,12 @@ class BaseMultitenantManager(ABC):
         await self.remove_wallet_profile(profile)
 
         # Remove all routing records associated with wallet
+        route_cache = self._profile.inject_or(RouteCache)
         async with self._profile.session() as session:
+            if route_cache:
+                routes = await RouteRecord.query(
+                    session, {"wallet_id": wallet.wallet_id}
+                )
             storage = session.inject(BaseStorage)
             await storage.delete_all_records(
                 RouteRecord.RECORD_TYPE, {"wallet_id": wallet.wallet_id}
@@ -274,6 +281,12 @@ class BaseMultitenantManager(ABC):
 
             await wallet.delete_record(session)
 
+        if route_cache:
+            await route_cache.clear_routes(
+                self._profile, [route.recipient_key for route in routes]
+            )
+            await route_cache.clear_wallet(self._profile, wallet.wallet_id)
+
     @abstractmethod
     async def remove_wallet_profile(self, profile: Profile):
         """Remove the wallet profile instance.
@@ -283,6 +296,17 @@ class BaseMultitenantManager(ABC):
 
         """
 
+    async def save_recent_profiles(self):
+        """Record the recently active wallets, for pre-warming on restart."""
+
+    async def prewarm_profiles(self, limit: int):
+        """Open the profiles of the most recently active wallets.
+
+        Args:
+            limit: The maximum number of profiles to open
+
+        """
+
     async def create_auth_token(
         self, wallet_record: WalletRecord, wallet_key: Optional[str] = None
     ) -> str:
@@ -318,6 +342,7 @@ class BaseMultitenantManager(ABC):
         wallet_record.jwt_iat = iat
         async with self._profile.session() as session:
             await wallet_record.save(session)
+        await self._clear_cached_wallet(wallet_record.wallet_id)
 
         return token
 
@@ -396,18 +421,33 @@ class BaseMultitenantManager(ABC):
 
         """
         routing_mgr = RoutingManager(self._profile)
+        route_cache = self._profile.inject_or(RouteCache)
 
         try:
             routing_record = await routing_mgr.get_recipient(recipient_key)
-            async with self._profile.session() as session:
-                wallet = await WalletRecord.retrieve_by_id(
-                    session, routing_record.wallet_id
+            wallet = None
+            if route_cache:
+                wallet = await route_cache.get_wallet(
+                    self._profile, routing_record.wallet_id
                 )
+            if not wallet:
+                async with self._profile.session() as session:
+                    wallet = await WalletRecord.retrieve_by_id(
+                        session, routing_record.wallet_id
+                    )
+                if route_cache:
+                    await route_cache.put_wallet(self._profile, wallet)
 
             return wallet
         except RouteNotFoundError:
             pass
 
+    async def _clear_cached_wallet(self, wallet_id: str):
+        """Remove a wallet record from the route cache, after it is updated."""
+        route_cache = self._profile.inject_or(RouteCache)
+        if route_cache:
+            await route_cache.clear_wallet(self._profile, wallet_id)
+
     async def get_profile_for_key(
         self, context: InjectionContext, recipient_key: str
     ) -> Optional[Profile]:
@@ -1,24 +1,88 @@
 """Cache for multitenancy profiles."""
 
 import logging
+import time
 from collections import OrderedDict
-from typing import Optional
+from typing import Dict, List, Optional
 from weakref import WeakValueDictionary
 
 from ..core.profile import Profile
+from ..utils.metrics import MetricsRegistry
 
 LOGGER = logging.getLogger(__name__)
 
 
+class FrequencySketch:
+    """Approximate access frequencies of keys, as used for TinyLFU admission.
+
+    A count-min sketch of small counters. Once the number of recorded
+    accesses reaches the sample size all counters are halved, so that the
+    estimates favour recent popularity.
+    """
+
+    DEPTH = 4
+    MAX_COUNT = 15
+
+    def __init__(self, width: int):
+        """Initialize the FrequencySketch instance.
+
+        Args:
+            width: number of counters in each row of the sketch
+
+        """
+        self.width = max(width, 16)
+        self.sample_size = 10 * self.width
+        self._rows = [[0] * self.width for _ in range(self.DEPTH)]
+        self._additions = 0
+
+    def _indexes(self, key: str):
+        for depth in range(self.DEPTH):
+            yield depth, hash((depth, key)) % self.width
+
+    def record(self, key: str):
+        """Record an access to a key."""
+        for depth, index in self._indexes(key):
+            if self._rows[depth][index] < self.MAX_COUNT:
+                self._rows[depth][index] += 1
+        self._additions += 1
+        if self._additions >= self.sample_size:
+            for row in self._rows:
+                for index, count in enumerate(row):
+                    row[index] = count >> 1
+            self._additions //= 2
+
+    def estimate(self, key: str) -> int:
+        """Estimate the number of recent accesses to a key."""
+        return min(self._rows[depth][index] for depth, index in self._indexes(key))
+
+
 class ProfileCache:
-    """Profile cache that caches based on LRU strategy."""
+    """Profile cache that caches based on LRU strategy.
+
+    Profiles with open sessions are passed over when evicting, so that a
+    profile still in use is not closed and immediately reopened. Optionally,
+    profiles idle for longer than a timeout are evicted, and a new profile is
+    only admitted in place of an idle one if it has been requested more often
+    (TinyLFU admission), so that bursts of one-off requests do not flush out
+    frequently used profiles.
+    """
 
-    def __init__(self, capacity: int):
+    def __init__(
+        self,
+        capacity: int,
+        *,
+        idle_timeout: Optional[float] = None,
+        admission: bool = False,
+        metrics: Optional[MetricsRegistry] = None,
+    ):
         """Initialize ProfileCache.
 
         Args:
             capacity: The capacity of the cache. If capacity is exceeded
                       profiles are closed.
+            idle_timeout: Seconds after which an unused profile is evicted
+            admission: Whether to apply frequency-based admission when full
+            metrics: The registry on which to record cache metrics
 
         """
         LOGGER.debug(f"Profile cache initialized with capacity {capacity}")
@@ -26,17 +90,100 @@ class ProfileCache:
         self._cache: OrderedDict[str, Profile] = OrderedDict()
         self.profiles: WeakValueDictionary[str, Profile] = WeakValueDictionary()
         self.capacity = capacity
+        self.idle_timeout = idle_timeout
+        self._last_used: Dict[str, float] = {}
+        self._sketch = FrequencySketch(capacity * 4) if admission else None
+        self.hits = 0
+        self.misses = 0
+        self.evictions = 0
+
+        self._requests = self._evicted = self._open_time = None
+        if metrics:
+            self._requests = metrics.counter(
+                "multitenant_profile_cache_requests",
+                "Lookups in the multitenant profile cache",
+                ["result"],
+            )
+            self._evicted = metrics.counter(
+                "multitenant_profile_cache_evictions",
+                "Profiles evicted from or refused by the multitenant profile cache",
+                ["reason"],
+            )
+            self._open_time = metrics.histogram(
+                "multitenant_profile_open_seconds",
+                "Time taken to open a tenant profile on a cache miss",
+            )
+            metrics.gauge(
+                "multitenant_profiles",
+                "Number of tenant profiles held by the cache, or open in total",
+                ["state"],
+            ).set_function(
+                lambda: {"cached": len(self._cache), "open": len(self.profiles)}
+            )
+
+    def _evict(self, key: str, reason: str):
+        del self._cache[key]
+        self._last_used.pop(key, None)
+        self.evictions += 1
+        if self._evicted:
+            self._evicted.labels(reason).inc()
+        LOGGER.debug(f"Evicted profile with key {key} ({reason})")
+
+    def _victim(self) -> Optional[str]:
+        """Find the least recently used profile without open sessions."""
+        for key, profile in self._cache.items():
+            if not profile.open_sessions:
+                return key
+        return None
 
     def _cleanup(self):
         """Prune cache until size matches defined capacity."""
+        if self.idle_timeout is not None:
+            horizon = time.monotonic() - self.idle_timeout
+            # entries are in order of last use, so stop at the first recent one
+            for key in list(self._cache):
+                if self._last_used.get(key, 0) > horizon:
+                    break
+                if not self._cache[key].open_sessions:
+                    self._evict(key, "idle")
+
         if len(self._cache) > self.capacity:
             LOGGER.debug(
                 f"Profile limit of {self.capacity} reached."
                 " Evicting least recently used profiles..."
             )
             while len(self._cache) > self.capacity:
-                key, _ = self._cache.popitem(last=False)
-                LOGGER.debug(f"Evicted profile with key {key}")
+                key = self._victim()
+                if not key:
+                    LOGGER.debug(
+                        "All cached profiles have open sessions; "
+                        "cache will exceed capacity until they are released"
+                    )
+                    break
+                self._evict(key, "capacity")
+
+    def _admit(self, key: str) -> bool:
+        """Decide whether a profile not yet cached should be held in the cache."""
+        if not self._sketch or key in self._cache or len(self._cache) < self.capacity:
+            return True
+        victim = self._victim()
+        if victim and self._sketch.estimate(key) <= self._sketch.estimate(victim):
+            LOGGER.debug(
+                f"Profile {key} is less frequently used than {victim}; not cached"
+            )
+            if self._evicted:
+                self._evicted.labels("admission").inc()
+            return False
+        return True
+
+    def _store(self, key: str, value: Profile):
+        """Hold a strong reference to a profile and mark it as recently used."""
+        if not self._admit(key):
+            return
+        self._cache[key] = value
+        self._cache.move_to_end(key)
+        self._last_used[key] = time.monotonic()
+        self._cleanup()
 
     def get(self, key: str) -> Optional[Profile]:
         """Get profile with associated key from cache.
@@ -52,6 +199,8 @@ class ProfileCache:
             Optional[Profile]: Profile if found in cache.
 
         """
+        if self._sketch:
+            self._sketch.record(key)
         value = self.profiles.get(key)
         if value:
             if key not in self._cache:
@@ -59,9 +208,12 @@ class ProfileCache:
                     f"Rescuing profile {key} from eviction from cache; profile "
                     "will be reinserted into cache"
                 )
-                self._cache[key] = value
-            self._cache.move_to_end(key)
-            self._cleanup()
+            self._store(key, value)
+            self.hits += 1
+        else:
+            self.misses += 1
+        if self._requests:
+            self._requests.labels("hit" if value else "miss").inc()
 
         return value
 
@@ -97,11 +249,7 @@ class ProfileCache:
 
         # Strong reference to profile to hold open until evicted
         LOGGER.debug(f"Setting profile with id {key} in profile cache")
-        self._cache[key] = value
-
-        # Refresh profile liveliness
-        self._cache.move_to_end(key)
-        self._cleanup()
+        self._store(key, value)
 
     def remove(self, key: str):
         """Remove profile with associated key from the cache.
@@ -111,4 +259,27 @@ class ProfileCache:
 
         """
         del self.profiles[key]
-        del self._cache[key]
+        self._cache.pop(key, None)
+        self._last_used.pop(key, None)
+
+    def observe_open(self, seconds: float):
+        """Record the time taken to open a profile on a cache miss."""
+        if self._open_time:
+            self._open_time.observe(seconds)
+
+    def recent_keys(self) -> List[str]:
+        """List the keys of cached profiles, most recently used first."""
+        return list(reversed(self._cache))
+
+    def stats(self) -> dict:
+        """Report cache statistics."""
+        total = self.hits + self.misses
+        return {
+            "capacity": self.capacity,
+            "cached": len(self._cache),
+            "open": len(self.profiles),
+            "hits": self.hits,
+            "misses": self.misses,
+            "evictions": self.evictions,
+            "hit_ratio": self.hits / total if total else 0.0,
+        }
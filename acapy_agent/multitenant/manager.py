@@ -1,6 +1,8 @@
 """Manager for multitenancy."""
 
+import json
 import logging
+import time
 from typing import Iterable, Optional
 
 from ..askar.profile_anon import AskarAnonCredsProfile
@@ -9,6 +11,10 @@ from ..config.wallet import wallet_config
 from ..core.profile import Profile
 from ..kanon.profile_anon_kanon import KanonAnonCredsProfile
 from ..multitenant.base import BaseMultitenantManager
+from ..storage.base import BaseStorage
+from ..storage.error import StorageNotFoundError
+from ..storage.record import StorageRecord
+from ..utils.metrics import MetricsRegistry
 from ..wallet.models.wallet_record import WalletRecord
 from .cache import ProfileCache
 
@@ -16,6 +22,9 @@ LOGGER = logging.getLogger(__name__)
 
 WALLET_TYPE_KEY = "wallet.type"
 
+RECORD_TYPE_RECENT_WALLETS = "multitenant_recent_wallets"
+RECENT_WALLETS_RECORD_ID = "recent_wallets"
+
 
 class MultitenantManager(BaseMultitenantManager):
     """Class for handling multitenancy."""
@@ -28,8 +37,13 @@ class MultitenantManager(BaseMultitenantManager):
 
         """
         super().__init__(profile)
+        settings = profile.settings
+        idle_timeout = settings.get("multitenant.cache_idle_timeout")
         self._profiles = ProfileCache(
-            profile.settings.get_int("multitenant.cache_size") or 100
+            settings.get_int("multitenant.cache_size") or 100,
+            idle_timeout=float(idle_timeout) if idle_timeout else None,
+            admission=bool(settings.get_bool("multitenant.cache_admission")),
+            metrics=profile.inject_or(MetricsRegistry),
         )
 
     @property
@@ -87,23 +101,30 @@ class MultitenantManager(BaseMultitenantManager):
             )
 
             # MTODO: add ledger config
+            started = time.perf_counter()
             profile, _ = await wallet_config(context, provision=provision)
+            self._profiles.observe_open(time.perf_counter() - started)
             self._profiles.put(wallet_id, profile)
 
         # return anoncreds profile if explicitly set as wallet type
         if profile.context.settings.get(WALLET_TYPE_KEY) == "kanon-anoncreds":
-            return KanonAnonCredsProfile(
+            anoncreds_profile = KanonAnonCredsProfile(
                 profile.opened,
                 profile.context,
             )
 
         elif profile.context.settings.get(WALLET_TYPE_KEY) == "askar-anoncreds":
-            return AskarAnonCredsProfile(
+            anoncreds_profile = AskarAnonCredsProfile(
                 profile.opened,
                 profile.context,
             )
 
-        return profile
+        else:
+            return profile
+
+        # sessions on the anoncreds view keep the cached profile from eviction
+        anoncreds_profile.share_session_tracker(profile)
+        return anoncreds_profile
 
     async def update_wallet(self, wallet_id: str, new_settings: dict) -> WalletRecord:
         """Update an existing wallet and wallet record.
@@ -143,3 +164,63 @@ class MultitenantManager(BaseMultitenantManager):
         wallet_id = profile.settings.get_str("wallet.id")
         self._profiles.remove(wallet_id)
         await profile.remove()
+
+    async def save_recent_profiles(self):
+        """Record the wallets with cached profiles, for pre-warming on restart."""
+        value = json.dumps(self._profiles.recent_keys())
+        async with self._profile.session() as session:
+            storage = session.inject(BaseStorage)
+            try:
+                record = await storage.get_record(
+                    RECORD_TYPE_RECENT_WALLETS, RECENT_WALLETS_RECORD_ID
+                )
+                await storage.update_record(record, value, {})
+            except StorageNotFoundError:
+                await storage.add_record(
+                    StorageRecord(
+                        RECORD_TYPE_RECENT_WALLETS,
+                        value,
+                        id=RECENT_WALLETS_RECORD_ID,
+                    )
+                )
+
+    async def prewarm_profiles(self, limit: int):
+        """Open the profiles of the most recently active wallets.
+
+        Wallets whose key is supplied by the tenant on each request cannot be
+        opened in advance and are skipped.
+
+        Args:
+            limit: The maximum number of profiles to open
+
+        """
+        limit = min(limit, self._profiles.capacity)
+        async with self._profile.session() as session:
+            try:
+                record = await session.inject(BaseStorage).get_record(
+                    RECORD_TYPE_RECENT_WALLETS, RECENT_WALLETS_RECORD_ID
+                )
+            except StorageNotFoundError:
+                return
+            wallet_records = []
+            for wallet_id in json.loads(record.value)[:limit]:
+                try:
+                    wallet_record = await WalletRecord.retrieve_by_id(
+                        session, wallet_id
+                    )
+                except StorageNotFoundError:
+                    continue
+                if not wallet_record.requires_external_key:
+                    wallet_records.append(wallet_record)
+
+        # open the least recent first, leaving the most recent at the cache head
+        opened = 0
+        for wallet_record in reversed(wallet_records):
+            try:
+                await self.get_wallet_profile(self._profile.context, wallet_record)
+                opened += 1
+            except Exception:
+                LOGGER.exception(
+                    "Error pre-warming profile for wallet %s", wallet_record.wallet_id
+                )
+        LOGGER.info("Pre-warmed %d of %d tenant profiles", opened, len(wallet_records))
@@ -11,6 +11,7 @@ from ...protocols.coordinate_mediation.v1_0.manager import (
 )
 from ...protocols.coordinate_mediation.v1_0.route_manager import RouteManager
 from ...protocols.routing.v1_0.models.route_record import RouteRecord
+from ...protocols.routing.v1_0.route_cache import RouteCache
 from ...storage.askar import AskarStorage
 from ...storage.error import StorageNotFoundError
 from ...tests import mock
@@ -177,6 +178,33 @@ class TestBaseMultitenantManager(IsolatedAsyncioTestCase):
 
         assert isinstance(wallet, WalletRecord)
 
+    async def test_get_wallet_by_key_cached(self):
+        route_cache = RouteCache()
+        self.profile.context.injector.bind_instance(RouteCache, route_cache)
+        recipient_key = "test-recipient-key"
+
+        wallet_record = WalletRecord(settings={})
+        async with self.profile.session() as session:
+            await wallet_record.save(session)
+            await RouteRecord(
+                wallet_id=wallet_record.wallet_id, recipient_key=recipient_key
+            ).save(session)
+
+        assert await self.manager._get_wallet_by_key(recipient_key) == wallet_record
+        with (
+            mock.patch.object(
+                RouteRecord, "retrieve_by_recipient_key", mock.CoroutineMock()
+            ) as retrieve_route,
+            mock.patch.object(WalletRecord, "retrieve_by_id") as retrieve_by_id,
+        ):
+            wallet = await self.manager._get_wallet_by_key(recipient_key)
+            assert wallet == wallet_record
+            retrieve_route.assert_not_called()
+            retrieve_by_id.assert_not_called()
+
+        await self.manager.update_wallet(wallet_record.wallet_id, {"wallet.type": "x"})
+        assert not await route_cache.get_wallet(self.profile, wallet_record.wallet_id)
+
     async def test_create_wallet_removes_key_only_unmanaged_mode(self):
         with mock.patch.object(self.manager, "get_wallet_profile") as get_wallet_profile:
             get_wallet_profile.return_value = await create_test_profile()
@@ -1,5 +1,12 @@
+import time
+
 from ...core.profile import Profile
-from ..cache import ProfileCache
+from ...tests import mock
+from ...transport.outbound.manager import OutboundTransportManager
+from ...transport.wire_format import BaseWireFormat
+from ...utils.metrics import MetricsRegistry
+from ...utils.testing import create_test_profile
+from ..cache import FrequencySketch, ProfileCache
 
 
 class MockProfile(Profile):
@@ -102,3 +109,134 @@ def test_rescue_open_profile():
     assert cache.get("2") is None
     assert cache.get("3")
     assert cache.get("4")
+
+
+def test_cleanup_skips_profiles_in_use():
+    cache = ProfileCache(2)
+
+    busy = MockProfile()
+    busy._session_tracker.open = 1
+    cache.put("1", busy)
+    cache.put("2", MockProfile())
+    cache.put("3", MockProfile())
+
+    assert cache.get("1") is busy
+    assert cache.get("2") is None
+    assert cache.get("3")
+
+    # over capacity while every profile is in use
+    other = MockProfile()
+    other._session_tracker.open = 1
+    cache._cache["3"]._session_tracker.open = 1
+    cache.put("4", other)
+    assert len(cache._cache) == 3
+
+    busy._session_tracker.open = 0
+    cache.get("4")
+    assert len(cache._cache) == 2
+    assert "1" not in cache._cache
+
+
+def test_shared_session_tracker():
+    profile = MockProfile()
+    view = MockProfile()
+    view.share_session_tracker(profile)
+    view._session_tracker.open += 1
+    assert profile.open_sessions == 1
+
+
+async def test_evict_after_sending():
+    cache = ProfileCache(1)
+    tenant = await create_test_profile()
+    tenant.context.injector.bind_instance(
+        BaseWireFormat,
+        mock.MagicMock(encode_message=mock.CoroutineMock(return_value="encoded")),
+    )
+    cache.put("tenant", tenant)
+
+    outbound = mock.MagicMock(enc_payload=None)
+    mgr = OutboundTransportManager(tenant)
+    encoded = await mgr.encode_outbound_message(tenant, outbound, mock.MagicMock())
+    assert encoded.payload == "encoded"
+    # a session which is only awaited is never closed, so it is not counted
+    await tenant.session()
+    assert tenant.open_sessions == 0
+
+    async with tenant.session():
+        assert tenant.open_sessions == 1
+        cache.put("other", MockProfile())
+        assert "tenant" in cache._cache
+
+    cache.put("another", MockProfile())
+    assert "tenant" not in cache._cache
+
+
+def test_idle_timeout():
+    cache = ProfileCache(3, idle_timeout=60)
+
+    cache.put("1", MockProfile())
+    cache.put("2", MockProfile())
+    cache._last_used["1"] = time.monotonic() - 120
+
+    cache.put("3", MockProfile())
+
+    assert cache.get("1") is None
+    assert cache.get("2")
+    assert cache.evictions == 1
+
+
+def test_frequency_sketch():
+    sketch = FrequencySketch(16)
+    for _ in range(5):
+        sketch.record("hot")
+    sketch.record("cold")
+
+    assert sketch.estimate("hot") >= 5
+    assert sketch.estimate("cold") >= 1
+    assert sketch.estimate("hot") > sketch.estimate("cold")
+
+    # counters age once the sample size is reached
+    sketch._additions = sketch.sample_size - 1
+    sketch.record("cold")
+    assert sketch.estimate("hot") < 5
+
+
+def test_admission():
+    cache = ProfileCache(1, admission=True)
+
+    for _ in range(3):
+        cache.get("hot")
+    cache.put("hot", MockProfile())
+
+    # a one-off profile does not displace a frequently requested one
+    cache.get("cold")
+    cold = MockProfile()
+    cache.put("cold", cold)
+    assert list(cache._cache) == ["hot"]
+    assert cache.get("cold") is cold  # still open while referenced
+
+    for _ in range(5):
+        cache.get("cold")
+    assert list(cache._cache) == ["cold"]
+
+
+def test_metrics():
+    metrics = MetricsRegistry()
+    cache = ProfileCache(1, metrics=metrics)
+
+    cache.get("1")
+    cache.put("1", MockProfile())
+    cache.get("1")
+    cache.put("2", MockProfile())
+    cache.observe_open(0.2)
+
+    assert cache.stats()["hit_ratio"] == 0.5
+    text = metrics.render()
+    assert 'acapy_multitenant_profile_cache_requests_total{result="hit"} 1' in text
+    assert 'acapy_multitenant_profile_cache_requests_total{result="miss"} 1' in text
+    assert (
+        'acapy_multitenant_profile_cache_evictions_total{reason="capacity"} 1' in text
+    )
+    assert 'acapy_multitenant_profiles{state="cached"} 1' in text
+    assert "acapy_multitenant_profile_open_seconds_count 1" in text
+    assert cache.recent_keys() == ["2"]
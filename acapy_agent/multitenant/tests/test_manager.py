@@ -208,3 +208,35 @@ class TestMultitenantManager(IsolatedAsyncioTestCase):
             await self.manager.remove_wallet_profile(test_profile)
             assert not self.manager._profiles.has(test_profile.name)
             profile_remove.assert_called_once_with()
+
+    async def test_save_recent_and_prewarm_profiles(self):
+        async with self.profile.session() as session:
+            for wallet_id in ("w1", "w2"):
+                await WalletRecord(
+                    wallet_id=wallet_id,
+                    key_management_mode=WalletRecord.MODE_MANAGED,
+                    settings={},
+                    new_with_id=True,
+                ).save(session)
+        self.manager._profiles.put("w1", await create_test_profile())
+        self.manager._profiles.put("w2", await create_test_profile())
+        await self.manager.save_recent_profiles()
+        # saving again replaces the stored list
+        await self.manager.save_recent_profiles()
+
+        manager = MultitenantManager(self.profile)
+        with mock.patch("acapy_agent.multitenant.manager.wallet_config") as wallet_config:
+
+            async def side_effect(context, provision):
+                return (await create_test_profile(settings=None, context=context), None)
+
+            wallet_config.side_effect = side_effect
+            await manager.prewarm_profiles(5)
+
+            assert wallet_config.await_count == 2
+            assert manager._profiles.recent_keys() == ["w2", "w1"]
+
+    async def test_prewarm_profiles_none_saved(self):
+        with mock.patch("acapy_agent.multitenant.manager.wallet_config") as wallet_config:
+            await self.manager.prewarm_profiles(5)
+            wallet_config.assert_not_called()
@@ -15,6 +15,7 @@ from ....wallet.did_method import SOV
 from ....wallet.key_type import ED25519
 from ...routing.v1_0.manager import RoutingManager, RoutingManagerError
 from ...routing.v1_0.models.route_record import RouteRecord
+from ...routing.v1_0.route_cache import RouteCache
 from .messages.inner.keylist_key import KeylistKey
 from .messages.inner.keylist_query_paginate import KeylistQueryPaginate
 from .messages.inner.keylist_update_rule import KeylistUpdateRule
@@ -608,6 +609,13 @@ class MediationManager:
             for record_for_removal in to_remove:
                 await record_for_removal.delete_record(session)
 
+        route_cache = self._profile.inject_or(RouteCache)
+        if route_cache:
+            await route_cache.clear_routes(
+                self._profile,
+                [record.recipient_key for record in (*to_save, *to_remove)],
+            )
+
     async def get_my_keylist(
         self, connection_id: Optional[str] = None
     ) -> Sequence[RouteRecord]:
@@ -6,7 +6,11 @@ from typing import Any, Mapping, Optional, Union
 from marshmallow import Schema, fields, validate
 
 from .....core.profile import ProfileSession
-from .....messaging.models.base_record import BaseExchangeRecord, BaseExchangeSchema
+from .....messaging.models.base_record import (
+    CREATED_ORDER_TAG,
+    BaseExchangeRecord,
+    BaseExchangeSchema,
+)
 from .....messaging.valid import UUID4_EXAMPLE
 from .....storage.base import StorageError
 from ..messages.cred_ex_record_webhook import V20CredExRecordWebhook
@@ -33,6 +37,7 @@ class V20CredExRecord(BaseExchangeRecord):
     RECORD_ID_NAME = "cred_ex_id"
     RECORD_TOPIC = "issue_credential_v2_0"
     TAG_NAMES = {"~thread_id"} if UNENCRYPTED_TAGS else {"thread_id"}
+    ORDER_TAG_NAME = CREATED_ORDER_TAG
 
     INITIATOR_SELF = "self"
     INITIATOR_EXTERNAL = "external"
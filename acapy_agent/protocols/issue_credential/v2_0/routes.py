@@ -30,8 +30,9 @@ from ....messaging.decorators.attach_decorator import AttachDecorator
 from ....messaging.models.base import BaseModelError
 from ....messaging.models.openapi import OpenAPISchema
 from ....messaging.models.paginated_query import (
-    PaginatedQuerySchema,
+    CursorPaginatedQuerySchema,
     get_paginated_query_params,
+    get_query_cursor,
 )
 from ....messaging.valid import (
     ANONCREDS_CRED_DEF_ID_EXAMPLE,
@@ -75,7 +76,7 @@ class V20IssueCredentialModuleResponseSchema(OpenAPISchema):
     """Response schema for v2.0 Issue Credential Module."""
 
 
-class V20CredExRecordListQueryStringSchema(PaginatedQuerySchema):
+class V20CredExRecordListQueryStringSchema(CursorPaginatedQuerySchema):
     """Parameters and validators for credential exchange record list query."""
 
     connection_id = fields.Str(
@@ -135,6 +136,11 @@ class V20CredExRecordListResultSchema(OpenAPISchema):
             )
         },
     )
+    next_cursor = fields.Str(
+        required=False,
+        allow_none=True,
+        metadata={"description": "Cursor for the next page, if requested by cursor"},
+    )
 
 
 class V20CredStoreRequestSchema(OpenAPISchema):
@@ -661,18 +667,34 @@ async def credential_exchange_list(request: web.BaseRequest):
     }
 
     limit, offset, order_by, descending = get_paginated_query_params(request)
+    cursor = get_query_cursor(request)
 
+    response = {}
     try:
         async with profile.session() as session:
-            cred_ex_records = await V20CredExRecord.query(
-                session=session,
-                tag_filter=tag_filter,
-                limit=limit,
-                offset=offset,
-                order_by=order_by,
-                descending=descending,
-                post_filter_positive=post_filter,
-            )
+            if cursor is None:
+                cred_ex_records = await V20CredExRecord.query(
+                    session=session,
+                    tag_filter=tag_filter,
+                    limit=limit,
+                    offset=offset,
+                    order_by=order_by,
+                    descending=descending,
+                    post_filter_positive=post_filter,
+                )
+            else:
+                (
+                    cred_ex_records,
+                    response["next_cursor"],
+                ) = await V20CredExRecord.query_page(
+                    session,
+                    tag_filter,
+                    limit=limit,
+                    cursor=cursor,
+                    order_by=order_by,
+                    descending=descending,
+                    post_filter_positive=post_filter,
+                )
 
         results = []
         for cxr in cred_ex_records:
@@ -683,7 +705,8 @@ async def credential_exchange_list(request: web.BaseRequest):
     except (StorageError, BaseModelError) as err:
         raise web.HTTPBadRequest(reason=err.roll_up) from err
 
-    return web.json_response({"results": results})
+    response["results"] = results
+    return web.json_response(response)
 
 
 @docs(
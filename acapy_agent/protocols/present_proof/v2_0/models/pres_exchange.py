@@ -6,7 +6,11 @@ from typing import Any, Mapping, Optional, Union
 from marshmallow import Schema, fields, validate
 
 from .....core.profile import ProfileSession
-from .....messaging.models.base_record import BaseExchangeRecord, BaseExchangeSchema
+from .....messaging.models.base_record import (
+    CREATED_ORDER_TAG,
+    BaseExchangeRecord,
+    BaseExchangeSchema,
+)
 from .....messaging.valid import UUID4_EXAMPLE
 from .....storage.base import StorageError
 from ..messages.pres import V20Pres, V20PresSchema
@@ -31,6 +35,7 @@ class V20PresExRecord(BaseExchangeRecord):
     RECORD_ID_NAME = "pres_ex_id"
     RECORD_TOPIC = "present_proof_v2_0"
     TAG_NAMES = {"~thread_id"} if UNENCRYPTED_TAGS else {"thread_id"}
+    ORDER_TAG_NAME = CREATED_ORDER_TAG
 
     INITIATOR_SELF = "self"
     INITIATOR_EXTERNAL = "external"
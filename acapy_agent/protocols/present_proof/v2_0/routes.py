@@ -30,8 +30,9 @@ from ....messaging.decorators.attach_decorator import AttachDecorator
 from ....messaging.models.base import BaseModelError
 from ....messaging.models.openapi import OpenAPISchema
 from ....messaging.models.paginated_query import (
-    PaginatedQuerySchema,
+    CursorPaginatedQuerySchema,
     get_paginated_query_params,
+    get_query_cursor,
 )
 from ....messaging.valid import (
     INDY_EXTRA_WQL_EXAMPLE,
@@ -73,7 +74,7 @@ class V20PresentProofModuleResponseSchema(OpenAPISchema):
     """Response schema for Present Proof Module."""
 
 
-class V20PresExRecordListQueryStringSchema(PaginatedQuerySchema):
+class V20PresExRecordListQueryStringSchema(CursorPaginatedQuerySchema):
     """Parameters and validators for presentation exchange list query."""
 
     connection_id = fields.Str(
@@ -115,6 +116,11 @@ class V20PresExRecordListSchema(OpenAPISchema):
         fields.Nested(V20PresExRecordSchema()),
         metadata={"description": "Presentation exchange records"},
     )
+    next_cursor = fields.Str(
+        required=False,
+        allow_none=True,
+        metadata={"description": "Cursor for the next page, if requested by cursor"},
+    )
 
 
 class V20PresProposalByFormatSchema(OpenAPISchema):
@@ -523,23 +529,36 @@ async def present_proof_list(request: web.BaseRequest):
     }
 
     limit, offset, order_by, descending = get_paginated_query_params(request)
+    cursor = get_query_cursor(request)
 
+    response = {}
     try:
         async with profile.session() as session:
-            records = await V20PresExRecord.query(
-                session=session,
-                tag_filter=tag_filter,
-                limit=limit,
-                offset=offset,
-                order_by=order_by,
-                descending=descending,
-                post_filter_positive=post_filter,
-            )
-        results = [record.serialize() for record in records]
+            if cursor is None:
+                records = await V20PresExRecord.query(
+                    session=session,
+                    tag_filter=tag_filter,
+                    limit=limit,
+                    offset=offset,
+                    order_by=order_by,
+                    descending=descending,
+                    post_filter_positive=post_filter,
+                )
+            else:
+                records, response["next_cursor"] = await V20PresExRecord.query_page(
+                    session,
+                    tag_filter,
+                    limit=limit,
+                    cursor=cursor,
+                    order_by=order_by,
+                    descending=descending,
+                    post_filter_positive=post_filter,
+                )
+        response["results"] = [record.serialize() for record in records]
     except (StorageError, BaseModelError) as err:
         raise web.HTTPBadRequest(reason=err.roll_up) from err
 
-    return web.json_response({"results": results})
+    return web.json_response(response)
 
 
 @docs(
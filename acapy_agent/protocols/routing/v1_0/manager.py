@@ -8,6 +8,7 @@ from ....core.error import BaseError
 from ....core.profile import Profile
 from ....storage.error import StorageDuplicateError, StorageNotFoundError
 from .models.route_record import RouteRecord
+from .route_cache import RouteCache
 
 LOGGER = logging.getLogger(__name__)
 
@@ -38,6 +39,7 @@ class RoutingManager:
         self._profile = profile
         if not profile:
             raise RoutingManagerError("Missing profile")
+        self._cache = profile.inject_or(RouteCache)
 
     async def get_recipient(self, recip_verkey: str) -> RouteRecord:
         """Resolve the recipient for a verkey.
@@ -52,6 +54,11 @@ class RoutingManager:
         if not recip_verkey:
             raise RoutingManagerError("Must pass non-empty recip_verkey")
 
+        if self._cache:
+            record = await self._cache.get_route(self._profile, recip_verkey)
+            if record:
+                return record
+
         i = 0
         record = None
         while not record:
@@ -62,6 +69,8 @@ class RoutingManager:
                         session, recip_verkey
                     )
                 LOGGER.debug("Found routing record for verkey: %s", recip_verkey)
+                if self._cache:
+                    await self._cache.put_route(self._profile, record)
                 return record
             except StorageDuplicateError:
                 LOGGER.info(
@@ -121,6 +130,8 @@ class RoutingManager:
         """Remove an existing route record."""
         async with self._profile.session() as session:
             await route.delete_record(session)
+        if self._cache:
+            await self._cache.clear_routes(self._profile, [route.recipient_key])
 
     async def create_route_record(
         self,
@@ -153,5 +164,7 @@ class RoutingManager:
         )
         async with self._profile.session() as session:
             await route.save(session, reason="Created new route")
+        if self._cache:
+            await self._cache.put_route(self._profile, route)
         LOGGER.info("Created routing record for verkey: %s", recipient_key)
         return route
@@ -0,0 +1,148 @@
+"""Cache of the routes and wallets of recipient keys, for Forward handling."""
+
+import json
+import logging
+from typing import Iterable, Optional, Type
+
+from ....cache.base import BaseCache
+from ....cache.lru import LRUCache
+from ....core.profile import Profile
+from ....messaging.models.base_record import BaseRecord, RecordType
+from ....storage.error import StorageNotFoundError
+from ....utils.metrics import MetricsRegistry
+from ....wallet.models.wallet_record import WalletRecord
+from .models.route_record import RouteRecord
+
+LOGGER = logging.getLogger(__name__)
+
+
+class RouteCache:
+    """Cache of recipient key routes and the wallets they lead to.
+
+    Routes are cached in process unless a shared cache is given, in which case
+    agent instances behind the same cache see each other's invalidations. Wallet
+    records hold the keys of managed wallets, so they are only ever cached in
+    process.
+
+    Records are cached in their stored (JSON) form, so that every lookup returns
+    a new instance which the caller is free to modify.
+    """
+
+    DEFAULT_TTL = 300
+    DEFAULT_MAX_ENTRIES = 10000
+
+    def __init__(
+        self,
+        *,
+        ttl: Optional[int] = None,
+        max_entries: Optional[int] = None,
+        shared: Optional[BaseCache] = None,
+        metrics: Optional[MetricsRegistry] = None,
+    ):
+        """Initialize the RouteCache instance.
+
+        Args:
+            ttl: The number of seconds to keep an entry
+            max_entries: The maximum number of routes and of wallets kept in process
+            shared: A cache shared with other agent instances to keep routes in
+            metrics: The registry to report cache hits and misses to
+
+        """
+        self.ttl = ttl or self.DEFAULT_TTL
+        max_entries = max_entries or self.DEFAULT_MAX_ENTRIES
+        self._routes = shared or LRUCache(max_entries)
+        self._wallets = LRUCache(max_entries)
+        self._lookups = (
+            metrics.counter(
+                "route_cache_lookups",
+                "Lookups of recipient key routes and wallets in the route cache",
+                ["kind", "result"],
+            )
+            if metrics
+            else None
+        )
+
+    @staticmethod
+    def _key(profile: Profile, kind: str, ident: str) -> str:
+        return f"{kind}::{profile.name}::{ident}"
+
+    def _record_lookup(self, kind: str, hit: bool):
+        if self._lookups:
+            self._lookups.labels(kind, "hit" if hit else "miss").inc()
+
+    @staticmethod
+    def _dump(record: BaseRecord) -> dict:
+        return {"id": record._id, "value": record.storage_record.value}
+
+    @staticmethod
+    def _load(record_cls: Type[RecordType], entry: dict) -> RecordType:
+        return record_cls.from_storage(entry["id"], json.loads(entry["value"]))
+
+    async def get_route(
+        self, profile: Profile, recipient_key: str
+    ) -> Optional[RouteRecord]:
+        """Get the cached route for a recipient key, if any."""
+        entry = await self._routes.get(self._key(profile, "route", recipient_key))
+        self._record_lookup("route", entry is not None)
+        return self._load(RouteRecord, entry) if entry else None
+
+    async def put_route(self, profile: Profile, route: RouteRecord):
+        """Cache the route for its recipient key."""
+        await self._routes.set(
+            self._key(profile, "route", route.recipient_key),
+            self._dump(route),
+            self.ttl,
+        )
+
+    async def clear_routes(self, profile: Profile, recipient_keys: Iterable[str]):
+        """Remove the routes of recipient keys from the cache."""
+        for recipient_key in recipient_keys:
+            await self._routes.clear(self._key(profile, "route", recipient_key))
+
+    async def get_wallet(
+        self, profile: Profile, wallet_id: str
+    ) -> Optional[WalletRecord]:
+        """Get a cached wallet record, if any."""
+        entry = await self._wallets.get(self._key(profile, "wallet", wallet_id))
+        self._record_lookup("wallet", entry is not None)
+        return self._load(WalletRecord, entry) if entry else None
+
+    async def put_wallet(self, profile: Profile, wallet: WalletRecord):
+        """Cache a wallet record."""
+        await self._wallets.set(
+            self._key(profile, "wallet", wallet.wallet_id),
+            self._dump(wallet),
+            self.ttl,
+        )
+
+    async def clear_wallet(self, profile: Profile, wallet_id: str):
+        """Remove a wallet record from the cache."""
+        await self._wallets.clear(self._key(profile, "wallet", wallet_id))
+
+    async def prefetch(self, profile: Profile, limit: int) -> int:
+        """Load routes, and the wallets they lead to, into the cache.
+
+        Args:
+            profile: The profile holding the routes
+            limit: The maximum number of routes to load
+
+        Returns:
+            The number of routes loaded
+
+        """
+        async with profile.session() as session:
+            routes = await RouteRecord.query(
+                session, {"role": RouteRecord.ROLE_SERVER}, limit=limit
+            )
+            wallets = []
+            for wallet_id in {route.wallet_id for route in routes if route.wallet_id}:
+                try:
+                    wallets.append(await WalletRecord.retrieve_by_id(session, wallet_id))
+                except StorageNotFoundError:
+                    LOGGER.warning("Wallet %s of a route not found", wallet_id)
+        for route in routes:
+            await self.put_route(profile, route)
+        for wallet in wallets:
+            await self.put_wallet(profile, wallet)
+        LOGGER.info("Prefetched %d routes into the route cache", len(routes))
+        return len(routes)
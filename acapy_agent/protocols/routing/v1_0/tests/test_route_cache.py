@@ -0,0 +1,86 @@
+from unittest import IsolatedAsyncioTestCase
+
+from .....cache.in_memory import InMemoryCache
+from .....utils.testing import create_test_profile
+from .....wallet.models.wallet_record import WalletRecord
+from ..models.route_record import RouteRecord
+from ..route_cache import RouteCache
+
+TEST_CONN_ID = "conn-id"
+TEST_ROUTE_VERKEY = "9WCgWKUaAJj3VWxxtzvvMQN3AoFxoBtBDo9ntwJnVVCC"
+
+
+class TestRouteCache(IsolatedAsyncioTestCase):
+    async def asyncSetUp(self):
+        self.profile = await create_test_profile()
+        self.cache = RouteCache()
+
+    async def test_put_get_clear_route(self):
+        assert await self.cache.get_route(self.profile, TEST_ROUTE_VERKEY) is None
+
+        route = RouteRecord(connection_id=TEST_CONN_ID, recipient_key=TEST_ROUTE_VERKEY)
+        async with self.profile.session() as session:
+            await route.save(session)
+        await self.cache.put_route(self.profile, route)
+
+        cached = await self.cache.get_route(self.profile, TEST_ROUTE_VERKEY)
+        assert cached == route
+        assert cached is not route
+
+        await self.cache.clear_routes(self.profile, [TEST_ROUTE_VERKEY])
+        assert await self.cache.get_route(self.profile, TEST_ROUTE_VERKEY) is None
+
+    async def test_routes_per_profile(self):
+        other = await create_test_profile({"wallet.name": "other"})
+        route = RouteRecord(connection_id=TEST_CONN_ID, recipient_key=TEST_ROUTE_VERKEY)
+        await self.cache.put_route(self.profile, route)
+        assert await self.cache.get_route(other, TEST_ROUTE_VERKEY) is None
+
+    async def test_shared_routes(self):
+        shared = InMemoryCache()
+        cache = RouteCache(shared=shared)
+        other = RouteCache(shared=shared)
+        route = RouteRecord(connection_id=TEST_CONN_ID, recipient_key=TEST_ROUTE_VERKEY)
+        await cache.put_route(self.profile, route)
+        assert await other.get_route(self.profile, TEST_ROUTE_VERKEY) == route
+
+        await other.clear_routes(self.profile, [TEST_ROUTE_VERKEY])
+        assert await cache.get_route(self.profile, TEST_ROUTE_VERKEY) is None
+
+    async def test_wallet_copies(self):
+        wallet = WalletRecord(settings={"wallet.name": "test"})
+        async with self.profile.session() as session:
+            await wallet.save(session)
+        await self.cache.put_wallet(self.profile, wallet)
+
+        cached = await self.cache.get_wallet(self.profile, wallet.wallet_id)
+        assert cached == wallet
+        cached.update_settings({"wallet.name": "changed"})
+        cached = await self.cache.get_wallet(self.profile, wallet.wallet_id)
+        assert cached.settings["wallet.name"] == "test"
+
+        await self.cache.clear_wallet(self.profile, wallet.wallet_id)
+        assert await self.cache.get_wallet(self.profile, wallet.wallet_id) is None
+
+    async def test_prefetch(self):
+        wallet = WalletRecord(settings={})
+        other = WalletRecord(settings={})
+        async with self.profile.session() as session:
+            await wallet.save(session)
+            await other.save(session)
+            await RouteRecord(
+                wallet_id=wallet.wallet_id, recipient_key=TEST_ROUTE_VERKEY
+            ).save(session)
+            await RouteRecord(
+                role=RouteRecord.ROLE_CLIENT,
+                connection_id=TEST_CONN_ID,
+                recipient_key="client-key",
+            ).save(session)
+
+        assert await self.cache.prefetch(self.profile, 10) == 1
+        route = await self.cache.get_route(self.profile, TEST_ROUTE_VERKEY)
+        assert route.wallet_id == wallet.wallet_id
+        assert await self.cache.get_wallet(self.profile, wallet.wallet_id) == wallet
+        # only the wallets routes lead to are loaded
+        assert await self.cache.get_wallet(self.profile, other.wallet_id) is None
+        assert await self.cache.get_route(self.profile, "client-key") is None
@@ -7,8 +7,10 @@ from .....storage.error import StorageDuplicateError, StorageNotFoundError
 from .....tests import mock
 from .....transport.inbound.receipt import MessageReceipt
 from .....utils.testing import create_test_profile
+from .. import manager as test_module
 from ..manager import RouteNotFoundError, RoutingManager, RoutingManagerError
 from ..models.route_record import RouteRecord, RouteRecordSchema
+from ..route_cache import RouteCache
 
 TEST_CONN_ID = "conn-id"
 TEST_VERKEY = "3Dn1SJNPaCXcvvJvSbsFWP2xaCjMom3can8CQNhWrTRx"
@@ -83,6 +85,22 @@ class TestRoutingManager(IsolatedAsyncioTestCase):
                 await self.manager.get_recipient(TEST_ROUTE_VERKEY)
         assert "No route found" in str(context.exception)
 
+    async def test_get_recipient_cached(self):
+        self.profile.context.injector.bind_instance(RouteCache, RouteCache())
+        manager = RoutingManager(self.profile)
+        record = await manager.create_route_record(TEST_CONN_ID, TEST_ROUTE_VERKEY)
+
+        with mock.patch.object(
+            RouteRecord, "retrieve_by_recipient_key", mock.CoroutineMock()
+        ) as mock_retrieve:
+            assert await manager.get_recipient(TEST_ROUTE_VERKEY) == record
+            mock_retrieve.assert_not_called()
+
+        await manager.delete_route_record(record)
+        with self.assertRaises(RouteNotFoundError):
+            with mock.patch.object(test_module, "RECIP_ROUTE_RETRY", 0):
+                await manager.get_recipient(TEST_ROUTE_VERKEY)
+
     async def test_get_routes_connection_id(self):
         await self.manager.create_route_record(TEST_CONN_ID, TEST_ROUTE_VERKEY)
         results = await self.manager.get_routes(
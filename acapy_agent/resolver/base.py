@@ -174,6 +174,18 @@ class BaseDIDResolver(ABC):
 
         return await self._resolve(profile, did, service_accept)
 
+    async def resolve_uncached(
+        self,
+        profile: Profile,
+        did: str,
+        service_accept: Optional[Sequence[Text]] = None,
+    ) -> dict:
+        """Resolve a DID already known to be supported, bypassing the cache.
+
+        Used by the DID resolver when it caches resolution results itself.
+        """
+        return await self._resolve(profile, did, service_accept)
+
     @abstractmethod
     async def _resolve(
         self,
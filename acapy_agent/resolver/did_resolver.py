@@ -5,16 +5,20 @@ retrieving did's from different sources provided by the method type.
 """
 
 import asyncio
+import copy
 import logging
+import time
 from datetime import datetime, timezone
 from itertools import chain
-from typing import List, Optional, Sequence, Text, Tuple, Union
+from typing import Dict, List, Mapping, Optional, Sequence, Text, Tuple, Union
 
 import pydid
 from pydid import DID, DIDError, DIDUrl, Resource, VerificationMethod
 from pydid.doc.doc import BaseDIDDocument, IDNotFoundError
 
+from ..cache.base import BaseCache
 from ..core.profile import Profile
+from ..utils.metrics import MetricsRegistry
 from .base import (
     BaseDIDResolver,
     DIDMethodNotSupported,
@@ -28,40 +32,96 @@ LOGGER = logging.getLogger(__name__)
 
 
 class DIDResolver:
-    """did resolver singleton."""
+    """did resolver singleton.
+
+    For DID methods with a cache TTL, resolution results are held in the shared
+    cache: concurrent lookups of a DID share one resolution, DIDs which could
+    not be found are remembered briefly, and an expired result may still be
+    served for a grace period while it is refreshed in the background. Only
+    methods whose documents do not depend on the requesting profile should be
+    given a TTL.
+    """
 
     DEFAULT_TIMEOUT = 30
+    DEFAULT_CACHE_TTLS = {"web": 300, "webvh": 300, "indy": 3600}
+    DEFAULT_NEGATIVE_TTL = 30
+    DEFAULT_STALE_TTL = 300
+
+    def __init__(
+        self,
+        resolvers: Optional[List[BaseDIDResolver]] = None,
+        *,
+        cache_ttls: Optional[Mapping[str, int]] = None,
+        negative_ttl: int = 0,
+        stale_ttl: int = 0,
+        metrics: Optional[MetricsRegistry] = None,
+    ):
+        """Create DID Resolver.
 
-    def __init__(self, resolvers: Optional[List[BaseDIDResolver]] = None):
-        """Create DID Resolver."""
+        Args:
+            resolvers: The resolvers to use
+            cache_ttls: Seconds to cache results for, by DID method; "*" applies
+                to any other method
+            negative_ttl: Seconds to remember that a DID could not be found
+            stale_ttl: Seconds for which an expired result may be served while
+                it is refreshed
+            metrics: The registry on which to record cache metrics
+
+        """
         self.resolvers = resolvers or []
+        self.cache_ttls = dict(cache_ttls or {})
+        self.negative_ttl = negative_ttl
+        self.stale_ttl = stale_ttl
+        self.cache_requests = {"hit": 0, "stale": 0, "negative": 0, "miss": 0}
+        self._refreshing: Dict[str, asyncio.Task] = {}
+        self._requests = (
+            metrics.counter(
+                "did_resolution_cache_requests",
+                "DID resolutions by cache outcome",
+                ["method", "result"],
+            )
+            if metrics
+            else None
+        )
 
     def register_resolver(self, resolver: BaseDIDResolver):
         """Register a new resolver."""
         self.resolvers.append(resolver)
 
-    async def _resolve(
+    def cache_ttl(self, did: str) -> int:
+        """Determine the number of seconds to cache resolution of a DID."""
+        method = did.split(":", 2)[1]
+        return self.cache_ttls.get(method, self.cache_ttls.get("*")) or 0
+
+    def cache_stats(self) -> dict:
+        """Report resolution cache statistics."""
+        total = sum(self.cache_requests.values())
+        served = total - self.cache_requests["miss"]
+        return {
+            **self.cache_requests,
+            "hit_ratio": served / total if total else 0.0,
+        }
+
+    def _count(self, did: str, result: str):
+        self.cache_requests[result] += 1
+        if self._requests:
+            self._requests.labels(did.split(":", 2)[1], result).inc()
+
+    async def _resolve_uncached(
         self,
         profile: Profile,
-        did: Union[str, DID],
+        did: str,
         service_accept: Optional[Sequence[Text]] = None,
-        *,
         timeout: Optional[int] = None,
+        *,
+        bypass_cache: bool = False,
     ) -> Tuple[BaseDIDResolver, dict]:
-        """Retrieve doc and return with resolver.
-
-        This private method enables the public resolve and resolve_with_metadata
-        methods to share the same logic.
-        """
-        if isinstance(did, DID):
-            did = str(did)
-        else:
-            DID.validate(did)
+        """Resolve a DID with the first matching resolver which can find it."""
         for resolver in await self._match_did_to_resolver(profile, did):
             try:
                 LOGGER.debug("Resolving DID %s with %s", did, resolver)
                 document = await asyncio.wait_for(
-                    resolver.resolve(
+                    (resolver.resolve_uncached if bypass_cache else resolver.resolve)(
                         profile,
                         did,
                         service_accept,
@@ -75,6 +135,140 @@ class DIDResolver:
 
         raise DIDNotFound(f"DID {did} could not be resolved")
 
+    async def _fetch(
+        self,
+        profile: Profile,
+        did: str,
+        service_accept: Optional[Sequence[Text]],
+        timeout: Optional[int],
+        ttl: int,
+    ) -> Tuple[Optional[dict], int]:
+        """Resolve a DID, returning the cache entry and the time to hold it."""
+        try:
+            resolver, document = await self._resolve_uncached(
+                profile, did, service_accept, timeout, bypass_cache=True
+            )
+        except DIDNotFound:
+            if not self.negative_ttl:
+                return None, 0
+            return (
+                {"not_found": True, "expires": time.time() + self.negative_ttl},
+                self.negative_ttl,
+            )
+        return (
+            {
+                "resolver": type(resolver).__qualname__,
+                "document": document,
+                "expires": time.time() + ttl,
+            },
+            ttl + self.stale_ttl,
+        )
+
+    def _from_entry(
+        self, did: str, entry: Optional[dict]
+    ) -> Optional[Tuple[BaseDIDResolver, dict]]:
+        """Restore a resolution result from a cache entry.
+
+        Returns None if the entry cannot be used, such as when it was produced
+        by a resolver not registered here.
+        """
+        if not entry:
+            return None
+        if entry.get("not_found"):
+            raise DIDNotFound(f"DID {did} could not be resolved")
+        for resolver in self.resolvers:
+            if type(resolver).__qualname__ == entry.get("resolver"):
+                # callers may modify the document
+                return resolver, copy.deepcopy(entry["document"])
+        return None
+
+    def _revalidate(
+        self,
+        profile: Profile,
+        cache: BaseCache,
+        key: str,
+        did: str,
+        service_accept: Optional[Sequence[Text]],
+        timeout: Optional[int],
+        ttl: int,
+    ):
+        """Refresh a cached resolution result in the background."""
+        if key in self._refreshing:
+            return
+
+        async def refresh():
+            try:
+                entry, cache_ttl = await self._fetch(
+                    profile, did, service_accept, timeout, ttl
+                )
+                if entry:
+                    await cache.set(key, entry, cache_ttl)
+                else:
+                    await cache.clear(key)
+            except Exception as err:
+                # the stale result continues to be served until it lapses
+                LOGGER.warning("Error refreshing resolution of DID %s: %s", did, err)
+
+        task = asyncio.get_event_loop().create_task(refresh())
+        self._refreshing[key] = task
+        task.add_done_callback(lambda _: self._refreshing.pop(key, None))
+
+    async def _resolve(
+        self,
+        profile: Profile,
+        did: Union[str, DID],
+        service_accept: Optional[Sequence[Text]] = None,
+        *,
+        timeout: Optional[int] = None,
+    ) -> Tuple[BaseDIDResolver, dict]:
+        """Retrieve doc and return with resolver.
+
+        This private method enables the public resolve and resolve_with_metadata
+        methods to share the same logic.
+        """
+        if isinstance(did, DID):
+            did = str(did)
+        else:
+            DID.validate(did)
+
+        ttl = self.cache_ttl(did)
+        cache = profile.inject_or(BaseCache) if ttl else None
+        if not cache:
+            return await self._resolve_uncached(profile, did, service_accept, timeout)
+
+        key = f"did_resolver::{did}"
+        if service_accept:
+            key += "::" + ",".join(service_accept)
+
+        entry = await cache.get(key)
+        if entry and entry.get("not_found"):
+            self._count(did, "negative")
+        found = self._from_entry(did, entry)
+        if found:
+            if entry["expires"] > time.time():
+                self._count(did, "hit")
+            else:
+                self._count(did, "stale")
+                self._revalidate(
+                    profile, cache, key, did, service_accept, timeout, ttl
+                )
+            return found
+
+        self._count(did, "miss")
+        async with cache.acquire(key) as lock:
+            # a concurrent lookup may have resolved the DID while we waited
+            found = self._from_entry(did, lock.result)
+            if found:
+                return found
+            entry, cache_ttl = await self._fetch(
+                profile, did, service_accept, timeout, ttl
+            )
+            if entry:
+                await lock.set_result(entry, cache_ttl)
+        if not entry:
+            raise DIDNotFound(f"DID {did} could not be resolved")
+        return self._from_entry(did, entry)
+
     async def resolve(
         self,
         profile: Profile,
@@ -1,5 +1,6 @@
 """Test did resolver registry."""
 
+import asyncio
 import re
 from typing import Pattern
 
@@ -7,6 +8,9 @@ import pytest
 import pytest_asyncio
 from pydid import DID, BasicDIDDocument, DIDDocument, VerificationMethod
 
+from ...cache.base import BaseCache
+from ...cache.lru import LRUCache
+from ...utils.metrics import MetricsRegistry
 from ...utils.testing import create_test_profile
 from ..base import (
     BaseDIDResolver,
@@ -334,3 +338,85 @@ async def test_resolver_caching_with_document_metadata(profile):
     # Both should have document_metadata
     assert isinstance(result1.document_metadata, dict)
     assert isinstance(result2.document_metadata, dict)
+
+
+class CountingResolver(MockResolver):
+    def __init__(self, supported_methods, resolved=None):
+        super().__init__(supported_methods, resolved, native=True)
+        self.calls = 0
+
+    async def _resolve(self, profile, did, accept):
+        self.calls += 1
+        await asyncio.sleep(0.01)
+        return await super()._resolve(profile, did, accept)
+
+
+@pytest_asyncio.fixture
+async def cached_profile():
+    profile = await create_test_profile()
+    profile.context.injector.bind_instance(BaseCache, LRUCache())
+    yield profile
+
+
+@pytest.mark.asyncio
+async def test_resolution_cache_coalesces_and_copies(cached_profile):
+    counting = CountingResolver(["web"], resolved={"id": "did:web:example.com"})
+    metrics = MetricsRegistry()
+    resolver = DIDResolver([counting], cache_ttls={"web": 60}, metrics=metrics)
+
+    docs = await asyncio.gather(
+        *[resolver.resolve(cached_profile, "did:web:example.com") for _ in range(3)]
+    )
+    assert counting.calls == 1
+    assert all(doc == {"id": "did:web:example.com"} for doc in docs)
+
+    docs[0]["id"] = "modified"
+    assert await resolver.resolve(cached_profile, "did:web:example.com") == {
+        "id": "did:web:example.com"
+    }
+    assert counting.calls == 1
+    assert resolver.cache_requests["hit"] == 1
+    assert 'result="hit"} 1' in metrics.render()
+
+
+@pytest.mark.asyncio
+async def test_resolution_cache_not_configured(cached_profile):
+    counting = CountingResolver(["web"], resolved={"id": "did:web:example.com"})
+    resolver = DIDResolver([counting], cache_ttls={"indy": 60})
+
+    await resolver.resolve(cached_profile, "did:web:example.com")
+    await resolver.resolve(cached_profile, "did:web:example.com")
+    assert counting.calls == 2
+    assert resolver.cache_stats()["hit_ratio"] == 0.0
+
+
+@pytest.mark.asyncio
+async def test_resolution_cache_negative(cached_profile):
+    counting = CountingResolver(["web"], resolved=DIDNotFound())
+    resolver = DIDResolver([counting], cache_ttls={"web": 60}, negative_ttl=30)
+
+    for _ in range(2):
+        with pytest.raises(DIDNotFound):
+            await resolver.resolve(cached_profile, "did:web:example.com")
+    assert counting.calls == 1
+    assert resolver.cache_requests["negative"] == 1
+
+
+@pytest.mark.asyncio
+async def test_resolution_cache_stale_while_revalidate(cached_profile):
+    counting = CountingResolver(["web"], resolved={"id": "did:web:example.com"})
+    resolver = DIDResolver([counting], cache_ttls={"web": 60}, stale_ttl=60)
+
+    await resolver.resolve(cached_profile, "did:web:example.com")
+    cache = cached_profile.inject(BaseCache)
+    entry = await cache.get("did_resolver::did:web:example.com")
+    entry["expires"] = 0
+
+    counting.resolved = {"id": "did:web:example.com", "updated": True}
+    doc = await resolver.resolve(cached_profile, "did:web:example.com")
+    assert doc == {"id": "did:web:example.com"}  # stale result served immediately
+    assert resolver.cache_requests["stale"] == 1
+
+    await asyncio.gather(*resolver._refreshing.values())
+    assert counting.calls == 2
+    assert (await resolver.resolve(cached_profile, "did:web:example.com"))["updated"]
@@ -462,17 +462,21 @@ class RevocationManager:
             None
 
         """
-        for cred_rev_id in cred_rev_ids:
-            try:
-                async with self._profile.transaction() as txn:
+        async with self._profile.transaction() as txn:
+            rev_recs = []
+            for cred_rev_id in cred_rev_ids:
+                try:
                     rev_rec = await IssuerCredRevRecord.retrieve_by_ids(
                         txn, rev_reg_id, cred_rev_id, for_update=True
                     )
-                    rev_rec.state = IssuerCredRevRecord.STATE_REVOKED
-                    await rev_rec.save(txn, reason="revoke credential")
-                    await txn.commit()
-            except StorageNotFoundError:
-                continue
+                except StorageNotFoundError:
+                    continue
+                rev_rec.state = IssuerCredRevRecord.STATE_REVOKED
+                rev_recs.append(rev_rec)
+            await IssuerCredRevRecord.save_all(
+                txn, rev_recs, reason="revoke credential"
+            )
+            await txn.commit()
 
     async def _get_endorser_info(self) -> Tuple[Optional[str], Optional[ConnRecord]]:
         connection_id = await get_endorser_connection_id(self._profile)
@@ -140,6 +140,96 @@ class AskarStorage(BaseStorage):
             else:
                 raise StorageError("Error when removing storage record") from err
 
+    async def _apply_batch(self, op: str, records: Sequence[StorageRecord]):
+        """Apply an operation to a batch of records in a single transaction.
+
+        Within a transaction the batch joins it and is committed along with it.
+        Otherwise a dedicated transaction is opened, so that the batch is
+        applied atomically with a single commit.
+        """
+        if not records:
+            return
+        if self._session.is_transaction:
+            await self._apply_ops(self._session.handle, op, records)
+            return
+        profile = self._session.profile
+        try:
+            txn = await self._session.store.transaction(profile.profile_id)
+        except AskarError as err:
+            raise StorageError("Error opening storage transaction") from err
+        try:
+            await self._apply_ops(txn, op, records)
+            await txn.commit()
+        except AskarError as err:
+            raise StorageError("Error committing storage records") from err
+        finally:
+            await txn.close()
+
+    async def _apply_ops(
+        self, handle: Session, op: str, records: Sequence[StorageRecord]
+    ):
+        """Apply an operation to each record using an Askar session handle."""
+        for record in records:
+            try:
+                if op in ("insert", "replace"):
+                    await getattr(handle, op)(
+                        record.type, record.id, record.value, record.tags
+                    )
+                else:
+                    await handle.remove(record.type, record.id)
+            except AskarError as err:
+                if err.code == AskarErrorCode.DUPLICATE:
+                    raise StorageDuplicateError(
+                        f"Duplicate record: {record.type}/{record.id}"
+                    ) from None
+                if err.code == AskarErrorCode.NOT_FOUND:
+                    raise StorageNotFoundError(
+                        f"Record not found: {record.type}/{record.id}"
+                    ) from None
+                raise StorageError(f"Error applying storage {op}") from err
+
+    async def add_records(self, records: Sequence[StorageRecord]):
+        """Add several new records to the store in a single transaction.
+
+        Args:
+            records: the `StorageRecord` instances to be stored
+
+        Raises:
+            StorageDuplicateError: If any record already exists; none are added
+
+        """
+        for record in records:
+            validate_record(record)
+        await self._apply_batch("insert", records)
+
+    async def update_records(self, records: Sequence[StorageRecord]):
+        """Replace the value and tags of several records in a single transaction.
+
+        Args:
+            records: the updated `StorageRecord` instances
+
+        Raises:
+            StorageNotFoundError: If any record is not found; none are updated
+
+        """
+        for record in records:
+            validate_record(record)
+        await self._apply_batch("replace", records)
+
+    async def delete_records(self, records: Sequence[StorageRecord]):
+        """Delete several records in a single transaction.
+
+        Args:
+            records: the `StorageRecord` instances to delete
+
+        Raises:
+            StorageNotFoundError: If any record is not found; none are deleted
+
+        """
+        for record in records:
+            validate_record(record, delete=True)
+        await self._apply_batch("remove", records)
+
     async def find_record(
         self, type_filter: str, tag_query: Mapping, options: Optional[Mapping] = None
     ) -> StorageRecord:
@@ -305,12 +395,15 @@ class AskarStorageSearchSession(BaseStorageSearchSession):
             type_filter: Filter string
             tag_query: Tags to search
             page_size: Size of page to return
-            options: Dictionary of backend-specific options
+            options: Dictionary of backend-specific options; `orderBy` and
+              `descending` set the order of the results
 
         """
         self.tag_query = tag_query
         self.type_filter = type_filter
         self.page_size = page_size or DEFAULT_PAGE_SIZE
+        self.order_by = options.get("orderBy") if options else None
+        self.descending = bool(options and options.get("descending"))
         self._done = False
         self._profile = profile
         self._scan = None
@@ -420,6 +513,8 @@ class AskarStorageSearchSession(BaseStorageSearchSession):
                 offset=offset,
                 limit=limit,
                 profile=self._profile.settings.get("wallet.askar_profile"),
+                order_by=self.order_by,
+                descending=self.descending,
             )
         except AskarError as err:
             raise StorageSearchError("Error opening search query") from err
@@ -70,6 +70,41 @@ class BaseStorage(ABC):
 
         """
 
+    async def add_records(self, records: Sequence[StorageRecord]):
+        """Add several new records to the store.
+
+        Backends which support it apply the whole batch in a single
+        transaction, so that either all of the records are added or none are.
+
+        Args:
+            records: the `StorageRecord` instances to be stored
+
+        """
+        for record in records:
+            await self.add_record(record)
+
+    async def update_records(self, records: Sequence[StorageRecord]):
+        """Replace the value and tags of several existing records.
+
+        Each record is stored with its own `value` and `tags`.
+
+        Args:
+            records: the updated `StorageRecord` instances
+
+        """
+        for record in records:
+            await self.update_record(record, record.value, record.tags)
+
+    async def delete_records(self, records: Sequence[StorageRecord]):
+        """Delete several existing records.
+
+        Args:
+            records: the `StorageRecord` instances to delete
+
+        """
+        for record in records:
+            await self.delete_record(record)
+
     async def find_record(
         self,
         type_filter: str,
@@ -93,6 +128,18 @@ class BaseStorage(ABC):
             raise StorageDuplicateError("Duplicate records found")
         return results[0]
 
+    def supports_tag_range(self, type_filter: str) -> bool:
+        """Check whether records can be filtered by ranges of a plaintext tag.
+
+        Range operators such as `$gt` and `$lt` are supported on plaintext
+        tags unless a backend stores the records of a type in a fixed schema.
+
+        Args:
+            type_filter: The type of records to be filtered
+
+        """
+        return True
+
     @abstractmethod
     async def find_paginated_records(
         self,
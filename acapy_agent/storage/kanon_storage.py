@@ -3,7 +3,7 @@
 import asyncio
 import inspect
 import logging
-from typing import Mapping, Optional, Sequence
+from typing import Awaitable, Callable, Mapping, Optional, Sequence
 
 from ..core.profile import Profile
 from ..database_manager.dbstore import DBStoreError, DBStoreErrorCode, DBStoreSession
@@ -155,6 +155,65 @@ class KanonStorage(BaseStorage):
                 ) from None
             raise StorageError("Error when removing storage record") from err
 
+    async def add_records(
+        self,
+        records: Sequence[StorageRecord],
+        session: Optional[DBStoreSession] = None,
+    ):
+        """Add several new records to storage in a single transaction."""
+        for record in records:
+            validate_record(record)
+        await self._apply_batch(self._add_record, records, session)
+
+    async def update_records(
+        self,
+        records: Sequence[StorageRecord],
+        session: Optional[DBStoreSession] = None,
+    ):
+        """Replace the value and tags of several records in a single transaction."""
+        for record in records:
+            validate_record(record)
+
+        async def _update(record: StorageRecord, session: DBStoreSession):
+            await self._update_record(record, record.value, record.tags, session)
+
+        await self._apply_batch(_update, records, session)
+
+    async def delete_records(
+        self,
+        records: Sequence[StorageRecord],
+        session: Optional[DBStoreSession] = None,
+    ):
+        """Delete several records from storage in a single transaction."""
+        for record in records:
+            validate_record(record, delete=True)
+        await self._apply_batch(self._delete_record, records, session)
+
+    async def _apply_batch(
+        self,
+        apply: Callable[[StorageRecord, DBStoreSession], Awaitable[None]],
+        records: Sequence[StorageRecord],
+        session: Optional[DBStoreSession],
+    ):
+        """Apply an operation to each record, committing once for the batch.
+
+        When the profile session is a transaction the batch joins it and is
+        committed along with it. Otherwise a dedicated transaction is opened,
+        and if any operation fails it is rolled back, leaving all of the records
+        unchanged.
+        """
+        if not records:
+            return
+        if session is None and getattr(self._session, "is_transaction", False):
+            session = self._session.dbstore_handle
+        if session is None:
+            async with self._session.store.transaction() as txn:
+                for record in records:
+                    await apply(record, txn)
+        else:
+            for record in records:
+                await apply(record, session)
+
     async def find_record(
         self,
         type_filter: str,
@@ -201,6 +260,14 @@ class KanonStorage(BaseStorage):
             tags=row.tags,
         )
 
+    def supports_tag_range(self, type_filter: str) -> bool:
+        """Check whether records can be filtered by ranges of a plaintext tag.
+
+        The normalized schema only persists the fixed columns of a category,
+        so tags outside them can be neither stored nor range queried.
+        """
+        return False
+
     async def find_paginated_records(
         self,
         type_filter: str,
@@ -456,6 +523,8 @@ class KanonStorageSearchSession(BaseStorageSearchSession):
         self.tag_query = tag_query
         self.type_filter = type_filter
         self.page_size = page_size or DEFAULT_PAGE_SIZE
+        self.order_by = options.get("orderBy") if options else None
+        self.descending = bool(options and options.get("descending"))
         self._done = False
         self._profile = profile
         self._scan = None
@@ -569,6 +638,8 @@ class KanonStorageSearchSession(BaseStorageSearchSession):
                 offset=offset,
                 limit=limit,
                 profile=self._profile.name,
+                order_by=self.order_by,
+                descending=self.descending,
             )
 
             self._timeout_task = asyncio.create_task(self._timeout_close())
@@ -8,11 +8,17 @@ import pytest_asyncio
 from ...askar.profile import AskarProfileManager
 from ...config.injection_context import InjectionContext
 from ...tests import mock
+from ...utils.testing import create_test_profile
 from ...wallet.askar import AskarWallet
 from .. import askar as test_module
 from ..askar import AskarStorage
 from ..base import BaseStorage
-from ..error import StorageError, StorageSearchError
+from ..error import (
+    StorageDuplicateError,
+    StorageError,
+    StorageNotFoundError,
+    StorageSearchError,
+)
 from ..record import StorageRecord
 
 
@@ -381,6 +387,61 @@ class TestAskarStorage:
         await postgres_wallet.remove()
 
 
+@pytest.mark.askar
+class TestAskarStorageBatch:
+    """Tests for batched Askar storage operations."""
+
+    @pytest.mark.asyncio
+    async def test_batch_roundtrip(self, store, record_factory):
+        records = [record_factory({"batch": "1"}) for _ in range(5)]
+        await store.add_records(records)
+        found = await store.find_all_records("TYPE", {"batch": "1"})
+        assert {rec.id for rec in found} == {rec.id for rec in records}
+
+        updated = [
+            StorageRecord(rec.type, "UPDATED", {"batch": "2"}, rec.id)
+            for rec in records
+        ]
+        await store.update_records(updated)
+        assert not await store.find_all_records("TYPE", {"batch": "1"})
+        found = await store.find_all_records("TYPE", {"batch": "2"})
+        assert {rec.value for rec in found} == {"UPDATED"}
+
+        await store.delete_records(records)
+        assert not await store.find_all_records("TYPE", {"batch": "2"})
+
+        await store.add_records([])
+
+    @pytest.mark.asyncio
+    async def test_batch_atomic(self, store, record_factory, missing):
+        existing = record_factory()
+        await store.add_record(existing)
+        new = record_factory()
+        with pytest.raises(StorageDuplicateError):
+            await store.add_records([new, existing])
+        with pytest.raises(StorageNotFoundError):
+            await store.get_record(new.type, new.id)
+
+        with pytest.raises(StorageNotFoundError):
+            await store.delete_records([existing, missing])
+        assert await store.get_record(existing.type, existing.id)
+
+        with pytest.raises(StorageError):
+            await store.add_records([StorageRecord("TYPE", None)])
+
+    @pytest.mark.asyncio
+    async def test_batch_in_transaction(self, record_factory):
+        profile = await create_test_profile()
+        records = [record_factory() for _ in range(3)]
+        async with profile.transaction() as txn:
+            await txn.inject(BaseStorage).add_records(records)
+            await txn.commit()
+        async with profile.session() as session:
+            storage = session.inject(BaseStorage)
+            for rec in records:
+                assert (await storage.get_record(rec.type, rec.id)).value == "TEST"
+
+
 class TestAskarStorageSearchSession(IsolatedAsyncioTestCase):
     async def test_askar_storage_search_session(self):
         profile = "profileId"
@@ -404,4 +465,6 @@ class TestAskarStorageSearchSession(IsolatedAsyncioTestCase):
                 limit=None,
                 offset=None,
                 profile=profile,
+                order_by=None,
+                descending=False,
             )
@@ -115,6 +115,17 @@ class FakeStoreSession:
         return await self.handle.remove_all(*args, **kwargs)
 
 
+class FakeTransaction(FakeStoreSession):
+    async def __aenter__(self):
+        self._snapshot = dict(self.handle._rows)
+        return self
+
+    async def __aexit__(self, exc_type, exc, tb):
+        if exc_type is not None:
+            self.handle._rows = self._snapshot
+        return False
+
+
 class FakeProfile:
     def __init__(self):
         self._handle = FakeDBStoreHandle()
@@ -126,6 +137,9 @@ class FakeProfile:
     def session(self):
         return FakeStoreSession(self._handle)
 
+    def transaction(self):
+        return FakeTransaction(self._handle)
+
     @property
     def opened(self):
         return types.SimpleNamespace(db_store=self)
@@ -261,6 +275,9 @@ async def test_find_paginated_records_and_keyset():
     )
     assert [r.id for r in page2] == ["id2", "id3"]
 
+    # plaintext tags outside the normalized columns cannot be range queried
+    assert not storage.supports_tag_range("connection")
+
 
 @pytest.mark.asyncio
 async def test_find_all_and_delete_all_and_search_session():
@@ -340,6 +357,68 @@ async def test_storage_error_paths():
         await storage.find_record("t", {"k": "v"})
 
 
+@pytest.mark.asyncio
+async def test_batch_records():
+    from acapy_agent.storage.error import StorageDuplicateError, StorageNotFoundError
+    from acapy_agent.storage.kanon_storage import KanonStorage
+    from acapy_agent.storage.record import StorageRecord
+
+    profile = FakeProfile()
+    storage = KanonStorage(profile)
+
+    records = [
+        StorageRecord(type="t", id=f"r{i}", value="v", tags={"k": "1"}) for i in range(3)
+    ]
+    await storage.add_records(records)
+    assert len(await storage.find_all_records("t", {"k": "1"})) == 3
+
+    await storage.update_records(
+        [
+            StorageRecord(type="t", id=rec.id, value="v2", tags={"k": "2"})
+            for rec in records
+        ]
+    )
+    assert [r.value for r in await storage.find_all_records("t", {"k": "2"})] == [
+        "v2"
+    ] * 3
+
+    # a failure part way through leaves all records unchanged
+    with pytest.raises(StorageDuplicateError):
+        await storage.add_records(
+            [StorageRecord(type="t", id="new", value="v", tags={}), records[0]]
+        )
+    with pytest.raises(StorageNotFoundError):
+        await storage.get_record("t", "new")
+    with pytest.raises(StorageNotFoundError):
+        await storage.delete_records(
+            [records[0], StorageRecord(type="t", id="missing", value="v", tags={})]
+        )
+    assert await storage.get_record("t", records[0].id)
+
+    await storage.delete_records(records)
+    assert not await storage.find_all_records("t", None)
+
+
+@pytest.mark.asyncio
+async def test_batch_records_join_transaction():
+    from acapy_agent.storage.kanon_storage import KanonStorage
+    from acapy_agent.storage.record import StorageRecord
+
+    profile = FakeProfile()
+    profile.is_transaction = True
+    profile.dbstore_handle = FakeStoreSession(profile._handle)
+
+    def no_transaction():
+        raise AssertionError("batch should join the profile transaction")
+
+    profile.transaction = no_transaction
+    storage = KanonStorage(profile)
+
+    records = [StorageRecord(type="t", id=f"r{i}", value="v", tags={}) for i in range(2)]
+    await storage.add_records(records)
+    assert len(await storage.find_all_records("t", None)) == 2
+
+
 @pytest.mark.asyncio
 async def test_session_property_and_validations_and_error_mapping(monkeypatch):
     from acapy_agent.storage.error import StorageError
@@ -2,6 +2,7 @@
 
 RECORD_TYPE_ACAPY_STORAGE_TYPE = "acapy_storage_type"
 RECORD_TYPE_ACAPY_UPGRADING = "acapy_upgrading"
+RECORD_TYPE_WEBHOOK_SPOOL = "webhook_spool"
 
 STORAGE_TYPE_VALUE_ANONCREDS = "askar-anoncreds"
 STORAGE_TYPE_VALUE_ASKAR = "askar"
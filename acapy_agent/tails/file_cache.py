@@ -0,0 +1,221 @@
+"""Download and local cache of tails files."""
+
+import asyncio
+import hashlib
+import http
+import logging
+import os
+from pathlib import Path
+from typing import Dict, Optional
+
+import base58
+from aiohttp import ClientError, ClientSession, ClientTimeout
+
+from .error import TailsDownloadError
+
+LOGGER = logging.getLogger(__name__)
+
+CHUNK_SIZE = 65536  # should be multiple of 32 bytes for sha256
+PARTIAL_SUFFIX = ".partial"
+CACHED_SUFFIX = ".cached"
+
+
+class TailsFileCache:
+    """Retrieve tails files from their public location into a local directory.
+
+    Tails files are streamed to disk without blocking the event loop, and the
+    hash of the content is computed as it is received. An interrupted download
+    is kept as a partial file and resumed with an HTTP range request, either
+    on the next attempt or by the next retrieval of the same file. Concurrent
+    retrievals of the same tails file share a single download.
+
+    Each retrieved tails file is marked with an empty sibling file, so that the
+    cache can tell the files it downloaded apart from the tails files generated
+    locally by an issuer in the same directory. When a maximum size is set, the
+    least recently used of the downloaded tails files are removed to keep their
+    total size under the limit; other files are never removed.
+    """
+
+    def __init__(
+        self,
+        max_size: Optional[int] = None,
+        *,
+        max_attempts: int = 3,
+        connect_timeout: float = 10.0,
+        read_timeout: float = 30.0,
+    ):
+        """Initialize the TailsFileCache instance.
+
+        Args:
+            max_size: The maximum total size of the downloaded tails files in a
+                directory, in bytes
+            max_attempts: The number of attempts to make for each download
+            connect_timeout: The timeout for connecting to the server, in seconds
+            read_timeout: The timeout for receiving each chunk, in seconds
+
+        """
+        self.max_size = max_size
+        self.max_attempts = max_attempts
+        self.timeout = ClientTimeout(sock_connect=connect_timeout, sock_read=read_timeout)
+        self._downloads: Dict[str, asyncio.Task] = {}
+
+    async def get(self, url: str, tails_hash: str, path: str) -> str:
+        """Return the local path to a tails file, retrieving it if necessary.
+
+        Args:
+            url: The public location of the tails file
+            tails_hash: The base58-encoded SHA-256 hash of the tails file
+            path: The local path to store the tails file at
+
+        Raises:
+            TailsDownloadError: If the tails file could not be retrieved
+
+        """
+        if Path(path).is_file():
+            self.touch(path)
+            return path
+        return await self.retrieve(url, tails_hash, path)
+
+    async def retrieve(self, url: str, tails_hash: str, path: str) -> str:
+        """Download a tails file, sharing any download already in progress.
+
+        Args:
+            url: The public location of the tails file
+            tails_hash: The base58-encoded SHA-256 hash of the tails file
+            path: The local path to store the tails file at
+
+        Raises:
+            TailsDownloadError: If the tails file could not be retrieved
+
+        """
+        task = self._downloads.get(path)
+        if not task:
+            task = asyncio.ensure_future(self._download(url, tails_hash, path))
+            self._downloads[path] = task
+            task.add_done_callback(lambda _: self._downloads.pop(path, None))
+        else:
+            LOGGER.debug("Waiting for download of tails file in progress: %s", path)
+        # a cancelled waiter does not cancel the download for other waiters
+        return await asyncio.shield(task)
+
+    async def _download(self, url: str, tails_hash: str, path: str) -> str:
+        LOGGER.info("Downloading the tails file with hash: %s", tails_hash)
+        tails_path = Path(path)
+        tails_path.parent.mkdir(parents=True, exist_ok=True)
+        partial_path = tails_path.with_name(tails_path.name + PARTIAL_SUFFIX)
+
+        loop = asyncio.get_running_loop()
+        async with ClientSession(timeout=self.timeout, trust_env=True) as session:
+            for attempt in range(1, self.max_attempts + 1):
+                # resume from whatever has been written so far
+                hasher, offset = await loop.run_in_executor(
+                    None, _hash_file, partial_path
+                )
+                if offset:
+                    LOGGER.debug("Resuming tails file download at offset %d", offset)
+                try:
+                    hasher = await self._fetch(session, url, partial_path, hasher, offset)
+                    break
+                except (ClientError, asyncio.TimeoutError) as err:
+                    if attempt == self.max_attempts:
+                        raise TailsDownloadError(
+                            f"Error retrieving tails file: {err}"
+                        ) from err
+                    LOGGER.warning("Tails file download interrupted, retrying: %s", err)
+
+        download_hash = base58.b58encode(hasher.digest()).decode("utf-8")
+        if download_hash != tails_hash:
+            try:
+                partial_path.unlink()
+            except OSError as err:
+                LOGGER.warning("Could not delete invalid tails file: %s", err)
+            raise TailsDownloadError(
+                "The hash of the downloaded tails file does not match."
+            )
+
+        os.replace(partial_path, tails_path)
+        tails_path.with_name(tails_path.name + CACHED_SUFFIX).touch()
+        if self.max_size:
+            await loop.run_in_executor(None, self._evict, tails_path)
+        return path
+
+    async def _fetch(
+        self, session: ClientSession, url: str, partial_path: Path, hasher, offset: int
+    ):
+        """Stream the remainder of a tails file into the partial file."""
+        headers = {"Range": f"bytes={offset}-"} if offset else None
+        async with session.get(url, headers=headers) as resp:
+            if offset and resp.status == http.HTTPStatus.REQUESTED_RANGE_NOT_SATISFIABLE:
+                # the partial file is already complete
+                return hasher
+            if offset and resp.status == http.HTTPStatus.PARTIAL_CONTENT:
+                mode = "ab"
+            else:
+                if resp.status != http.HTTPStatus.OK:
+                    LOGGER.warning(
+                        "Unexpected status code for tails file: %s", resp.status
+                    )
+                # the range was not applied, so start over
+                hasher, mode = hashlib.sha256(), "wb"
+            with open(partial_path, mode) as partial_file:
+                async for chunk in resp.content.iter_chunked(CHUNK_SIZE):
+                    partial_file.write(chunk)
+                    hasher.update(chunk)
+        return hasher
+
+    def touch(self, path: str):
+        """Mark a tails file as recently used."""
+        try:
+            os.utime(path)
+        except OSError:
+            pass
+
+    def _evict(self, keep: Path):
+        """Remove the least recently used downloaded tails files over the limit."""
+        files = {}
+        cached = set()
+        with os.scandir(keep.parent) as it:
+            for entry in it:
+                if not entry.is_file() or entry.name.endswith(PARTIAL_SUFFIX):
+                    continue
+                if entry.name.endswith(CACHED_SUFFIX):
+                    cached.add(entry.path[: -len(CACHED_SUFFIX)])
+                else:
+                    files[entry.path] = entry.stat()
+        entries = []
+        total = 0
+        for entry_path, stat in files.items():
+            # only files this cache downloaded are counted or removed
+            if entry_path not in cached:
+                continue
+            total += stat.st_size
+            if entry_path != str(keep):
+                entries.append((stat.st_mtime, stat.st_size, entry_path))
+        entries.sort()
+        for _, size, entry_path in entries:
+            if total <= self.max_size:
+                break
+            try:
+                os.remove(entry_path)
+            except OSError as err:
+                LOGGER.warning("Could not evict tails file %s: %s", entry_path, err)
+                continue
+            try:
+                os.remove(entry_path + CACHED_SUFFIX)
+            except OSError:
+                pass
+            LOGGER.debug("Evicted tails file: %s", entry_path)
+            total -= size
+
+def _hash_file(path: Path):
+    """Hash the content of a partially downloaded file, if any."""
+    hasher = hashlib.sha256()
+    offset = 0
+    try:
+        with open(path, "rb") as partial_file:
+            while chunk := partial_file.read(CHUNK_SIZE):
+                hasher.update(chunk)
+                offset += len(chunk)
+    except FileNotFoundError:
+        pass
+    return hasher, offset
@@ -0,0 +1,129 @@
+import asyncio
+import hashlib
+import os
+import tempfile
+
+import base58
+from aiohttp import web
+from aiohttp.test_utils import AioHTTPTestCase
+
+from ..error import TailsDownloadError
+from ..file_cache import CACHED_SUFFIX, PARTIAL_SUFFIX, TailsFileCache
+
+TAILS = os.urandom(200_000)
+TAILS_HASH = base58.b58encode(hashlib.sha256(TAILS).digest()).decode("utf-8")
+
+
+class TestTailsFileCache(AioHTTPTestCase):
+    async def setUpAsync(self):
+        self.requests = []
+        self.honor_range = True
+        self.tmp_dir = tempfile.TemporaryDirectory()
+        self.path = os.path.join(self.tmp_dir.name, TAILS_HASH)
+        await super().setUpAsync()
+
+    async def tearDownAsync(self):
+        self.tmp_dir.cleanup()
+        await super().tearDownAsync()
+
+    async def get_application(self):
+        app = web.Application()
+        app.add_routes([web.get("/tails", self.tails_route)])
+        return app
+
+    async def tails_route(self, request: web.Request):
+        range_header = request.headers.get("Range")
+        self.requests.append(range_header)
+        await asyncio.sleep(0.01)
+        if range_header and self.honor_range:
+            start = int(range_header[len("bytes=") : -1])
+            return web.Response(status=206, body=TAILS[start:])
+        return web.Response(body=TAILS)
+
+    @property
+    def url(self) -> str:
+        return str(self.server.make_url("/tails"))
+
+    async def test_retrieve(self):
+        cache = TailsFileCache()
+        assert await cache.retrieve(self.url, TAILS_HASH, self.path) == self.path
+        with open(self.path, "rb") as tails_file:
+            assert tails_file.read() == TAILS
+        assert not os.path.exists(self.path + PARTIAL_SUFFIX)
+        assert os.path.exists(self.path + CACHED_SUFFIX)
+
+        # already present
+        assert await cache.get(self.url, TAILS_HASH, self.path) == self.path
+        assert len(self.requests) == 1
+
+    async def test_retrieve_hash_mismatch(self):
+        cache = TailsFileCache()
+        with self.assertRaises(TailsDownloadError):
+            await cache.retrieve(self.url, "not-the-hash", self.path)
+        assert not os.listdir(self.tmp_dir.name)
+
+    async def test_retrieve_coalesced(self):
+        cache = TailsFileCache()
+        results = await asyncio.gather(
+            *(cache.retrieve(self.url, TAILS_HASH, self.path) for _ in range(5))
+        )
+        assert results == [self.path] * 5
+        assert len(self.requests) == 1
+
+    async def test_retrieve_resume(self):
+        with open(self.path + PARTIAL_SUFFIX, "wb") as partial_file:
+            partial_file.write(TAILS[:1000])
+
+        cache = TailsFileCache()
+        await cache.retrieve(self.url, TAILS_HASH, self.path)
+        assert self.requests == ["bytes=1000-"]
+        with open(self.path, "rb") as tails_file:
+            assert tails_file.read() == TAILS
+
+    async def test_retrieve_resume_not_supported(self):
+        self.honor_range = False
+        with open(self.path + PARTIAL_SUFFIX, "wb") as partial_file:
+            partial_file.write(TAILS[:1000])
+
+        cache = TailsFileCache()
+        await cache.retrieve(self.url, TAILS_HASH, self.path)
+        with open(self.path, "rb") as tails_file:
+            assert tails_file.read() == TAILS
+
+    async def test_evict(self):
+        old_paths = []
+        for idx in range(3):
+            old_path = os.path.join(self.tmp_dir.name, f"old-{idx}")
+            with open(old_path, "wb") as old_file:
+                old_file.write(b"0" * 100_000)
+            open(old_path + CACHED_SUFFIX, "wb").close()
+            os.utime(old_path, (idx, idx))
+            old_paths.append(old_path)
+        cache = TailsFileCache(max_size=len(TAILS) + 200_000)
+        # the oldest file is used again
+        cache.touch(old_paths[0])
+
+        await cache.retrieve(self.url, TAILS_HASH, self.path)
+        assert sorted(os.listdir(self.tmp_dir.name)) == sorted(
+            [
+                TAILS_HASH,
+                TAILS_HASH + CACHED_SUFFIX,
+                "old-0",
+                "old-0" + CACHED_SUFFIX,
+                "old-2",
+                "old-2" + CACHED_SUFFIX,
+            ]
+        )
+
+    async def test_evict_keeps_local_tails(self):
+        # generated locally by an issuer, so never downloaded by the cache
+        local_path = os.path.join(self.tmp_dir.name, "local")
+        with open(local_path, "wb") as local_file:
+            local_file.write(b"0" * 100_000)
+        os.utime(local_path, (0, 0))
+        cache = TailsFileCache(max_size=1)
+
+        await cache.retrieve(self.url, TAILS_HASH, self.path)
+        assert sorted(os.listdir(self.tmp_dir.name)) == sorted(
+            [TAILS_HASH, TAILS_HASH + CACHED_SUFFIX, "local"]
+        )
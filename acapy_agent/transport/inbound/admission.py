@@ -0,0 +1,227 @@
+"""Admission control for inbound messages."""
+
+import logging
+import math
+import time
+from collections import OrderedDict
+from typing import Optional, Tuple
+
+from ...config.base import BaseSettings
+from ...core.profile import Profile
+from ...utils.metrics import MetricsRegistry
+from ...utils.task_queue import PendingTask
+from ..error import TransportError
+from .message import InboundMessage
+
+LOGGER = logging.getLogger(__name__)
+
+REASON_OVERLOADED = "overloaded"
+REASON_SENDER_RATE = "sender_rate"
+REASON_TENANT_RATE = "tenant_rate"
+
+# seconds a sender is asked to wait when the agent is overloaded
+OVERLOADED_RETRY_AFTER = 1.0
+
+
+class InboundAdmissionError(TransportError):
+    """An inbound message was refused, to keep the agent responsive."""
+
+    def __init__(self, *args, reason: str, retry_after: float, **kwargs):
+        """Initialize the InboundAdmissionError instance.
+
+        Args:
+            args: The error message
+            reason: Why the message was refused
+            retry_after: The number of seconds to wait before trying again
+            kwargs: Additional keyword arguments
+
+        """
+        super().__init__(*args, **kwargs)
+        self.reason = reason
+        self.retry_after = retry_after
+
+    @property
+    def overloaded(self) -> bool:
+        """Check whether the message was refused because the agent is too busy."""
+        return self.reason == REASON_OVERLOADED
+
+    @property
+    def retry_after_header(self) -> str:
+        """The value of a `Retry-After` HTTP header, in whole seconds."""
+        return str(max(1, math.ceil(self.retry_after)))
+
+
+class RateLimiter:
+    """Token bucket rate limits for a bounded number of keys.
+
+    The buckets of the least recently seen keys are discarded beyond
+    `max_keys`, so a key seen again after being discarded starts with a full
+    bucket.
+    """
+
+    def __init__(self, rate: float, burst: Optional[int] = None, max_keys: int = 10000):
+        """Initialize the RateLimiter instance.
+
+        Args:
+            rate: The number of tokens added to each bucket per second
+            burst: The capacity of each bucket, by default one second of tokens
+            max_keys: The maximum number of buckets to keep
+
+        """
+        self.rate = rate
+        self.burst = burst or max(1, math.ceil(rate))
+        self.max_keys = max_keys
+        # key -> (tokens, updated)
+        self._buckets: "OrderedDict[str, Tuple[float, float]]" = OrderedDict()
+
+    def acquire(self, key: str) -> float:
+        """Take a token from the bucket of a key.
+
+        Returns:
+            0 if a token was taken, otherwise the seconds until one is available
+
+        """
+        now = time.monotonic()
+        tokens, updated = self._buckets.pop(key, (self.burst, now))
+        tokens = min(self.burst, tokens + (now - updated) * self.rate)
+        wait = 0.0
+        if tokens >= 1:
+            tokens -= 1
+        else:
+            wait = (1 - tokens) / self.rate
+        self._buckets[key] = (tokens, now)
+        if len(self._buckets) > self.max_keys:
+            self._buckets.popitem(last=False)
+        return wait
+
+
+class AdmissionController:
+    """Decide whether inbound messages are dispatched or refused.
+
+    A message is refused when the number of messages in flight, from admission
+    until their handler completes, has reached `max_in_flight`, or when its
+    sender key or tenant wallet is over its rate limit. The sender is told when
+    to retry. Capacity is checked before a message is unpacked, and rate limits
+    before it is dispatched, as they depend on its sender and recipient.
+    """
+
+    def __init__(
+        self,
+        *,
+        max_in_flight: Optional[int] = None,
+        sender_rate: Optional[float] = None,
+        tenant_rate: Optional[float] = None,
+        rate_burst: Optional[int] = None,
+        metrics: Optional[MetricsRegistry] = None,
+    ):
+        """Initialize the AdmissionController instance.
+
+        Args:
+            max_in_flight: The maximum number of messages being dispatched
+            sender_rate: The messages per second accepted from each sender key
+            tenant_rate: The messages per second accepted for each tenant wallet
+            rate_burst: The number of messages accepted at once within the rates
+            metrics: The registry to report admissions and queue wait times to
+
+        """
+        self.max_in_flight = max_in_flight
+        self._senders = RateLimiter(sender_rate, rate_burst) if sender_rate else None
+        self._tenants = RateLimiter(tenant_rate, rate_burst) if tenant_rate else None
+        self._in_flight = 0
+
+        self._rejected = self._wait = None
+        if metrics:
+            self._rejected = metrics.counter(
+                "inbound_messages_rejected",
+                "Inbound messages refused by admission control",
+                ["reason"],
+            )
+            self._wait = metrics.histogram(
+                "inbound_queue_wait_seconds",
+                "Time from an inbound message being admitted to its handler starting",
+            )
+            metrics.gauge(
+                "inbound_messages_in_flight",
+                "Inbound messages admitted and not yet handled",
+            ).set_function(lambda: self._in_flight)
+
+    @classmethod
+    def from_settings(
+        cls, settings: BaseSettings, metrics: Optional[MetricsRegistry] = None
+    ) -> "AdmissionController":
+        """Create an admission controller from the agent settings."""
+        return cls(
+            max_in_flight=settings.get_int("transport.inbound.max_in_flight"),
+            sender_rate=settings.get("transport.inbound.sender_rate"),
+            tenant_rate=settings.get("transport.inbound.tenant_rate"),
+            rate_burst=settings.get_int("transport.inbound.rate_burst"),
+            metrics=metrics,
+        )
+
+    @property
+    def in_flight(self) -> int:
+        """The number of messages admitted and not yet handled."""
+        return self._in_flight
+
+    def _reject(self, reason: str, retry_after: float, detail: str):
+        if self._rejected:
+            self._rejected.labels(reason).inc()
+        LOGGER.debug("Refusing inbound message: %s", detail)
+        raise InboundAdmissionError(detail, reason=reason, retry_after=retry_after)
+
+    def check_capacity(self):
+        """Refuse a message if the agent is handling too many messages already.
+
+        Raises:
+            InboundAdmissionError: If `max_in_flight` messages are in flight
+
+        """
+        if self.max_in_flight and self._in_flight >= self.max_in_flight:
+            self._reject(
+                REASON_OVERLOADED,
+                OVERLOADED_RETRY_AFTER,
+                f"Too many messages in flight ({self._in_flight})",
+            )
+
+    def admit(self, profile: Profile, message: InboundMessage):
+        """Admit a message for dispatch, or refuse it.
+
+        Args:
+            profile: The profile the message is dispatched to
+            message: The unpacked inbound message
+
+        Raises:
+            InboundAdmissionError: If the message is refused
+
+        """
+        self.check_capacity()
+        sender_key = message.receipt.sender_verkey
+        if self._senders and sender_key:
+            wait = self._senders.acquire(sender_key)
+            if wait:
+                self._reject(REASON_SENDER_RATE, wait, f"Rate limited key {sender_key}")
+        wallet_id = profile.settings.get("wallet.id")
+        if self._tenants and wallet_id and profile.settings.get("multitenant.enabled"):
+            wait = self._tenants.acquire(wallet_id)
+            if wait:
+                self._reject(REASON_TENANT_RATE, wait, f"Rate limited wallet {wallet_id}")
+        message.admitted_time = time.perf_counter()
+        self._in_flight += 1
+
+    def queued(self, message: InboundMessage, pending: Optional[PendingTask]):
+        """Observe the queue wait time of an admitted message, once it starts."""
+        admitted = message.admitted_time
+        if not self._wait or admitted is None or not isinstance(pending, PendingTask):
+            return
+
+        def started(fut):
+            if not fut.cancelled():
+                self._wait.observe(time.perf_counter() - admitted)
+
+        pending.task_future.add_done_callback(started)
+
+    def release(self, message: InboundMessage):
+        """Release the admission of a message, once it has been handled."""
+        if message.admitted_time is not None:
+            message.admitted_time = None
+            self._in_flight -= 1
@@ -5,7 +5,11 @@ been delivered to their intended destination.
 
 """
 
+import heapq
+import itertools
 import time
+from collections import deque
+from typing import Deque, Dict, Iterator, List, Optional, Set, Tuple
 
 from ..outbound.message import OutboundMessage
 
@@ -16,13 +20,17 @@ class QueuedMessage:
     Allows tracking Metadata.
     """
 
-    def __init__(self, msg: OutboundMessage):
+    def __init__(self, msg: OutboundMessage, timestamp: Optional[float] = None):
         """Create Wrapper for queued message.
 
         Automatically sets timestamp on create.
         """
         self.msg = msg
-        self.timestamp = time.time()
+        self.timestamp = time.time() if timestamp is None else timestamp
+        # recipient keys for which this message is still queued
+        self.keys: Set[str] = set()
+        # storage record ids by recipient key, for persisted queues
+        self.record_ids: Dict[str, str] = {}
 
     def older_than(self, compare_timestamp: float) -> bool:
         """Age Comparison.
@@ -45,10 +53,46 @@ class DeliveryQueue:
     def __init__(self) -> None:
         """Initialize an instance of DeliveryQueue.
 
-        This uses an in memory structure to queue messages.
+        This uses an in memory structure to queue messages: a FIFO deque per
+        recipient key, plus a heap of all queued messages ordered by timestamp
+        so that expiry only examines messages which are actually due.
         """
-        self.queue_by_key = {}
+        self.queue_by_key: Dict[str, Deque[QueuedMessage]] = {}
         self.ttl_seconds = 604800  # one week
+        self._expiry: List[Tuple[float, int, QueuedMessage]] = []
+        self._seq = itertools.count()
+        self._live = 0
+
+    def _track(self, wrapped_msg: QueuedMessage):
+        """Add a message to the expiry index."""
+        heapq.heappush(
+            self._expiry, (wrapped_msg.timestamp, next(self._seq), wrapped_msg)
+        )
+        self._live += 1
+
+    def _append(self, key: str, wrapped_msg: QueuedMessage):
+        """Queue a wrapped message for a recipient key."""
+        if not wrapped_msg.keys:
+            self._track(wrapped_msg)
+        wrapped_msg.keys.add(key)
+        if key not in self.queue_by_key:
+            self.queue_by_key[key] = deque()
+        self.queue_by_key[key].append(wrapped_msg)
+
+    def _release(self, key: str, wrapped_msg: QueuedMessage):
+        """Update bookkeeping once a message is no longer queued for a key."""
+        wrapped_msg.keys.discard(key)
+        if not wrapped_msg.keys:
+            self._live -= 1
+        if key in self.queue_by_key and not self.queue_by_key[key]:
+            del self.queue_by_key[key]
+        self.removed(key, wrapped_msg)
+
+    def removed(self, key: str, wrapped_msg: QueuedMessage):
+        """Handle removal of a message from the queue for a key.
+
+        Extension point for queues which mirror their contents elsewhere.
+        """
 
     def expire_messages(self, ttl=None):
         """Expire messages that are past the time limit.
@@ -59,10 +103,29 @@ class DeliveryQueue:
         """
         ttl_seconds = ttl or self.ttl_seconds
         horizon = time.time() - ttl_seconds
-        for key in self.queue_by_key.keys():
-            self.queue_by_key[key] = [
-                wm for wm in self.queue_by_key[key] if not wm.older_than(horizon)
-            ]
+        while self._expiry and self._expiry[0][2].older_than(horizon):
+            _, _, wrapped_msg = heapq.heappop(self._expiry)
+            for key in list(wrapped_msg.keys):
+                # per-key queues are in timestamp order, so any message which
+                # has expired and is still queued is at the front
+                queue = self.queue_by_key.get(key)
+                if queue and queue[0] is wrapped_msg:
+                    queue.popleft()
+                self._release(key, wrapped_msg)
+        # compact the index if it is dominated by already-delivered messages
+        if len(self._expiry) > 64 and len(self._expiry) > 2 * self._live:
+            self._expiry = [entry for entry in self._expiry if entry[2].keys]
+            heapq.heapify(self._expiry)
+
+    @staticmethod
+    def message_keys(msg: OutboundMessage) -> Set[str]:
+        """Determine the recipient keys a message is queued under."""
+        keys = set()
+        if msg.target:
+            keys.update(msg.target.recipient_keys)
+        if msg.reply_to_verkey:
+            keys.add(msg.reply_to_verkey)
+        return keys
 
     def add_message(self, msg: OutboundMessage):
         """Add an OutboundMessage to delivery queue.
@@ -73,16 +136,10 @@ class DeliveryQueue:
             msg: The OutboundMessage to add
 
         """
-        keys = set()
-        if msg.target:
-            keys.update(msg.target.recipient_keys)
-        if msg.reply_to_verkey:
-            keys.add(msg.reply_to_verkey)
+        self.expire_messages()
         wrapped_msg = QueuedMessage(msg)
-        for recipient_key in keys:
-            if recipient_key not in self.queue_by_key:
-                self.queue_by_key[recipient_key] = []
-            self.queue_by_key[recipient_key].append(wrapped_msg)
+        for recipient_key in self.message_keys(msg):
+            self._append(recipient_key, wrapped_msg)
 
     def has_message_for_key(self, key: str):
         """Check for queued messages by key.
@@ -91,9 +148,7 @@ class DeliveryQueue:
             key: The key to use for lookup
 
         """
-        if key in self.queue_by_key and len(self.queue_by_key[key]):
-            return True
-        return False
+        return self.message_count_for_key(key) > 0
 
     def message_count_for_key(self, key: str):
         """Count of queued messages by key.
@@ -115,9 +170,11 @@ class DeliveryQueue:
 
         """
         if key in self.queue_by_key:
-            return self.queue_by_key[key].pop(0).msg
+            wrapped_msg = self.queue_by_key[key].popleft()
+            self._release(key, wrapped_msg)
+            return wrapped_msg.msg
 
-    def inspect_all_messages_for_key(self, key: str):
+    def inspect_all_messages_for_key(self, key: str) -> Iterator[OutboundMessage]:
         """Return all messages for key.
 
         Args:
@@ -125,7 +182,8 @@ class DeliveryQueue:
 
         """
         if key in self.queue_by_key:
-            for wrapped_msg in self.queue_by_key[key]:
+            # iterate a copy, allowing removal while inspecting
+            for wrapped_msg in list(self.queue_by_key[key]):
                 yield wrapped_msg.msg
 
     def remove_message_for_key(self, key: str, msg: OutboundMessage):
@@ -140,6 +198,5 @@ class DeliveryQueue:
             for wrapped_msg in self.queue_by_key[key]:
                 if wrapped_msg.msg == msg:
                     self.queue_by_key[key].remove(wrapped_msg)
-                    if not self.queue_by_key[key]:
-                        del self.queue_by_key[key]
+                    self._release(key, wrapped_msg)
                     break  # exit processing loop
@@ -9,6 +9,7 @@ from ...messaging.error import MessageParseError
 from ...utils.server import remove_unwanted_headers
 from ..error import WireFormatParseError
 from ..wire_format import DIDCOMM_V0_MIME_TYPE, DIDCOMM_V1_MIME_TYPE
+from .admission import InboundAdmissionError
 from .base import BaseInboundTransport, InboundTransportSetupError
 
 LOGGER = logging.getLogger(__name__)
@@ -129,6 +130,11 @@ class HttpTransport(BaseInboundTransport):
                 return web.Response(status=200)
             except (MessageParseError, WireFormatParseError) as e:
                 raise web.HTTPBadRequest(reason=str(e))
+            except InboundAdmissionError as e:
+                headers = {"Retry-After": e.retry_after_header}
+                if e.overloaded:
+                    raise web.HTTPServiceUnavailable(reason=str(e), headers=headers)
+                raise web.HTTPTooManyRequests(reason=str(e), headers=headers)
             except Exception as e:
                 # add logs
                 LOGGER.error(
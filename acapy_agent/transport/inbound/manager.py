@@ -7,16 +7,19 @@ from typing import Callable, Coroutine, Optional
 from uuid_utils import uuid4
 
 from ...core.profile import Profile
+from ...utils.metrics import MetricsRegistry
 from ...utils.classloader import ClassLoader, ClassNotFoundError, ModuleLoadError
 from ...utils.task_queue import CompletedTask, TaskQueue
 from ..outbound.message import OutboundMessage
 from ..wire_format import BaseWireFormat
+from .admission import AdmissionController
 from .base import (
     BaseInboundTransport,
     InboundTransportConfiguration,
     InboundTransportRegistrationError,
 )
 from .delivery_queue import DeliveryQueue
+from .persisted_delivery_queue import PersistedDeliveryQueue
 from .message import InboundMessage
 from .session import InboundSession
 
@@ -43,6 +46,7 @@ class InboundTransportManager:
         self.sessions = OrderedDict()
         self.task_queue = TaskQueue()
         self.undelivered_queue: Optional[DeliveryQueue] = None
+        self.admission: Optional[AdmissionController] = None
 
     async def setup(self):
         """Perform setup operations."""
@@ -51,6 +55,9 @@ class InboundTransportManager:
             self.max_message_size = self.profile.context.settings[
                 "transport.max_message_size"
             ]
+        self.admission = AdmissionController.from_settings(
+            self.profile.settings, self.profile.inject_or(MetricsRegistry)
+        )
 
         inbound_transports = (
             self.profile.context.settings.get("transport.inbound_configs") or []
@@ -63,7 +70,11 @@ class InboundTransportManager:
 
         # Setup queue for undelivered messages
         if self.profile.context.settings.get("transport.enable_undelivered_queue"):
-            self.undelivered_queue = DeliveryQueue()
+            if self.profile.context.settings.get("transport.persist_undelivered_queue"):
+                self.undelivered_queue = PersistedDeliveryQueue(self.profile)
+                await self.undelivered_queue.load()
+            else:
+                self.undelivered_queue = DeliveryQueue()
 
     def register(self, config: InboundTransportConfiguration) -> str:
         """Register transport module.
@@ -135,6 +146,8 @@ class InboundTransportManager:
         await self.task_queue.complete(None if wait else 0)
         for transport in self.running_transports.values():
             await transport.stop()
+        if isinstance(self.undelivered_queue, PersistedDeliveryQueue):
+            await self.undelivered_queue.flush()
 
     async def create_session(
         self,
@@ -167,12 +180,15 @@ class InboundTransportManager:
             session_id=str(uuid4()),
             transport_type=transport_type,
             wire_format=wire_format,
+            admission=self.admission,
         )
         self.sessions[session.session_id] = session
         return session
 
     def dispatch_complete(self, message: InboundMessage, completed: CompletedTask):
         """Handle completion of message dispatch."""
+        if self.admission:
+            self.admission.release(message)
         session: InboundSession = self.sessions.get(message.session_id)
         if session and session.accept_undelivered and not session.response_buffered:
             self.process_undelivered(session)
@@ -25,6 +25,8 @@ class InboundMessage:
         self.session_id = session_id
         self.transport_type = transport_type
         self.processing_complete_event = asyncio.Event()
+        # when the message was admitted for dispatch, until it is handled
+        self.admitted_time: Optional[float] = None
 
     def dispatch_processing_complete(self):
         """Dispatch processing complete."""
@@ -0,0 +1,364 @@
+"""Delivery queue persisted to wallet storage.
+
+Undelivered messages are written through to storage so that they survive a
+restart. Only a bounded window of the oldest messages for each recipient key
+is held in memory; the remainder is loaded from storage as the window drains.
+"""
+
+import asyncio
+import json
+import logging
+import time
+from collections import deque
+from typing import Deque, Dict, Optional, Set, Tuple
+
+from ...connections.models.connection_target import ConnectionTarget
+from ...core.profile import Profile
+from ...storage.base import BaseStorage
+from ...storage.error import StorageError, StorageNotFoundError
+from ...storage.record import StorageRecord
+from ...wallet.util import b64_to_bytes, bytes_to_b64
+from ..outbound.message import OutboundMessage
+from .delivery_queue import DeliveryQueue, QueuedMessage
+
+LOGGER = logging.getLogger(__name__)
+
+RECORD_TYPE_UNDELIVERED = "undelivered_message"
+RECORD_TYPE_UNDELIVERED_KEY = "undelivered_message_key"
+# plaintext, so that stored messages can be selected by range
+SEQ_TAG = "~seq"
+
+
+def seq_tag(seq: int) -> str:
+    """Format a message sequence number as a sortable tag value."""
+    return f"{seq:020d}"
+
+
+def _encode_payload(payload):
+    if isinstance(payload, bytes):
+        return {"b64": bytes_to_b64(payload)}
+    return payload
+
+
+def _decode_payload(payload):
+    if isinstance(payload, dict) and "b64" in payload:
+        return b64_to_bytes(payload["b64"])
+    return payload
+
+
+def serialize_outbound(msg: OutboundMessage, timestamp: float) -> str:
+    """Serialize an outbound message for storage."""
+    return json.dumps(
+        {
+            "timestamp": timestamp,
+            "connection_id": msg.connection_id,
+            "enc_payload": _encode_payload(msg.enc_payload),
+            "endpoint": msg._endpoint,
+            "payload": _encode_payload(msg.payload),
+            "reply_thread_id": msg.reply_thread_id,
+            "reply_to_verkey": msg.reply_to_verkey,
+            "reply_from_verkey": msg.reply_from_verkey,
+            "target": msg.target.serialize() if msg.target else None,
+            "target_list": [target.serialize() for target in msg.target_list],
+        }
+    )
+
+
+def deserialize_outbound(value: str) -> Tuple[OutboundMessage, float]:
+    """Restore an outbound message and its queued timestamp from storage."""
+    data = json.loads(value)
+    msg = OutboundMessage(
+        connection_id=data.get("connection_id"),
+        enc_payload=_decode_payload(data.get("enc_payload")),
+        endpoint=data.get("endpoint"),
+        payload=_decode_payload(data.get("payload")),
+        reply_thread_id=data.get("reply_thread_id"),
+        reply_to_verkey=data.get("reply_to_verkey"),
+        reply_from_verkey=data.get("reply_from_verkey"),
+        target=(
+            ConnectionTarget.deserialize(data["target"]) if data.get("target") else None
+        ),
+        target_list=[
+            ConnectionTarget.deserialize(target)
+            for target in data.get("target_list") or []
+        ],
+    )
+    return msg, data["timestamp"]
+
+
+class PersistedDeliveryQueue(DeliveryQueue):
+    """Delivery queue backed by wallet storage.
+
+    One storage record is kept per queued message and recipient key, tagged
+    with a sequence number which increases in queue order. Messages for a key
+    beyond the in-memory window are loaded with a limited query for the
+    sequence numbers past the newest one already loaded. A small index record
+    per key holds its message count, so that startup only reads the index.
+
+    Storage writes are applied in order by a background writer so that the
+    queue can be used from synchronous transport callbacks.
+    """
+
+    def __init__(self, profile: Profile, max_loaded_per_key: int = 100) -> None:
+        """Initialize an instance of PersistedDeliveryQueue.
+
+        Args:
+            profile: the profile whose storage holds the queue
+            max_loaded_per_key: number of messages per key to hold in memory
+
+        """
+        super().__init__()
+        self.profile = profile
+        self.max_loaded_per_key = max_loaded_per_key
+        # number of messages per key held only in storage
+        self.overflow_by_key: Dict[str, int] = {}
+        # running total of messages sent straight to storage, per key
+        self._overflow_added: Dict[str, int] = {}
+        # sequence number of the newest message per key loaded into memory
+        self._loaded_seq: Dict[str, str] = {}
+        self._last_seq = 0
+        # keys with an index record, and keys whose index record is stale
+        self._indexed: Set[str] = set()
+        self._dirty_keys: Set[str] = set()
+        self._ops: Deque[Tuple[str, StorageRecord]] = deque()
+        self._writer: Optional[asyncio.Task] = None
+        self._refills: Dict[str, asyncio.Task] = {}
+
+    def _next_seq(self, timestamp: float) -> str:
+        """Allocate a sequence number, in microseconds, for a queued message."""
+        self._last_seq = max(int(timestamp * 1_000_000), self._last_seq + 1)
+        return seq_tag(self._last_seq)
+
+    def _schedule(self, op: str, record: StorageRecord):
+        """Queue a storage operation for the background writer."""
+        self._ops.append((op, record))
+        self._start_writer()
+
+    def _touch(self, key: str):
+        """Queue an update of the index record for a key."""
+        self._dirty_keys.add(key)
+        self._start_writer()
+
+    def _start_writer(self):
+        """Start the background writer if it is not running."""
+        if not self._writer or self._writer.done():
+            self._writer = asyncio.get_event_loop().create_task(self._write())
+
+    async def _write(self):
+        """Apply queued storage operations in order, then update the key index."""
+        while self._ops or self._dirty_keys:
+            async with self.profile.session() as session:
+                storage = session.inject(BaseStorage)
+                while self._ops:
+                    op, record = self._ops.popleft()
+                    try:
+                        if op == "add":
+                            await storage.add_record(record)
+                        else:
+                            await storage.delete_record(record)
+                    except StorageNotFoundError:
+                        pass
+                    except StorageError:
+                        LOGGER.exception("Error persisting undelivered message queue")
+                while self._dirty_keys and not self._ops:
+                    await self._write_index(storage, self._dirty_keys.pop())
+
+    async def _write_index(self, storage: BaseStorage, key: str):
+        """Store the current message count for a key, or drop an empty key."""
+        count = self.message_count_for_key(key)
+        value = json.dumps({"count": count, "seq": self._last_seq})
+        record = StorageRecord(RECORD_TYPE_UNDELIVERED_KEY, value, id=key)
+        try:
+            if not count:
+                if key in self._indexed:
+                    self._indexed.discard(key)
+                    await storage.delete_record(record)
+            elif key in self._indexed:
+                await storage.update_record(record, record.value, {})
+            else:
+                self._indexed.add(key)
+                await storage.add_record(record)
+        except StorageNotFoundError:
+            pass
+        except StorageError:
+            LOGGER.exception("Error persisting undelivered message index")
+
+    async def flush(self):
+        """Wait for pending storage operations and refills to complete."""
+        while (self._writer and not self._writer.done()) or self._refills:
+            await asyncio.gather(
+                *([self._writer] if self._writer else []),
+                *self._refills.values(),
+                return_exceptions=True,
+            )
+
+    def add_message(self, msg: OutboundMessage):
+        """Add an OutboundMessage to delivery queue.
+
+        The message is added once per recipient key, and persisted.
+
+        Args:
+            msg: The OutboundMessage to add
+
+        """
+        self.expire_messages()
+        wrapped_msg = QueuedMessage(msg)
+        value = serialize_outbound(msg, wrapped_msg.timestamp)
+        seq = self._next_seq(wrapped_msg.timestamp)
+        for recipient_key in self.message_keys(msg):
+            record = StorageRecord(
+                RECORD_TYPE_UNDELIVERED,
+                value,
+                {"recipient_key": recipient_key, SEQ_TAG: seq},
+            )
+            self._schedule("add", record)
+            if (
+                self.overflow_by_key.get(recipient_key)
+                or self.message_count_for_key(recipient_key) >= self.max_loaded_per_key
+            ):
+                # keep FIFO order: newer messages wait behind those in storage
+                self.overflow_by_key[recipient_key] = (
+                    self.overflow_by_key.get(recipient_key, 0) + 1
+                )
+                self._overflow_added[recipient_key] = (
+                    self._overflow_added.get(recipient_key, 0) + 1
+                )
+            else:
+                wrapped_msg.record_ids[recipient_key] = record.id
+                self._append(recipient_key, wrapped_msg)
+                self._loaded_seq[recipient_key] = seq
+            self._touch(recipient_key)
+
+    def message_count_for_key(self, key: str):
+        """Count of queued messages by key, including those only in storage.
+
+        Args:
+            key: The key to use for lookup
+
+        """
+        return super().message_count_for_key(key) + self.overflow_by_key.get(key, 0)
+
+    def get_one_message_for_key(self, key: str):
+        """Remove and return a matching message.
+
+        Args:
+            key: The key to use for lookup
+
+        """
+        if key not in self.queue_by_key:
+            # messages for this key may only be held in storage
+            self._refill(key)
+        return super().get_one_message_for_key(key)
+
+    def inspect_all_messages_for_key(self, key: str):
+        """Return all messages for key which are currently held in memory.
+
+        Args:
+            key: The key to use for lookup
+
+        """
+        self._refill(key)
+        return super().inspect_all_messages_for_key(key)
+
+    def removed(self, key: str, wrapped_msg: QueuedMessage):
+        """Delete the stored copy of a message and top up the in-memory window."""
+        record_id = wrapped_msg.record_ids.pop(key, None)
+        if record_id:
+            self._schedule(
+                "delete",
+                StorageRecord(RECORD_TYPE_UNDELIVERED, "", id=record_id),
+            )
+        self._touch(key)
+        if key not in self.queue_by_key and not self.overflow_by_key.get(key):
+            self._loaded_seq.pop(key, None)
+        self._refill(key)
+
+    def _refill(self, key: str):
+        """Start loading stored messages for a key if the window has drained."""
+        if (
+            self.overflow_by_key.get(key)
+            and key not in self._refills
+            and super().message_count_for_key(key) <= self.max_loaded_per_key // 2
+        ):
+            task = asyncio.get_event_loop().create_task(self._load_key(key))
+            self._refills[key] = task
+            task.add_done_callback(lambda _: self._refills.pop(key, None))
+
+    async def _load_key(self, key: str):
+        """Load the oldest stored messages for a key which are not yet in memory."""
+        # make sure messages added before the refill was requested are stored
+        if self._writer and not self._writer.done():
+            await self._writer
+        added_before = self._overflow_added.get(key, 0)
+        seq_before = seq_tag(self._last_seq)
+        horizon = time.time() - self.ttl_seconds
+        consumed = consumed_added = 0
+        exhausted = False
+        async with self.profile.session() as session:
+            storage = session.inject(BaseStorage)
+            while not exhausted:
+                wanted = self.max_loaded_per_key - super().message_count_for_key(key)
+                if wanted <= 0:
+                    break
+                rows = await storage.find_paginated_records(
+                    type_filter=RECORD_TYPE_UNDELIVERED,
+                    tag_query={
+                        "recipient_key": key,
+                        SEQ_TAG: {"$gt": self._loaded_seq.get(key, "")},
+                    },
+                    limit=wanted,
+                    order_by="id",
+                )
+                exhausted = len(rows) < wanted
+                for record in rows:
+                    seq = record.tags[SEQ_TAG]
+                    self._loaded_seq[key] = seq
+                    consumed += 1
+                    if seq > seq_before:
+                        consumed_added += 1
+                    msg, timestamp = deserialize_outbound(record.value)
+                    if timestamp < horizon:
+                        self._schedule("delete", record)
+                        continue
+                    wrapped_msg = QueuedMessage(msg, timestamp=timestamp)
+                    wrapped_msg.record_ids[key] = record.id
+                    self._append(key, wrapped_msg)
+        if exhausted:
+            # everything stored before the query started has been read, which
+            # corrects any over-count in the index
+            added_during = self._overflow_added.get(key, 0) - added_before
+            overflow = added_during - consumed_added
+        else:
+            overflow = self.overflow_by_key.get(key, 0) - consumed
+        if overflow > 0:
+            self.overflow_by_key[key] = overflow
+        else:
+            self.overflow_by_key.pop(key, None)
+            self._overflow_added.pop(key, None)
+        self._touch(key)
+
+    async def load(self):
+        """Restore queued messages from storage on startup.
+
+        Messages past the time limit are deleted rather than restored. The
+        per-key index is read to find the queued keys and their message
+        counts, and only the in-memory window is loaded for each key.
+        """
+        horizon = time.time() - self.ttl_seconds
+        async with self.profile.session() as session:
+            storage = session.inject(BaseStorage)
+            await storage.delete_all_records(
+                RECORD_TYPE_UNDELIVERED,
+                {SEQ_TAG: {"$lt": seq_tag(int(horizon * 1_000_000))}},
+            )
+            index = await storage.find_all_records(RECORD_TYPE_UNDELIVERED_KEY)
+        for record in index:
+            self._indexed.add(record.id)
+            value = json.loads(record.value)
+            # keep sequence numbers increasing even if the clock has gone back
+            self._last_seq = max(self._last_seq, value.get("seq", 0))
+            if value.get("count"):
+                self.overflow_by_key[record.id] = value["count"]
+        for record in index:
+            await self._load_key(record.id)
+        LOGGER.info("Restored undelivered messages for %d recipient keys", len(index))
@@ -11,6 +11,7 @@ from ...multitenant.base import BaseMultitenantManager
 from ..error import WireFormatError
 from ..outbound.message import OutboundMessage
 from ..wire_format import BaseWireFormat
+from .admission import AdmissionController
 from .message import InboundMessage
 from .receipt import MessageReceipt
 
@@ -48,9 +49,11 @@ class InboundSession:
         reply_thread_ids: Sequence[str] = None,
         reply_verkeys: Sequence[str] = None,
         transport_type: Optional[str] = None,
+        admission: Optional[AdmissionController] = None,
     ):
         """Initialize the inbound session."""
         self.profile = profile
+        self.admission = admission
         self.inbound_handler = inbound_handler
         self.session_id = session_id
         self.wire_format = wire_format
@@ -201,8 +204,8 @@ class InboundSession:
 
     async def parse_inbound(self, payload_enc: Union[str, bytes]) -> InboundMessage:
         """Convert a message payload and to an inbound message."""
-        session = await self.profile.session()
-        payload, receipt = await self.wire_format.parse_message(session, payload_enc)
+        async with self.profile.session() as session:
+            payload, receipt = await self.wire_format.parse_message(session, payload_enc)
         return InboundMessage(
             payload,
             receipt,
@@ -211,19 +214,39 @@ class InboundSession:
         )
 
     async def receive(self, payload_enc: Union[str, bytes]) -> InboundMessage:
-        """Receive a new message payload and dispatch the message."""
+        """Receive a new message payload and dispatch the message.
+
+        Raises:
+            InboundAdmissionError: If the message is refused by admission control
+
+        """
+        if self.admission:
+            self.admission.check_capacity()
+
         if self._check_relay_context:
             await self.handle_relay_context(payload_enc)
             self._check_relay_context = False
 
         message = await self.parse_inbound(payload_enc)
-        self.receive_inbound(message)
+        if self.admission:
+            self.admission.admit(self.profile, message)
+            try:
+                self.receive_inbound(message)
+            except Exception:
+                self.admission.release(message)
+                raise
+        else:
+            self.receive_inbound(message)
         return message
 
     def receive_inbound(self, message: InboundMessage):
         """Deliver the inbound message to the conductor."""
         self.process_inbound(message)
-        self.inbound_handler(self.profile, message, can_respond=self.can_respond)
+        pending = self.inbound_handler(
+            self.profile, message, can_respond=self.can_respond
+        )
+        if self.admission:
+            self.admission.queued(message, pending)
 
     def select_outbound(self, message: OutboundMessage) -> bool:
         """Determine if an outbound message should be sent to this session.
@@ -258,14 +281,14 @@ class InboundSession:
         if not outbound.reply_to_verkey:
             raise WireFormatError("No reply verkey available for encoding message")
 
-        session = await self.profile.session()
-        return await self.wire_format.encode_message(
-            session,
-            outbound.payload,
-            [outbound.reply_to_verkey],
-            None,
-            outbound.reply_from_verkey,
-        )
+        async with self.profile.session() as session:
+            return await self.wire_format.encode_message(
+                session,
+                outbound.payload,
+                [outbound.reply_to_verkey],
+                None,
+                outbound.reply_from_verkey,
+            )
 
     def accept_response(self, message: OutboundMessage) -> AcceptResult:
         """Try to queue an outbound message if it applies to this session.
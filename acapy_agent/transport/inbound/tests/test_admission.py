@@ -0,0 +1,101 @@
+import asyncio
+from unittest import IsolatedAsyncioTestCase
+
+import pytest
+
+from ....utils.metrics import MetricsRegistry
+from ....utils.task_queue import PendingTask
+from ....utils.testing import create_test_profile
+from .. import admission as test_module
+from ..admission import AdmissionController, InboundAdmissionError, RateLimiter
+from ..message import InboundMessage
+from ..receipt import MessageReceipt
+
+
+def make_inbound(sender_verkey=None) -> InboundMessage:
+    return InboundMessage({}, MessageReceipt(sender_verkey=sender_verkey))
+
+
+class TestRateLimiter:
+    def test_burst_and_refill(self, monkeypatch):
+        now = [100.0]
+        monkeypatch.setattr(test_module.time, "monotonic", lambda: now[0])
+        limiter = RateLimiter(2, burst=2)
+
+        assert limiter.acquire("a") == 0
+        assert limiter.acquire("a") == 0
+        assert limiter.acquire("a") == pytest.approx(0.5)
+        assert limiter.acquire("b") == 0
+
+        now[0] += 0.5
+        assert limiter.acquire("a") == 0
+        assert limiter.acquire("a") == pytest.approx(0.5)
+
+    def test_max_keys(self):
+        limiter = RateLimiter(1, max_keys=2)
+        for key in ("a", "b", "c"):
+            assert limiter.acquire(key) == 0
+        # the bucket of "a" was discarded, so it starts full
+        assert limiter.acquire("a") == 0
+        assert limiter.acquire("c") > 0
+
+
+class TestAdmissionController(IsolatedAsyncioTestCase):
+    async def asyncSetUp(self):
+        self.profile = await create_test_profile()
+
+    async def test_max_in_flight(self):
+        metrics = MetricsRegistry()
+        admission = AdmissionController(max_in_flight=1, metrics=metrics)
+        first = make_inbound()
+        admission.admit(self.profile, first)
+        assert admission.in_flight == 1
+
+        with self.assertRaises(InboundAdmissionError) as context:
+            admission.check_capacity()
+        assert context.exception.overloaded
+        assert context.exception.retry_after_header == "1"
+
+        admission.release(first)
+        admission.release(first)
+        assert admission.in_flight == 0
+        admission.admit(self.profile, make_inbound())
+        assert "inbound_messages_rejected_total" in metrics.render()
+
+    async def test_sender_rate(self):
+        admission = AdmissionController(sender_rate=1)
+        admission.admit(self.profile, make_inbound("sender"))
+        admission.admit(self.profile, make_inbound())
+        admission.admit(self.profile, make_inbound("other"))
+        with self.assertRaises(InboundAdmissionError) as context:
+            admission.admit(self.profile, make_inbound("sender"))
+        assert not context.exception.overloaded
+        assert context.exception.reason == test_module.REASON_SENDER_RATE
+        assert admission.in_flight == 3
+
+    async def test_tenant_rate(self):
+        admission = AdmissionController(tenant_rate=1)
+        tenant = await create_test_profile(
+            {"wallet.id": "tenant", "multitenant.enabled": True}
+        )
+        admission.admit(tenant, make_inbound())
+        admission.admit(self.profile, make_inbound())
+        admission.admit(self.profile, make_inbound())
+        with self.assertRaises(InboundAdmissionError) as context:
+            admission.admit(tenant, make_inbound())
+        assert context.exception.reason == test_module.REASON_TENANT_RATE
+
+    async def test_queued(self):
+        metrics = MetricsRegistry()
+        admission = AdmissionController(metrics=metrics)
+        message = make_inbound()
+        admission.admit(self.profile, message)
+
+        async def noop():
+            pass
+
+        pending = PendingTask(noop())
+        admission.queued(message, pending)
+        pending.task = asyncio.get_event_loop().create_task(pending.coro)
+        await pending.task
+        assert "inbound_queue_wait_seconds_count 1" in metrics.render()
@@ -59,3 +59,50 @@ class TestDeliveryQueue(IsolatedAsyncioTestCase):
     async def test_count_zero_with_no_items(self):
         queue = DeliveryQueue()
         assert queue.message_count_for_key("aaa") == 0
+
+    async def test_message_multiple_keys(self):
+        queue = DeliveryQueue()
+
+        t = ConnectionTarget(recipient_keys=["aaa", "bbb"])
+        msg = OutboundMessage(payload="x", target=t)
+        queue.add_message(msg)
+        assert queue.get_one_message_for_key("aaa") == msg
+        assert queue.has_message_for_key("aaa") is False
+        assert queue.get_one_message_for_key("bbb") == msg
+        assert queue.get_one_message_for_key("bbb") is None
+
+    async def test_message_fifo(self):
+        queue = DeliveryQueue()
+
+        t = ConnectionTarget(recipient_keys=["aaa"])
+        msgs = [OutboundMessage(payload=str(i), target=t) for i in range(3)]
+        for msg in msgs:
+            queue.add_message(msg)
+        assert queue.message_count_for_key("aaa") == 3
+        assert [queue.get_one_message_for_key("aaa") for _ in msgs] == msgs
+
+    async def test_message_ttl_partial(self):
+        queue = DeliveryQueue()
+
+        t = ConnectionTarget(recipient_keys=["aaa", "bbb"])
+        old_msg = OutboundMessage(payload="old", target=t)
+        queue.add_message(old_msg)
+        queue.queue_by_key["aaa"][0].timestamp -= 100
+        new_msg = OutboundMessage(payload="new", target=t)
+        queue.add_message(new_msg)
+        queue.remove_message_for_key("bbb", old_msg)
+
+        queue.expire_messages(ttl=50)
+        assert list(queue.inspect_all_messages_for_key("aaa")) == [new_msg]
+        assert list(queue.inspect_all_messages_for_key("bbb")) == [new_msg]
+
+    async def test_inspect_and_remove(self):
+        queue = DeliveryQueue()
+
+        t = ConnectionTarget(recipient_keys=["aaa"])
+        msgs = [OutboundMessage(payload=str(i), target=t) for i in range(3)]
+        for msg in msgs:
+            queue.add_message(msg)
+        for msg in queue.inspect_all_messages_for_key("aaa"):
+            queue.remove_message_for_key("aaa", msg)
+        assert queue.has_message_for_key("aaa") is False
@@ -10,6 +10,7 @@ from ....utils.testing import create_test_profile
 from ...outbound.message import OutboundMessage
 from ...wire_format import JsonWireFormat
 from .. import http as test_module
+from ..admission import REASON_OVERLOADED, REASON_SENDER_RATE
 from ..http import HttpTransport
 from ..message import InboundMessage
 from ..session import InboundSession
@@ -149,6 +150,39 @@ class TestHttpTransport(AioHTTPTestCase):
 
         await self.transport.stop()
 
+    async def test_send_message_refused(self):
+        await self.transport.start()
+
+        test_message = {"test": "message"}
+        with mock.patch.object(
+            test_module.HttpTransport, "create_session", mock.CoroutineMock()
+        ) as mock_session:
+            for error, status, retry_after in (
+                (
+                    test_module.InboundAdmissionError(
+                        reason=REASON_OVERLOADED, retry_after=1
+                    ),
+                    503,
+                    "1",
+                ),
+                (
+                    test_module.InboundAdmissionError(
+                        reason=REASON_SENDER_RATE, retry_after=2.5
+                    ),
+                    429,
+                    "3",
+                ),
+            ):
+                mock_session.return_value = mock.MagicMock(
+                    receive=mock.CoroutineMock(side_effect=error),
+                    profile=self.profile,
+                )
+                async with self.client.post("/", data=test_message) as resp:
+                    assert resp.status == status
+                    assert resp.headers["Retry-After"] == retry_after
+
+        await self.transport.stop()
+
     async def test_invite_message_handler(self):
         await self.transport.start()
 
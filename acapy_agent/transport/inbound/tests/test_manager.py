@@ -6,6 +6,8 @@ from ...outbound.message import OutboundMessage
 from ...wire_format import BaseWireFormat
 from ..base import InboundTransportConfiguration, InboundTransportRegistrationError
 from ..manager import InboundTransportManager
+from ..receipt import MessageReceipt
+from ..persisted_delivery_queue import PersistedDeliveryQueue
 
 
 class TestInboundTransportManager(IsolatedAsyncioTestCase):
@@ -55,6 +57,18 @@ class TestInboundTransportManager(IsolatedAsyncioTestCase):
 
         assert mgr.undelivered_queue
 
+    async def test_setup_persisted_queue(self):
+        self.profile.context.update_settings(
+            {
+                "transport.enable_undelivered_queue": True,
+                "transport.persist_undelivered_queue": True,
+            }
+        )
+        mgr = InboundTransportManager(self.profile, None)
+        await mgr.setup()
+        assert isinstance(mgr.undelivered_queue, PersistedDeliveryQueue)
+        await mgr.stop()
+
     async def test_start_stop(self):
         transport = mock.MagicMock()
         transport.start = mock.CoroutineMock()
@@ -154,6 +168,23 @@ class TestInboundTransportManager(IsolatedAsyncioTestCase):
         inbound_msg = await session.parse_inbound("payload")
         mgr.dispatch_complete(inbound_msg, None)
 
+    async def test_dispatch_complete_admission(self):
+        self.profile.context.update_settings({"transport.inbound.max_in_flight": 10})
+        mgr = InboundTransportManager(self.profile, mock.MagicMock())
+        await mgr.setup()
+        assert mgr.admission.max_in_flight == 10
+
+        test_wire_format = mock.MagicMock(
+            parse_message=mock.CoroutineMock(
+                return_value=("payload", MessageReceipt())
+            )
+        )
+        session = await mgr.create_session("http", wire_format=test_wire_format)
+        inbound_msg = await session.receive("payload")
+        assert mgr.admission.in_flight == 1
+        mgr.dispatch_complete(inbound_msg, None)
+        assert mgr.admission.in_flight == 0
+
     async def test_close_x(self):
         mgr = InboundTransportManager(self.profile, None)
         mock_session = mock.MagicMock(response_buffer=mock.MagicMock())
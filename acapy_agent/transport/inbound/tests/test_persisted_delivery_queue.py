@@ -0,0 +1,129 @@
+from unittest import IsolatedAsyncioTestCase
+
+from ....connections.models.connection_target import ConnectionTarget
+from ....storage.base import BaseStorage
+from ....tests import mock
+from ....transport.outbound.message import OutboundMessage
+from ....utils.testing import create_test_profile
+from ..persisted_delivery_queue import (
+    RECORD_TYPE_UNDELIVERED,
+    RECORD_TYPE_UNDELIVERED_KEY,
+    SEQ_TAG,
+    PersistedDeliveryQueue,
+    deserialize_outbound,
+    serialize_outbound,
+)
+
+
+class TestPersistedDeliveryQueue(IsolatedAsyncioTestCase):
+    async def asyncSetUp(self):
+        self.profile = await create_test_profile()
+
+    async def stored_count(self):
+        async with self.profile.session() as session:
+            storage = session.inject(BaseStorage)
+            return len(await storage.find_all_records(RECORD_TYPE_UNDELIVERED))
+
+    async def test_serialize(self):
+        msg = OutboundMessage(
+            payload="x",
+            enc_payload=b"\x00\x01",
+            reply_to_verkey="bbb",
+            target=ConnectionTarget(recipient_keys=["aaa"], endpoint="http://x"),
+        )
+        restored, timestamp = deserialize_outbound(serialize_outbound(msg, 123.0))
+        assert timestamp == 123.0
+        assert restored.payload == "x"
+        assert restored.enc_payload == b"\x00\x01"
+        assert restored.reply_to_verkey == "bbb"
+        assert restored.target.recipient_keys == ["aaa"]
+        assert restored.target.endpoint == "http://x"
+
+    async def test_add_remove_persisted(self):
+        queue = PersistedDeliveryQueue(self.profile)
+        t = ConnectionTarget(recipient_keys=["aaa", "bbb"])
+        msg = OutboundMessage(payload="x", target=t)
+        queue.add_message(msg)
+        await queue.flush()
+        assert await self.stored_count() == 2
+
+        assert queue.get_one_message_for_key("aaa") == msg
+        await queue.flush()
+        assert await self.stored_count() == 1
+
+        restored = PersistedDeliveryQueue(self.profile)
+        await restored.load()
+        assert not restored.has_message_for_key("aaa")
+        assert restored.message_count_for_key("bbb") == 1
+        assert restored.get_one_message_for_key("bbb").payload == "x"
+        await restored.flush()
+        assert await self.stored_count() == 0
+
+    async def test_bounded_window(self):
+        queue = PersistedDeliveryQueue(self.profile, max_loaded_per_key=2)
+        t = ConnectionTarget(recipient_keys=["aaa"])
+        for i in range(5):
+            queue.add_message(OutboundMessage(payload=str(i), target=t))
+        await queue.flush()
+        assert len(queue.queue_by_key["aaa"]) == 2
+        assert queue.message_count_for_key("aaa") == 5
+
+        received = []
+        while queue.has_message_for_key("aaa"):
+            msg = queue.get_one_message_for_key("aaa")
+            if msg:
+                received.append(msg.payload)
+            await queue.flush()
+        assert received == ["0", "1", "2", "3", "4"]
+        assert await self.stored_count() == 0
+
+    async def test_restore_window(self):
+        queue = PersistedDeliveryQueue(self.profile, max_loaded_per_key=2)
+        t = ConnectionTarget(recipient_keys=["aaa"])
+        for i in range(5):
+            queue.add_message(OutboundMessage(payload=str(i), target=t))
+        await queue.flush()
+
+        restored = PersistedDeliveryQueue(self.profile, max_loaded_per_key=2)
+        async with self.profile.session() as session:
+            storage_cls = type(session.inject(BaseStorage))
+        with mock.patch.object(
+            storage_cls,
+            "find_paginated_records",
+            autospec=True,
+            side_effect=storage_cls.find_paginated_records,
+        ) as find_paginated:
+            await restored.load()
+            # the count comes from the key index, not from reading every message
+            assert len(restored.queue_by_key["aaa"]) == 2
+            assert restored.message_count_for_key("aaa") == 5
+
+            received = []
+            while restored.has_message_for_key("aaa"):
+                msg = restored.get_one_message_for_key("aaa")
+                if msg:
+                    received.append(msg.payload)
+                await restored.flush()
+        assert received == ["0", "1", "2", "3", "4"]
+        # each refill only reads a window past the messages already loaded
+        assert find_paginated.call_count >= 3
+        for call in find_paginated.call_args_list:
+            assert call.kwargs["limit"] <= 2
+            assert "$gt" in call.kwargs["tag_query"][SEQ_TAG]
+        assert await self.stored_count() == 0
+        async with self.profile.session() as session:
+            storage = session.inject(BaseStorage)
+            assert not await storage.find_all_records(RECORD_TYPE_UNDELIVERED_KEY)
+
+    async def test_load_expired(self):
+        queue = PersistedDeliveryQueue(self.profile)
+        t = ConnectionTarget(recipient_keys=["aaa"])
+        queue.add_message(OutboundMessage(payload="x", target=t))
+        await queue.flush()
+
+        restored = PersistedDeliveryQueue(self.profile)
+        restored.ttl_seconds = -10
+        await restored.load()
+        await restored.flush()
+        assert not restored.has_message_for_key("aaa")
+        assert await self.stored_count() == 0
@@ -11,6 +11,7 @@ from ....tests import mock
 from ....utils.testing import create_test_profile
 from ...error import WireFormatError
 from ...outbound.message import OutboundMessage
+from ..admission import AdmissionController, InboundAdmissionError
 from ..message import InboundMessage
 from ..receipt import MessageReceipt
 from ..session import InboundSession
@@ -173,6 +174,35 @@ class TestInboundSession(IsolatedAsyncioTestCase):
             receive.assert_called_once_with(encode.return_value)
             assert result is encode.return_value
 
+    async def test_receive_admission(self):
+        admission = AdmissionController(max_in_flight=1)
+        handler = mock.MagicMock()
+        sess = InboundSession(
+            profile=self.profile,
+            inbound_handler=handler,
+            session_id=None,
+            wire_format=None,
+            admission=admission,
+        )
+        message = InboundMessage({}, MessageReceipt())
+
+        with mock.patch.object(
+            sess, "parse_inbound", mock.CoroutineMock(return_value=message)
+        ) as parse:
+            assert await sess.receive("first") is message
+            handler.assert_called_once()
+            assert admission.in_flight == 1
+
+            with self.assertRaises(InboundAdmissionError):
+                await sess.receive("second")
+            parse.assert_awaited_once_with("first")
+
+            admission.release(message)
+            handler.side_effect = ValueError()
+            with self.assertRaises(ValueError):
+                await sess.receive("third")
+            assert admission.in_flight == 0
+
     def test_process_inbound(self):
         test_session_id = "session-id"
         test_thread_id = "thread-id"
@@ -9,6 +9,7 @@ from aiohttp import WSMessage, WSMsgType, web
 from ...messaging.error import MessageParseError
 from ...utils.server import remove_unwanted_headers
 from ..error import WireFormatParseError
+from .admission import InboundAdmissionError
 from .base import BaseInboundTransport, InboundTransportSetupError
 
 LOGGER = logging.getLogger(__name__)
@@ -118,6 +119,10 @@ class WsTransport(BaseInboundTransport):
                             await session.receive(msg.data)
                         except (MessageParseError, WireFormatParseError):
                             await ws.close(1003)  # unsupported data error
+                        except InboundAdmissionError as e:
+                            # ask the sender to reconnect and resend later
+                            LOGGER.warning("Closing websocket: %s", e)
+                            await ws.close(1013)  # try again later
                     elif msg.type == WSMsgType.ERROR:
                         LOGGER.error(
                             "Websocket connection closed with exception: %s",
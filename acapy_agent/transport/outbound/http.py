@@ -1,7 +1,10 @@
 """Http outbound transport."""
 
+import asyncio
 import logging
-from typing import Optional, Union
+from collections import OrderedDict
+from typing import Dict, Optional, Union
+from urllib.parse import urlparse
 
 from aiohttp import ClientSession, DummyCookieJar, TCPConnector
 
@@ -17,16 +20,83 @@ class HttpTransport(BaseOutboundTransport):
     schemes = ("http", "https")
     is_external = False
 
+    DEFAULT_POOL_LIMIT = 200
+    DEFAULT_POOL_LIMIT_PER_HOST = 50
+    DEFAULT_KEEPALIVE_TIMEOUT = 15.0
+    MAX_ENDPOINT_SEMAPHORES = 1000
+
     def __init__(self, **kwargs) -> None:
         """Initialize an `HttpTransport` instance."""
         super().__init__(**kwargs)
         self.client_session: Optional[ClientSession] = None
         self.connector: Optional[TCPConnector] = None
         self.logger = logging.getLogger(__name__)
+        self.pool_limit = self.DEFAULT_POOL_LIMIT
+        self.pool_limit_per_host = self.DEFAULT_POOL_LIMIT_PER_HOST
+        self.keepalive_timeout = self.DEFAULT_KEEPALIVE_TIMEOUT
+        self.endpoint_limits: Dict[str, int] = {}
+        self._endpoint_semaphores: "OrderedDict[str, asyncio.Semaphore]" = OrderedDict()
+
+    @staticmethod
+    def endpoint_origin(endpoint: str) -> str:
+        """Reduce an endpoint URL to the origin used for connection pooling."""
+        parsed = urlparse(endpoint)
+        port = parsed.port or (443 if parsed.scheme == "https" else 80)
+        return f"{parsed.scheme}://{parsed.hostname}:{port}"
+
+    def _load_settings(self):
+        """Load the connection pool configuration from the root profile."""
+        settings = self.root_profile.settings if self.root_profile else {}
+        self.pool_limit = settings.get(
+            "transport.http.pool_limit", self.DEFAULT_POOL_LIMIT
+        )
+        self.pool_limit_per_host = settings.get(
+            "transport.http.pool_limit_per_host", self.DEFAULT_POOL_LIMIT_PER_HOST
+        )
+        self.keepalive_timeout = settings.get(
+            "transport.http.keepalive_timeout", self.DEFAULT_KEEPALIVE_TIMEOUT
+        )
+        self.endpoint_limits = {
+            self.endpoint_origin(endpoint): limit
+            for endpoint, limit in (
+                settings.get("transport.http.endpoint_limits") or {}
+            ).items()
+        }
+
+    def _endpoint_semaphore(self, endpoint: str) -> Optional[asyncio.Semaphore]:
+        """Get the semaphore limiting concurrent requests to an endpoint, if any.
+
+        The connector enforces the largest configured per-host limit, so only
+        endpoints with a smaller limit need a semaphore of their own. Only the
+        most recently used `MAX_ENDPOINT_SEMAPHORES` semaphores are kept.
+        """
+        if not self.endpoint_limits:
+            return None
+        origin = self.endpoint_origin(endpoint)
+        semaphore = self._endpoint_semaphores.get(origin)
+        if semaphore:
+            self._endpoint_semaphores.move_to_end(origin)
+            return semaphore
+        limit = self.endpoint_limits.get(origin, self.pool_limit_per_host)
+        if limit >= self.connector.limit_per_host:
+            return None
+        semaphore = asyncio.Semaphore(limit)
+        self._endpoint_semaphores[origin] = semaphore
+        if len(self._endpoint_semaphores) > self.MAX_ENDPOINT_SEMAPHORES:
+            self._endpoint_semaphores.popitem(last=False)
+        return semaphore
 
     async def start(self):
         """Start the transport."""
-        self.connector = TCPConnector(limit=200, limit_per_host=50)
+        self._load_settings()
+        self._endpoint_semaphores = OrderedDict()
+        self.connector = TCPConnector(
+            limit=self.pool_limit,
+            limit_per_host=max(
+                [self.pool_limit_per_host, *self.endpoint_limits.values()]
+            ),
+            keepalive_timeout=self.keepalive_timeout,
+        )
         session_args = {
             "cookie_jar": DummyCookieJar(),
             "connector": self.connector,
@@ -77,6 +147,15 @@ class HttpTransport(BaseOutboundTransport):
         self.logger.debug(
             "Posting to %s; Data: %s; Headers: %s", endpoint, payload, headers
         )
+        semaphore = self._endpoint_semaphore(endpoint)
+        if semaphore:
+            async with semaphore:
+                await self._post(endpoint, payload, headers)
+        else:
+            await self._post(endpoint, payload, headers)
+
+    async def _post(self, endpoint: str, payload: Union[str, bytes], headers: dict):
+        """Post the payload to the endpoint."""
         async with self.client_session.post(
             endpoint, data=payload, headers=headers
         ) as response:
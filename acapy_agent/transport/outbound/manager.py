@@ -1,10 +1,13 @@
 """Outbound transport manager."""
 
 import asyncio
+import heapq
+import itertools
 import json
 import logging
 import time
-from typing import Callable, Optional, Type
+from collections import deque
+from typing import Callable, Deque, Dict, List, Optional, Set, Tuple, Type
 from urllib.parse import urlparse
 
 from ...connections.models.connection_target import ConnectionTarget
@@ -21,6 +24,7 @@ from .base import (
     QueuedOutboundMessage,
 )
 from .message import OutboundMessage
+from .webhooks import WebhookPipeline
 
 LOGGER = logging.getLogger(__name__)
 MODULE_BASE_PATH = "acapy_agent.transport.outbound"
@@ -30,6 +34,7 @@ class OutboundTransportManager:
     """Outbound transport manager class."""
 
     MAX_RETRY_COUNT = 4
+    MAX_ENCODE_BATCH = 100
 
     def __init__(self, profile: Profile, handle_not_delivered: Optional[Callable] = None):
         """Initialize a `OutboundTransportManager` instance.
@@ -42,9 +47,18 @@ class OutboundTransportManager:
         self.root_profile = profile
         self.loop = asyncio.get_event_loop()
         self.handle_not_delivered = handle_not_delivered
-        self.outbound_buffer = []
         self.outbound_event = asyncio.Event()
-        self.outbound_new = []
+        self.outbound_new: List[QueuedOutboundMessage] = []
+        # messages ready for delivery, in arrival order
+        self.outbound_pending: Deque[QueuedOutboundMessage] = deque()
+        # min-heap of (retry_at, sequence, message) awaiting another attempt
+        self.outbound_retry: List[Tuple[float, int, QueuedOutboundMessage]] = []
+        # messages which have finished and need to be reported
+        self.outbound_done: Deque[QueuedOutboundMessage] = deque()
+        # messages with an encode or delivery task in flight
+        self.outbound_encoding: Set[QueuedOutboundMessage] = set()
+        self.outbound_delivering: Set[QueuedOutboundMessage] = set()
+        self._retry_seq = itertools.count()
         self.registered_schemes = {}
         self.registered_transports = {}
         self.running_transports = {}
@@ -54,6 +68,43 @@ class OutboundTransportManager:
             self.MAX_RETRY_COUNT = self.root_profile.settings[
                 "transport.max_outbound_retry"
             ]
+        # batched and durable webhook delivery, when configured
+        self.webhook_pipeline = WebhookPipeline.from_settings(
+            self.root_profile, self._send_webhook
+        )
+
+    @property
+    def outbound_buffer(self) -> List[QueuedOutboundMessage]:
+        """Snapshot of all messages currently tracked by the queue."""
+        return [
+            *self.outbound_pending,
+            *self.outbound_encoding,
+            *self.outbound_delivering,
+            *(queued for (_, _, queued) in self.outbound_retry),
+            *self.outbound_done,
+        ]
+
+    def queue_depths(self) -> dict:
+        """Report the number of queued messages in each state."""
+        return {
+            QueuedOutboundMessage.STATE_NEW: len(self.outbound_new),
+            QueuedOutboundMessage.STATE_PENDING: len(self.outbound_pending),
+            QueuedOutboundMessage.STATE_ENCODE: len(self.outbound_encoding),
+            QueuedOutboundMessage.STATE_DELIVER: len(self.outbound_delivering),
+            QueuedOutboundMessage.STATE_RETRY: len(self.outbound_retry),
+            QueuedOutboundMessage.STATE_DONE: len(self.outbound_done),
+        }
+
+    def _has_queued(self) -> bool:
+        """Check whether any messages remain to be processed."""
+        return bool(
+            self.outbound_new
+            or self.outbound_pending
+            or self.outbound_encoding
+            or self.outbound_delivering
+            or self.outbound_retry
+            or self.outbound_done
+        )
 
     async def setup(self):
         """Perform setup operations."""
@@ -154,13 +205,24 @@ class OutboundTransportManager:
 
     async def start(self):
         """Start all transports and feed messages from the queue."""
-        for transport_id in self.registered_transports:
+        started = [
             self.task_queue.run(self.start_transport(transport_id))
+            for transport_id in self.registered_transports
+        ]
+        if self.webhook_pipeline:
+            self.task_queue.run(self._start_webhook_pipeline(started))
+
+    async def _start_webhook_pipeline(self, started: List[asyncio.Task]):
+        """Replay spooled webhooks once the transports have started."""
+        await asyncio.gather(*started, return_exceptions=True)
+        await self.webhook_pipeline.start()
 
     async def stop(self, wait: bool = True):
         """Stop all running transports."""
         if self._process_task and not self._process_task.done():
             self._process_task.cancel()
+        if self.webhook_pipeline:
+            await self.webhook_pipeline.stop()
         await self.task_queue.complete(None if wait else 0)
         for transport in self.running_transports.values():
             await transport.stop()
@@ -295,6 +357,11 @@ class OutboundTransportManager:
             OutboundDeliveryError: if the associated transport is not running
 
         """
+        if self.webhook_pipeline:
+            self.webhook_pipeline.enqueue(
+                topic, payload, endpoint, max_attempts, metadata
+            )
+            return
         transport_id = self.get_running_transport_for_endpoint(endpoint)
         queued = QueuedOutboundMessage(None, None, None, transport_id)
         if len(endpoint.split("#")) > 1:
@@ -310,6 +377,19 @@ class OutboundTransportManager:
         self.outbound_new.append(queued)
         self.process_queued()
 
+    async def _send_webhook(
+        self,
+        url: str,
+        payload: str,
+        headers: Optional[dict] = None,
+        api_key: Optional[str] = None,
+    ):
+        """Post a webhook payload for the webhook pipeline."""
+        transport = self.get_transport_instance(
+            self.get_running_transport_for_endpoint(url)
+        )
+        await transport.handle_message(self.root_profile, payload, url, headers, api_key)
+
     def process_queued(self) -> asyncio.Task:
         """Start the process to deliver queued messages if necessary.
 
@@ -318,7 +398,7 @@ class OutboundTransportManager:
         """
         if self._process_task and not self._process_task.done():
             self.outbound_event.set()
-        elif self.outbound_new or self.outbound_buffer:
+        elif self._has_queued():
             self._process_task = self.loop.create_task(self._process_loop())
             self._process_task.add_done_callback(lambda task: self._process_done(task))
         return self._process_task
@@ -332,96 +412,112 @@ class OutboundTransportManager:
             self._process_task = None
 
     async def _process_loop(self):
-        """Continually kick off encoding and delivery on outbound messages."""
+        """Continually kick off encoding and delivery on outbound messages.
+
+        Messages are held in separate queues by state, with pending retries in a
+        heap ordered by retry time, so each pass only touches messages which
+        have changed state or become due.
+        """
         # Note: this method should not call async methods apart from
         # waiting for the updated event, to avoid yielding to other queue methods
 
         while True:
             self.outbound_event.clear()
             loop_time = get_timer()
-            upd_buffer = []
-            retry_count = 0
-
-            for queued in self.outbound_buffer:
-                if queued.state == QueuedOutboundMessage.STATE_DONE:
-                    if queued.error:
-                        LOGGER.exception(
-                            "Outbound message could not be delivered to %s",
-                            queued.endpoint,
-                            exc_info=queued.error,
-                        )
-                        if self.handle_not_delivered and queued.message:
-                            self.handle_not_delivered(queued.profile, queued.message)
-                    continue  # remove from buffer
-
-                deliver = False
-
-                if queued.state == QueuedOutboundMessage.STATE_PENDING:
-                    deliver = True
-                elif queued.state == QueuedOutboundMessage.STATE_RETRY:
-                    if queued.retry_at < loop_time:
-                        queued.retry_at = None
-                        deliver = True
-                    else:
-                        retry_count += 1
-
-                if deliver:
-                    queued.state = QueuedOutboundMessage.STATE_DELIVER
-                    p_time = trace_event(
-                        self.root_profile.settings,
-                        queued.message if queued.message else queued.payload,
-                        outcome="OutboundTransportManager.DELIVER.START."
-                        + queued.endpoint,
-                    )
-                    self.deliver_queued_message(queued)
-                    trace_event(
-                        self.root_profile.settings,
-                        queued.message if queued.message else queued.payload,
-                        outcome="OutboundTransportManager.DELIVER.END." + queued.endpoint,
-                        perf_counter=p_time,
+
+            while self.outbound_done:
+                queued = self.outbound_done.popleft()
+                if queued.error:
+                    LOGGER.exception(
+                        "Outbound message could not be delivered to %s",
+                        queued.endpoint,
+                        exc_info=queued.error,
                     )
+                    if self.handle_not_delivered and queued.message:
+                        self.handle_not_delivered(queued.profile, queued.message)
 
-                upd_buffer.append(queued)
+            while self.outbound_retry and self.outbound_retry[0][0] < loop_time:
+                _, _, queued = heapq.heappop(self.outbound_retry)
+                queued.retry_at = None
+                queued.state = QueuedOutboundMessage.STATE_PENDING
+                self.outbound_pending.append(queued)
 
-            new_pending = 0
             new_messages = self.outbound_new
             self.outbound_new = []
 
+            # messages from the same profile for the same transport are encoded
+            # together, so that each sender key is fetched once per batch
+            to_encode: Dict[Tuple[Profile, str], List[QueuedOutboundMessage]] = {}
             for queued in new_messages:
                 if queued.state == QueuedOutboundMessage.STATE_NEW:
                     if queued.message and queued.message.enc_payload:
                         queued.payload = queued.message.enc_payload
                         queued.state = QueuedOutboundMessage.STATE_PENDING
-                        new_pending += 1
+                        self.outbound_pending.append(queued)
                     else:
                         queued.state = QueuedOutboundMessage.STATE_ENCODE
-                        p_time = trace_event(
-                            self.root_profile.settings,
-                            queued.message if queued.message else queued.payload,
-                            outcome="OutboundTransportManager.ENCODE.START",
-                        )
-                        self.encode_queued_message(queued)
-                        trace_event(
-                            self.root_profile.settings,
-                            queued.message if queued.message else queued.payload,
-                            outcome="OutboundTransportManager.ENCODE.END",
-                            perf_counter=p_time,
-                        )
+                        self.outbound_encoding.add(queued)
+                        to_encode.setdefault(
+                            (queued.profile, queued.transport_id), []
+                        ).append(queued)
                 else:
-                    new_pending += 1
-
-                upd_buffer.append(queued)
+                    self.outbound_pending.append(queued)
+
+            for batch in to_encode.values():
+                for start in range(0, len(batch), self.MAX_ENCODE_BATCH):
+                    self._start_encode(batch[start : start + self.MAX_ENCODE_BATCH])
+
+            while self.outbound_pending:
+                queued = self.outbound_pending.popleft()
+                queued.state = QueuedOutboundMessage.STATE_DELIVER
+                self.outbound_delivering.add(queued)
+                p_time = trace_event(
+                    self.root_profile.settings,
+                    queued.message if queued.message else queued.payload,
+                    outcome="OutboundTransportManager.DELIVER.START." + queued.endpoint,
+                )
+                self.deliver_queued_message(queued)
+                trace_event(
+                    self.root_profile.settings,
+                    queued.message if queued.message else queued.payload,
+                    outcome="OutboundTransportManager.DELIVER.END." + queued.endpoint,
+                    perf_counter=p_time,
+                )
 
-            self.outbound_buffer = upd_buffer
-            if self.outbound_buffer:
-                if (not new_pending) and (not retry_count):
-                    await self.outbound_event.wait()
-                elif retry_count:
-                    # only retries - yield here so we don't hog resources
-                    await asyncio.sleep(0.05)
-            else:
+            if not self._has_queued():
                 break
 
+            timeout = None
+            if self.outbound_retry:
+                # sleep only until the earliest retry is due
+                timeout = max(self.outbound_retry[0][0] - get_timer(), 0)
+            try:
+                await asyncio.wait_for(self.outbound_event.wait(), timeout)
+            except asyncio.TimeoutError:
+                pass
+
+    def _start_encode(self, batch: List[QueuedOutboundMessage]):
+        """Kick off encoding of one queued message, or of a batch of them."""
+        p_times = [
+            trace_event(
+                self.root_profile.settings,
+                queued.message if queued.message else queued.payload,
+                outcome="OutboundTransportManager.ENCODE.START",
+            )
+            for queued in batch
+        ]
+        if len(batch) == 1:
+            self.encode_queued_message(batch[0])
+        else:
+            self.encode_queued_messages(batch)
+        for queued, p_time in zip(batch, p_times):
+            trace_event(
+                self.root_profile.settings,
+                queued.message if queued.message else queued.payload,
+                outcome="OutboundTransportManager.ENCODE.END",
+                perf_counter=p_time,
+            )
+
     def encode_queued_message(self, queued: QueuedOutboundMessage) -> asyncio.Task:
         """Kick off encoding of a queued message."""
         transport = self.get_transport_instance(queued.transport_id)
@@ -438,22 +534,87 @@ class OutboundTransportManager:
         """Perform message encoding."""
         wire_format = wire_format or self.root_profile.inject(BaseWireFormat)
 
-        session = await queued.profile.session()
-        queued.payload = await wire_format.encode_message(
-            session,
-            queued.message.payload,
-            queued.target.recipient_keys,
-            queued.target.routing_keys,
-            queued.target.sender_key,
+        async with queued.profile.session() as session:
+            queued.payload = await wire_format.encode_message(
+                session,
+                queued.message.payload,
+                queued.target.recipient_keys,
+                queued.target.routing_keys,
+                queued.target.sender_key,
+            )
+
+    def encode_queued_messages(self, batch: List[QueuedOutboundMessage]) -> asyncio.Task:
+        """Kick off encoding of queued messages sharing a profile and transport."""
+        transport = self.get_transport_instance(batch[0].transport_id)
+
+        task = self.task_queue.run(
+            self.perform_encode_batch(batch, transport.wire_format),
+            lambda completed: self.finished_encode_batch(batch, completed),
+        )
+        for queued in batch:
+            queued.task = task
+        return task
+
+    async def perform_encode_batch(
+        self,
+        batch: List[QueuedOutboundMessage],
+        wire_format: Optional[BaseWireFormat] = None,
+    ) -> List[Optional[Tuple]]:
+        """Encode a batch of messages sharing a profile in a single session.
+
+        Returns:
+            For each message, None if it was encoded or the exception info of
+            the error which prevented encoding it
+
+        """
+        wire_format = wire_format or self.root_profile.inject(BaseWireFormat)
+
+        async with batch[0].profile.session() as session:
+            results = await wire_format.encode_messages(
+                session,
+                [
+                    (
+                        queued.message.payload,
+                        queued.target.recipient_keys,
+                        queued.target.routing_keys,
+                        queued.target.sender_key,
+                    )
+                    for queued in batch
+                ],
+            )
+        errors = []
+        for queued, result in zip(batch, results):
+            if isinstance(result, Exception):
+                errors.append((type(result), result, result.__traceback__))
+            else:
+                queued.payload = result
+                errors.append(None)
+        return errors
+
+    def finished_encode_batch(
+        self, batch: List[QueuedOutboundMessage], completed: CompletedTask
+    ):
+        """Handle completion of the encoding of a batch of queued messages."""
+        errors = (
+            [completed.exc_info] * len(batch)
+            if completed.exc_info
+            else completed.task.result()
         )
+        for queued, exc_info in zip(batch, errors):
+            self.finished_encode(
+                queued, CompletedTask(completed.task, exc_info, completed.ident)
+            )
 
     def finished_encode(self, queued: QueuedOutboundMessage, completed: CompletedTask):
         """Handle completion of queued message encoding."""
+        self.outbound_encoding.discard(queued)
         if completed.exc_info:
             queued.error = completed.exc_info
             queued.state = QueuedOutboundMessage.STATE_DONE
+            self.outbound_done.append(queued)
         else:
             queued.state = QueuedOutboundMessage.STATE_PENDING
+            self.outbound_pending.append(queued)
         queued.task = None
         self.process_queued()
 
@@ -499,6 +660,7 @@ class OutboundTransportManager:
 
     def finished_deliver(self, queued: QueuedOutboundMessage, completed: CompletedTask):
         """Handle completion of queued message delivery."""
+        self.outbound_delivering.discard(queued)
         if completed.exc_info:
             queued.error = completed.exc_info
 
@@ -507,9 +669,14 @@ class OutboundTransportManager:
                 queued.retries -= 1
                 queued.state = QueuedOutboundMessage.STATE_RETRY
                 queued.retry_at = time.perf_counter() + 10
+                heapq.heappush(
+                    self.outbound_retry,
+                    (queued.retry_at, next(self._retry_seq), queued),
+                )
             else:
                 self._finished_deliver_error_handler(queued, retry=False)
                 queued.state = QueuedOutboundMessage.STATE_DONE
+                self.outbound_done.append(queued)
         else:
             queued.error = None
             queued.state = QueuedOutboundMessage.STATE_DONE
@@ -521,3 +688,5 @@ class OutboundTransportManager:
         proc_task = self.process_queued()
         if proc_task:
             await proc_task
+        if self.webhook_pipeline:
+            await self.webhook_pipeline.flush()
@@ -110,6 +110,51 @@ class TestHttpTransport(AioHTTPTestCase):
             "outbound-http:POST": 1,
         }
 
+    async def test_pool_settings(self):
+        server_addr = f"http://localhost:{self.server.port}"
+        profile = await create_test_profile(
+            {
+                "transport.http.pool_limit": 10,
+                "transport.http.pool_limit_per_host": 5,
+                "transport.http.endpoint_limits": {server_addr: 2, "https://other": 8},
+                "transport.http.keepalive_timeout": 30,
+            }
+        )
+        transport = HttpTransport(root_profile=profile)
+        await transport.start()
+        try:
+            assert transport.connector.limit == 10
+            assert transport.connector.limit_per_host == 8
+            assert transport.endpoint_origin("https://other/path") == (
+                "https://other:443"
+            )
+
+            semaphore = transport._endpoint_semaphore(server_addr + "/inbox")
+            assert semaphore is transport._endpoint_semaphore(server_addr)
+            assert semaphore._value == 2
+            # limited by the connector when at the largest per-host limit
+            assert transport._endpoint_semaphore("https://other") is None
+            assert transport._endpoint_semaphore("http://unlisted").__class__ is (
+                asyncio.Semaphore
+            )
+
+            # semaphores of the least recently used origins are discarded
+            transport.MAX_ENDPOINT_SEMAPHORES = 2
+            transport._endpoint_semaphore(server_addr)
+            transport._endpoint_semaphore("http://unlisted-2")
+            assert list(transport._endpoint_semaphores) == [
+                transport.endpoint_origin(server_addr),
+                "http://unlisted-2:80",
+            ]
+            assert transport._endpoint_semaphore(server_addr) is semaphore
+
+            await asyncio.wait_for(
+                transport.handle_message(self.profile, "{}", server_addr), 5.0
+            )
+            assert self.message_results == [{}]
+        finally:
+            await transport.stop()
+
     async def test_transport_coverage(self):
         transport = HttpTransport()
         assert transport.wire_format is None
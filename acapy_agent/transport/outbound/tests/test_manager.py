@@ -1,9 +1,11 @@
+import asyncio
 import json
 from unittest import IsolatedAsyncioTestCase
 
 from ....connections.models.connection_target import ConnectionTarget
 from ....tests import mock
 from ....utils.testing import create_test_profile
+from ...error import WireFormatEncodeError
 from ...wire_format import BaseWireFormat
 from .. import manager as test_module
 from ..manager import (
@@ -148,6 +150,30 @@ class TestOutboundTransportManager(IsolatedAsyncioTestCase):
             assert queued.retries == test_attempts - 1
             assert queued.state == QueuedOutboundMessage.STATE_PENDING
 
+    async def test_enqueue_webhook_pipeline(self):
+        self.profile = await create_test_profile({"admin.webhook_batch_size": 10})
+        mgr = OutboundTransportManager(self.profile)
+        assert mgr.webhook_pipeline
+
+        with mock.patch.object(mgr.webhook_pipeline, "enqueue") as mock_enqueue:
+            mgr.enqueue_webhook("test-topic", {"test": "payload"}, "http://example")
+            mock_enqueue.assert_called_once_with(
+                "test-topic", {"test": "payload"}, "http://example", None, None
+            )
+            assert not mgr.outbound_new
+
+        transport = mock.MagicMock(handle_message=mock.CoroutineMock())
+        with (
+            mock.patch.object(
+                mgr, "get_running_transport_for_endpoint", return_value="http"
+            ),
+            mock.patch.object(mgr, "get_transport_instance", return_value=transport),
+        ):
+            await mgr._send_webhook("http://example/batch/", "[]", None, "key")
+        transport.handle_message.assert_awaited_once_with(
+            self.profile, "[]", "http://example/batch/", None, "key"
+        )
+
     async def test_process_done_x(self):
         mock_task = mock.MagicMock(
             done=mock.MagicMock(return_value=True),
@@ -184,7 +210,7 @@ class TestOutboundTransportManager(IsolatedAsyncioTestCase):
         self.profile = await create_test_profile()
         mock_handle_not_delivered = mock.MagicMock()
         mgr = OutboundTransportManager(self.profile, mock_handle_not_delivered)
-        mgr.outbound_buffer.append(mock_queued)
+        mgr.outbound_retry.append((mock_queued.retry_at, 0, mock_queued))
 
         with mock.patch.object(
             test_module, "trace_event", mock.MagicMock()
@@ -203,15 +229,22 @@ class TestOutboundTransportManager(IsolatedAsyncioTestCase):
         self.profile = self.profile = await create_test_profile()
         mock_handle_not_delivered = mock.MagicMock()
         mgr = OutboundTransportManager(self.profile, mock_handle_not_delivered)
-        mgr.outbound_buffer.append(mock_queued)
+        mgr.outbound_retry.append((mock_queued.retry_at, 0, mock_queued))
 
-        with mock.patch.object(
-            test_module.asyncio, "sleep", mock.CoroutineMock()
-        ) as mock_sleep_x:
-            mock_sleep_x.side_effect = KeyError()
+        with (
+            mock.patch.object(mgr, "deliver_queued_message", mock.MagicMock()),
+            mock.patch.object(
+                test_module.asyncio, "wait_for", mock.CoroutineMock()
+            ) as mock_wait_for,
+        ):
+            mock_wait_for.side_effect = KeyError()
             with self.assertRaises(KeyError):  # cover retry logic and bail
                 await mgr._process_loop()
             assert mock_queued.retry_at is not None
+            mgr.deliver_queued_message.assert_not_called()
+            # waits only until the retry is due
+            assert 3500 < mock_wait_for.call_args[0][1] <= 3600
+            mock_wait_for.call_args[0][0].close()
 
     async def test_process_loop_new(self):
         self.profile = await create_test_profile()
@@ -270,9 +303,34 @@ class TestOutboundTransportManager(IsolatedAsyncioTestCase):
         self.profile = await create_test_profile()
         mock_handle_not_delivered = mock.MagicMock()
         mgr = OutboundTransportManager(self.profile, mock_handle_not_delivered)
-        mgr.outbound_buffer.append(mock_queued)
+        mgr.outbound_done.append(mock_queued)
 
         await mgr._process_loop()
+        mock_handle_not_delivered.assert_called_once_with(
+            mock_queued.profile, mock_queued.message
+        )
+        assert not mgr.outbound_buffer
+
+    async def test_queue_depths(self):
+        self.profile = await create_test_profile()
+        mgr = OutboundTransportManager(self.profile)
+        mock_queued = mock.MagicMock(retries=1)
+        mock_completed_x = mock.MagicMock(exc_info=KeyError("an error occurred"))
+
+        mgr.outbound_delivering.add(mock_queued)
+        assert mgr.queue_depths()[QueuedOutboundMessage.STATE_DELIVER] == 1
+
+        with mock.patch.object(mgr, "process_queued", mock.MagicMock()):
+            mgr.finished_deliver(mock_queued, mock_completed_x)
+        depths = mgr.queue_depths()
+        assert depths[QueuedOutboundMessage.STATE_DELIVER] == 0
+        assert depths[QueuedOutboundMessage.STATE_RETRY] == 1
+        assert mgr.outbound_buffer == [mock_queued]
+
+        with mock.patch.object(mgr, "process_queued", mock.MagicMock()):
+            mgr.finished_deliver(mock_queued, mock_completed_x)
+        depths = mgr.queue_depths()
+        assert depths[QueuedOutboundMessage.STATE_DONE] == 1
 
     async def test_finished_deliver_x_log_debug(self):
         mock_queued = mock.MagicMock(state=QueuedOutboundMessage.STATE_DONE, retries=1)
@@ -281,7 +339,6 @@ class TestOutboundTransportManager(IsolatedAsyncioTestCase):
         self.profile = await create_test_profile()
         mock_handle_not_delivered = mock.MagicMock()
         mgr = OutboundTransportManager(self.profile, mock_handle_not_delivered)
-        mgr.outbound_buffer.append(mock_queued)
         with (
             mock.patch.object(test_module.LOGGER, "exception", mock.MagicMock()),
             mock.patch.object(test_module.LOGGER, "error", mock.MagicMock()),
@@ -299,7 +356,8 @@ class TestOutboundTransportManager(IsolatedAsyncioTestCase):
         base_wire_format.encode_message = mock.CoroutineMock(return_value=encoded_msg)
         self.profile = await create_test_profile()
         self.profile.context.injector.bind_instance(BaseWireFormat, base_wire_format)
-        self.profile.session = mock.CoroutineMock(return_value=mock.MagicMock())
+        session = self.profile.session()
+        self.profile.session = mock.MagicMock(return_value=session)
         outbound = mock.MagicMock(payload="payload", enc_payload=None)
         target = mock.MagicMock()
 
@@ -308,13 +366,61 @@ class TestOutboundTransportManager(IsolatedAsyncioTestCase):
 
         assert result.payload == encoded_msg
         base_wire_format.encode_message.assert_called_once_with(
-            await self.profile.session(),
+            session,
             outbound.payload,
             target.recipient_keys,
             target.routing_keys,
             target.sender_key,
         )
 
+    async def test_process_loop_encode_batch(self):
+        self.profile = await create_test_profile()
+        mgr = OutboundTransportManager(self.profile)
+        wire_format = mock.MagicMock(
+            encode_messages=mock.CoroutineMock(
+                return_value=[b"encoded", WireFormatEncodeError("Message pack failed")]
+            )
+        )
+        target = ConnectionTarget(
+            endpoint="http://localhost", recipient_keys=["to"], sender_key="from"
+        )
+        batch = [
+            QueuedOutboundMessage(
+                self.profile, OutboundMessage(payload=f"message {idx}"), target, "http"
+            )
+            for idx in range(2)
+        ]
+        mgr.outbound_new = list(batch)
+
+        with (
+            mock.patch.object(
+                mgr,
+                "get_transport_instance",
+                return_value=mock.MagicMock(wire_format=wire_format),
+            ),
+            mock.patch.object(mgr, "process_queued", mock.MagicMock()),
+            mock.patch.object(
+                mgr.outbound_event, "wait", mock.CoroutineMock(side_effect=KeyError())
+            ),
+            mock.patch.object(test_module, "trace_event", mock.MagicMock()),
+        ):
+            with self.assertRaises(KeyError):
+                await mgr._process_loop()
+            assert batch[0].task is batch[1].task
+            await batch[0].task
+            await asyncio.sleep(0)
+
+        wire_format.encode_messages.assert_awaited_once()
+        assert [item[0] for item in wire_format.encode_messages.call_args[0][1]] == [
+            "message 0",
+            "message 1",
+        ]
+        assert batch[0].payload == b"encoded"
+        assert list(mgr.outbound_pending) == [batch[0]]
+        assert batch[1].state == QueuedOutboundMessage.STATE_DONE
+        assert isinstance(batch[1].error[1], WireFormatEncodeError)
+        assert not mgr.outbound_encoding
+
     async def test_should_not_encode_already_packed_message(self):
         self.profile = await create_test_profile()
         enc_payload = "enc_payload"
@@ -0,0 +1,221 @@
+import asyncio
+import json
+from unittest import IsolatedAsyncioTestCase
+
+from ....storage.base import BaseStorage
+from ....storage.error import StorageError
+from ....storage.type import RECORD_TYPE_WEBHOOK_SPOOL
+from ....tests import mock
+from ....utils.metrics import MetricsRegistry
+from ....utils.testing import create_test_profile
+from ..webhooks import CircuitBreaker, WebhookPipeline
+
+ENDPOINT = "http://controller"
+
+
+class TestCircuitBreaker(IsolatedAsyncioTestCase):
+    async def test_open_and_probe(self):
+        breaker = CircuitBreaker(2, 30.0)
+        breaker.record_failure()
+        assert breaker.allow()
+        breaker.record_failure()
+        assert breaker.is_open
+        assert not breaker.allow()
+        assert 0 < breaker.retry_after() <= 30.0
+
+        breaker.opened_at -= 30.0
+        assert breaker.allow()
+        # a single trial delivery at a time
+        assert not breaker.allow()
+        breaker.record_failure()
+        assert not breaker.allow()
+
+        breaker.opened_at -= 30.0
+        assert breaker.allow()
+        breaker.record_success()
+        assert not breaker.is_open
+        assert breaker.allow()
+
+    async def test_disabled(self):
+        breaker = CircuitBreaker(0, 30.0)
+        for _ in range(10):
+            breaker.record_failure()
+        assert breaker.allow()
+
+
+class TestWebhookPipeline(IsolatedAsyncioTestCase):
+    async def asyncSetUp(self):
+        self.profile = await create_test_profile()
+        self.sent = []
+        self.send = mock.CoroutineMock(
+            side_effect=lambda *args: self.sent.append(args)
+        )
+
+    async def test_from_settings(self):
+        assert WebhookPipeline.from_settings(self.profile, self.send) is None
+        profile = await create_test_profile(
+            {"admin.webhook_batch_size": 10, "admin.webhook_batch_interval": 250}
+        )
+        pipeline = WebhookPipeline.from_settings(profile, self.send)
+        assert pipeline.batch_size == 10
+        assert pipeline.batch_interval == 0.25
+        assert not pipeline.spool
+
+    async def test_deliver_single(self):
+        pipeline = WebhookPipeline(self.profile, self.send)
+        pipeline.enqueue(
+            "connections",
+            {"state": "active"},
+            f"{ENDPOINT}#key",
+            None,
+            {"x-wallet-id": "w"},
+        )
+        await asyncio.wait_for(pipeline.flush(), 1)
+        assert self.sent == [
+            (
+                f"{ENDPOINT}/topic/connections/",
+                json.dumps({"state": "active"}),
+                {"x-wallet-id": "w"},
+                "key",
+            )
+        ]
+
+    async def test_deliver_batches(self):
+        metrics = MetricsRegistry()
+        pipeline = WebhookPipeline(
+            self.profile,
+            self.send,
+            batch_size=3,
+            batch_interval=0.05,
+            max_concurrency=1,
+            metrics=metrics,
+        )
+        for idx in range(4):
+            pipeline.enqueue(
+                "basicmessages", {"content": idx}, ENDPOINT, None, {"x-wallet-id": "w"}
+            )
+        await asyncio.wait_for(pipeline.flush(), 1)
+
+        assert [url for url, *_ in self.sent] == [f"{ENDPOINT}/batch/"] * 2
+        items = [item for _, payload, _, _ in self.sent for item in json.loads(payload)]
+        assert items == [
+            {
+                "topic": "basicmessages",
+                "payload": {"content": idx},
+                "wallet_id": "w",
+                "metadata": {"x-wallet-id": "w"},
+            }
+            for idx in range(4)
+        ]
+        rendered = metrics.render()
+        assert 'acapy_webhook_deliveries_total{result="delivered"} 4' in rendered
+        assert "acapy_webhook_delivery_lag_seconds_count 4" in rendered
+
+    async def test_retry_and_drop(self):
+        self.send.side_effect = Exception("unreachable")
+        pipeline = WebhookPipeline(
+            self.profile, self.send, failure_threshold=0, retry_interval=0.01
+        )
+        pipeline.enqueue("connections", {}, ENDPOINT, 3)
+        await asyncio.wait_for(pipeline.flush(), 1)
+        assert self.send.call_count == 3
+        assert pipeline.pending == 0
+
+    async def test_circuit_breaker_suspends_delivery(self):
+        self.send.side_effect = Exception("unreachable")
+        pipeline = WebhookPipeline(
+            self.profile,
+            self.send,
+            failure_threshold=1,
+            reset_timeout=30.0,
+            retry_interval=0.01,
+        )
+        pipeline.enqueue("connections", {}, ENDPOINT)
+        await asyncio.sleep(0.1)
+        # the circuit opened after the first failure
+        assert self.send.call_count == 1
+        assert pipeline.pending == 1
+        await pipeline.stop()
+
+    async def test_spool_and_replay(self):
+        self.send.side_effect = Exception("unreachable")
+        pipeline = WebhookPipeline(self.profile, self.send, spool=True)
+        pipeline.enqueue("connections", {"state": "active"}, ENDPOINT)
+        await asyncio.sleep(0.05)
+        await pipeline.stop()
+
+        async with self.profile.session() as session:
+            records = await session.inject(BaseStorage).find_all_records(
+                RECORD_TYPE_WEBHOOK_SPOOL
+            )
+        assert len(records) == 1
+
+        self.send.side_effect = lambda *args: self.sent.append(args)
+        pipeline = WebhookPipeline(self.profile, self.send, spool=True)
+        await pipeline.start()
+        await asyncio.wait_for(pipeline.flush(), 1)
+        assert self.sent[0][:2] == (
+            f"{ENDPOINT}/topic/connections/",
+            json.dumps({"state": "active"}),
+        )
+
+        async with self.profile.session() as session:
+            records = await session.inject(BaseStorage).find_all_records(
+                RECORD_TYPE_WEBHOOK_SPOOL
+            )
+        assert not records
+
+    async def test_spool_error(self):
+        pipeline = WebhookPipeline(self.profile, self.send, spool=True)
+        async with self.profile.session() as session:
+            storage_cls = type(session.inject(BaseStorage))
+        with mock.patch.object(
+            storage_cls, "add_records", mock.CoroutineMock(side_effect=StorageError())
+        ):
+            pipeline.enqueue("connections", {"state": "active"}, ENDPOINT)
+            (event,) = pipeline._unspooled
+            await asyncio.wait_for(pipeline.flush(), 1)
+        # the webhook was never persisted
+        assert not event.spooled
+        await pipeline.stop()
+
+    async def test_unspool_waits_for_spool(self):
+        pipeline = WebhookPipeline(self.profile, self.send, spool=True)
+        async with self.profile.session() as session:
+            storage_cls = type(session.inject(BaseStorage))
+        add_records = storage_cls.add_records
+        released = asyncio.Event()
+
+        async def slow_add_records(storage, records):
+            await released.wait()
+            await add_records(storage, records)
+
+        with mock.patch.object(storage_cls, "add_records", slow_add_records):
+            pipeline.enqueue("connections", {"state": "active"}, ENDPOINT)
+            await asyncio.sleep(0.05)
+            # delivered while the webhook is still being spooled
+            assert len(self.sent) == 1
+            assert pipeline.pending == 1
+            released.set()
+            await asyncio.wait_for(pipeline.flush(), 1)
+        await pipeline.stop()
+
+        async with self.profile.session() as session:
+            records = await session.inject(BaseStorage).find_all_records(
+                RECORD_TYPE_WEBHOOK_SPOOL
+            )
+        assert not records
+
+    async def test_start_skips_queued(self):
+        self.send.side_effect = Exception("unreachable")
+        pipeline = WebhookPipeline(
+            self.profile, self.send, spool=True, failure_threshold=1
+        )
+        pipeline.enqueue("connections", {"state": "active"}, ENDPOINT)
+        await asyncio.sleep(0.05)
+        assert pipeline.pending == 1
+
+        # the webhook is spooled, but already queued in memory
+        await pipeline.start()
+        assert pipeline.pending == 1
+        await pipeline.stop()
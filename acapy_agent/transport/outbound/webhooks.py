@@ -0,0 +1,597 @@
+"""Batched, durable delivery of webhooks to controller endpoints."""
+
+import asyncio
+import json
+import logging
+import time
+from collections import deque
+from typing import Awaitable, Callable, Deque, Dict, List, Optional, Sequence, Tuple
+
+from uuid_utils import uuid4
+
+from ...core.profile import Profile
+from ...storage.base import BaseStorage
+from ...storage.error import StorageError, StorageNotFoundError
+from ...storage.record import StorageRecord
+from ...storage.type import RECORD_TYPE_WEBHOOK_SPOOL
+from ...utils.metrics import MetricsRegistry
+
+LOGGER = logging.getLogger(__name__)
+
+DEFAULT_MAX_ATTEMPTS = 5
+DEFAULT_MAX_CONCURRENCY = 4
+DEFAULT_FAILURE_THRESHOLD = 5
+DEFAULT_RESET_TIMEOUT = 30.0
+DEFAULT_RETRY_INTERVAL = 10.0
+
+# the settings which enable the webhook pipeline in place of direct delivery
+PIPELINE_SETTINGS = (
+    "admin.webhook_batch_size",
+    "admin.webhook_spool",
+    "admin.webhook_max_concurrency",
+    "admin.webhook_failure_threshold",
+)
+
+SendWebhook = Callable[[str, str, Optional[dict], Optional[str]], Awaitable]
+
+
+class WebhookEvent:
+    """A webhook waiting to be delivered to an endpoint."""
+
+    __slots__ = (
+        "id",
+        "topic",
+        "payload",
+        "endpoint",
+        "api_key",
+        "metadata",
+        "max_attempts",
+        "attempts",
+        "created",
+        "spooled",
+    )
+
+    def __init__(
+        self,
+        topic: str,
+        payload: dict,
+        endpoint: str,
+        *,
+        api_key: Optional[str] = None,
+        metadata: Optional[dict] = None,
+        max_attempts: int = DEFAULT_MAX_ATTEMPTS,
+        attempts: int = 0,
+        created: Optional[float] = None,
+        id: Optional[str] = None,
+    ):
+        """Initialize the WebhookEvent instance."""
+        self.id = id or uuid4().hex
+        self.topic = topic
+        self.payload = payload
+        self.endpoint = endpoint
+        self.api_key = api_key
+        self.metadata = metadata
+        self.max_attempts = max_attempts
+        self.attempts = attempts
+        self.created = time.time() if created is None else created
+        self.spooled = False
+
+    @property
+    def wallet_id(self) -> Optional[str]:
+        """The wallet which emitted the webhook, if any."""
+        return (self.metadata or {}).get("x-wallet-id")
+
+    def serialize(self) -> dict:
+        """Return a JSON-compatible representation."""
+        return {
+            "topic": self.topic,
+            "payload": self.payload,
+            "endpoint": self.endpoint,
+            "api_key": self.api_key,
+            "metadata": self.metadata,
+            "max_attempts": self.max_attempts,
+            "attempts": self.attempts,
+            "created": self.created,
+        }
+
+    @classmethod
+    def deserialize(cls, id: str, value: dict) -> "WebhookEvent":
+        """Restore an event from its serialized representation."""
+        return cls(
+            value["topic"],
+            value["payload"],
+            value["endpoint"],
+            api_key=value.get("api_key"),
+            metadata=value.get("metadata"),
+            max_attempts=value.get("max_attempts", DEFAULT_MAX_ATTEMPTS),
+            attempts=value.get("attempts", 0),
+            created=value.get("created"),
+            id=id,
+        )
+
+
+class CircuitBreaker:
+    """Stops deliveries to an endpoint after repeated failures.
+
+    After `failure_threshold` consecutive failures the circuit opens and no
+    deliveries are attempted until `reset_timeout` has passed. A single trial
+    delivery is then made: the circuit closes if it succeeds, and opens again
+    if it fails. Events are not charged an attempt while the circuit is open.
+    """
+
+    def __init__(self, failure_threshold: int, reset_timeout: float):
+        """Initialize the CircuitBreaker instance.
+
+        Args:
+            failure_threshold: The number of consecutive failures opening the
+                circuit, or 0 to never open it
+            reset_timeout: The time in seconds before a trial delivery
+
+        """
+        self.failure_threshold = failure_threshold
+        self.reset_timeout = reset_timeout
+        self.failures = 0
+        self.opened_at: Optional[float] = None
+        self.probing = False
+
+    @property
+    def is_open(self) -> bool:
+        """Whether deliveries are currently suspended."""
+        return self.opened_at is not None
+
+    def allow(self) -> bool:
+        """Check whether a delivery may be attempted now."""
+        if self.opened_at is None:
+            return True
+        if self.probing or time.monotonic() - self.opened_at < self.reset_timeout:
+            return False
+        self.probing = True
+        return True
+
+    def retry_after(self) -> float:
+        """Return the time in seconds before a delivery may be allowed."""
+        if self.opened_at is None:
+            return 0.0
+        if self.probing:
+            return min(self.reset_timeout, 1.0)
+        return max(self.opened_at + self.reset_timeout - time.monotonic(), 0.0)
+
+    def record_success(self):
+        """Record a successful delivery."""
+        self.failures = 0
+        self.opened_at = None
+        self.probing = False
+
+    def record_failure(self):
+        """Record a failed delivery."""
+        self.failures += 1
+        self.probing = False
+        if self.failure_threshold and (
+            self.opened_at is not None or self.failures >= self.failure_threshold
+        ):
+            self.opened_at = time.monotonic()
+
+
+class WebhookTarget:
+    """The queue of webhooks for one endpoint."""
+
+    def __init__(
+        self,
+        endpoint: str,
+        api_key: Optional[str],
+        max_concurrency: int,
+        breaker: CircuitBreaker,
+    ):
+        """Initialize the WebhookTarget instance."""
+        self.endpoint = endpoint
+        self.api_key = api_key
+        self.queue: Deque[WebhookEvent] = deque()
+        self.semaphore = asyncio.Semaphore(max_concurrency)
+        self.breaker = breaker
+        self.filled = asyncio.Event()
+        self.worker: Optional[asyncio.Task] = None
+
+
+class WebhookPipeline:
+    """Delivers webhooks in batches, with a durable spool and circuit breakers.
+
+    Webhooks are queued per endpoint and posted by one worker per endpoint,
+    with at most `max_concurrency` requests in flight to each endpoint. When
+    `batch_size` is greater than one, up to that many webhooks are posted
+    together as a JSON list to `{endpoint}/batch/`, each item formatted like
+    a websocket event with its `topic`, `payload` and `wallet_id`, along with
+    the `metadata` otherwise sent as request headers. A partial batch is sent
+    once its oldest webhook has waited `batch_interval` seconds.
+
+    With the spool enabled, webhooks are written to the storage of the root
+    profile before delivery and removed once delivered, and any left over are
+    delivered again when the pipeline starts. Delivery is at least once: a
+    webhook which was posted just before a restart may be posted again.
+    """
+
+    def __init__(
+        self,
+        profile: Profile,
+        send: SendWebhook,
+        *,
+        batch_size: int = 1,
+        batch_interval: float = 0.0,
+        max_concurrency: int = DEFAULT_MAX_CONCURRENCY,
+        spool: bool = False,
+        failure_threshold: int = DEFAULT_FAILURE_THRESHOLD,
+        reset_timeout: float = DEFAULT_RESET_TIMEOUT,
+        retry_interval: float = DEFAULT_RETRY_INTERVAL,
+        metrics: Optional[MetricsRegistry] = None,
+    ):
+        """Initialize the WebhookPipeline instance.
+
+        Args:
+            profile: The root profile, holding the spool
+            send: Coroutine function posting a payload, given the URL, the
+                payload, the request headers and the API key of the endpoint
+            batch_size: The maximum number of webhooks posted together
+            batch_interval: The time in seconds to wait for a batch to fill up
+            max_concurrency: The maximum number of requests in flight to each
+                endpoint
+            spool: Whether to persist webhooks until they are delivered
+            failure_threshold: The consecutive failures opening the circuit
+                breaker of an endpoint, or 0 to disable circuit breakers
+            reset_timeout: The time in seconds an open circuit waits before a
+                trial delivery
+            retry_interval: The time in seconds before retrying a failed delivery
+            metrics: The registry for the delivery metrics, if any
+
+        """
+        self.profile = profile
+        self.send = send
+        self.batch_size = max(batch_size, 1)
+        self.batch_interval = max(batch_interval, 0.0)
+        self.max_concurrency = max(max_concurrency, 1)
+        self.spool = spool
+        self.failure_threshold = failure_threshold
+        self.reset_timeout = reset_timeout
+        self.retry_interval = retry_interval
+        self.targets: Dict[Tuple[str, Optional[str]], WebhookTarget] = {}
+        self._pending = 0
+        # the ids of the webhooks not yet delivered or dropped
+        self._queued_ids = set()
+        self._idle = asyncio.Event()
+        self._idle.set()
+        self._unspooled: List[WebhookEvent] = []
+        self._spool_task: Optional[asyncio.Task] = None
+        # the spool writes in progress, by the ids of the webhooks they cover
+        self._spool_writes: Dict[str, asyncio.Future] = {}
+        self._tasks = set()
+        self._stopped = False
+
+        self._deliveries = self._lag = None
+        if metrics:
+            self._deliveries = metrics.counter(
+                "webhook_deliveries",
+                "Webhooks delivered, retried after a failure, or dropped",
+                ["result"],
+            )
+            self._lag = metrics.histogram(
+                "webhook_delivery_lag_seconds",
+                "Time from a webhook being emitted to its delivery",
+                buckets=(0.01, 0.05, 0.1, 0.5, 1.0, 5.0, 10.0, 30.0, 60.0, 300.0),
+            )
+            metrics.gauge(
+                "webhook_queued", "Webhooks waiting to be delivered"
+            ).set_function(lambda: self._pending)
+            metrics.gauge(
+                "webhook_open_circuits",
+                "Webhook endpoints with deliveries suspended after repeated failures",
+            ).set_function(
+                lambda: sum(target.breaker.is_open for target in self.targets.values())
+            )
+
+    @classmethod
+    def from_settings(
+        cls, profile: Profile, send: SendWebhook
+    ) -> Optional["WebhookPipeline"]:
+        """Create a pipeline if it is enabled by the settings of the profile."""
+        settings = profile.settings
+        if all(settings.get(name) is None for name in PIPELINE_SETTINGS):
+            return None
+        return cls(
+            profile,
+            send,
+            batch_size=settings.get_int("admin.webhook_batch_size", default=1),
+            batch_interval=settings.get_int("admin.webhook_batch_interval", default=0)
+            / 1000,
+            max_concurrency=settings.get_int(
+                "admin.webhook_max_concurrency", default=DEFAULT_MAX_CONCURRENCY
+            ),
+            spool=settings.get_bool("admin.webhook_spool", default=False),
+            failure_threshold=settings.get_int(
+                "admin.webhook_failure_threshold", default=DEFAULT_FAILURE_THRESHOLD
+            ),
+            metrics=profile.inject_or(MetricsRegistry),
+        )
+
+    @property
+    def pending(self) -> int:
+        """The number of webhooks not yet delivered or dropped."""
+        return self._pending
+
+    def enqueue(
+        self,
+        topic: str,
+        payload: dict,
+        endpoint: str,
+        max_attempts: Optional[int] = None,
+        metadata: Optional[dict] = None,
+    ):
+        """Add a webhook to the queue of its endpoint.
+
+        Args:
+            topic: The webhook topic
+            payload: The webhook payload
+            endpoint: The webhook endpoint, with an optional `#api_key` suffix
+            max_attempts: Override the maximum number of attempts
+            metadata: Additional metadata associated with the payload
+
+        """
+        endpoint, _, api_key = endpoint.partition("#")
+        event = WebhookEvent(
+            topic,
+            payload,
+            endpoint,
+            api_key=api_key or None,
+            metadata=metadata,
+            max_attempts=max_attempts or DEFAULT_MAX_ATTEMPTS,
+        )
+        if self.spool:
+            self._unspooled.append(event)
+            if not self._spool_task or self._spool_task.done():
+                self._spool_task = asyncio.ensure_future(self._spool_pending())
+        self._push([event])
+
+    async def start(self):
+        """Queue the webhooks left in the spool by a previous run.
+
+        Webhooks enqueued by this pipeline before it was started may already be
+        in the spool, and are not queued a second time.
+        """
+        if not self.spool:
+            return
+        async with self.profile.session() as session:
+            records = await session.inject(BaseStorage).find_all_records(
+                RECORD_TYPE_WEBHOOK_SPOOL
+            )
+        events = []
+        for record in records:
+            if record.id in self._queued_ids:
+                continue
+            event = WebhookEvent.deserialize(record.id, json.loads(record.value))
+            event.spooled = True
+            events.append(event)
+        if events:
+            LOGGER.info("Replaying %d spooled webhooks", len(events))
+            events.sort(key=lambda event: event.created)
+            self._push(events)
+
+    async def flush(self):
+        """Wait until every queued webhook has been delivered or dropped."""
+        await self._idle.wait()
+
+    async def stop(self):
+        """Stop delivering webhooks, spooling any which are still queued."""
+        self._stopped = True
+        for task in (*self._tasks, *(t.worker for t in self.targets.values())):
+            if task and not task.done():
+                task.cancel()
+        if self.spool:
+            await self._spool_pending()
+
+    def _push(self, events: Sequence[WebhookEvent], *, front: bool = False):
+        """Add events to the queues of their endpoints and start the workers."""
+        for event in events:
+            key = (event.endpoint, event.api_key)
+            target = self.targets.get(key)
+            if not target:
+                target = self.targets[key] = WebhookTarget(
+                    event.endpoint,
+                    event.api_key,
+                    self.max_concurrency,
+                    CircuitBreaker(self.failure_threshold, self.reset_timeout),
+                )
+            if front:
+                target.queue.appendleft(event)
+            else:
+                target.queue.append(event)
+                self._queued_ids.add(event.id)
+                self._pending += 1
+            if len(target.queue) >= self.batch_size:
+                target.filled.set()
+            if not self._stopped and (not target.worker or target.worker.done()):
+                target.worker = asyncio.ensure_future(self._run(target))
+        if self._pending:
+            self._idle.clear()
+
+    def _finish(self, events: Sequence[WebhookEvent], result: str):
+        """Record that events will not be attempted again."""
+        self._pending -= len(events)
+        self._queued_ids.difference_update(event.id for event in events)
+        if self._deliveries:
+            self._deliveries.labels(result).inc(len(events))
+        if not self._pending:
+            self._idle.set()
+
+    async def _run(self, target: WebhookTarget):
+        """Deliver the queued webhooks of an endpoint."""
+        while target.queue:
+            if not target.breaker.allow():
+                await asyncio.sleep(target.breaker.retry_after())
+                continue
+            if len(target.queue) < self.batch_size and self.batch_interval:
+                wait = target.queue[0].created + self.batch_interval - time.time()
+                if wait > 0:
+                    target.filled.clear()
+                    try:
+                        await asyncio.wait_for(target.filled.wait(), wait)
+                    except asyncio.TimeoutError:
+                        pass
+            await target.semaphore.acquire()
+            batch = [
+                target.queue.popleft()
+                for _ in range(min(self.batch_size, len(target.queue)))
+            ]
+            if not batch:
+                target.semaphore.release()
+                continue
+            self._spawn(self._deliver(target, batch))
+
+    async def _deliver(self, target: WebhookTarget, batch: List[WebhookEvent]):
+        """Post a batch of webhooks, retrying or dropping them on failure."""
+        try:
+            if self.spool:
+                await self._spool_events(batch)
+            if self.batch_size > 1:
+                url = f"{target.endpoint}/batch/"
+                payload = json.dumps(
+                    [
+                        {
+                            "topic": event.topic,
+                            "payload": event.payload,
+                            **({"wallet_id": event.wallet_id} if event.wallet_id else {}),
+                            **({"metadata": event.metadata} if event.metadata else {}),
+                        }
+                        for event in batch
+                    ]
+                )
+                headers = None
+            else:
+                (event,) = batch
+                url = f"{target.endpoint}/topic/{event.topic}/"
+                payload = json.dumps(event.payload)
+                headers = dict(event.metadata) if event.metadata else None
+            await self.send(url, payload, headers, target.api_key)
+        except asyncio.CancelledError:
+            raise
+        except Exception as err:
+            target.breaker.record_failure()
+            self._failed(target, batch, err)
+        else:
+            target.breaker.record_success()
+            if self._lag:
+                now = time.time()
+                for event in batch:
+                    self._lag.observe(now - event.created)
+            if self.spool:
+                await self._unspool(batch)
+            self._finish(batch, "delivered")
+        finally:
+            target.semaphore.release()
+
+    def _failed(self, target: WebhookTarget, batch: List[WebhookEvent], err: Exception):
+        """Schedule a retry of failed webhooks, dropping those out of attempts."""
+        retry, dropped = [], []
+        for event in batch:
+            event.attempts += 1
+            (retry if event.attempts < event.max_attempts else dropped).append(event)
+        if retry:
+            LOGGER.debug(
+                "Error posting %d webhooks to %s, will retry: %s",
+                len(retry),
+                target.endpoint,
+                err,
+            )
+            if self._deliveries:
+                self._deliveries.labels("retried").inc(len(retry))
+            if not self._stopped:
+                self._spawn(self._retry(retry))
+        if dropped:
+            LOGGER.warning(
+                "Webhooks failed to deliver to %s, NOT re-queued: %s",
+                target.endpoint,
+                err,
+            )
+            self._finish(dropped, "dropped")
+            if self.spool:
+                self._spawn(self._unspool(dropped))
+
+    async def _retry(self, events: List[WebhookEvent]):
+        """Put failed webhooks back at the front of their queue after a delay."""
+        await asyncio.sleep(self.retry_interval)
+        self._push(list(reversed(events)), front=True)
+
+    def _spawn(self, coro):
+        """Run a coroutine as a task which is cancelled when stopping."""
+        task = asyncio.ensure_future(coro)
+        self._tasks.add(task)
+        task.add_done_callback(self._tasks.discard)
+
+    async def _spool_pending(self):
+        """Persist the webhooks queued since the spool was last written."""
+        while self._unspooled:
+            events, self._unspooled = self._unspooled, []
+            await self._spool_events(events)
+
+    async def _spool_events(self, events: Sequence[WebhookEvent]):
+        """Persist webhooks which are not yet in the spool."""
+        pending = [
+            event
+            for event in events
+            if not event.spooled and event.id not in self._spool_writes
+        ]
+        if not pending:
+            return
+        records = [
+            StorageRecord(
+                RECORD_TYPE_WEBHOOK_SPOOL, json.dumps(event.serialize()), id=event.id
+            )
+            for event in pending
+        ]
+        written = asyncio.get_running_loop().create_future()
+        for event in pending:
+            self._spool_writes[event.id] = written
+        try:
+            async with self.profile.session() as session:
+                await session.inject(BaseStorage).add_records(records)
+        except StorageError:
+            LOGGER.exception("Error spooling %d webhooks", len(records))
+        else:
+            # only webhooks committed to the spool are removed from it later
+            for event in pending:
+                event.spooled = True
+        finally:
+            for event in pending:
+                self._spool_writes.pop(event.id, None)
+            written.set_result(None)
+
+    async def _unspool(self, events: Sequence[WebhookEvent]):
+        """Remove delivered or dropped webhooks from the spool."""
+        ids = {event.id for event in events}
+        # webhooks not yet handed to a spool write are no longer persisted
+        self._unspooled = [event for event in self._unspooled if event.id not in ids]
+        writes = {
+            self._spool_writes[event_id]
+            for event_id in ids
+            if event_id in self._spool_writes
+        }
+        if writes:
+            # a write still in progress would otherwise leave an orphan record
+            await asyncio.wait(writes)
+        records = [
+            StorageRecord(RECORD_TYPE_WEBHOOK_SPOOL, "", id=event.id)
+            for event in events
+            if event.spooled
+        ]
+        if not records:
+            return
+        try:
+            async with self.profile.session() as session:
+                storage = session.inject(BaseStorage)
+                try:
+                    await storage.delete_records(records)
+                except StorageNotFoundError:
+                    # the batch is not applied: remove the others one by one
+                    for record in records:
+                        try:
+                            await storage.delete_record(record)
+                        except StorageNotFoundError:
+                            pass
+        except StorageError:
+            LOGGER.exception("Error removing %d webhooks from the spool", len(records))
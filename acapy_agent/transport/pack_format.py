@@ -1,8 +1,9 @@
 """Standard packed message format classes."""
 
+import asyncio
 import json
 import logging
-from typing import List, Sequence, Tuple, Union
+from typing import List, Optional, Sequence, Tuple, Union
 
 from ..core.profile import ProfileSession
 from ..messaging.base_message import DIDCommVersion
@@ -100,6 +101,20 @@ class PackWireFormat(BaseWireFormat):
 
         return await pack_format.parse_message(session, message_body)
 
+    async def parse_messages(
+        self,
+        session: ProfileSession,
+        message_bodies: Sequence[Union[str, bytes]],
+    ) -> List[Union[Tuple[dict, MessageReceipt], WireFormatParseError]]:
+        """Pass a batch of incoming messages to the V1PackWireFormat.
+
+        When DIDComm v2 is enabled the messages are parsed one at a time, as
+        each may need a different versioned PackWireFormat.
+        """
+        if session.profile.settings.get("experiment.didcomm_v2"):
+            return await super().parse_messages(session, message_bodies)
+        return await self.v1pack_format.parse_messages(session, message_bodies)
+
     def get_for_outbound_msg(self, outbound_msg: Union[str, bytes]) -> BaseWireFormat:
         """Retrieve appropriate DIDComm instance for a given packed message."""
         return {
@@ -134,6 +149,22 @@ class PackWireFormat(BaseWireFormat):
             sender_key,
         )
 
+    async def encode_messages(
+        self,
+        session: ProfileSession,
+        items: Sequence[
+            Tuple[Union[str, bytes], Sequence[str], Sequence[str], Optional[str]]
+        ],
+    ) -> List[Union[str, bytes, WireFormatEncodeError]]:
+        """Pass a batch of outgoing messages to the V1PackWireFormat.
+
+        When DIDComm v2 is enabled the messages are encoded one at a time, as
+        each may need a different versioned PackWireFormat.
+        """
+        if session.profile.settings.get("experiment.didcomm_v2"):
+            return await super().encode_messages(session, items)
+        return await self.v1pack_format.encode_messages(session, items)
+
     def get_recipient_keys(self, message_body: Union[str, bytes]) -> List[str]:
         """Get all recipient keys from a wire message."""
         return self.v1pack_format.get_recipient_keys(message_body=message_body)
@@ -189,39 +220,101 @@ class V1PackWireFormat(BaseWireFormat):
             WireFormatParseError: If a wallet is required but can't be located
 
         """
+        receipt = self._new_receipt(message_body)
+        message_dict = self._load_json(message_body)
+
+        # packed messages are detected by the absence of @type
+        if "@type" not in message_dict:
+            try:
+                message_json = await self.unpack(session, message_body, receipt)
+            except WireFormatParseError:
+                LOGGER.debug("Message unpack failed, falling back to JSON")
+            else:
+                receipt.raw_message = message_json
+                message_dict = self._load_json(message_json)
+
+        return self._finish_parse(message_dict, receipt)
+
+    async def parse_messages(
+        self,
+        session: ProfileSession,
+        message_bodies: Sequence[Union[str, bytes]],
+    ) -> List[Union[Tuple[dict, MessageReceipt], WireFormatParseError]]:
+        """Deserialize a batch of incoming messages.
+
+        The packed messages in the batch are unpacked together, so that each
+        recipient key is fetched once and the decryption runs in the crypto
+        worker pool.
+
+        Args:
+            session: The profile session for providing wallet access
+            message_bodies: The bodies of the messages
+
+        Returns:
+            A list with, for each message, either a tuple of the parsed message
+            and a message receipt instance, or the error raised while parsing it
+
+        """
+        results = [None] * len(message_bodies)
+        parsed = {}
+        for idx, message_body in enumerate(message_bodies):
+            try:
+                parsed[idx] = (
+                    self._load_json(message_body),
+                    self._new_receipt(message_body),
+                )
+            except WireFormatParseError as err:
+                results[idx] = err
+
+        # packed messages are detected by the absence of @type
+        packed = [idx for idx, (msg, _) in parsed.items() if "@type" not in msg]
+        wallet = session.inject_or(BaseWallet) if packed else None
+        if wallet:
+            unpacked = await wallet.unpack_messages(
+                [message_bodies[idx] for idx in packed]
+            )
+            for idx, result in zip(packed, unpacked):
+                if isinstance(result, Exception):
+                    LOGGER.debug("Message unpack failed, falling back to JSON")
+                    continue
+                receipt = parsed[idx][1]
+                (
+                    message_json,
+                    receipt.sender_verkey,
+                    receipt.recipient_verkey,
+                ) = result
+                receipt.raw_message = message_json
+                try:
+                    parsed[idx] = (self._load_json(message_json), receipt)
+                except WireFormatParseError as err:
+                    del parsed[idx]
+                    results[idx] = err
+
+        for idx, (message_dict, receipt) in parsed.items():
+            results[idx] = self._finish_parse(message_dict, receipt)
+        return results
+
+    def _new_receipt(self, message_body: Union[str, bytes]) -> MessageReceipt:
         receipt = MessageReceipt()
         receipt.in_time = time_now()
         receipt.raw_message = message_body
         receipt.didcomm_version = DIDCommVersion.v1
+        return receipt
 
-        message_dict = None
-        message_json = message_body
-
+    def _load_json(self, message_json: Union[str, bytes]) -> dict:
         if not message_json:
             raise WireFormatParseError("Message body is empty")
-
         try:
             message_dict = json.loads(message_json)
         except ValueError:
             raise WireFormatParseError("Message JSON parsing failed")
         if not isinstance(message_dict, dict):
             raise WireFormatParseError("Message JSON result is not an object")
+        return message_dict
 
-        # packed messages are detected by the absence of @type
-        if "@type" not in message_dict:
-            try:
-                message_json = await self.unpack(session, message_body, receipt)
-            except WireFormatParseError:
-                LOGGER.debug("Message unpack failed, falling back to JSON")
-            else:
-                receipt.raw_message = message_json
-                try:
-                    message_dict = json.loads(message_json)
-                except ValueError:
-                    raise WireFormatParseError("Message JSON parsing failed")
-                if not isinstance(message_dict, dict):
-                    raise WireFormatParseError("Message JSON result is not an object")
-
+    def _finish_parse(
+        self, message_dict: dict, receipt: MessageReceipt
+    ) -> Tuple[dict, MessageReceipt]:
         # parse thread ID
         thread_dec = message_dict.get("~thread")
         receipt.thread_id = (
@@ -313,6 +406,77 @@ class V1PackWireFormat(BaseWireFormat):
         except WalletError as e:
             raise WireFormatEncodeError("Message pack failed") from e
 
+        return await self._wrap_forwards(wallet, message, recipient_keys, routing_keys)
+
+    async def encode_messages(
+        self,
+        session: ProfileSession,
+        items: Sequence[
+            Tuple[Union[str, bytes], Sequence[str], Sequence[str], Optional[str]]
+        ],
+    ) -> List[Union[str, bytes, WireFormatEncodeError]]:
+        """Encode a batch of outgoing messages for transport.
+
+        The messages in the batch are packed together, so that each sender key
+        is fetched once and the encryption runs in the crypto worker pool.
+
+        Args:
+            session: The profile session for providing wallet access
+            items: A sequence of (message_json, recipient_keys, routing_keys,
+                sender_key) tuples
+
+        Returns:
+            A list with, for each item, either the encoded message or the error
+            raised while encoding it
+
+        """
+        results = [message_json for message_json, *_ in items]
+        packed = [
+            idx
+            for idx, (_, recipient_keys, _, sender_key) in enumerate(items)
+            if sender_key and recipient_keys
+        ]
+        if not packed:
+            return results
+
+        wallet = session.inject_or(BaseWallet)
+        if not wallet:
+            for idx in packed:
+                results[idx] = WireFormatEncodeError("No wallet instance")
+            return results
+
+        messages = await wallet.pack_messages(
+            [(items[idx][0], items[idx][1], items[idx][3]) for idx in packed]
+        )
+
+        async def wrap(idx: int, message: Union[bytes, Exception]):
+            if isinstance(message, Exception):
+                error = WireFormatEncodeError("Message pack failed")
+                error.__cause__ = message
+                return error
+            _, recipient_keys, routing_keys, _ = items[idx]
+            try:
+                return await self._wrap_forwards(
+                    wallet, message, recipient_keys, routing_keys
+                )
+            except WireFormatEncodeError as err:
+                return err
+
+        wrapped = await asyncio.gather(
+            *(wrap(idx, message) for idx, message in zip(packed, messages))
+        )
+        for idx, message in zip(packed, wrapped):
+            results[idx] = message
+        return results
+
+    async def _wrap_forwards(
+        self,
+        wallet: BaseWallet,
+        message: bytes,
+        recipient_keys: Sequence[str],
+        routing_keys: Sequence[str],
+    ) -> bytes:
+        """Wrap a packed message in a forward message for each routing key."""
         if routing_keys:
             recip_keys = recipient_keys
             for router_key in routing_keys:
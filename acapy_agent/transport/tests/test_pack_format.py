@@ -170,6 +170,57 @@ class TestPackWireFormat(IsolatedAsyncioTestCase):
                 == plain_json
             )
 
+    async def test_encode_parse_messages(self):
+        async with self.profile.session() as session:
+            wallet = session.inject(BaseWallet)
+            local_did = await wallet.create_local_did(
+                method=SOV, key_type=ED25519, seed=self.test_seed
+            )
+            router_did = await wallet.create_local_did(
+                method=SOV, key_type=ED25519, seed=self.test_routing_seed
+            )
+            serializer = PackWireFormat()
+            message_json = json.dumps(self.test_message)
+            plain_json = json.dumps("plain")
+            verkey = local_did.verkey
+
+            encoded = await serializer.encode_messages(
+                session,
+                [
+                    (message_json, (verkey,), (), verkey),
+                    (plain_json, None, None, None),
+                    (message_json, (verkey,), (router_did.verkey,), verkey),
+                    (message_json, ("unknown",), (), "unknown"),
+                ],
+            )
+            assert encoded[1] == plain_json
+            assert isinstance(encoded[3], WireFormatEncodeError)
+
+            parsed = await serializer.parse_messages(
+                session, [encoded[0], "{...", encoded[2]]
+            )
+            message_dict, delivery = parsed[0]
+            assert message_dict == self.test_message
+            assert delivery.sender_verkey == verkey
+            assert delivery.thread_id == self.test_thread_id
+            assert isinstance(parsed[1], WireFormatParseError)
+            message_dict, delivery = parsed[2]
+            assert message_dict["@type"] == DIDCommPrefix.qualify_current(FORWARD)
+            assert delivery.recipient_verkey == router_did.verkey
+
+    async def test_parse_messages_fallback(self):
+        serializer = PackWireFormat()
+        message = self.test_message.copy()
+        message.pop("@type")
+        message_json = json.dumps(message)
+
+        async with self.profile.session() as session:
+            ((message_dict, delivery),) = await serializer.parse_messages(
+                session, [message_json]
+            )
+            assert delivery.raw_message == message_json
+            assert message_dict == message
+
     async def test_forward(self):
         async with self.profile.session() as session:
             wallet = session.inject(BaseWallet)
@@ -3,11 +3,11 @@
 import json
 import logging
 from abc import abstractmethod
-from typing import List, Sequence, Tuple, Union
+from typing import List, Optional, Sequence, Tuple, Union
 
 from ..core.profile import ProfileSession
 from ..messaging.util import time_now
-from .error import WireFormatParseError
+from .error import WireFormatEncodeError, WireFormatParseError
 from .inbound.receipt import MessageReceipt
 
 LOGGER = logging.getLogger(__name__)
@@ -68,6 +68,57 @@ class BaseWireFormat:
 
         """
 
+    async def parse_messages(
+        self,
+        session: ProfileSession,
+        message_bodies: Sequence[Union[str, bytes]],
+    ) -> List[Union[Tuple[dict, MessageReceipt], WireFormatParseError]]:
+        """Deserialize a batch of incoming messages.
+
+        Args:
+            session: The profile session for providing wallet access
+            message_bodies: The bodies of the messages
+
+        Returns:
+            A list with, for each message, either a tuple of the parsed message
+            and a message receipt instance, or the error raised while parsing it
+
+        """
+        results = []
+        for message_body in message_bodies:
+            try:
+                results.append(await self.parse_message(session, message_body))
+            except WireFormatParseError as err:
+                results.append(err)
+        return results
+
+    async def encode_messages(
+        self,
+        session: ProfileSession,
+        items: Sequence[
+            Tuple[Union[str, bytes], Sequence[str], Sequence[str], Optional[str]]
+        ],
+    ) -> List[Union[str, bytes, WireFormatEncodeError]]:
+        """Encode a batch of outgoing messages for transport.
+
+        Args:
+            session: The profile session for providing wallet access
+            items: A sequence of (message_json, recipient_keys, routing_keys,
+                sender_key) tuples
+
+        Returns:
+            A list with, for each item, either the encoded message or the error
+            raised while encoding it
+
+        """
+        results = []
+        for item in items:
+            try:
+                results.append(await self.encode_message(session, *item))
+            except WireFormatEncodeError as err:
+                results.append(err)
+        return results
+
     @abstractmethod
     def get_recipient_keys(self, message_body: Union[str, bytes]) -> List[str]:
         """Get all recipient keys from a wire message.
@@ -0,0 +1,81 @@
+"""Helpers for processing and streaming batches of items."""
+
+import asyncio
+import json
+from typing import (
+    AsyncIterator,
+    Awaitable,
+    Callable,
+    Iterable,
+    Tuple,
+    TypeVar,
+    Union,
+)
+
+from aiohttp import web
+
+T = TypeVar("T")
+R = TypeVar("R")
+
+NDJSON_CONTENT_TYPE = "application/x-ndjson"
+
+
+async def map_bounded(
+    fn: Callable[[T], Awaitable[R]], items: Iterable[T], concurrency: int
+) -> AsyncIterator[Tuple[int, Union[R, Exception]]]:
+    """Apply a coroutine function to items, yielding results as they complete.
+
+    At most `concurrency` items are processed at a time, and no more items are
+    started while the consumer is not reading results, so a slow consumer slows
+    down processing instead of accumulating results in memory.
+
+    Args:
+        fn: The coroutine function to apply to each item
+        items: The items to process
+        concurrency: The maximum number of items to process at a time
+
+    Yields:
+        The index of each item with its result, or the exception it raised
+
+    """
+    items = iter(enumerate(items))
+    pending = {}
+
+    def start_next() -> bool:
+        for index, item in items:
+            pending[asyncio.ensure_future(fn(item))] = index
+            return True
+        return False
+
+    try:
+        while len(pending) < max(concurrency, 1) and start_next():
+            pass
+        while pending:
+            done, _ = await asyncio.wait(pending, return_when=asyncio.FIRST_COMPLETED)
+            for task in done:
+                index = pending.pop(task)
+                try:
+                    result = task.result()
+                except Exception as err:
+                    result = err
+                yield index, result
+                start_next()
+    finally:
+        for task in pending:
+            task.cancel()
+
+
+async def stream_ndjson(
+    request: web.BaseRequest, lines: AsyncIterator[dict]
+) -> web.StreamResponse:
+    """Stream JSON objects as newline-delimited JSON.
+
+    Each line is written as soon as it is produced, waiting for the client to
+    accept the data written so far.
+    """
+    response = web.StreamResponse(headers={"Content-Type": NDJSON_CONTENT_TYPE})
+    await response.prepare(request)
+    async for line in lines:
+        await response.write(json.dumps(line).encode("utf-8") + b"\n")
+    await response.write_eof()
+    return response
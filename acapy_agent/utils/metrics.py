@@ -0,0 +1,363 @@
+"""Counters, gauges and histograms exported in the Prometheus text format.
+
+Unlike the timing `Collector`, which records every sample, metrics only keep
+running totals and fixed histogram buckets, so updating one is a dictionary
+lookup and a few additions. This keeps them cheap enough to leave enabled.
+"""
+
+import functools
+import logging
+import math
+import time
+from bisect import bisect_left
+from typing import Callable, Dict, Iterator, Optional, Sequence, Tuple, Union
+
+LOGGER = logging.getLogger(__name__)
+
+CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8"
+
+DEFAULT_BUCKETS = (
+    0.001,
+    0.005,
+    0.01,
+    0.025,
+    0.05,
+    0.1,
+    0.25,
+    0.5,
+    1.0,
+    2.5,
+    5.0,
+    10.0,
+)
+
+Sample = Tuple[str, Dict[str, str], float]
+
+
+def _format_value(value: float) -> str:
+    """Format a sample value for the exposition format."""
+    if isinstance(value, float):
+        if math.isinf(value):
+            return "+Inf" if value > 0 else "-Inf"
+        if math.isnan(value):
+            return "NaN"
+        if value.is_integer():
+            return str(int(value))
+    return repr(value)
+
+
+def _escape(value: str) -> str:
+    """Escape a label value."""
+    return value.replace("\\", "\\\\").replace("\n", "\\n").replace('"', '\\"')
+
+
+def _format_labels(labels: Dict[str, str]) -> str:
+    if not labels:
+        return ""
+    return (
+        "{"
+        + ",".join(f'{name}="{_escape(str(value))}"' for name, value in labels.items())
+        + "}"
+    )
+
+
+class CounterValue:
+    """A monotonically increasing value."""
+
+    __slots__ = ("value",)
+
+    def __init__(self):
+        """Initialize the CounterValue instance."""
+        self.value = 0.0
+
+    def inc(self, amount: float = 1.0):
+        """Increment the counter."""
+        if amount < 0:
+            raise ValueError("Counters can only be incremented")
+        self.value += amount
+
+
+class GaugeValue:
+    """A value which may go up and down."""
+
+    __slots__ = ("value",)
+
+    def __init__(self):
+        """Initialize the GaugeValue instance."""
+        self.value = 0.0
+
+    def inc(self, amount: float = 1.0):
+        """Increment the gauge."""
+        self.value += amount
+
+    def dec(self, amount: float = 1.0):
+        """Decrement the gauge."""
+        self.value -= amount
+
+    def set(self, value: float):
+        """Set the gauge to a given value."""
+        self.value = value
+
+
+class HistogramTimer:
+    """Context manager observing its elapsed time on a histogram."""
+
+    __slots__ = ("histogram", "start_time")
+
+    def __init__(self, histogram: "HistogramValue"):
+        """Initialize the HistogramTimer instance."""
+        self.histogram = histogram
+        self.start_time = None
+
+    def __enter__(self):
+        """Enter the context manager."""
+        self.start_time = time.perf_counter()
+        return self
+
+    def __exit__(self, type, value, tb):
+        """Exit the context manager."""
+        self.histogram.observe(time.perf_counter() - self.start_time)
+
+
+class HistogramValue:
+    """Observations counted into fixed buckets."""
+
+    __slots__ = ("buckets", "counts", "count", "sum")
+
+    def __init__(self, buckets: Sequence[float]):
+        """Initialize the HistogramValue instance."""
+        self.buckets = buckets
+        # the final slot counts observations above the largest bucket
+        self.counts = [0] * (len(buckets) + 1)
+        self.count = 0
+        self.sum = 0.0
+
+    def observe(self, value: float):
+        """Record an observation."""
+        self.counts[bisect_left(self.buckets, value)] += 1
+        self.count += 1
+        self.sum += value
+
+    def time(self) -> HistogramTimer:
+        """Time a block of code."""
+        return HistogramTimer(self)
+
+
+class Metric:
+    """Base class for a named metric with optional labels."""
+
+    type_name = "untyped"
+
+    def __init__(self, name: str, documentation: str, labelnames: Sequence[str] = ()):
+        """Initialize the Metric instance."""
+        self.name = name
+        self.documentation = documentation
+        self.labelnames = tuple(labelnames)
+        self._values: Dict[Tuple[str, ...], object] = {}
+
+    def _new_value(self):
+        raise NotImplementedError()
+
+    def labels(self, *values: str, **kwargs: str):
+        """Fetch the value for a combination of label values."""
+        if kwargs:
+            values = tuple(kwargs[name] for name in self.labelnames)
+        if len(values) != len(self.labelnames):
+            raise ValueError(f"Expected labels {self.labelnames} for metric {self.name}")
+        key = tuple(str(value) for value in values)
+        found = self._values.get(key)
+        if found is None:
+            found = self._values[key] = self._new_value()
+        return found
+
+    def _value_samples(self, labels: Dict[str, str], value) -> Iterator[Sample]:
+        yield (self.name, labels, value.value)
+
+    def samples(self) -> Iterator[Sample]:
+        """Enumerate the current samples of this metric."""
+        for key, value in list(self._values.items()):
+            yield from self._value_samples(dict(zip(self.labelnames, key)), value)
+
+
+class Counter(Metric):
+    """A metric which only increases, such as a count of processed messages."""
+
+    type_name = "counter"
+
+    def _new_value(self):
+        return CounterValue()
+
+    def inc(self, amount: float = 1.0):
+        """Increment an unlabelled counter."""
+        self.labels().inc(amount)
+
+    def _value_samples(self, labels: Dict[str, str], value) -> Iterator[Sample]:
+        yield (self.name + "_total", labels, value.value)
+
+
+class Gauge(Metric):
+    """A metric reporting a current value, such as a queue depth."""
+
+    type_name = "gauge"
+
+    def __init__(self, name: str, documentation: str, labelnames: Sequence[str] = ()):
+        """Initialize the Gauge instance."""
+        super().__init__(name, documentation, labelnames)
+        self._function: Optional[Callable] = None
+
+    def _new_value(self):
+        return GaugeValue()
+
+    def set(self, value: float):
+        """Set an unlabelled gauge."""
+        self.labels().set(value)
+
+    def inc(self, amount: float = 1.0):
+        """Increment an unlabelled gauge."""
+        self.labels().inc(amount)
+
+    def dec(self, amount: float = 1.0):
+        """Decrement an unlabelled gauge."""
+        self.labels().dec(amount)
+
+    def set_function(self, fn: Optional[Callable]):
+        """Compute the gauge only when it is collected.
+
+        The function returns a number for an unlabelled gauge, or a mapping of
+        label values (a tuple, or a string for a single label) to numbers.
+        """
+        self._function = fn
+
+    def samples(self) -> Iterator[Sample]:
+        """Enumerate the current samples of this gauge."""
+        if not self._function:
+            yield from super().samples()
+            return
+        try:
+            found = self._function()
+        except Exception:
+            LOGGER.exception("Error collecting gauge %s", self.name)
+            return
+        if not isinstance(found, dict):
+            yield (self.name, {}, found)
+            return
+        for key, value in found.items():
+            if not isinstance(key, tuple):
+                key = (key,)
+            yield (self.name, dict(zip(self.labelnames, map(str, key))), value)
+
+
+class Histogram(Metric):
+    """A metric counting observations into buckets, such as request latency."""
+
+    type_name = "histogram"
+
+    def __init__(
+        self,
+        name: str,
+        documentation: str,
+        labelnames: Sequence[str] = (),
+        buckets: Sequence[float] = DEFAULT_BUCKETS,
+    ):
+        """Initialize the Histogram instance."""
+        super().__init__(name, documentation, labelnames)
+        self.buckets = tuple(sorted(buckets))
+
+    def _new_value(self):
+        return HistogramValue(self.buckets)
+
+    def observe(self, value: float):
+        """Record an observation on an unlabelled histogram."""
+        self.labels().observe(value)
+
+    def time(self) -> HistogramTimer:
+        """Time a block of code on an unlabelled histogram."""
+        return self.labels().time()
+
+    def _value_samples(self, labels: Dict[str, str], value) -> Iterator[Sample]:
+        cumulative = 0
+        for bound, count in zip(self.buckets, value.counts):
+            cumulative += count
+            yield (
+                self.name + "_bucket",
+                {**labels, "le": _format_value(bound)},
+                cumulative,
+            )
+        yield (self.name + "_bucket", {**labels, "le": "+Inf"}, value.count)
+        yield (self.name + "_count", labels, value.count)
+        yield (self.name + "_sum", labels, value.sum)
+
+
+class MetricsRegistry:
+    """Registry of the metrics exported by the agent.
+
+    Metrics are created on first use, so instrumented code may look them up by
+    name each time rather than holding a reference.
+    """
+
+    def __init__(self, prefix: str = "acapy_"):
+        """Initialize the MetricsRegistry instance."""
+        self.prefix = prefix
+        self._metrics: Dict[str, Metric] = {}
+
+    def _get_or_create(self, cls, name: str, *args, **kwargs) -> Metric:
+        name = self.prefix + name
+        found = self._metrics.get(name)
+        if found is None:
+            found = self._metrics[name] = cls(name, *args, **kwargs)
+        elif not isinstance(found, cls):
+            raise ValueError(f"Metric {name} is already registered as {found.type_name}")
+        return found
+
+    def counter(
+        self, name: str, documentation: str = "", labelnames: Sequence[str] = ()
+    ) -> Counter:
+        """Fetch or create a counter."""
+        return self._get_or_create(Counter, name, documentation, labelnames)
+
+    def gauge(
+        self, name: str, documentation: str = "", labelnames: Sequence[str] = ()
+    ) -> Gauge:
+        """Fetch or create a gauge."""
+        return self._get_or_create(Gauge, name, documentation, labelnames)
+
+    def histogram(
+        self,
+        name: str,
+        documentation: str = "",
+        labelnames: Sequence[str] = (),
+        buckets: Sequence[float] = DEFAULT_BUCKETS,
+    ) -> Histogram:
+        """Fetch or create a histogram."""
+        return self._get_or_create(Histogram, name, documentation, labelnames, buckets)
+
+    def get(self, name: str) -> Optional[Metric]:
+        """Fetch a registered metric by its unprefixed name."""
+        return self._metrics.get(self.prefix + name)
+
+    def wrap_coro(self, fn, histogram: Union[Histogram, HistogramValue]):
+        """Wrap a coroutine function to observe its run time on a histogram."""
+
+        @functools.wraps(fn)
+        async def wrapped(*args, **kwargs):
+            with histogram.time():
+                return await fn(*args, **kwargs)
+
+        return wrapped
+
+    def render(self) -> str:
+        """Render all metrics in the Prometheus text exposition format."""
+        lines = []
+        for name, metric in sorted(self._metrics.items()):
+            if metric.documentation:
+                help_text = metric.documentation.replace("\\", "\\\\").replace(
+                    "\n", "\\n"
+                )
+                lines.append(f"# HELP {name} {help_text}")
+            lines.append(f"# TYPE {name} {metric.type_name}")
+            for sample_name, labels, value in metric.samples():
+                lines.append(
+                    f"{sample_name}{_format_labels(labels)} {_format_value(value)}"
+                )
+        lines.append("")
+        return "\n".join(lines)
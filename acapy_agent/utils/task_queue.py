@@ -3,7 +3,8 @@
 import asyncio
 import logging
 import time
-from typing import Callable, Coroutine, Optional, Tuple
+from collections import deque
+from typing import Callable, Coroutine, Deque, Dict, List, Optional, Set, Tuple
 
 LOGGER = logging.getLogger(__name__)
 
@@ -65,6 +66,8 @@ class PendingTask:
         ident: Optional[str] = None,
         task_future: asyncio.Future = None,
         queued_time: Optional[float] = None,
+        task_class: Optional[str] = None,
+        weight: int = 1,
     ):
         """Initialize the pending task.
 
@@ -74,6 +77,8 @@ class PendingTask:
             ident: A string identifier for the task
             task_future: A future to be resolved to the asyncio Task
             queued_time: When the pending task was added to the queue
+            task_class: The class sharing the queue with the same weight, if any
+            weight: The number of tasks of its class run in each turn of the class
 
         """
         if not asyncio.iscoroutine(coro):
@@ -85,6 +90,8 @@ class PendingTask:
         self.unqueued_time: Optional[float] = None
         self.ident = ident or coro_ident(coro)
         self.task_future = task_future or asyncio.get_event_loop().create_future()
+        self.task_class = task_class
+        self.weight = max(weight, 1)
 
     def cancel(self):
         """Cancel the pending task."""
@@ -122,7 +129,13 @@ class PendingTask:
 
 
 class TaskQueue:
-    """A class for managing a set of asyncio tasks."""
+    """A class for managing a set of asyncio tasks.
+
+    Pending tasks are queued by class. When there is room for another task, the
+    classes take turns in weighted round-robin order, a class running as many
+    tasks in its turn as its weight, so that a flood of tasks of one class does
+    not hold back the others. Tasks without a class share a single class.
+    """
 
     def __init__(
         self,
@@ -139,8 +152,12 @@ class TaskQueue:
 
         """
         self.loop = None  # Lazy initialization
-        self.active_tasks: list[asyncio.Task] = []
-        self.pending_tasks: list[PendingTask] = []
+        self.active_tasks: Set[asyncio.Task] = set()
+        # pending tasks by class, and the classes with pending tasks in turn order
+        self._pending: Dict[Optional[str], Deque[PendingTask]] = {}
+        self._turns: Deque[Optional[str]] = deque()
+        self._turn_started = 0
+        self._pending_count = 0
         self.timed = timed
         self.total_done = 0
         self.total_failed = 0
@@ -195,12 +212,25 @@ class TaskQueue:
     @property
     def current_pending(self) -> int:
         """Accessor for the current number of pending tasks in the queue."""
-        return len(self.pending_tasks)
+        return self._pending_count
 
     @property
     def current_size(self) -> int:
         """Accessor for the total number of tasks in the queue."""
-        return len(self.active_tasks) + len(self.pending_tasks)
+        return len(self.active_tasks) + self._pending_count
+
+    @property
+    def pending_tasks(self) -> List[PendingTask]:
+        """Accessor for a list of the pending tasks, in turn order of their classes."""
+        return [
+            pending for task_class in self._turns for pending in self._pending[task_class]
+        ]
+
+    def pending_by_class(self) -> Dict[str, int]:
+        """Get the number of pending tasks of each class."""
+        return {
+            task_class or "": len(queue) for task_class, queue in self._pending.items()
+        }
 
     def __bool__(self) -> bool:
         """Support for the bool() builtin.
@@ -220,7 +250,7 @@ class TaskQueue:
         self._ensure_loop()  # Ensure loop is initialized
         if self._drain_task and not self._drain_task.done():
             self._drain_evt.set()
-        elif self.pending_tasks:
+        elif self._pending_count:
             self._drain_task = self.loop.create_task(self._drain_loop())
             self._drain_task.add_done_callback(lambda task: self._drain_done(task))
         return self._drain_task
@@ -239,10 +269,10 @@ class TaskQueue:
         # waiting for the drain event, to avoid yielding to other queue methods
         while True:
             self._drain_evt.clear()
-            while self.pending_tasks and (
+            while self._pending_count and (
                 not self._max_active or len(self.active_tasks) < self._max_active
             ):
-                pending: PendingTask = self.pending_tasks.pop(0)
+                pending = self._next_pending()
                 if pending.queued_time:
                     pending.unqueued_time = time.perf_counter()
                     timing = {
@@ -258,11 +288,27 @@ class TaskQueue:
                     pending.task = task
                 except ValueError:
                     LOGGER.warning("Pending task future already fulfilled")
-            if self.pending_tasks:
+            if self._pending_count:
                 await self._drain_evt.wait()
             else:
                 break
 
+    def _next_pending(self) -> PendingTask:
+        """Take the next pending task of the class whose turn it is."""
+        task_class = self._turns[0]
+        queue = self._pending[task_class]
+        pending = queue.popleft()
+        self._pending_count -= 1
+        self._turn_started += 1
+        if not queue:
+            del self._pending[task_class]
+            self._turns.popleft()
+            self._turn_started = 0
+        elif self._turn_started >= pending.weight:
+            self._turns.rotate(-1)
+            self._turn_started = 0
+        return pending
+
     def add_pending(self, pending: PendingTask):
         """Add a task to the pending queue.
 
@@ -272,7 +318,12 @@ class TaskQueue:
         """
         if self.timed and not pending.queued_time:
             pending.queued_time = time.perf_counter()
-        self.pending_tasks.append(pending)
+        queue = self._pending.get(pending.task_class)
+        if queue is None:
+            queue = self._pending[pending.task_class] = deque()
+            self._turns.append(pending.task_class)
+        queue.append(pending)
+        self._pending_count += 1
         self.drain()
 
     def add_active(
@@ -291,7 +342,7 @@ class TaskQueue:
             timing: An optional dictionary of timing information
 
         """
-        self.active_tasks.append(task)
+        self.active_tasks.add(task)
         task.add_done_callback(
             lambda fut: self.completed_task(task, task_complete, ident, timing)
         )
@@ -335,6 +386,9 @@ class TaskQueue:
         coro: Coroutine,
         task_complete: Optional[Callable] = None,
         ident: Optional[str] = None,
+        *,
+        task_class: Optional[str] = None,
+        weight: int = 1,
     ) -> PendingTask:
         """Add a new task to the queue, delaying execution if busy.
 
@@ -342,11 +396,15 @@ class TaskQueue:
             coro: The coroutine to run
             task_complete: A callback to run on completion
             ident: A string identifier for the task
+            task_class: The class to queue the task in while busy
+            weight: The number of tasks of the class run in each turn of the class
 
         Returns: a future resolving to the asyncio task instance once queued
 
         """
-        pending = PendingTask(coro, task_complete, ident)
+        pending = PendingTask(
+            coro, task_complete, ident, task_class=task_class, weight=weight
+        )
         if self._cancelled:
             pending.cancel()
         elif self.ready:
@@ -379,10 +437,7 @@ class TaskQueue:
                     self._trace_fn(completed)
             except Exception:
                 LOGGER.exception("Error finalizing task %s", completed)
-        try:
-            self.active_tasks.remove(task)
-        except ValueError:
-            pass
+        self.active_tasks.discard(task)
         self.drain()
 
     def cancel_pending(self):
@@ -390,9 +445,13 @@ class TaskQueue:
         if self._drain_task:
             self._drain_task.cancel()
             self._drain_task = None
-        for pending in self.pending_tasks:
-            pending.cancel()
-        self.pending_tasks = []
+        for queue in self._pending.values():
+            for pending in queue:
+                pending.cancel()
+        self._pending = {}
+        self._turns.clear()
+        self._turn_started = 0
+        self._pending_count = 0
 
     def cancel(self):
         """Cancel any pending or active tasks in the queue."""
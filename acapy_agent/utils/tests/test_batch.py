@@ -0,0 +1,45 @@
+import asyncio
+
+import pytest
+
+from ..batch import map_bounded
+
+
+@pytest.mark.asyncio
+async def test_map_bounded():
+    running = 0
+    max_running = 0
+
+    async def double(value: int) -> int:
+        nonlocal running, max_running
+        running += 1
+        max_running = max(max_running, running)
+        await asyncio.sleep(0.01 * (5 - value))
+        running -= 1
+        if value == 3:
+            raise ValueError("three")
+        return value * 2
+
+    results = [result async for result in map_bounded(double, range(5), 2)]
+    assert max_running == 2
+    assert sorted(index for index, _ in results) == [0, 1, 2, 3, 4]
+    results = dict(results)
+    assert [results[index] for index in (0, 1, 2, 4)] == [0, 2, 4, 8]
+    assert isinstance(results[3], ValueError)
+
+
+@pytest.mark.asyncio
+async def test_map_bounded_backpressure():
+    started = []
+
+    async def record(value: int) -> int:
+        started.append(value)
+        return value
+
+    results = map_bounded(record, range(10), 2)
+    assert await results.__anext__() == (0, 0)
+    await asyncio.sleep(0)
+    # only the items needed to keep the window full have been started
+    assert len(started) <= 3
+    await results.aclose()
+
@@ -0,0 +1,82 @@
+from unittest import IsolatedAsyncioTestCase
+
+from ..metrics import MetricsRegistry
+
+
+class TestMetrics(IsolatedAsyncioTestCase):
+    def test_counter(self):
+        metrics = MetricsRegistry()
+        counter = metrics.counter("events", "Processed events", ["kind"])
+        counter.labels("a").inc()
+        counter.labels(kind="a").inc(2)
+        counter.labels("b").inc()
+        assert metrics.counter("events") is counter
+
+        with self.assertRaises(ValueError):
+            counter.labels("a").inc(-1)
+        with self.assertRaises(ValueError):
+            counter.labels("a", "b")
+        with self.assertRaises(ValueError):
+            metrics.gauge("events")
+
+        output = metrics.render()
+        assert "# HELP acapy_events Processed events" in output
+        assert "# TYPE acapy_events counter" in output
+        assert 'acapy_events_total{kind="a"} 3' in output
+        assert 'acapy_events_total{kind="b"} 1' in output
+
+    def test_gauge(self):
+        metrics = MetricsRegistry()
+        gauge = metrics.gauge("depth")
+        gauge.inc(5)
+        gauge.dec()
+        assert "acapy_depth 4" in metrics.render()
+        gauge.set(1.5)
+        assert "acapy_depth 1.5" in metrics.render()
+
+        labelled = metrics.gauge("queue", labelnames=["state"])
+        labelled.set_function(lambda: {"new": 2, "done": 0})
+        output = metrics.render()
+        assert 'acapy_queue{state="new"} 2' in output
+        assert 'acapy_queue{state="done"} 0' in output
+
+        def fail():
+            raise RuntimeError()
+
+        labelled.set_function(fail)
+        assert "acapy_queue{" not in metrics.render()
+
+    def test_histogram(self):
+        metrics = MetricsRegistry()
+        histogram = metrics.histogram(
+            "latency_seconds", labelnames=["op"], buckets=(0.1, 1.0)
+        )
+        child = histogram.labels("get")
+        child.observe(0.05)
+        child.observe(0.1)
+        child.observe(0.5)
+        child.observe(3)
+        with child.time():
+            pass
+
+        output = metrics.render()
+        assert 'acapy_latency_seconds_bucket{op="get",le="0.1"} 3' in output
+        assert 'acapy_latency_seconds_bucket{op="get",le="1"} 4' in output
+        assert 'acapy_latency_seconds_bucket{op="get",le="+Inf"} 5' in output
+        assert 'acapy_latency_seconds_count{op="get"} 5' in output
+
+    def test_label_escaping(self):
+        metrics = MetricsRegistry()
+        metrics.counter("events", labelnames=["kind"]).labels('say "hi"\n').inc()
+        assert 'acapy_events_total{kind="say \\"hi\\"\\n"} 1' in metrics.render()
+
+    async def test_wrap_coro(self):
+        metrics = MetricsRegistry()
+        histogram = metrics.histogram("call_seconds")
+
+        async def call(value):
+            return value
+
+        wrapped = metrics.wrap_coro(call, histogram)
+        assert await wrapped(1) == 1
+        assert histogram.labels().count == 1
@@ -69,6 +69,27 @@ class TestTaskQueue(IsolatedAsyncioTestCase):
         assert pend1.task.result() == 1
         assert pend2.task.result() == 2
 
+    async def test_put_task_classes(self):
+        queue = TaskQueue(1)
+        started = []
+
+        async def record(val):
+            started.append(val)
+
+        queue.put(retval(0, delay=0.01))
+        for i in range(4):
+            queue.put(record(f"a{i}"), task_class="a", weight=2)
+        for i in range(2):
+            queue.put(record(f"b{i}"), task_class="b")
+        queue.put(record("c0"), task_class="c")
+        assert queue.current_pending == 7
+        assert queue.pending_by_class() == {"a": 4, "b": 2, "c": 1}
+
+        await queue.flush()
+        assert started == ["a0", "a1", "b0", "c0", "a2", "a3", "b1"]
+        assert not queue.current_pending
+        assert not queue.pending_by_class()
+
     async def test_pending(self):
         coro = retval(1, delay=1)
         pend = PendingTask(coro, None)
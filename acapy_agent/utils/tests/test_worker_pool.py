@@ -0,0 +1,25 @@
+import threading
+
+import pytest
+
+from ..worker_pool import WorkerPool
+
+
+@pytest.mark.asyncio
+async def test_run():
+    pool = WorkerPool(2, name="test-worker")
+    try:
+        assert pool.max_workers == 2
+        name = await pool.run(lambda: threading.current_thread().name)
+        assert name.startswith("test-worker")
+        assert await pool.run(pow, 2, 8) == 256
+        with pytest.raises(ZeroDivisionError):
+            await pool.run(divmod, 1, 0)
+    finally:
+        pool.shutdown()
+
+
+def test_default_size():
+    pool = WorkerPool()
+    assert pool.max_workers >= 1
+    pool.shutdown()
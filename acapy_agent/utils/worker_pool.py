@@ -0,0 +1,43 @@
+"""Thread pool for CPU-bound work, such as message encryption."""
+
+import asyncio
+import logging
+import os
+from concurrent.futures import ThreadPoolExecutor
+from typing import Callable, Optional, TypeVar
+
+LOGGER = logging.getLogger(__name__)
+
+T = TypeVar("T")
+
+
+class WorkerPool:
+    """A dedicated pool of worker threads.
+
+    Crypto libraries such as Askar release the GIL while they work, so running
+    their calls here keeps the event loop responsive and lets several messages
+    be processed in parallel. A dedicated pool also stops this work from
+    queueing behind unrelated blocking calls in the default executor.
+    """
+
+    def __init__(self, max_workers: Optional[int] = None, name: str = "acapy-worker"):
+        """Initialize the WorkerPool instance.
+
+        Args:
+            max_workers: The number of worker threads, by default one per CPU
+            name: Prefix for the names of the worker threads
+
+        """
+        self.max_workers = max_workers or os.cpu_count() or 1
+        self._executor = ThreadPoolExecutor(self.max_workers, thread_name_prefix=name)
+        LOGGER.debug("Worker pool %s started with %d threads", name, self.max_workers)
+
+    async def run(self, fn: Callable[..., T], *args) -> T:
+        """Run a function in the pool and wait for its result."""
+        return await asyncio.get_running_loop().run_in_executor(
+            self._executor, fn, *args
+        )
+
+    def shutdown(self, wait: bool = False):
+        """Stop the worker threads once queued work is complete."""
+        self._executor.shutdown(wait=wait)
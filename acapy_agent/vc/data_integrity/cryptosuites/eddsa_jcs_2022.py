@@ -41,6 +41,8 @@ class EddsaJcs2022:
         self.session = session
         self.wallet = session.inject(BaseWallet)
         self.key_manager = MultikeyManager(session)
+        # signing keys by verification method, when creating several proofs
+        self._key_info = {}
 
     async def create_proof(
         self, unsecured_data_document: dict, options: DataIntegrityProofOptions
@@ -120,13 +122,16 @@ class EddsaJcs2022:
 
         https://www.w3.org/TR/vc-di-eddsa/#proof-serialization-eddsa-jcs-2022.
         """
-        # TODO encapsulate in a key manager method
-        if options.verification_method.startswith("did:key:"):
-            multikey = options.verification_method.split("#")[-1]
-            key_info = await self.key_manager.from_multikey(multikey)
-
-        else:
-            key_info = await self.key_manager.from_kid(options.verification_method)
+        key_info = self._key_info.get(options.verification_method)
+        if not key_info:
+            # TODO encapsulate in a key manager method
+            if options.verification_method.startswith("did:key:"):
+                multikey = options.verification_method.split("#")[-1]
+                key_info = await self.key_manager.from_multikey(multikey)
+
+            else:
+                key_info = await self.key_manager.from_kid(options.verification_method)
+            self._key_info[options.verification_method] = key_info
 
         return await self.wallet.sign_message(
             message=hash_data,
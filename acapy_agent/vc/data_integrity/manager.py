@@ -1,10 +1,12 @@
 """DataIntegrity class."""
 
 from datetime import datetime
+from typing import AsyncIterator, Sequence, Tuple, Union
 
 from ...core.error import BaseError
 from ...core.profile import ProfileSession
 from ...resolver.base import DIDNotFound
+from ...utils.batch import map_bounded
 from .cryptosuites import EddsaJcs2022
 from .errors import PROBLEM_DETAILS
 from .models.options import DataIntegrityProofOptions
@@ -26,6 +28,8 @@ PROOF_PURPOSES = [
     "assertionMethod",
 ]
 
+DEFAULT_BATCH_CONCURRENCY = 8
+
 
 class DataIntegrityManagerError(BaseError):
     """Generic DataIntegrityManager Error."""
@@ -45,7 +49,40 @@ class DataIntegrityManager:
         """
         self.validate_proof_options(options)
         suite = self.select_suite(options)
+        return await self._add_proof(suite, document, options)
+
+    async def add_proofs(
+        self,
+        documents: Sequence[dict],
+        options: DataIntegrityProofOptions,
+        *,
+        concurrency: int = DEFAULT_BATCH_CONCURRENCY,
+    ) -> AsyncIterator[Tuple[int, Union[dict, Exception]]]:
+        """Add a proof with the same options to several documents.
+
+        The options are validated and the suite and signing key are set up once
+        for all documents. Results are yielded as the consumer reads them.
+
+        Args:
+            documents: The documents to secure
+            options: The options of the proof to add to each document
+            concurrency: The maximum number of documents to sign at a time
+
+        Yields:
+            The index of each document with the secured document, or the error
+            which prevented securing it
+
+        """
+        self.validate_proof_options(options)
+        suite = self.select_suite(options)
+
+        async def add_one(document: dict) -> dict:
+            return await self._add_proof(suite, document, options)
+
+        async for index, result in map_bounded(add_one, documents, concurrency):
+            yield index, result
 
+    async def _add_proof(self, suite, document: dict, options: DataIntegrityProofOptions):
         # Capture existing proofs if any
         all_proofs = document.pop("proof", [])
         if not isinstance(all_proofs, list) and not isinstance(all_proofs, dict):
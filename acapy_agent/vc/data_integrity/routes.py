@@ -9,6 +9,7 @@ from marshmallow import fields
 from ...admin.decorators.auth import tenant_authentication
 from ...admin.request_context import AdminRequestContext
 from ...messaging.models.openapi import OpenAPISchema
+from ...utils.batch import stream_ndjson
 from ...wallet.error import WalletError
 from .manager import DataIntegrityManager, DataIntegrityManagerError
 from .models import DataIntegrityProofOptions, DataIntegrityProofOptionsSchema
@@ -41,6 +42,37 @@ class AddProofResponseSchema(OpenAPISchema):
     )
 
 
+class AddProofBatchSchema(OpenAPISchema):
+    """Request schema to add a DI proof to several documents."""
+
+    documents = fields.List(
+        fields.Dict(),
+        required=True,
+        metadata={"example": [{"hello": "world"}, {"hello": "again"}]},
+    )
+    options = fields.Nested(
+        DataIntegrityProofOptionsSchema,
+        metadata={
+            "example": {
+                "type": "DataIntegrityProof",
+                "cryptosuite": "eddsa-jcs-2022",
+                "proofPurpose": "assertionMethod",
+                "verificationMethod": "did:web:example.com#key-01",
+            }
+        },
+    )
+
+
+class AddProofBatchResultSchema(OpenAPISchema):
+    """Schema for each line of the result of adding a DI proof to documents."""
+
+    index = fields.Int(metadata={"description": "Position of the document"})
+    secured_document = fields.Dict(
+        data_key="securedDocument", metadata={"example": {"hello": "world"}}
+    )
+    error = fields.Str(metadata={"description": "Error, if no proof was added"})
+
+
 class VerifyDiRequestSchema(OpenAPISchema):
     """Request schema to verify a document secured with a data integrity proof."""
 
@@ -103,6 +135,49 @@ async def add_di_proof(request: web.BaseRequest):
         raise web.HTTPBadRequest(reason=err.roll_up) from err
 
 
+@docs(
+    tags=["vc"],
+    summary="Add a DataIntegrityProof to several documents.",
+    description=(
+        "Results are streamed as newline-delimited JSON, one line per document as "
+        "it is secured, in no particular order."
+    ),
+)
+@request_schema(AddProofBatchSchema())
+@response_schema(AddProofBatchResultSchema(), description="")
+@tenant_authentication
+async def add_di_proof_batch(request: web.BaseRequest):
+    """Request handler for creating di proofs for several documents.
+
+    Args:
+        request: aiohttp request object
+
+    """
+    context: AdminRequestContext = request["context"]
+    body = await request.json()
+
+    documents = body.get("documents") or []
+    options = body.get("options")
+
+    async with context.session() as session:
+        manager = DataIntegrityManager(session)
+        try:
+            options = DataIntegrityProofOptions.deserialize(options)
+            # check the options before starting the response
+            manager.validate_proof_options(options)
+        except DataIntegrityManagerError as err:
+            raise web.HTTPBadRequest(reason=err.roll_up) from err
+
+        async def results():
+            async for index, result in manager.add_proofs(documents, options):
+                if isinstance(result, Exception):
+                    yield {"index": index, "error": str(result)}
+                else:
+                    yield {"index": index, "securedDocument": result}
+
+        return await stream_ndjson(request, results())
+
+
 @docs(tags=["vc"], summary="Verify a document secured with a data integrity proof.")
 @request_schema(VerifyDiRequestSchema())
 @response_schema(VerifyDiResponseSchema(), description="")
@@ -146,6 +221,7 @@ async def register(app: web.Application):
     app.add_routes(
         [
             web.post("/vc/di/add-proof", add_di_proof),
+            web.post("/vc/di/add-proof-batch", add_di_proof_batch),
             web.post("/vc/di/verify", verify_di_secured_document),
         ]
     )
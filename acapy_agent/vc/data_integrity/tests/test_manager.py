@@ -74,6 +74,24 @@ class TestDiManager(IsolatedAsyncioTestCase):
             assert proof["verificationMethod"] == self.options.verification_method
             assert proof["proofValue"]
 
+    async def test_add_proofs(self):
+        documents = [{"hello": f"world {idx}"} for idx in range(3)]
+        async with self.profile.session() as session:
+            di_manager = DataIntegrityManager(session=session)
+            results = dict(
+                [
+                    result
+                    async for result in di_manager.add_proofs(
+                        documents, self.options, concurrency=2
+                    )
+                ]
+            )
+            assert sorted(results) == [0, 1, 2]
+            for idx in range(3):
+                assert results[idx]["hello"] == f"world {idx}"
+                verification = await di_manager.verify_proof(results[idx])
+                assert verification.verified
+
     async def test_add_proof_chain(self):
         pass
 
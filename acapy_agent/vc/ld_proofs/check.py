@@ -1,10 +1,14 @@
 """Validator methods to check for properties without a context."""
 
-from typing import Optional, Sequence, Tuple, Union
+import json
+from typing import Hashable, Optional, Sequence, Tuple, Union
 
 from pyld import jsonld
 
-from .document_loader import DocumentLoaderMethod
+from .document_loader import DocumentLoader, DocumentLoaderMethod
+
+# values which select the contexts applying to a document
+CONTEXT_KEYS = ("@context", "type", "@type")
 
 
 def diff_dict_keys(
@@ -125,6 +129,29 @@ def diff_dict_keys(
     return missing
 
 
+def document_shape(value) -> Hashable:
+    """Get the structure of a document, ignoring values which don't affect contexts.
+
+    Documents created from the same template, such as credentials issued in bulk,
+    have the same shape and so the same properties without a context definition.
+    """
+    if isinstance(value, dict):
+        return tuple(
+            sorted(
+                (
+                    key,
+                    json.dumps(val, sort_keys=True)
+                    if key in CONTEXT_KEYS
+                    else document_shape(val),
+                )
+                for key, val in value.items()
+            )
+        )
+    if isinstance(value, list):
+        return tuple(document_shape(val) for val in value)
+    return type(value).__name__
+
+
 def get_properties_without_context(
     document: dict, document_loader: DocumentLoaderMethod
 ) -> Sequence[str]:
@@ -133,6 +160,25 @@ def get_properties_without_context(
     if "verifiableCredential" in document:
         return []
 
+    check_cache = None
+    if isinstance(document_loader, DocumentLoader):
+        check_cache = document_loader.check_cache
+        shape = document_shape(document)
+        missing = check_cache.get(shape)
+        if missing is not None:
+            return list(missing)
+
+    missing = _get_properties_without_context(document, document_loader)
+
+    if check_cache is not None:
+        check_cache.put(shape, tuple(missing))
+
+    return missing
+
+
+def _get_properties_without_context(
+    document: dict, document_loader: DocumentLoaderMethod
+) -> Sequence[str]:
     document = document.copy()
 
     # Removes unknown keys from object
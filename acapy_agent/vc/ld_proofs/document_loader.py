@@ -2,7 +2,9 @@
 
 import asyncio
 import concurrent.futures
-from typing import Callable
+import json
+from collections import OrderedDict
+from typing import Callable, Hashable, Optional
 
 import nest_asyncio
 from pydid.did_url import DIDUrl
@@ -17,26 +19,97 @@ from .error import LinkedDataProofException
 nest_asyncio.apply()
 
 
-class DocumentLoader:
-    """JSON-LD document loader."""
+class _BoundedDict(OrderedDict):
+    """Dictionary keeping at most `max_size` of the most recently used items."""
+
+    def __init__(self, max_size: int):
+        """Initialize the dictionary with its maximum size."""
+        super().__init__()
+        self.max_size = max_size
+
+    def get(self, key: Hashable, default=None):
+        """Return an item and mark it as recently used."""
+        value = super().get(key, default)
+        if value is not default:
+            try:
+                self.move_to_end(key)
+            except KeyError:
+                # removed by a concurrent caller
+                pass
+        return value
+
+    def put(self, key: Hashable, value):
+        """Add an item, removing the least recently used items over the limit."""
+        if self.max_size <= 0:
+            return
+        self[key] = value
+        self.move_to_end(key)
+        while len(self) > self.max_size:
+            self.popitem(last=False)
+
 
-    def __init__(self, profile: Profile, cache_ttl: int = 300) -> None:
+class DocumentLoader:
+    """JSON-LD document loader.
+
+    JSON-LD contexts, which are the documents loaded from http(s) URLs, are
+    treated as immutable: they are parsed once and kept in memory, and are
+    returned with the `static` tag so that pyld can reuse the processed context
+    across operations. DID documents are resolved on every load, subject to the
+    shared cache and the DID resolver's own cache.
+    """
+
+    def __init__(
+        self,
+        profile: Profile,
+        cache_ttl: int = 300,
+        *,
+        context_cache_size: int = 256,
+        check_cache_size: int = 1024,
+        max_workers: int = 4,
+    ) -> None:
         """Initialize new DocumentLoader instance.
 
         Args:
             profile (Profile): The profile
             cache_ttl (int, optional): TTL for cached documents. Defaults to 300.
+            context_cache_size (int, optional): Number of parsed contexts to keep in
+                memory, or 0 to disable. Defaults to 256.
+            check_cache_size (int, optional): Number of document shapes to remember
+                the context check result of, or 0 to disable. Defaults to 1024.
+            max_workers (int, optional): Number of threads for downloading contexts
+                which are not available locally. Defaults to 4.
 
         """
         self.profile = profile
         self.resolver = profile.inject(DIDResolver)
         self.cache = profile.inject_or(BaseCache)
         self.online_request_loader = requests.requests_document_loader()
-        self.requests_loader = StaticCacheJsonLdDownloader().load
-        self.executor = concurrent.futures.ThreadPoolExecutor(max_workers=1)
+        static_loader = StaticCacheJsonLdDownloader()
+        self.requests_loader = static_loader.load
+        self.executor = concurrent.futures.ThreadPoolExecutor(
+            max_workers=max_workers, thread_name_prefix="acapy-jsonld"
+        )
         self.cache_ttl = cache_ttl
+        self.contexts = _BoundedDict(context_cache_size)
+        self.check_cache = _BoundedDict(check_cache_size)
         self._event_loop = asyncio.get_event_loop()
 
+        for url, document in static_loader.cache.items():
+            self._cache_context(url, document)
+
+    def _cache_context(self, url: str, document: dict) -> dict:
+        """Keep a parsed JSON-LD context in memory."""
+        if isinstance(document.get("document"), str):
+            document = {**document, "document": json.loads(document["document"])}
+        # pyld keeps contexts tagged static in its shared resolved context cache
+        document = {**document, "tag": "static"}
+        self.contexts.put(url, document)
+        return document
+
+    def _cached_context(self, url: str) -> Optional[dict]:
+        """Return a JSON-LD context kept in memory, if any."""
+        return self.contexts.get(url)
+
     async def _load_did_document(self, did: str, options: dict):
         # Resolver expects plain did without path, query, etc...
         # DIDUrl throws error if it contains no path, query etc...
@@ -66,7 +139,10 @@ class DocumentLoader:
         if url.startswith("did:"):
             document = await self._load_did_document(url, options)
         elif url.startswith("http://") or url.startswith("https://"):
-            document = self._load_http_document(url, options)
+            # contexts not available locally are downloaded off the event loop
+            document = await asyncio.get_running_loop().run_in_executor(
+                self.executor, self._load_http_document, url, options
+            )
         else:
             raise LinkedDataProofException(
                 "Unrecognized url format. Must start with 'did:', 'http://' or 'https://'"
@@ -82,26 +158,48 @@ class DocumentLoader:
         Document loading is processed in separate thread to deal with
         async to sync transformation.
         """
+        document = self._cached_context(url)
+        if document:
+            return document
+
         cache_key = f"json_ld_document_resolver::{url}"
 
         # Try to get from cache
+        document = None
         if self.cache:
             document = await self.cache.get(cache_key)
-            if document:
-                return document
 
-        document = await self._load_async(url, options)
+        if not document:
+            document = await self._load_async(url, options)
 
-        # Cache document, if cache is available
-        if self.cache:
-            await self.cache.set(cache_key, document, self.cache_ttl)
+            # Cache document, if cache is available
+            if self.cache:
+                await self.cache.set(cache_key, document, self.cache_ttl)
+
+        if not url.startswith("did:"):
+            document = self._cache_context(url, document)
 
         return document
 
     def __call__(self, url: str, options: dict):
-        """Load JSON-LD Document."""
+        """Load JSON-LD Document.
+
+        Contexts kept in memory are returned directly. Other documents are loaded
+        on the event loop, so the loader may also be called from worker threads.
+        """
+        document = self._cached_context(url)
+        if document:
+            return document
+
         loop = self._event_loop
         coroutine = self.load_document(url, options)
+        try:
+            running = asyncio.get_running_loop()
+        except RuntimeError:
+            running = None
+        if running is None and loop.is_running():
+            # called from a worker thread while the event loop runs elsewhere
+            return asyncio.run_coroutine_threadsafe(coroutine, loop).result()
         document = loop.run_until_complete(coroutine)
 
         return document
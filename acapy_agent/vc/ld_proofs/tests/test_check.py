@@ -1,7 +1,11 @@
+from copy import deepcopy
 from unittest import TestCase
 
+from ....tests import mock
 from ...tests.document_loader import custom_document_loader
+from .. import check as test_module
 from ..check import get_properties_without_context
+from ..document_loader import DocumentLoader, _BoundedDict
 
 VALID_INPUT_DOC = {
     "@context": [
@@ -178,3 +182,28 @@ class TestCheck(TestCase):
             "credentialSubject.recipient.nonExistent",
             "credentialSubject.vaccine.nonExistent",
         ]
+
+    def test_get_properties_without_context_cached_by_shape(self):
+        document_loader = mock.MagicMock(
+            DocumentLoader,
+            side_effect=custom_document_loader,
+            check_cache=_BoundedDict(10),
+        )
+        other_doc = deepcopy(INVALID_VACCINATION_DOC)
+        other_doc["credentialSubject"]["recipient"]["nonExistent"] = "other value"
+        with mock.patch.object(
+            test_module,
+            "_get_properties_without_context",
+            wraps=test_module._get_properties_without_context,
+        ) as check:
+            for doc in (INVALID_VACCINATION_DOC, other_doc):
+                assert get_properties_without_context(doc, document_loader) == [
+                    "credentialSubject.recipient.nonExistent",
+                    "credentialSubject.vaccine.nonExistent",
+                ]
+            check.assert_called_once()
+
+            # a different type may select different contexts
+            other_doc["credentialSubject"]["type"] = "OtherType"
+            get_properties_without_context(other_doc, document_loader)
+            assert check.call_count == 2
@@ -0,0 +1,64 @@
+import asyncio
+import json
+from unittest import IsolatedAsyncioTestCase
+
+from ....resolver.did_resolver import DIDResolver
+from ....tests import mock
+from ....utils.testing import create_test_profile
+from ..document_loader import DocumentLoader
+
+CREDENTIALS_CONTEXT_URL = "https://www.w3.org/2018/credentials/v1"
+REMOTE_CONTEXT_URL = "https://example.com/contexts/remote/v1"
+
+
+class TestDocumentLoader(IsolatedAsyncioTestCase):
+    async def asyncSetUp(self):
+        self.profile = await create_test_profile()
+        self.profile.context.injector.bind_instance(DIDResolver, DIDResolver([]))
+        self.loader = DocumentLoader(self.profile)
+
+    async def test_static_context(self):
+        with mock.patch.object(self.loader, "requests_loader") as requests_loader:
+            document = self.loader(CREDENTIALS_CONTEXT_URL, {})
+            requests_loader.assert_not_called()
+        assert isinstance(document["document"], dict)
+        assert document["tag"] == "static"
+        assert self.loader(CREDENTIALS_CONTEXT_URL, {}) is document
+
+    async def test_remote_context_cached(self):
+        with mock.patch.object(
+            self.loader,
+            "_load_http_document",
+            mock.MagicMock(
+                return_value={
+                    "contentType": "application/ld+json",
+                    "contextUrl": None,
+                    "documentUrl": REMOTE_CONTEXT_URL,
+                    "document": json.dumps({"@context": {"name": "ex:name"}}),
+                }
+            ),
+        ) as load_http:
+            document = await self.loader.load_document(REMOTE_CONTEXT_URL, {})
+            assert document["document"] == {"@context": {"name": "ex:name"}}
+            assert self.loader(REMOTE_CONTEXT_URL, {}) is document
+            load_http.assert_called_once()
+
+    async def test_context_cache_disabled(self):
+        loader = DocumentLoader(self.profile, context_cache_size=0)
+        with mock.patch.object(loader, "requests_loader") as requests_loader:
+            requests_loader.return_value = {"document": "{}"}
+            await loader.load_document(CREDENTIALS_CONTEXT_URL, {})
+            await loader.load_document(CREDENTIALS_CONTEXT_URL, {})
+            assert requests_loader.call_count == 2
+
+    async def test_load_from_worker_thread(self):
+        did_document = {"document": {"id": "did:example:123"}}
+        with mock.patch.object(
+            self.loader,
+            "_load_did_document",
+            mock.CoroutineMock(return_value=did_document),
+        ):
+            document = await asyncio.get_running_loop().run_in_executor(
+                None, self.loader, "did:example:123", {}
+            )
+        assert document == did_document
@@ -11,6 +11,7 @@ from ..config.base import InjectionError
 from ..resolver.base import ResolverError
 from ..storage.error import StorageDuplicateError, StorageError, StorageNotFoundError
 from ..storage.vc_holder.base import VCHolder
+from ..utils.batch import stream_ndjson
 from ..wallet.base import BaseWallet
 from ..wallet.error import WalletError
 from .vc_ld.manager import VcLdpManager, VcLdpManagerError
@@ -84,19 +85,7 @@ async def issue_credential_route(request: web.BaseRequest):
 
         # We derive the proofType from the issuer DID if not provided in options
         if not options.get("proofType", None):
-            issuer = credential["issuer"]
-            did = issuer if isinstance(issuer, str) else issuer["id"]
-            async with context.session() as session:
-                wallet: BaseWallet | None = session.inject_or(BaseWallet)
-                info = await wallet.get_local_did(did)
-                key_type = info.key_type.key_type
-
-            if key_type == "ed25519":
-                options["proofType"] = "Ed25519Signature2020"
-            elif key_type == "bls12381g2":
-                options["proofType"] = "BbsBlsSignature2020"
-            elif key_type == "p256":
-                options["proofType"] = "EcdsaSecp256r1Signature2019"
+            await _set_issuer_proof_type(context, credential, options)
 
         credential = VerifiableCredential.deserialize(credential)
         options = LDProofVCOptions.deserialize(options)
@@ -108,6 +97,89 @@ async def issue_credential_route(request: web.BaseRequest):
         return web.json_response({"message": str(err)}, status=400)
 
 
+@docs(
+    tags=["vc-api"],
+    summary="Issue a batch of credentials",
+    description=(
+        "Signs each credential with the same options. Results are streamed as "
+        "newline-delimited JSON, one line per credential as it is signed, in no "
+        "particular order."
+    ),
+)
+@request_schema(web_schemas.IssueCredentialBatchRequest())
+@response_schema(web_schemas.IssueCredentialBatchResult(), 200, description="")
+@tenant_authentication
+async def issue_credential_batch_route(request: web.BaseRequest):
+    """Request handler for issuing a batch of credentials.
+
+    Args:
+        request: aiohttp request object
+
+    """
+    body = await request.json()
+    context: AdminRequestContext = request["context"]
+    manager = VcLdpManager(context.profile)
+    try:
+        credentials = body["credentials"]
+        options = {} if "options" not in body else body["options"]
+        if not isinstance(credentials, list) or not credentials:
+            raise VcLdpManagerError("Expected a list of credentials")
+
+        # We derive the proofType from the first issuer DID if not provided
+        if not options.get("proofType", None):
+            await _set_issuer_proof_type(context, credentials[0], options)
+
+        options = LDProofVCOptions.deserialize(options)
+
+        valid, invalid = [], []
+        for index, credential in enumerate(credentials):
+            try:
+                valid.append((index, VerifiableCredential.deserialize(credential)))
+            except ValidationError as err:
+                invalid.append({"index": index, "error": str(err)})
+        # the options are checked here, before the response is started
+        issued = manager.issue_many([credential for _, credential in valid], options)
+    except (
+        KeyError,
+        ValidationError,
+        VcLdpManagerError,
+        WalletError,
+        InjectionError,
+    ) as err:
+        return web.json_response({"message": str(err)}, status=400)
+
+    async def results():
+        for result in invalid:
+            yield result
+        async for index, result in issued:
+            index = valid[index][0]
+            if isinstance(result, Exception):
+                yield {"index": index, "error": str(result)}
+            else:
+                yield {"index": index, "verifiableCredential": result.serialize()}
+
+    return await stream_ndjson(request, results())
+
+
+async def _set_issuer_proof_type(
+    context: AdminRequestContext, credential: dict, options: dict
+):
+    """Set the proof type matching the key type of the issuer DID."""
+    issuer = credential["issuer"]
+    did = issuer if isinstance(issuer, str) else issuer["id"]
+    async with context.session() as session:
+        wallet: BaseWallet | None = session.inject_or(BaseWallet)
+        info = await wallet.get_local_did(did)
+        key_type = info.key_type.key_type
+
+    if key_type == "ed25519":
+        options["proofType"] = "Ed25519Signature2020"
+    elif key_type == "bls12381g2":
+        options["proofType"] = "BbsBlsSignature2020"
+    elif key_type == "p256":
+        options["proofType"] = "EcdsaSecp256r1Signature2019"
+
+
 @docs(tags=["vc-api"], summary="Verify a credential")
 @request_schema(web_schemas.VerifyCredentialRequest())
 @response_schema(web_schemas.VerifyCredentialResponse(), 200, description="")
@@ -267,6 +339,7 @@ async def register(app: web.Application):
                 allow_head=False,
             ),
             web.post("/vc/credentials/issue", issue_credential_route),
+            web.post("/vc/credentials/issue-batch", issue_credential_batch_route),
             web.post("/vc/credentials/store", store_credential_route),
             web.post("/vc/credentials/verify", verify_credential_route),
             web.post("/vc/presentations/prove", prove_presentation_route),
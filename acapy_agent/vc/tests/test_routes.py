@@ -185,3 +185,23 @@ class TestVCRoutes(IsolatedAsyncioTestCase):
             mock_mgr.store_credential.assert_called_once()
 
             assert result.status == 200
+
+    async def test_issue_credential_batch_invalid_purpose(self):
+        """Test that invalid options are refused before streaming the results."""
+        self.request.json = mock.CoroutineMock(
+            return_value={
+                "credentials": [self.sample_credential],
+                "options": {
+                    "proofType": "Ed25519Signature2018",
+                    "proofPurpose": "authentication",
+                },
+            }
+        )
+
+        with mock.patch.object(
+            test_module, "stream_ndjson", mock.CoroutineMock()
+        ) as mock_stream:
+            result = await test_module.issue_credential_batch_route(self.request)
+
+            mock_stream.assert_not_called()
+            assert result.status == 400
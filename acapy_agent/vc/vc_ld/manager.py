@@ -1,7 +1,18 @@
 """Manager for performing Linked Data Proof signatures over JSON-LD formatted W3C VCs."""
 
+import asyncio
 from datetime import datetime, timezone
-from typing import Dict, List, Optional, Type, Union, cast
+from typing import (
+    AsyncIterator,
+    Dict,
+    List,
+    Optional,
+    Sequence,
+    Tuple,
+    Type,
+    Union,
+    cast,
+)
 
 from pyld import jsonld
 from pyld.jsonld import JsonLdProcessor
@@ -14,6 +25,7 @@ from acapy_agent.wallet.keys.manager import MultikeyManager, multikey_to_verkey
 from ...core.profile import Profile
 from ...storage.vc_holder.base import VCHolder
 from ...storage.vc_holder.vc_record import VCRecord
+from ...utils.batch import map_bounded
 from ...wallet.base import BaseWallet
 from ...wallet.default_verification_key_strategy import BaseVerificationKeyStrategy
 from ...wallet.did_info import DIDInfo
@@ -96,6 +108,9 @@ KEY_TYPE_SIGNATURE_TYPE_MAPPING = {
 }
 
 
+DEFAULT_BATCH_CONCURRENCY = 8
+
+
 class VcLdpManagerError(Exception):
     """Generic VcLdpManager Error."""
 
@@ -383,6 +398,77 @@ class VcLdpManager:
         )
         return VerifiableCredential.deserialize(vc)
 
+    def issue_many(
+        self,
+        credentials: Sequence[VerifiableCredential],
+        options: LDProofVCOptions,
+        *,
+        concurrency: int = DEFAULT_BATCH_CONCURRENCY,
+    ) -> AsyncIterator[Tuple[int, Union[VerifiableCredential, Exception]]]:
+        """Sign several VCs with the same options, yielding them as they are signed.
+
+        The options are checked when this is called, before any credential is
+        signed. The signature suite of each issuer is only looked up once, and
+        up to `concurrency` credentials are signed at a time. Results are
+        produced as the consumer reads them, so they do not accumulate in memory.
+
+        Args:
+            credentials: The credentials to sign
+            options: The options to sign every credential with
+            concurrency: The maximum number of credentials to sign at a time
+
+        Returns:
+            An iterator of the index of each credential with the signed
+            credential, or the error which prevented signing it
+
+        Raises:
+            VcLdpManagerError: If the proof purpose of the options is invalid
+
+        """
+        proof_purpose = self._get_proof_purpose(
+            proof_purpose=options.proof_purpose,
+            challenge=options.challenge,
+            domain=options.domain,
+        )
+        document_loader = self.profile.inject(DocumentLoader)
+        return self._issue_many(
+            credentials, options, proof_purpose, document_loader, concurrency
+        )
+
+    async def _issue_many(
+        self,
+        credentials: Sequence[VerifiableCredential],
+        options: LDProofVCOptions,
+        proof_purpose: ProofPurpose,
+        document_loader: DocumentLoader,
+        concurrency: int,
+    ) -> AsyncIterator[Tuple[int, Union[VerifiableCredential, Exception]]]:
+        """Sign several VCs once the proof purpose and loader are resolved."""
+        suites: Dict[str, asyncio.Future] = {}
+
+        async def issue_one(credential: VerifiableCredential) -> VerifiableCredential:
+            credential = await self.prepare_credential(credential, options)
+            issuer_id = credential.issuer_id
+            if issuer_id not in suites:
+                suites[issuer_id] = asyncio.ensure_future(
+                    self._get_suite_for_document(credential, options)
+                )
+            suite = await asyncio.shield(suites[issuer_id])
+            vc = await ldp_issue(
+                credential=credential.serialize(),
+                suite=suite,
+                document_loader=document_loader,
+                purpose=proof_purpose,
+            )
+            return VerifiableCredential.deserialize(vc)
+
+        try:
+            async for index, result in map_bounded(issue_one, credentials, concurrency):
+                yield index, result
+        finally:
+            for suite in suites.values():
+                suite.cancel()
+
     async def store_credential(
         self,
         vc: VerifiableCredential,
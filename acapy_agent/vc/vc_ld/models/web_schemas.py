@@ -34,6 +34,25 @@ class IssueCredentialResponse(OpenAPISchema):
     verifiableCredential = fields.Nested(VerifiableCredentialSchema)
 
 
+class IssueCredentialBatchRequest(OpenAPISchema):
+    """Request schema for issuing a batch of credentials."""
+
+    credentials = fields.List(fields.Nested(CredentialSchema), required=True)
+    options = fields.Nested(LDProofVCOptionsSchema)
+
+
+class IssueCredentialBatchResult(OpenAPISchema):
+    """Schema for each line of the result of issuing a batch of credentials."""
+
+    index = fields.Int(
+        metadata={"description": "Position of the credential in the request"}
+    )
+    verifiableCredential = fields.Nested(VerifiableCredentialSchema)
+    error = fields.Str(
+        metadata={"description": "Error, if the credential was not issued"}
+    )
+
+
 class VerifyCredentialRequest(OpenAPISchema):
     """Request schema for verifying a credential."""
 
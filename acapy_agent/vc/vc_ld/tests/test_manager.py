@@ -237,6 +237,46 @@ class TestVcLdManager(IsolatedAsyncioTestCase):
         cred = await self.manager.issue(self.vc, self.options)
         assert cred
 
+    @skip_on_jsonld_url_error
+    async def test_issue_many(self):
+        async with self.profile.session() as session:
+            wallet = session.inject(BaseWallet)
+            did = await wallet.create_local_did(
+                method=KEY,
+                key_type=ED25519,
+            )
+        credentials = []
+        for idx in range(3):
+            credential = VerifiableCredential.deserialize(VC["credential"])
+            credential.issuer = did.did
+            credential.credential_subject = {"test": f"key {idx}"}
+            credentials.append(credential)
+        unknown = VerifiableCredential.deserialize(VC["credential"])
+        unknown.issuer = TEST_DID_SOV
+        credentials.append(unknown)
+        self.options.proof_type = Ed25519Signature2018.signature_type
+
+        with mock.patch.object(
+            self.manager,
+            "_get_suite_for_document",
+            wraps=self.manager._get_suite_for_document,
+        ) as get_suite:
+            results = dict(
+                [
+                    result
+                    async for result in self.manager.issue_many(
+                        credentials, self.options, concurrency=2
+                    )
+                ]
+            )
+            assert get_suite.call_count == 2
+
+        assert sorted(results) == [0, 1, 2, 3]
+        for idx in range(3):
+            assert results[idx].proof
+            assert results[idx].credential_subject == {"test": f"key {idx}"}
+        assert isinstance(results[3], Exception)
+
     @pytest.mark.ursa_bbs_signatures
     @skip_on_jsonld_url_error
     async def test_issue_bbs(self):
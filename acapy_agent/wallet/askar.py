@@ -7,13 +7,14 @@ from typing import List, Optional, Sequence, Tuple, Union, cast
 
 from aries_askar import AskarError, AskarErrorCode, Entry, Key, KeyAlg, SeedMethod
 
-from ..askar.didcomm.v1 import pack_message, unpack_message
+from ..askar.didcomm.v1 import pack_message, unpack_messages
 from ..askar.profile import AskarProfileSession
 from ..ledger.base import BaseLedger
 from ..ledger.endpoint_type import EndpointType
 from ..ledger.error import LedgerConfigError
 from ..storage.askar import AskarStorage
 from ..storage.base import StorageDuplicateError, StorageNotFoundError, StorageRecord
+from ..utils.worker_pool import WorkerPool
 from .base import BaseWallet, DIDInfo, KeyInfo
 from .crypto import sign_message, validate_seed, verify_signed_message
 from .did_info import INVITATION_REUSE_KEY
@@ -905,12 +906,50 @@ class AskarWallet(BaseWallet):
                 from_key = from_key_entry.key
             else:
                 from_key = None
-            return await asyncio.get_event_loop().run_in_executor(
-                None, pack_message, to_verkeys, from_key, message
-            )
+            return await self._run_crypto(pack_message, to_verkeys, from_key, message)
+        except AskarError as err:
+            raise WalletError("Exception when packing message") from err
+
+    async def pack_messages(
+        self, items: Sequence[Tuple[str, Sequence[str], Optional[str]]]
+    ) -> List[Union[bytes, WalletError]]:
+        """Pack a batch of messages.
+
+        Each sender key is fetched once for the batch, and the messages are
+        packed concurrently in the crypto worker pool.
+
+        Args:
+            items: A sequence of (message, to_verkeys, from_verkey) tuples
+
+        Returns:
+            A list with, for each item, either the packed message or the error
+            raised while packing it
+
+        """
+        sender_keys = {}
+        try:
+            for _, _, from_verkey in items:
+                if from_verkey and from_verkey not in sender_keys:
+                    entry = await self._session.handle.fetch_key(from_verkey)
+                    sender_keys[from_verkey] = entry.key if entry else None
         except AskarError as err:
             raise WalletError("Exception when packing message") from err
 
+        async def pack(message, to_verkeys, from_verkey) -> bytes:
+            if message is None:
+                raise WalletError("Message not provided")
+            from_key = sender_keys.get(from_verkey) if from_verkey else None
+            if from_verkey and not from_key:
+                raise WalletNotFoundError("Missing key for pack operation")
+            try:
+                return await self._run_crypto(pack_message, to_verkeys, from_key, message)
+            except AskarError as err:
+                raise WalletError("Exception when packing message") from err
+
+        return await asyncio.gather(
+            *(pack(*item) for item in items), return_exceptions=True
+        )
+
     async def unpack_message(self, enc_message: bytes) -> Tuple[str, str, str]:
         """Unpack a message.
 
@@ -927,15 +966,57 @@ class AskarWallet(BaseWallet):
         """
         if not enc_message:
             raise WalletError("Message not provided")
+        (result,) = await self.unpack_messages([enc_message])
+        if isinstance(result, Exception):
+            raise result
+        return result
+
+    async def unpack_messages(
+        self, enc_messages: Sequence[bytes]
+    ) -> List[Union[Tuple[str, str, str], WalletError]]:
+        """Unpack a batch of messages.
+
+        Each recipient key is fetched once for the batch, and the messages are
+        decrypted concurrently in the crypto worker pool.
+
+        Args:
+            enc_messages: The encrypted messages
+
+        Returns:
+            A list with, for each message, either a (message, from_verkey,
+            to_verkey) tuple or the error raised while unpacking it
+
+        """
         try:
-            (
-                unpacked_json,
-                recipient,
-                sender,
-            ) = await unpack_message(self._session.handle, enc_message)
+            unpacked = await unpack_messages(
+                self._session.handle,
+                enc_messages,
+                self._session.inject_or(WorkerPool),
+            )
         except AskarError as err:
             raise WalletError("Exception when unpacking message") from err
-        return unpacked_json.decode("utf-8"), sender, recipient
+
+        results = []
+        for enc_message, result in zip(enc_messages, unpacked):
+            if not enc_message:
+                results.append(WalletError("Message not provided"))
+            elif isinstance(result, AskarError):
+                error = WalletError("Exception when unpacking message")
+                error.__cause__ = result
+                results.append(error)
+            elif isinstance(result, Exception):
+                results.append(result)
+            else:
+                unpacked_json, recipient, sender = result
+                results.append((unpacked_json.decode("utf-8"), sender, recipient))
+        return results
+
+    async def _run_crypto(self, fn, *args):
+        """Run a CPU-bound crypto operation off the event loop."""
+        pool = self._session.inject_or(WorkerPool)
+        if pool:
+            return await pool.run(fn, *args)
+        return await asyncio.get_running_loop().run_in_executor(None, fn, *args)
 
     def _load_did_entry(self, entry: Entry) -> DIDInfo:
         """Convert a DID record into the expected DIDInfo format."""
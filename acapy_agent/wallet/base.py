@@ -394,6 +394,48 @@ class BaseWallet(ABC):
 
         """
 
+    async def pack_messages(
+        self, items: Sequence[Tuple[str, Sequence[str], Optional[str]]]
+    ) -> List[Union[bytes, WalletError]]:
+        """Pack a batch of messages.
+
+        Args:
+            items: A sequence of (message, to_verkeys, from_verkey) tuples
+
+        Returns:
+            A list with, for each item, either the packed message or the error
+            raised while packing it
+
+        """
+        results = []
+        for message, to_verkeys, from_verkey in items:
+            try:
+                results.append(await self.pack_message(message, to_verkeys, from_verkey))
+            except WalletError as err:
+                results.append(err)
+        return results
+
+    async def unpack_messages(
+        self, enc_messages: Sequence[bytes]
+    ) -> List[Union[Tuple[str, str, str], WalletError]]:
+        """Unpack a batch of messages.
+
+        Args:
+            enc_messages: The encrypted messages
+
+        Returns:
+            A list with, for each message, either a (message, from_verkey,
+            to_verkey) tuple or the error raised while unpacking it
+
+        """
+        results = []
+        for enc_message in enc_messages:
+            try:
+                results.append(await self.unpack_message(enc_message))
+            except WalletError as err:
+                results.append(err)
+        return results
+
     def __repr__(self) -> str:
         """Get a human readable string."""
         return "<{}>".format(self.__class__.__name__)
@@ -0,0 +1,113 @@
+#!/usr/bin/env python3
+"""Microbenchmark for DIDComm v1 packing with the Askar backend.
+
+Compares `acapy_agent.askar.didcomm.v1.pack_message` with the previous
+implementation, which converted every recipient key for each message and built
+the JWE through `JweEnvelope`. Run from the repository root:
+
+    python scripts/bench_didcomm_v1.py [--recipients N] [--messages N]
+"""
+
+import argparse
+import os
+import sys
+import timeit
+from collections import OrderedDict
+
+sys.path.insert(0, os.path.join(os.path.dirname(__file__), ".."))
+
+from aries_askar import Key, KeyAlg, crypto_box  # noqa: E402
+from aries_askar.bindings import key_get_secret_bytes  # noqa: E402
+
+from acapy_agent.askar.didcomm import v1  # noqa: E402
+from acapy_agent.utils.jwe import JweEnvelope, JweRecipient, b64url  # noqa: E402
+from acapy_agent.wallet.util import b58_to_bytes, bytes_to_b58  # noqa: E402
+
+
+def pack_message_previous(to_verkeys, from_key, message: bytes) -> bytes:
+    """Pack a message as before the key cache and direct JWE serialization."""
+    wrapper = JweEnvelope(with_protected_recipients=True, with_flatten_recipients=False)
+    cek = Key.generate(KeyAlg.C20P)
+    cek_b = key_get_secret_bytes(cek._handle)
+    sender_vk = (
+        bytes_to_b58(from_key.get_public_bytes()).encode("utf-8") if from_key else None
+    )
+    sender_xk = from_key.convert_key(KeyAlg.X25519) if from_key else None
+    for target_vk in to_verkeys:
+        target_xk = Key.from_public_bytes(
+            KeyAlg.ED25519, b58_to_bytes(target_vk)
+        ).convert_key(KeyAlg.X25519)
+        if sender_vk:
+            enc_sender = crypto_box.crypto_box_seal(target_xk, sender_vk)
+            nonce = crypto_box.random_nonce()
+            enc_cek = crypto_box.crypto_box(target_xk, sender_xk, cek_b, nonce)
+            wrapper.add_recipient(
+                JweRecipient(
+                    encrypted_key=enc_cek,
+                    header=OrderedDict(
+                        [
+                            ("kid", target_vk),
+                            ("sender", b64url(enc_sender)),
+                            ("iv", b64url(nonce)),
+                        ]
+                    ),
+                )
+            )
+        else:
+            enc_cek = crypto_box.crypto_box_seal(target_xk, cek_b)
+            wrapper.add_recipient(
+                JweRecipient(encrypted_key=enc_cek, header={"kid": target_vk})
+            )
+    wrapper.set_protected(
+        OrderedDict(
+            [
+                ("enc", "xchacha20poly1305_ietf"),
+                ("typ", "JWM/1.0"),
+                ("alg", "Authcrypt" if from_key else "Anoncrypt"),
+            ]
+        ),
+    )
+    enc = cek.aead_encrypt(message, aad=wrapper.protected_bytes)
+    ciphertext, tag, nonce = enc.parts
+    wrapper.set_payload(ciphertext, nonce, tag)
+    return wrapper.to_json().encode("utf-8")
+
+
+def main():
+    """Run the benchmark."""
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    parser.add_argument("--recipients", type=int, default=3)
+    parser.add_argument("--messages", type=int, default=5000)
+    parser.add_argument("--size", type=int, default=1024, help="message bytes")
+    args = parser.parse_args()
+
+    sender = Key.generate(KeyAlg.ED25519)
+    recipients = [
+        bytes_to_b58(Key.generate(KeyAlg.ED25519).get_public_bytes())
+        for _ in range(args.recipients)
+    ]
+    message = os.urandom(args.size)
+
+    for label, from_key in (("anoncrypt", None), ("authcrypt", sender)):
+        results = {}
+        for name, fn in (
+            ("previous", pack_message_previous),
+            ("current", v1.pack_message),
+        ):
+            seconds = min(
+                timeit.repeat(
+                    lambda fn=fn, from_key=from_key: fn(recipients, from_key, message),
+                    number=args.messages,
+                    repeat=3,
+                )
+            )
+            results[name] = seconds
+            print(
+                f"{label:10} {name:9} {args.messages / seconds:10.0f} msg/s "
+                f"({seconds / args.messages * 1e6:.1f} us/msg)"
+            )
+        print(f"{label:10} speedup   {results['previous'] / results['current']:.2f}x")
+
+
+if __name__ == "__main__":
+    main()
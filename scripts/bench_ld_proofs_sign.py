@@ -0,0 +1,107 @@
+#!/usr/bin/env python3
+"""Benchmark for signing JSON-LD credentials with Ed25519Signature2018.
+
+Compares the `DocumentLoader` with its in-memory context and context check
+caches disabled, as before they were added, with the default configuration.
+Credentials are created from a single template, as when issuing in bulk. Run
+from the repository root:
+
+    python scripts/bench_ld_proofs_sign.py [--credentials N]
+"""
+
+import argparse
+import asyncio
+import os
+import sys
+import time
+from copy import deepcopy
+
+sys.path.insert(0, os.path.join(os.path.dirname(__file__), ".."))
+
+from acapy_agent.did.did_key import DIDKey  # noqa: E402
+from acapy_agent.resolver.default.key import KeyDIDResolver  # noqa: E402
+from acapy_agent.resolver.did_resolver import DIDResolver  # noqa: E402
+from acapy_agent.utils.testing import create_test_profile  # noqa: E402
+from acapy_agent.vc.ld_proofs import (  # noqa: E402
+    AssertionProofPurpose,
+    DocumentLoader,
+    Ed25519Signature2018,
+    WalletKeyPair,
+    sign,
+)
+from acapy_agent.wallet.base import BaseWallet  # noqa: E402
+from acapy_agent.wallet.key_type import ED25519  # noqa: E402
+
+TEMPLATE = {
+    "@context": [
+        "https://www.w3.org/2018/credentials/v1",
+        "https://w3id.org/citizenship/v1",
+    ],
+    "type": ["VerifiableCredential", "PermanentResidentCard"],
+    "issuanceDate": "2019-12-03T12:19:52Z",
+    "credentialSubject": {
+        "type": ["PermanentResident", "Person"],
+        "givenName": "JOHN",
+        "familyName": "SMITH",
+        "gender": "Male",
+    },
+}
+
+
+async def sign_credentials(profile, verification_method, verkey, loader, count):
+    """Sign `count` credentials and return the elapsed time."""
+    suite = Ed25519Signature2018(
+        verification_method=verification_method,
+        key_pair=WalletKeyPair(
+            profile=profile, key_type=ED25519, public_key_base58=verkey
+        ),
+    )
+    start = time.perf_counter()
+    for idx in range(count):
+        credential = deepcopy(TEMPLATE)
+        credential["issuer"] = verification_method.split("#")[0]
+        credential["credentialSubject"]["givenName"] = f"JOHN {idx}"
+        await sign(
+            document=credential,
+            suite=suite,
+            purpose=AssertionProofPurpose(),
+            document_loader=loader,
+        )
+    return time.perf_counter() - start
+
+
+async def run(args):
+    """Run the benchmark."""
+    profile = await create_test_profile()
+    profile.context.injector.bind_instance(DIDResolver, DIDResolver([KeyDIDResolver()]))
+    async with profile.session() as session:
+        key_info = await session.inject(BaseWallet).create_signing_key(ED25519)
+    verification_method = DIDKey.from_public_key_b58(key_info.verkey, ED25519).key_id
+
+    results = {}
+    for name, loader in (
+        ("previous", DocumentLoader(profile, context_cache_size=0, check_cache_size=0)),
+        ("current", DocumentLoader(profile)),
+    ):
+        # warm up
+        await sign_credentials(profile, verification_method, key_info.verkey, loader, 5)
+        seconds = await sign_credentials(
+            profile, verification_method, key_info.verkey, loader, args.credentials
+        )
+        results[name] = seconds
+        print(
+            f"{name:9} {args.credentials / seconds:8.1f} credentials/s "
+            f"({seconds / args.credentials * 1e3:.1f} ms/credential)"
+        )
+    print(f"speedup   {results['previous'] / results['current']:.2f}x")
+
+
+def main():
+    """Parse arguments and run the benchmark."""
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    parser.add_argument("--credentials", type=int, default=200)
+    asyncio.run(run(parser.parse_args()))
+
+
+if __name__ == "__main__":
+    main()